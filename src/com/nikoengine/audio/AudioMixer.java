@@ -0,0 +1,363 @@
+package com.nikoengine.audio;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Mixes sounds to a single audio line on its own thread.
+ *
+ * <p>
+ * The mixer has a fixed amount of voices. Every played sound takes one voice
+ * until it ends. When all the voices are playing, a new sound replaces the
+ * oldest sound with the lowest priority, if that priority is not higher than
+ * the new sounds priority. Otherwise the new sound is not played.
+ *
+ * <p>
+ * The buffer size determines the latency of the mixer. Smaller buffers
+ * start the sounds sooner but need the audio thread to run more often.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class AudioMixer implements Runnable {
+
+    /**
+     * Defines the format of the mixed audio: 44100 Hz, 16 bit stereo.
+     */
+    public static final AudioFormat FORMAT
+            = new AudioFormat(44100f, 16, 2, true, false);
+
+    /**
+     * Defines the default amount of voices.
+     */
+    public static final int DEFAULT_VOICES = 16;
+
+    /**
+     * Defines the default buffer size in frames, about 12 milliseconds.
+     */
+    public static final int DEFAULT_BUFFER_FRAMES = 512;
+
+    /**
+     * Holds all the voices.
+     */
+    private final Voice[] voices;
+
+    /**
+     * Holds the size of one mixed buffer in frames.
+     */
+    private final int bufferFrames;
+
+    /**
+     * Holds play and stop requests from other threads.
+     */
+    private final ConcurrentLinkedQueue<Voice> requests
+            = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Gives every played sound its own id.
+     */
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    /**
+     * Holds the mixing thread.
+     */
+    private Thread audioThread;
+
+    /**
+     * Holds the audio line.
+     */
+    private SourceDataLine line;
+
+    /**
+     * Tells if the mixer is running or not.
+     */
+    private volatile boolean isRunning = false;
+
+    /**
+     * Holds the master volume.
+     */
+    private volatile float masterVolume = 1f;
+
+    /**
+     * Counts the started sounds for finding the oldest voice.
+     */
+    private long playCounter = 0;
+
+    /**
+     * Holds the state of one playing sound.
+     *
+     * <p>
+     * Is also used as a play or stop request from other threads.
+     *
+     * @author Niko Mustonen mustonen.niko@gmail.com
+     * @version 2026.1019
+     * @since 1.8
+     */
+    private static class Voice {
+
+        /**
+         * Holds the playing sound or null if voice is free.
+         */
+        SoundBuffer sound;
+
+        /**
+         * Holds the id of the played sound.
+         */
+        int id;
+
+        /**
+         * Holds the volume as a fixed point value where 256 is full volume.
+         */
+        int volume;
+
+        /**
+         * Holds the priority of the sound.
+         */
+        int priority;
+
+        /**
+         * Holds the next sample to be mixed.
+         */
+        int position;
+
+        /**
+         * Holds the starting order of the sound.
+         */
+        long order;
+    }
+
+    /**
+     * Creates a mixer with the default voices and buffer size.
+     */
+    public AudioMixer() {
+        this(DEFAULT_VOICES, DEFAULT_BUFFER_FRAMES);
+    }
+
+    /**
+     * Creates a mixer.
+     *
+     * @param voiceAmount Amount of sounds which can play at the same time.
+     * @param bufferFrames Size of one mixed buffer in frames.
+     */
+    public AudioMixer(int voiceAmount, int bufferFrames) {
+
+        this.bufferFrames = bufferFrames;
+        voices = new Voice[voiceAmount];
+
+        for (int i = 0; i < voiceAmount; i++) {
+            voices[i] = new Voice();
+        }
+    }
+
+    /**
+     * Opens the audio line and starts the mixing thread.
+     *
+     * @throws LineUnavailableException If there is no audio line available.
+     */
+    public void start() throws LineUnavailableException {
+
+        if (isRunning) {
+            return;
+        }
+
+        line = AudioSystem.getSourceDataLine(FORMAT);
+        line.open(FORMAT, bufferFrames * FORMAT.getFrameSize() * 2);
+        line.start();
+
+        isRunning = true;
+        audioThread = new Thread(this, "AudioMixer");
+        audioThread.setDaemon(true);
+        audioThread.setPriority(Thread.MAX_PRIORITY);
+        audioThread.start();
+    }
+
+    /**
+     * Stops the mixing thread and closes the audio line.
+     */
+    public void stop() {
+
+        if (!isRunning) {
+            return;
+        }
+
+        isRunning = false;
+
+        try {
+            audioThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        line.close();
+    }
+
+    /**
+     * Plays a sound.
+     *
+     * @param sound Sound to be played.
+     * @param volume Volume between 0 and 1.
+     * @param priority Priority of the sound. Higher priority sounds replace
+     * lower priority sounds when all the voices are playing.
+     * @return Id of the played sound.
+     */
+    public int play(SoundBuffer sound, float volume, int priority) {
+
+        Voice request = new Voice();
+        request.sound = sound;
+        request.id = nextId.incrementAndGet();
+        request.volume = (int) (Math.max(0f, Math.min(1f, volume)) * 256);
+        request.priority = priority;
+        requests.add(request);
+
+        return request.id;
+    }
+
+    /**
+     * Stops a playing sound.
+     *
+     * @param id Id of the played sound.
+     */
+    public void stop(int id) {
+
+        Voice request = new Voice();
+        request.id = id;
+        requests.add(request);
+    }
+
+    /**
+     * Sets the volume of all the sounds.
+     *
+     * @param volume Volume between 0 and 1.
+     */
+    public void setMasterVolume(float volume) {
+        this.masterVolume = Math.max(0f, Math.min(1f, volume));
+    }
+
+    @Override
+    public void run() {
+
+        int[] mix = new int[bufferFrames * 2];
+        byte[] out = new byte[bufferFrames * FORMAT.getFrameSize()];
+
+        while (isRunning) {
+            handleRequests();
+            mix(mix);
+
+            int master = (int) (masterVolume * 256);
+
+            for (int i = 0; i < mix.length; i++) {
+                int sample = (mix[i] >> 8) * master >> 8;
+
+                if (sample > Short.MAX_VALUE) {
+                    sample = Short.MAX_VALUE;
+                } else if (sample < Short.MIN_VALUE) {
+                    sample = Short.MIN_VALUE;
+                }
+
+                out[i * 2] = (byte) sample;
+                out[i * 2 + 1] = (byte) (sample >> 8);
+            }
+
+            line.write(out, 0, out.length);
+        }
+
+        line.drain();
+    }
+
+    /**
+     * Starts and stops the requested sounds on the mixing thread.
+     */
+    private void handleRequests() {
+
+        Voice request;
+
+        while ((request = requests.poll()) != null) {
+
+            if (request.sound == null) {
+
+                for (Voice voice : voices) {
+
+                    if (voice.id == request.id) {
+                        voice.sound = null;
+                    }
+                }
+            } else {
+                Voice voice = findVoice(request.priority);
+
+                if (voice != null) {
+                    voice.sound = request.sound;
+                    voice.id = request.id;
+                    voice.volume = request.volume;
+                    voice.priority = request.priority;
+                    voice.position = 0;
+                    voice.order = playCounter++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds a free voice or the voice to be replaced.
+     *
+     * @param priority Priority of the new sound.
+     * @return Voice or null if all the voices play more important sounds.
+     */
+    private Voice findVoice(int priority) {
+
+        Voice candidate = null;
+
+        for (Voice voice : voices) {
+
+            if (voice.sound == null) {
+                return voice;
+            }
+
+            if (voice.priority <= priority && (candidate == null
+                    || voice.priority < candidate.priority
+                    || voice.priority == candidate.priority
+                    && voice.order < candidate.order)) {
+
+                candidate = voice;
+            }
+        }
+
+        return candidate;
+    }
+
+    /**
+     * Mixes one buffer from all the playing voices.
+     *
+     * @param mix Mixed left and right samples scaled by 256.
+     */
+    private void mix(int[] mix) {
+
+        Arrays.fill(mix, 0);
+
+        for (Voice voice : voices) {
+
+            if (voice.sound == null) {
+                continue;
+            }
+
+            short[] samples = voice.sound.samples;
+            int length = Math.min(mix.length, samples.length - voice.position);
+            int volume = voice.volume;
+
+            for (int i = 0; i < length; i++) {
+                mix[i] += samples[voice.position + i] * volume;
+            }
+
+            voice.position += length;
+
+            if (voice.position >= samples.length) {
+                voice.sound = null;
+            }
+        }
+    }
+}
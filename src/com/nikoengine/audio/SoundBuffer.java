@@ -0,0 +1,144 @@
+package com.nikoengine.audio;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * Decoded sound which is ready to be mixed.
+ *
+ * <p>
+ * Sound files are decoded once to 16 bit stereo samples in the sample rate of
+ * the mixer, so playing a sound only reads the samples from memory.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class SoundBuffer {
+
+    /**
+     * Holds left and right samples one after another.
+     */
+    final short[] samples;
+
+    /**
+     * Creates a sound from samples.
+     *
+     * @param samples Left and right 16 bit samples one after another in the
+     * sample rate of the mixer.
+     */
+    public SoundBuffer(short[] samples) {
+        this.samples = samples;
+    }
+
+    /**
+     * Decodes a sound file.
+     *
+     * @param file Sound file.
+     * @return Decoded sound.
+     * @throws IOException If the file can not be read or decoded.
+     */
+    public static SoundBuffer load(File file) throws IOException {
+
+        try (AudioInputStream source = AudioSystem.getAudioInputStream(file)) {
+
+            AudioFormat sourceFormat = source.getFormat();
+            int channels = sourceFormat.getChannels();
+            AudioFormat pcm = new AudioFormat(sourceFormat.getSampleRate(),
+                    16, channels, true, false);
+
+            byte[] bytes;
+
+            try (AudioInputStream in = AudioSystem.getAudioInputStream(pcm,
+                    source)) {
+
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int read;
+
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+
+                bytes = out.toByteArray();
+            }
+
+            int frames = bytes.length / (2 * channels);
+            short[] stereo = new short[frames * 2];
+
+            for (int i = 0; i < frames; i++) {
+                int left = i * 2 * channels;
+                int right = channels > 1 ? left + 2 : left;
+
+                stereo[i * 2] = (short) ((bytes[left] & 0xFF)
+                        | bytes[left + 1] << 8);
+                stereo[i * 2 + 1] = (short) ((bytes[right] & 0xFF)
+                        | bytes[right + 1] << 8);
+            }
+
+            return new SoundBuffer(resample(stereo,
+                    sourceFormat.getSampleRate(),
+                    AudioMixer.FORMAT.getSampleRate()));
+        } catch (UnsupportedAudioFileException | IllegalArgumentException e) {
+            throw new IOException("Unsupported sound file: " + file, e);
+        }
+    }
+
+    /**
+     * Returns the length of the sound in frames.
+     *
+     * @return Amount of stereo frames.
+     */
+    public int getFrames() {
+        return samples.length / 2;
+    }
+
+    /**
+     * Returns the memory of the samples.
+     *
+     * @return Memory in bytes.
+     */
+    public long getMemory() {
+        return samples.length * 2L;
+    }
+
+    /**
+     * Changes the sample rate with linear interpolation.
+     *
+     * @param stereo Left and right samples one after another.
+     * @param from Original sample rate.
+     * @param to New sample rate.
+     * @return Resampled samples or the same array if the rates match.
+     */
+    private static short[] resample(short[] stereo, float from, float to) {
+
+        int frames = stereo.length / 2;
+
+        if (from == to || frames < 2) {
+            return stereo;
+        }
+
+        int newFrames = (int) ((long) frames * to / from);
+        short[] result = new short[newFrames * 2];
+        double step = from / (double) to;
+
+        for (int i = 0; i < newFrames; i++) {
+            double position = i * step;
+            int index = Math.min((int) position, frames - 2);
+            double t = position - index;
+
+            for (int c = 0; c < 2; c++) {
+                double a = stereo[index * 2 + c];
+                double b = stereo[(index + 1) * 2 + c];
+                result[i * 2 + c] = (short) (a + (b - a) * t);
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,751 @@
+package com.nikoengine.camera;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Binary space partitioning tree of the static faces of a scene.
+ *
+ * <p>
+ * Every node splits space with the plane of one face and holds the faces on
+ * that plane. Faces which cross the plane are split in two. Going through the
+ * tree from the side away from the camera gives the faces from the farthest
+ * to the nearest without sorting.
+ *
+ * <p>
+ * Empty regions of the tree are numbered as slots. Moving faces are put into
+ * the slot their center is in and drawn when the slot is reached, so they
+ * are drawn in the right order with the static faces around them.
+ *
+ * <p>
+ * Faces are lists of point indices. The tree is built on a copy of the point
+ * positions and points created by splitting are added after them.
+ *
+ * <p>
+ * Building and going through the tree use stacks of their own instead of
+ * recursion, so a deep tree of badly splitting faces does not overflow the
+ * thread stack.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+final class BspTree {
+
+    /**
+     * Holds the distance from a plane within which a point is on the plane.
+     */
+    private static final double EPSILON = 1e-6;
+
+    /**
+     * Holds the amount of faces tried as the splitting plane of a node.
+     */
+    private static final int CANDIDATES = 16;
+
+    /**
+     * Holds the positions of the points on the x-plane.
+     */
+    private double[] x;
+
+    /**
+     * Holds the positions of the points on the y-plane.
+     */
+    private double[] y;
+
+    /**
+     * Holds the positions of the points on the z-plane.
+     */
+    private double[] z;
+
+    /**
+     * Holds the amount of the points.
+     */
+    private int pointAmount;
+
+    /**
+     * Holds the index of the first point index of every face.
+     */
+    private int[] faceFirst;
+
+    /**
+     * Holds the index after the last point index of every face.
+     */
+    private int[] faceEnd;
+
+    /**
+     * Holds the point indices of the faces.
+     */
+    private int[] indices;
+
+    /**
+     * Holds the amount of the point indices.
+     */
+    private int indexAmount;
+
+    /**
+     * Holds the index of the polygon every face was made from.
+     */
+    private int[] facePolygon;
+
+    /**
+     * Holds the amount of the faces.
+     */
+    private int faceAmount;
+
+    /**
+     * Holds the planes of the nodes, four values for every node.
+     */
+    private double[] planes = new double[64];
+
+    /**
+     * Holds the front child of every node.
+     *
+     * <p>
+     * Children which are not negative are nodes and the complement of a
+     * negative child is a slot.
+     */
+    private int[] front = new int[16];
+
+    /**
+     * Holds the back child of every node.
+     */
+    private int[] back = new int[16];
+
+    /**
+     * Holds the index of the first face index of every node.
+     */
+    private int[] nodeFirstFace = new int[17];
+
+    /**
+     * Holds the faces of the nodes.
+     */
+    private int[] nodeFaces = new int[16];
+
+    /**
+     * Holds the amount of the nodes.
+     */
+    private int nodeAmount;
+
+    /**
+     * Holds the amount of the slots.
+     */
+    private int slotAmount;
+
+    /**
+     * Holds the root node or the complement of the only slot.
+     */
+    private final int root;
+
+    /**
+     * Holds the nodes on the path from the root when the order is listed.
+     */
+    private final int[] orderStack;
+
+    /**
+     * Builds a tree.
+     *
+     * @param x Positions of the points on the x-plane.
+     * @param y Positions of the points on the y-plane.
+     * @param z Positions of the points on the z-plane.
+     * @param pointAmount Amount of the points.
+     * @param first Index of the first point index of every face and the
+     * amount of indices at the end.
+     * @param indices Point indices of the faces.
+     * @param polygons Index of the polygon of every face.
+     * @param faceAmount Amount of the faces.
+     */
+    BspTree(double[] x, double[] y, double[] z, int pointAmount,
+            int[] first, int[] indices, int[] polygons, int faceAmount) {
+
+        this.x = Arrays.copyOf(x, pointAmount + 16);
+        this.y = Arrays.copyOf(y, pointAmount + 16);
+        this.z = Arrays.copyOf(z, pointAmount + 16);
+        this.pointAmount = pointAmount;
+        this.indices = Arrays.copyOf(indices,
+                first[faceAmount] + first[faceAmount] / 4 + 16);
+        this.indexAmount = first[faceAmount];
+        this.faceFirst = Arrays.copyOf(first, faceAmount + 16);
+        this.faceEnd = new int[faceAmount + 16];
+        this.facePolygon = Arrays.copyOf(polygons, faceAmount + 16);
+        this.faceAmount = faceAmount;
+
+        int[] all = new int[faceAmount];
+
+        for (int i = 0; i < faceAmount; i++) {
+            faceEnd[i] = first[i + 1];
+            all[i] = i;
+        }
+
+        root = build(all, faceAmount);
+        orderStack = new int[nodeAmount];
+    }
+
+    /**
+     * Returns the amount of the points including the points created by
+     * splitting.
+     *
+     * @return Amount of points.
+     */
+    int getPointAmount() {
+        return pointAmount;
+    }
+
+    /**
+     * Copies the points to the start of point arrays.
+     *
+     * <p>
+     * The given points come first and the points created by splitting after
+     * them.
+     *
+     * @param toX Positions on the x-plane.
+     * @param toY Positions on the y-plane.
+     * @param toZ Positions on the z-plane.
+     */
+    void getPoints(double[] toX, double[] toY, double[] toZ) {
+        System.arraycopy(x, 0, toX, 0, pointAmount);
+        System.arraycopy(y, 0, toY, 0, pointAmount);
+        System.arraycopy(z, 0, toZ, 0, pointAmount);
+    }
+
+    /**
+     * Returns the amount of the faces which are in the nodes.
+     *
+     * @return Amount of faces.
+     */
+    int getFaceAmount() {
+        return nodeFirstFace[nodeAmount];
+    }
+
+    /**
+     * Returns the amount of the slots.
+     *
+     * @return Amount of slots.
+     */
+    int getSlotAmount() {
+        return slotAmount;
+    }
+
+    /**
+     * Returns the faces of the nodes.
+     *
+     * <p>
+     * Faces are numbered in the order of this array from zero on.
+     *
+     * @return Array of face indices.
+     */
+    int[] getFaces() {
+        return nodeFaces;
+    }
+
+    /**
+     * Returns the index of the first point index of a face.
+     *
+     * @param face Face index in the tree.
+     * @return Index in the index array.
+     */
+    int getFirstIndex(int face) {
+        return faceFirst[face];
+    }
+
+    /**
+     * Returns the index after the last point index of a face.
+     *
+     * @param face Face index in the tree.
+     * @return Index in the index array.
+     */
+    int getEndIndex(int face) {
+        return faceEnd[face];
+    }
+
+    /**
+     * Returns the point indices of the faces.
+     *
+     * @return Index array.
+     */
+    int[] getIndices() {
+        return indices;
+    }
+
+    /**
+     * Returns the polygon a face was made from.
+     *
+     * @param face Face index in the tree.
+     * @return Polygon index.
+     */
+    int getPolygon(int face) {
+        return facePolygon[face];
+    }
+
+    /**
+     * Finds the slot where a point is.
+     *
+     * @param px Position on the x-plane.
+     * @param py Position on the y-plane.
+     * @param pz Position on the z-plane.
+     * @return Slot.
+     */
+    int locate(double px, double py, double pz) {
+
+        int child = root;
+
+        while (child >= 0) {
+            child = getSide(child, px, py, pz) >= 0 ? front[child]
+                    : back[child];
+        }
+
+        return ~child;
+    }
+
+    /**
+     * Lists the nodes and slots from the farthest to the nearest.
+     *
+     * <p>
+     * Nodes are listed as they are and slots as their complements. The array
+     * must have room for every node and slot.
+     *
+     * @param cx Position of the camera on the x-plane.
+     * @param cy Position of the camera on the y-plane.
+     * @param cz Position of the camera on the z-plane.
+     * @param order Array where the nodes and slots are written.
+     * @return Amount of written values.
+     */
+    int getOrder(double cx, double cy, double cz, int[] order) {
+
+        int amount = 0;
+        int depth = 0;
+        int child = root;
+
+        while (true) {
+
+            while (child >= 0) {
+                boolean isInFront = getSide(child, cx, cy, cz) >= 0;
+                orderStack[depth++] = isInFront ? child : ~child;
+                child = isInFront ? back[child] : front[child];
+            }
+
+            order[amount++] = child;
+
+            if (depth == 0) {
+                return amount;
+            }
+
+            int node = orderStack[--depth];
+
+            if (node >= 0) {
+                order[amount++] = node;
+                child = front[node];
+            } else {
+                order[amount++] = ~node;
+                child = back[~node];
+            }
+        }
+    }
+
+    /**
+     * Returns the amount of nodes and slots.
+     *
+     * @return Length of the order.
+     */
+    int getOrderLength() {
+        return nodeAmount + slotAmount;
+    }
+
+    /**
+     * Returns the index of the first face of a node in the faces.
+     *
+     * @param node Node.
+     * @return Index of the first face.
+     */
+    int getNodeFirstFace(int node) {
+        return nodeFirstFace[node];
+    }
+
+    /**
+     * Returns the signed distance of a point from the plane of a node.
+     *
+     * @param node Node.
+     * @param px Position on the x-plane.
+     * @param py Position on the y-plane.
+     * @param pz Position on the z-plane.
+     * @return Distance, positive in front of the plane.
+     */
+    private double getSide(int node, double px, double py, double pz) {
+
+        int p = node * 4;
+
+        return planes[p] * px + planes[p + 1] * py + planes[p + 2] * pz
+                + planes[p + 3];
+    }
+
+    /**
+     * Builds the tree which holds the given faces.
+     *
+     * <p>
+     * The parts in front of the nodes are built before the parts behind
+     * them, so the nodes and slots are numbered in the same order as they
+     * would be by recursion.
+     *
+     * @param faces Faces.
+     * @param amount Amount of the faces.
+     * @return Root node or complement of the only slot.
+     */
+    private int build(int[] faces, int amount) {
+
+        int[][] partFaces = {faces};
+        int[] partAmounts = {amount};
+        int[] partParents = {-1};
+        int parts = 1;
+        int top = 0;
+
+        while (parts > 0) {
+            parts--;
+            int[] part = partFaces[parts];
+            int partAmount = partAmounts[parts];
+            int parent = partParents[parts];
+            partFaces[parts] = null;
+            int child;
+
+            if (partAmount == 0) {
+                child = ~slotAmount++;
+            } else {
+                int splitter = chooseSplitter(part, partAmount);
+                double[] plane = splitter < 0 ? new double[4]
+                        : getPlane(splitter);
+                int[] frontFaces = new int[partAmount];
+                int[] backFaces = new int[partAmount];
+                int[] onFaces = new int[partAmount];
+                int frontAmount = 0;
+                int backAmount = 0;
+                int onAmount = 0;
+                HashMap<Long, Integer> edgePoints = new HashMap<>();
+
+                for (int i = 0; i < partAmount; i++) {
+                    int face = part[i];
+
+                    switch (face == splitter ? 0 : classify(face, plane)) {
+                        case 0:
+                            onFaces[onAmount++] = face;
+                            break;
+                        case 1:
+                            frontFaces[frontAmount++] = face;
+                            break;
+                        case -1:
+                            backFaces[backAmount++] = face;
+                            break;
+                        default:
+                            int[] pieces = split(face, plane, edgePoints);
+
+                            if (pieces[0] >= 0) {
+                                frontFaces[frontAmount++] = pieces[0];
+                            }
+
+                            if (pieces[1] >= 0) {
+                                backFaces[backAmount++] = pieces[1];
+                            }
+                    }
+                }
+
+                child = addNode(plane, onFaces, onAmount);
+
+                if (parts + 2 > partFaces.length) {
+                    partFaces = Arrays.copyOf(partFaces, parts * 2 + 2);
+                    partAmounts = Arrays.copyOf(partAmounts, parts * 2 + 2);
+                    partParents = Arrays.copyOf(partParents, parts * 2 + 2);
+                }
+
+                partFaces[parts] = backFaces;
+                partAmounts[parts] = backAmount;
+                partParents[parts++] = child << 1 | 1;
+                partFaces[parts] = frontFaces;
+                partAmounts[parts] = frontAmount;
+                partParents[parts++] = child << 1;
+            }
+
+            if (parent < 0) {
+                top = child;
+            } else if ((parent & 1) == 0) {
+                front[parent >>> 1] = child;
+            } else {
+                back[parent >>> 1] = child;
+            }
+        }
+
+        return top;
+    }
+
+    /**
+     * Chooses the face whose plane splits the fewest faces and divides them
+     * most evenly.
+     *
+     * @param faces Faces.
+     * @param amount Amount of the faces.
+     * @return Face or -1 if no face has area.
+     */
+    private int chooseSplitter(int[] faces, int amount) {
+
+        int best = -1;
+        int bestScore = Integer.MAX_VALUE;
+        int step = Math.max(1, amount / CANDIDATES);
+
+        for (int c = 0; c < amount; c += step) {
+            double[] plane = getPlane(faces[c]);
+
+            if (plane == null) {
+                continue;
+            }
+
+            int splits = 0;
+            int balance = 0;
+
+            for (int i = 0; i < amount; i++) {
+                int side = classify(faces[i], plane);
+
+                if (side == 2) {
+                    splits++;
+                } else {
+                    balance += side;
+                }
+            }
+
+            int score = splits * 8 + Math.abs(balance);
+
+            if (score < bestScore) {
+                bestScore = score;
+                best = faces[c];
+            }
+        }
+
+        for (int i = 0; best < 0 && i < amount; i++) {
+
+            if (getPlane(faces[i]) != null) {
+                best = faces[i];
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Calculates the plane of a face.
+     *
+     * @param face Face.
+     * @return Plane or null if the face has no area.
+     */
+    private double[] getPlane(int face) {
+
+        double nx = 0;
+        double ny = 0;
+        double nz = 0;
+        double mx = 0;
+        double my = 0;
+        double mz = 0;
+        int first = faceFirst[face];
+        int end = faceEnd[face];
+
+        for (int k = first; k < end; k++) {
+            int i = indices[k];
+            int j = indices[k + 1 < end ? k + 1 : first];
+            nx += (y[i] - y[j]) * (z[i] + z[j]);
+            ny += (z[i] - z[j]) * (x[i] + x[j]);
+            nz += (x[i] - x[j]) * (y[i] + y[j]);
+            mx += x[i];
+            my += y[i];
+            mz += z[i];
+        }
+
+        double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+
+        if (length < EPSILON) {
+            return null;
+        }
+
+        int n = end - first;
+        nx /= length;
+        ny /= length;
+        nz /= length;
+
+        return new double[]{nx, ny, nz, -(nx * mx + ny * my + nz * mz) / n};
+    }
+
+    /**
+     * Tells on which side of a plane a face is.
+     *
+     * @param face Face.
+     * @param plane Plane.
+     * @return 0 on the plane, 1 in front, -1 behind or 2 on both sides.
+     */
+    private int classify(int face, double[] plane) {
+
+        boolean isFront = false;
+        boolean isBack = false;
+
+        for (int k = faceFirst[face]; k < faceEnd[face]; k++) {
+            double d = getDistance(indices[k], plane);
+            isFront |= d > EPSILON;
+            isBack |= d < -EPSILON;
+        }
+
+        return isFront ? (isBack ? 2 : 1) : (isBack ? -1 : 0);
+    }
+
+    /**
+     * Returns the signed distance of a point from a plane.
+     *
+     * @param point Point.
+     * @param plane Plane.
+     * @return Distance, positive in front of the plane.
+     */
+    private double getDistance(int point, double[] plane) {
+        return plane[0] * x[point] + plane[1] * y[point] + plane[2] * z[point]
+                + plane[3];
+    }
+
+    /**
+     * Splits a face which crosses a plane.
+     *
+     * <p>
+     * Points created on an edge are shared by the faces which have the edge.
+     *
+     * @param face Face.
+     * @param plane Plane.
+     * @param edgePoints Points created on the edges for this plane.
+     * @return Front and back faces or -1 for a part without area.
+     */
+    private int[] split(int face, double[] plane,
+            HashMap<Long, Integer> edgePoints) {
+
+        int first = faceFirst[face];
+        int end = faceEnd[face];
+        int n = end - first;
+        int[] frontPoints = new int[n * 2];
+        int[] backPoints = new int[n * 2];
+        int frontAmount = 0;
+        int backAmount = 0;
+
+        for (int k = first; k < end; k++) {
+            int i = indices[k];
+            int j = indices[k + 1 < end ? k + 1 : first];
+            double di = getDistance(i, plane);
+            double dj = getDistance(j, plane);
+
+            if (di >= -EPSILON) {
+                frontPoints[frontAmount++] = i;
+            }
+
+            if (di <= EPSILON) {
+                backPoints[backAmount++] = i;
+            }
+
+            if (di > EPSILON && dj < -EPSILON
+                    || di < -EPSILON && dj > EPSILON) {
+
+                int point = getEdgePoint(i, j, di / (di - dj), edgePoints);
+                frontPoints[frontAmount++] = point;
+                backPoints[backAmount++] = point;
+            }
+        }
+
+        return new int[]{
+            addFace(frontPoints, frontAmount, facePolygon[face]),
+            addFace(backPoints, backAmount, facePolygon[face])};
+    }
+
+    /**
+     * Returns the point where a plane crosses an edge.
+     *
+     * @param i First point of the edge.
+     * @param j Second point of the edge.
+     * @param t Distance of the crossing from the first point as a part of
+     * the edge.
+     * @param edgePoints Points created on the edges for this plane.
+     * @return Point.
+     */
+    private int getEdgePoint(int i, int j, double t,
+            HashMap<Long, Integer> edgePoints) {
+
+        long key = (long) Math.min(i, j) << 32 | Math.max(i, j);
+        Integer point = edgePoints.get(key);
+
+        if (point != null) {
+            return point;
+        }
+
+        if (pointAmount == x.length) {
+            x = Arrays.copyOf(x, pointAmount * 2);
+            y = Arrays.copyOf(y, pointAmount * 2);
+            z = Arrays.copyOf(z, pointAmount * 2);
+        }
+
+        x[pointAmount] = x[i] + (x[j] - x[i]) * t;
+        y[pointAmount] = y[i] + (y[j] - y[i]) * t;
+        z[pointAmount] = z[i] + (z[j] - z[i]) * t;
+        edgePoints.put(key, pointAmount);
+
+        return pointAmount++;
+    }
+
+    /**
+     * Adds a face.
+     *
+     * @param points Points of the face.
+     * @param amount Amount of the points.
+     * @param polygon Polygon the face was made from.
+     * @return Face or -1 if it has less than three points.
+     */
+    private int addFace(int[] points, int amount, int polygon) {
+
+        if (amount < 3) {
+            return -1;
+        }
+
+        if (indexAmount + amount > indices.length) {
+            indices = Arrays.copyOf(indices,
+                    Math.max(indices.length * 2, indexAmount + amount));
+        }
+
+        if (faceAmount == faceFirst.length) {
+            faceFirst = Arrays.copyOf(faceFirst, faceAmount * 2);
+            faceEnd = Arrays.copyOf(faceEnd, faceAmount * 2);
+            facePolygon = Arrays.copyOf(facePolygon, faceAmount * 2);
+        }
+
+        System.arraycopy(points, 0, indices, indexAmount, amount);
+        faceFirst[faceAmount] = indexAmount;
+        faceEnd[faceAmount] = indexAmount + amount;
+        facePolygon[faceAmount] = polygon;
+        indexAmount += amount;
+
+        return faceAmount++;
+    }
+
+    /**
+     * Adds a node.
+     *
+     * @param plane Plane of the node.
+     * @param faces Faces on the plane.
+     * @param amount Amount of the faces.
+     * @return Node.
+     */
+    private int addNode(double[] plane, int[] faces, int amount) {
+
+        if (nodeAmount == front.length) {
+            planes = Arrays.copyOf(planes, nodeAmount * 8);
+            front = Arrays.copyOf(front, nodeAmount * 2);
+            back = Arrays.copyOf(back, nodeAmount * 2);
+            nodeFirstFace = Arrays.copyOf(nodeFirstFace, nodeAmount * 2 + 1);
+        }
+
+        int first = nodeFirstFace[nodeAmount];
+
+        if (first + amount > nodeFaces.length) {
+            nodeFaces = Arrays.copyOf(nodeFaces,
+                    Math.max(nodeFaces.length * 2, first + amount));
+        }
+
+        System.arraycopy(plane, 0, planes, nodeAmount * 4, 4);
+        System.arraycopy(faces, 0, nodeFaces, first, amount);
+        nodeFirstFace[nodeAmount + 1] = first + amount;
+
+        return nodeAmount++;
+    }
+}
@@ -1,415 +1,2505 @@
-package com.nikoengine.camera;
-
-import com.nikoengine.application.Application;
-import com.nikoengine.geometry.*;
-import java.awt.Graphics2D;
-import java.util.Arrays;
-
-/**
- * Class for creating a camera to view a 3D environment.
- *
- * @author Niko Mustonen mustonen.niko@gmail.com
- * @version 2016.1118
- * @since 1.8
- */
-public class Camera3D {
-
-    /**
-     * Holds all the polygons in the game.
-     */
-    public static Polygon3D[] polygons = new Polygon3D[10000];
-
-    /**
-     * Holds the value of the polygons in the game.
-     */
-    public static int polygonAmount = 0;
-
-    /**
-     * Controls the origin point of the camera.
-     */
-    private Point3D origin;
-
-    /**
-     * Controls cameras direction.
-     */
-    private Vector3D direction;
-
-    /**
-     * Controls cameras side direction.
-     */
-    private Vector3D right;
-
-    /**
-     * Controls cameras y directions.
-     */
-    private Vector3D up;
-
-    /**
-     * Holds view width.
-     */
-    private int screenWidth;
-
-    /**
-     * Holds view height.
-     */
-    private int screenHeight;
-
-    /**
-     * Holds the field of view for the camera.
-     */
-    private double fieldOfView;
-
-    /**
-     * Controls movement speed.
-     */
-    private double moveFactor = 0.3;
-
-    /**
-     * Creates a 3D camera by using Applications default width and height.
-     *
-     * @param startPosition Cameras starting position.
-     * @param direction Cameras starting direction.
-     */
-    public Camera3D(Point3D startPosition, Vector3D direction) {
-
-        this(startPosition, direction,
-                Application.getScreenWidth(),
-                Application.getScreenHeight());
-    }
-
-    /**
-     * Creates a 3D camera.
-     *
-     * @param startPosition Cameras starting position.
-     * @param direction Cameras starting direction.
-     * @param screenWidth Camera draw area width.
-     * @param screenHeight Camera draw area height.
-     */
-    public Camera3D(Point3D startPosition, Vector3D direction,
-            int screenWidth, int screenHeight) {
-
-        this.screenWidth = screenWidth;
-        this.screenHeight = screenHeight;
-        this.origin = startPosition;
-        this.direction = direction;
-        this.right = new Vector3D(direction.getZ(), 0, -direction.getX());
-        this.up = new Vector3D(-direction.getX(),
-                -direction.getZ(),
-                -direction.getY());
-        this.fieldOfView = 4;
-    }
-
-    int rotationSpeed = 0;
-
-    /**
-     * Rotates the camera size ways.
-     *
-     * @param speed Rotation speed.
-     */
-    public void rotateXZ(int speed) {
-
-        double r = Math.toRadians(speed);
-
-        double tmpX = ((Math.cos(r) * direction.getX())
-                + (Math.sin(r) * direction.getZ()));
-
-        double tmpZ = (-(Math.sin(r) * direction.getX())
-                + (Math.cos(r) * direction.getZ()));
-
-        direction.setZ(tmpZ);
-        direction.setX(tmpX);
-
-        updateRightAndUp();
-    }
-
-    /**
-     * Returns cameras current position.
-     *
-     * @return Camera position.
-     */
-    public Point3D getPosition() {
-        return this.origin;
-    }
-
-    /**
-     * Returns cameras current direction.
-     *
-     * @return Camera direction.
-     */
-    public Vector3D getDirection() {
-        return this.direction;
-    }
-
-    /**
-     * Returns cameras right direction for projection calculation.
-     *
-     * @return Normalized side direction of the camera.
-     */
-    public Vector3D getRight() {
-        return this.right;
-    }
-
-    /**
-     * Returns cameras up direction for projection calculation.
-     *
-     * @return Normalized up direction of the camera.
-     */
-    public Vector3D getUp() {
-        return this.up;
-    }
-
-    /**
-     * Updates cameras right and up direction from the current direction.
-     */
-    public void updateRightAndUp() {
-        right.setX(direction.getZ());
-        right.setZ(-direction.getX());
-    }
-
-    /**
-     * Moves the camera to desired direction.
-     *
-     * @param v Desired direction and speed.
-     */
-    public void move(Vector3D v) {
-        origin.addVectorToPoint(v);
-    }
-
-    /**
-     * Holds poorly designed camera movement stuff at the moment.
-     */
-    private final int LEFT = 1;
-
-    /**
-     * Holds poorly designed camera movement stuff at the moment.
-     */
-    private final int RIGHT = 2;
-
-    /**
-     * Holds poorly designed camera movement stuff at the moment.
-     */
-    private final int STILL = 0;
-
-    /**
-     * Holds poorly designed camera movement stuff at the moment.
-     */
-    private final int FORWARD = 3;
-
-    /**
-     * Holds poorly designed camera movement stuff at the moment.
-     */
-    private final int BACKWARD = 4;
-
-    /**
-     * Controls camera´s forward and backwards direction.
-     */
-    private int move = STILL;
-
-    /**
-     * Controls camera´s turning direction.
-     */
-    private int turn = STILL;
-
-    /**
-     * Controls camera´s left and right direction.
-     */
-    private int strafe = STILL;
-
-    /**
-     * Updates cameras movement.
-     */
-    public void update() {
-        if (move != STILL) {
-            if (move == FORWARD) {
-                this.origin.addVectorToPoint(direction, moveFactor);
-            } else {
-                this.origin.subtractVectorFromPoint(direction, moveFactor);
-            }
-        }
-
-        if (turn != STILL) {
-            if (turn == LEFT) {
-                rotateXZ(-2);
-            } else {
-                rotateXZ(2);
-            }
-        }
-
-        if (strafe != STILL) {
-            if (strafe == LEFT) {
-                this.origin.subtractVectorFromPoint(right, moveFactor);
-            } else {
-                this.origin.addVectorToPoint(right, moveFactor);
-            }
-        }
-
-        for (int i = 0; i < polygonAmount; i++) {
-            polygons[i].updateDrawingPosition(this);
-        }
-
-        Arrays.sort(polygons, 0, polygonAmount);
-    }
-
-    /**
-     * Sets forward movement.
-     */
-    public void forward() {
-        move = FORWARD;
-    }
-
-    /**
-     * Sets backwards movement.
-     */
-    public void backWards() {
-        move = BACKWARD;
-    }
-
-    /**
-     * Stops backwards and forward movement.
-     */
-    public void stopMove() {
-        move = STILL;
-    }
-
-    /**
-     * Sets side ways left movement.
-     */
-    public void strafeLeft() {
-        strafe = LEFT;
-    }
-
-    /**
-     * Sets side ways right movement.
-     */
-    public void strafeRight() {
-        strafe = RIGHT;
-    }
-
-    /**
-     * Stops side ways left and right movement.
-     */
-    public void stopStrafe() {
-        strafe = STILL;
-    }
-
-    /**
-     * Sets turning left movement.
-     */
-    public void turnLeft() {
-        turn = LEFT;
-    }
-
-    /**
-     * Sets turning right movement.
-     */
-    public void turnRight() {
-        turn = RIGHT;
-    }
-
-    /**
-     * Stops turning.
-     */
-    public void stopTurn() {
-        turn = STILL;
-    }
-
-    /**
-     * Returns screen width value from the camera.
-     *
-     * @return Drawing width of the screen.
-     */
-    public int getScreenWidth() {
-        return this.screenWidth;
-    }
-
-    /**
-     * Returns screen height value from the camera.
-     *
-     * @return Drawing height of the screen.
-     */
-    public int getScreenHeight() {
-        return this.screenHeight;
-    }
-
-    /**
-     * Sets the field of view value for the camera.
-     *
-     * @param fov Field of View value.
-     */
-    public void setFOV(double fov) {
-        this.fieldOfView = fov;
-    }
-
-    /**
-     * Returns the field of view value of the camera.
-     *
-     * @return Field of view value of the camera.
-     */
-    public double getFOV() {
-        return this.fieldOfView;
-    }
-
-    /**
-     * Determines whether to draw wire frame.
-     */
-    private boolean isWireFrame = true;
-
-    /**
-     * Renders cameras view.
-     *
-     * @param g Graphics2D drawing element.
-     */
-    public void renderCameraView(Graphics2D g) {
-
-        for (int i = 0; i < Camera3D.polygonAmount; i++) {
-            Camera3D.polygons[i].drawFilledPolygon(g);
-
-            if (isWireFrame) {
-                Camera3D.polygons[i].drawPolygon(g);
-            }
-        }
-    }
-
-    /**
-     * Toggles wire frame view by given boolean value.
-     *
-     * @param isWireFrame Whether wire frame is on or off.
-     */
-    public void setWireFrame(boolean isWireFrame) {
-        this.isWireFrame = isWireFrame;
-    }
-
-    /**
-     * Toggles wire frame view on and off.
-     */
-    public void toggleWireFrame() {
-        if (isWireFrame) {
-            isWireFrame = false;
-        } else {
-            isWireFrame = true;
-        }
-    }
-
-    /**
-     * Sets cameras´s direction.
-     *
-     * @param p Direction vector.
-     */
-    public void setDirection(Point3D p) {
-        direction.setDirection(p, origin);
-        double mag = direction.getMagnitude();
-        direction.setY(0);
-        direction.normalize();
-        updateRightAndUp();
-    }
-
-    /**
-     * Sets movement speed.
-     *
-     * @param factor Move factor.
-     */
-    public void setMoveFactor(double factor) {
-
-        this.moveFactor = factor;
-    }
-}
+package com.nikoengine.camera;
+
+import com.nikoengine.application.Application;
+import com.nikoengine.geometry.*;
+import com.nikoengine.job.JobSystem;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Path2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+/**
+ * Class for creating a camera to view a 3D environment.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2016.1118
+ * @since 1.8
+ */
+public class Camera3D {
+
+    /**
+     * Holds the polygons drawn by the camera.
+     */
+    private final Scene scene;
+
+    /**
+     * Controls the origin point of the camera.
+     */
+    private Point3D origin;
+
+    /**
+     * Controls cameras direction.
+     */
+    private Vector3D direction;
+
+    /**
+     * Controls cameras side direction.
+     */
+    private Vector3D right;
+
+    /**
+     * Controls cameras y directions.
+     */
+    private Vector3D up;
+
+    /**
+     * Holds view width.
+     */
+    private int screenWidth;
+
+    /**
+     * Holds view height.
+     */
+    private int screenHeight;
+
+    /**
+     * Holds the field of view for the camera.
+     */
+    private double fieldOfView;
+
+    /**
+     * Controls movement speed.
+     */
+    private double moveFactor = 0.3;
+
+    /**
+     * Holds the view matrix of the frame.
+     *
+     * <p>
+     * The first three rows are the normalized direction, right and up
+     * vectors and the last row is the position of the camera.
+     */
+    private final double[] viewMatrix = new double[12];
+
+    /**
+     * Holds the projection scale on the x-plane of the frame.
+     */
+    private double scaleX;
+
+    /**
+     * Holds the projection scale on the y-plane of the frame.
+     */
+    private double scaleY;
+
+    /**
+     * Holds the amount of points or polygons handled on one thread at a
+     * time.
+     */
+    private static final int PROJECTION_GRAIN = 1024;
+
+    /**
+     * Holds the largest amount of static polygons in a cluster.
+     */
+    private static final int CLUSTER_SIZE = 32;
+
+    /**
+     * Holds the amount of the clusters covering most of the screen whose
+     * faces are written to the occlusion buffer.
+     */
+    private static final int OCCLUDER_CLUSTERS = 16;
+
+    /**
+     * Holds the depth from which on polygons are drawn.
+     */
+    private static final double NEAR_DISTANCE = 1;
+
+    /**
+     * Holds the amount of the scene polygons in the point table or -1 if the
+     * table has not been built.
+     */
+    private int tablePolygonAmount = -1;
+
+    /**
+     * Holds the polygons of the point table.
+     */
+    private Polygon3D[] tablePolygons = new Polygon3D[0];
+
+    /**
+     * Holds every point of the scene once even if polygons share it.
+     *
+     * <p>
+     * Points of the merged static meshes come first and the points made by
+     * splitting faces in the tree after them, both without a point object.
+     * The points of the point groups and the other points of moving polygons
+     * come last.
+     */
+    private Point3D[] tablePoints = new Point3D[0];
+
+    /**
+     * Holds the static polygons the tree was built from.
+     */
+    private Polygon3D[] treePolygons = new Polygon3D[0];
+
+    /**
+     * Holds the colors of the static polygons when the tree was built.
+     */
+    private Color[] treePolygonColors = new Color[0];
+
+    /**
+     * Holds the room of every static polygon the tree was built from or -1
+     * for polygons which are in no room.
+     */
+    private int[] treeRooms = new int[0];
+
+    /**
+     * Holds the rooms of the point table.
+     */
+    private Room[] tableRooms = new Room[0];
+
+    /**
+     * Holds the version of every room of the point table.
+     */
+    private int[] tableRoomVersions = new int[0];
+
+    /**
+     * Holds the portals of every room.
+     */
+    private Portal[][] roomPortals = new Portal[0][];
+
+    /**
+     * Holds the room seen through every portal of every room.
+     */
+    private int[][] portalRooms = new int[0][];
+
+    /**
+     * Holds the level of detail of every static polygon the tree was built
+     * from or -1 for polygons which are always drawn.
+     */
+    private int[] treeLevels = new int[0];
+
+    /**
+     * Holds the cluster of every face of the merged meshes the tree was
+     * built from.
+     */
+    private int[] treeClusters = new int[0];
+
+    /**
+     * Holds the color of every face of the merged meshes the tree was built
+     * from.
+     */
+    private Color[] treeColors = new Color[0];
+
+    /**
+     * Holds the index of the first point of every cluster in the point table
+     * and the index after the last cluster.
+     *
+     * <p>
+     * A cluster is a run of static polygons of the same room which is culled
+     * and projected as a whole.
+     */
+    private int[] clusterFirstPoint = new int[1];
+
+    /**
+     * Holds the room of every cluster or -1 for clusters in no room.
+     */
+    private int[] clusterRoom = new int[0];
+
+    /**
+     * Holds the level of detail of every cluster or -1 for clusters which
+     * are always drawn.
+     */
+    private int[] clusterLevel = new int[0];
+
+    /**
+     * Holds the smallest and largest position of the points of every cluster
+     * on the x-, y- and z-plane.
+     */
+    private double[] clusterBounds = new double[0];
+
+    /**
+     * Holds the index of the first face index of every cluster.
+     */
+    private int[] clusterFirstFace = new int[1];
+
+    /**
+     * Holds the indices of the faces of every cluster.
+     */
+    private int[] clusterFaces = new int[0];
+
+    /**
+     * Holds the drawing area of the bounds of every cluster as the left, top,
+     * right and bottom edge and the nearest depth, which is zero if a corner
+     * is behind the camera.
+     */
+    private double[] clusterArea = new double[0];
+
+    /**
+     * Holds the screen area and index of the clusters which may be occluders
+     * packed for sorting.
+     */
+    private long[] clusterKeys = new long[0];
+
+    /**
+     * Tells which clusters are drawn.
+     */
+    private boolean[] clusterVisible = new boolean[0];
+
+    /**
+     * Tells which clusters were projected as occluders on this update.
+     */
+    private boolean[] clusterProjected = new boolean[0];
+
+    /**
+     * Holds the level of detail of every face or -1 for faces which are
+     * always drawn.
+     */
+    private int[] faceLevel = new int[0];
+
+    /**
+     * Holds the cluster of every face or -1 for moving faces.
+     */
+    private int[] faceCluster = new int[0];
+
+    /**
+     * Tells which moving faces are hidden.
+     */
+    private boolean[] faceOccluded = new boolean[0];
+
+    /**
+     * Holds the depths of the occluders.
+     */
+    private final OcclusionBuffer occlusion;
+
+    /**
+     * Determines whether clusters and moving faces hidden by occluders or
+     * outside the screen are skipped.
+     */
+    private boolean isOcclusionCulling = true;
+
+    /**
+     * Holds the amount of clusters written to the occlusion buffer.
+     */
+    private int occluderAmount;
+
+    /**
+     * Holds the amount of clusters hidden by the occluders.
+     */
+    private int occludedAmount;
+
+    /**
+     * Holds the amount of clusters outside the screen.
+     */
+    private int outsideAmount;
+
+    /**
+     * Holds the amount of points projected when the camera last moved.
+     */
+    private int projectedAmount;
+
+    /**
+     * Holds the objects drawn in levels of detail of the point table.
+     */
+    private LevelOfDetail[] tableDetails = new LevelOfDetail[0];
+
+    /**
+     * Holds the index of the first level of every object and the index after
+     * the last level. Levels of all the objects are numbered together.
+     */
+    private int[] detailFirstLevel = new int[1];
+
+    /**
+     * Holds the level of every object which is drawn, counted from the first
+     * level of the object.
+     */
+    private int[] detailLevel = new int[0];
+
+    /**
+     * Tells which levels of detail are drawn.
+     */
+    private boolean[] levelShown = new boolean[0];
+
+    /**
+     * Tells which rooms the camera sees.
+     */
+    private boolean[] roomVisible = new boolean[0];
+
+    /**
+     * Tells which rooms are on the path of portals being looked through.
+     */
+    private boolean[] roomOnPath = new boolean[0];
+
+    /**
+     * Holds the amount of the faces drawn by the camera.
+     *
+     * <p>
+     * Faces with points of point groups come first in the scene order and
+     * are moving faces. The others are static and come from the BSP tree,
+     * which may have split polygons into many faces.
+     */
+    private int faceAmount;
+
+    /**
+     * Holds the amount of the moving faces.
+     */
+    private int movingAmount;
+
+    /**
+     * Holds the index of the polygon of every moving face in the scene.
+     */
+    private int[] facePolygon = new int[0];
+
+    /**
+     * Holds the color of every static face.
+     */
+    private Color[] faceColor = new Color[0];
+
+    /**
+     * Holds the index of the first point index of every face.
+     */
+    private int[] firstIndex = new int[1];
+
+    /**
+     * Holds the indices of the points of every face in the point arrays.
+     */
+    private int[] pointIndices = new int[0];
+
+    /**
+     * Holds the static faces in a BSP tree.
+     */
+    private BspTree tree;
+
+    /**
+     * Holds the nodes and slots of the tree from the farthest to the
+     * nearest.
+     */
+    private int[] treeOrder = new int[0];
+
+    /**
+     * Holds the slot of the tree where the center of every moving face is.
+     */
+    private int[] faceSlot = new int[0];
+
+    /**
+     * Holds the room of every face or -1 for faces which are in no room.
+     */
+    private int[] faceRoom = new int[0];
+
+    /**
+     * Holds the index of the first face of every slot in the slot faces.
+     */
+    private int[] slotFirst = new int[1];
+
+    /**
+     * Holds the index of the next face of every slot while filling the slot
+     * faces.
+     */
+    private int[] slotFill = new int[0];
+
+    /**
+     * Holds the moving faces of every slot from the farthest to the nearest.
+     */
+    private int[] slotFaces = new int[0];
+
+    /**
+     * Holds the point groups of the point table.
+     */
+    private PointGroup[] tableGroups = new PointGroup[0];
+
+    /**
+     * Holds the version of every point group seen on the last update.
+     */
+    private int[] seenVersions = new int[0];
+
+    /**
+     * Holds the color version of the scene seen on the last update.
+     */
+    private int seenColorVersion;
+
+    /**
+     * Holds the index of the first point of every point group in the point
+     * table and the index after the last group.
+     */
+    private int[] groupFirstPoint = new int[1];
+
+    /**
+     * Holds the index of the first face index of every point group.
+     */
+    private int[] groupFirstFace = new int[1];
+
+    /**
+     * Holds the indices of the faces which have points of every point group.
+     */
+    private int[] groupFaces = new int[0];
+
+    /**
+     * Holds the indices of the point groups which changed on this update.
+     */
+    private int[] changedGroups = new int[0];
+
+    /**
+     * Holds the view matrix and the projection scales the points were last
+     * projected with.
+     */
+    private final double[] projectedView = new double[14];
+
+    /**
+     * Holds the indices of the faces from the farthest to the nearest.
+     */
+    private int[] drawOrder = new int[0];
+
+    /**
+     * Holds the amount of the faces in the draw order.
+     */
+    private int drawAmount;
+
+    /**
+     * Holds the place of every moving face in the sort keys.
+     */
+    private int[] orderPosition = new int[0];
+
+    /**
+     * Holds the depth and index of every moving face packed for sorting.
+     */
+    private long[] sortKeys = new long[0];
+
+    /**
+     * Holds the drawing positions of a face on the x-plane.
+     */
+    private int[] drawX = new int[0];
+
+    /**
+     * Holds the drawing positions of a face on the y-plane.
+     */
+    private int[] drawY = new int[0];
+
+    /**
+     * Holds the edge from every point index of a face to the next one.
+     *
+     * <p>
+     * Faces which share two points share the edge between them.
+     */
+    private int[] indexEdges = new int[0];
+
+    /**
+     * Holds the place in the draw order of the nearest face drawn with every
+     * edge, which is the face which draws the edge.
+     */
+    private int[] edgeOwner = new int[0];
+
+    /**
+     * Holds the outlines waiting to be drawn.
+     */
+    private final Path2D.Float outlines = new Path2D.Float();
+
+    /**
+     * Holds the drawing area of the outlines waiting to be drawn as left,
+     * top, right and bottom.
+     */
+    private final int[] outlineBounds = new int[4];
+
+    /**
+     * Holds the drawing positions of an occluder on the x-plane.
+     */
+    private double[] occluderX = new double[0];
+
+    /**
+     * Holds the drawing positions of an occluder on the y-plane.
+     */
+    private double[] occluderY = new double[0];
+
+    /**
+     * Holds the positions of the points on the x-plane.
+     */
+    private double[] pointX = new double[0];
+
+    /**
+     * Holds the positions of the points on the y-plane.
+     */
+    private double[] pointY = new double[0];
+
+    /**
+     * Holds the positions of the points on the z-plane.
+     */
+    private double[] pointZ = new double[0];
+
+    /**
+     * Holds the projected positions of the points on the x-plane.
+     */
+    private double[] screenX = new double[0];
+
+    /**
+     * Holds the projected positions of the points on the y-plane.
+     */
+    private double[] screenY = new double[0];
+
+    /**
+     * Holds the distances of the points along the direction of the camera.
+     */
+    private double[] depth = new double[0];
+
+    /**
+     * Holds the squared distances of the points from the camera.
+     */
+    private double[] squared = new double[0];
+
+    /**
+     * Creates a 3D camera by using Applications default width and height.
+     *
+     * @param startPosition Cameras starting position.
+     * @param direction Cameras starting direction.
+     */
+    public Camera3D(Point3D startPosition, Vector3D direction) {
+
+        this(startPosition, direction,
+                Application.getScreenWidth(),
+                Application.getScreenHeight());
+    }
+
+    /**
+     * Creates a 3D camera.
+     *
+     * <p>
+     * Camera draws the current scene of the thread which creates it.
+     *
+     * @param startPosition Cameras starting position.
+     * @param direction Cameras starting direction.
+     * @param screenWidth Camera draw area width.
+     * @param screenHeight Camera draw area height.
+     */
+    public Camera3D(Point3D startPosition, Vector3D direction,
+            int screenWidth, int screenHeight) {
+
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+        this.origin = startPosition;
+        this.direction = direction;
+        this.right = new Vector3D(direction.getZ(), 0, -direction.getX());
+        this.up = new Vector3D(0, 0, 0);
+        this.fieldOfView = 4;
+        this.scene = Scene.getCurrent();
+        this.occlusion = new OcclusionBuffer(screenWidth, screenHeight);
+        updateRightAndUp();
+        updateViewMatrix();
+    }
+
+    int rotationSpeed = 0;
+
+    /**
+     * Rotates the camera size ways.
+     *
+     * @param speed Rotation speed.
+     */
+    public void rotateXZ(int speed) {
+
+        double r = Math.toRadians(speed);
+
+        double tmpX = ((Math.cos(r) * direction.getX())
+                + (Math.sin(r) * direction.getZ()));
+
+        double tmpZ = (-(Math.sin(r) * direction.getX())
+                + (Math.cos(r) * direction.getZ()));
+
+        direction.setZ(tmpZ);
+        direction.setX(tmpX);
+
+        updateRightAndUp();
+    }
+
+    /**
+     * Returns cameras current position.
+     *
+     * @return Camera position.
+     */
+    public Point3D getPosition() {
+        return this.origin;
+    }
+
+    /**
+     * Returns cameras current direction.
+     *
+     * @return Camera direction.
+     */
+    public Vector3D getDirection() {
+        return this.direction;
+    }
+
+    /**
+     * Returns cameras right direction for projection calculation.
+     *
+     * @return Normalized side direction of the camera.
+     */
+    public Vector3D getRight() {
+        return this.right;
+    }
+
+    /**
+     * Returns cameras up direction for projection calculation.
+     *
+     * @return Normalized up direction of the camera.
+     */
+    public Vector3D getUp() {
+        return this.up;
+    }
+
+    /**
+     * Updates cameras right and up direction from the current direction.
+     */
+    public void updateRightAndUp() {
+        right.setX(direction.getZ());
+        right.setZ(-direction.getX());
+        up.setDirection(right.getCrossProduct(direction));
+    }
+
+    /**
+     * Returns the view matrix of the frame.
+     *
+     * <p>
+     * The first three rows are the normalized direction, right and up
+     * vectors and the last row is the position of the camera. A point is
+     * projected with three dot products of its offset from the camera.
+     *
+     * @return Array of twelve values.
+     */
+    public double[] getViewMatrix() {
+        return viewMatrix;
+    }
+
+    /**
+     * Returns the projection scale on the x-plane of the frame.
+     *
+     * @return Field of view times the drawing scale.
+     */
+    public double getScaleX() {
+        return scaleX;
+    }
+
+    /**
+     * Returns the projection scale on the y-plane of the frame.
+     *
+     * @return Field of view times the drawing scale.
+     */
+    public double getScaleY() {
+        return scaleY;
+    }
+
+    /**
+     * Builds the view matrix and projection scales from the current
+     * position, direction and field of view.
+     *
+     * <p>
+     * Called once per frame before the polygons are projected, so the
+     * vectors are normalized here instead of for every point.
+     */
+    public void updateViewMatrix() {
+        setRow(0, direction);
+        setRow(3, right);
+        setRow(6, up);
+        viewMatrix[9] = origin.getX();
+        viewMatrix[10] = origin.getY();
+        viewMatrix[11] = origin.getZ();
+        scaleX = fieldOfView * (screenWidth / 2 / 3);
+        scaleY = fieldOfView * (screenHeight / 2 / 1.5);
+    }
+
+    /**
+     * Sets a row of the view matrix to a normalized vector.
+     *
+     * @param index Index of the first value of the row.
+     * @param v Vector.
+     */
+    private void setRow(int index, Vector3D v) {
+        double magnitude = v.getMagnitude();
+        viewMatrix[index] = v.getX() / magnitude;
+        viewMatrix[index + 1] = v.getY() / magnitude;
+        viewMatrix[index + 2] = v.getZ() / magnitude;
+    }
+
+    /**
+     * Moves the camera to desired direction.
+     *
+     * @param v Desired direction and speed.
+     */
+    public void move(Vector3D v) {
+        origin.addVectorToPoint(v);
+    }
+
+    /**
+     * Holds poorly designed camera movement stuff at the moment.
+     */
+    private final int LEFT = 1;
+
+    /**
+     * Holds poorly designed camera movement stuff at the moment.
+     */
+    private final int RIGHT = 2;
+
+    /**
+     * Holds poorly designed camera movement stuff at the moment.
+     */
+    private final int STILL = 0;
+
+    /**
+     * Holds poorly designed camera movement stuff at the moment.
+     */
+    private final int FORWARD = 3;
+
+    /**
+     * Holds poorly designed camera movement stuff at the moment.
+     */
+    private final int BACKWARD = 4;
+
+    /**
+     * Controls camera´s forward and backwards direction.
+     */
+    private int move = STILL;
+
+    /**
+     * Controls camera´s turning direction.
+     */
+    private int turn = STILL;
+
+    /**
+     * Controls camera´s left and right direction.
+     */
+    private int strafe = STILL;
+
+    /**
+     * Updates cameras movement.
+     */
+    public void update() {
+        if (move != STILL) {
+            if (move == FORWARD) {
+                this.origin.addVectorToPoint(direction, moveFactor);
+            } else {
+                this.origin.subtractVectorFromPoint(direction, moveFactor);
+            }
+        }
+
+        if (turn != STILL) {
+            if (turn == LEFT) {
+                rotateXZ(-2);
+            } else {
+                rotateXZ(2);
+            }
+        }
+
+        if (strafe != STILL) {
+            if (strafe == LEFT) {
+                this.origin.subtractVectorFromPoint(right, moveFactor);
+            } else {
+                this.origin.addVectorToPoint(right, moveFactor);
+            }
+        }
+
+        updateViewMatrix();
+
+        projectScene();
+    }
+
+    /**
+     * Projects the points of the scene and orders the faces from the
+     * farthest to the nearest.
+     *
+     * <p>
+     * Polygons of walls, cylinders and models share their corner points, so
+     * the points are projected instead of the corners of every polygon. The
+     * points are kept in primitive arrays which the projection kernel goes
+     * through in parallel ranges, and the faces are drawn straight from the
+     * results.
+     *
+     * <p>
+     * Static faces are ordered by going through the BSP tree from the side
+     * away from the camera, which is exact and needs no sorting. Only the
+     * moving faces are sorted by depth and each is drawn when the tree
+     * reaches the slot where its center is.
+     *
+     * <p>
+     * When the camera is in a room, only the rooms seen through the portals
+     * are drawn and only the points of their static polygons are projected.
+     * Of objects with levels of detail only the chosen level is drawn.
+     *
+     * <p>
+     * The static polygons of the seen rooms are culled in clusters. The
+     * clusters covering most of the screen are projected first and their
+     * faces written to a coarse occlusion buffer. Clusters whose bounds are
+     * behind those faces or outside the screen are neither projected nor
+     * drawn, and neither are moving faces which are hidden.
+     *
+     * <p>
+     * Results are kept between updates. When the camera has moved every point
+     * is projected again. Otherwise only the points of the point groups which
+     * changed are copied and projected again, and only their faces get new
+     * sort keys and slots. Nothing is done when nothing has changed.
+     */
+    void projectScene() {
+
+        boolean isViewChanged = false;
+
+        boolean isColorChanged = seenColorVersion != scene.getColorVersion();
+        seenColorVersion = scene.getColorVersion();
+
+        if (tablePolygonAmount != scene.getPolygonAmount()
+                || tableGroups.length != scene.getPointGroupAmount()
+                || tableRooms.length != scene.getRoomAmount()
+                || tableDetails.length != scene.getDetailAmount()
+                || isRoomChanged()
+                || isColorChanged && isTreeColorChanged()) {
+
+            buildPointTable();
+            isViewChanged = true;
+        }
+
+        isViewChanged |= updateProjectedView();
+
+        int changedAmount = 0;
+
+        for (int g = 0; g < tableGroups.length; g++) {
+            int version = tableGroups[g].getVersion();
+
+            if (version != seenVersions[g]) {
+                seenVersions[g] = version;
+                changedGroups[changedAmount++] = g;
+            }
+        }
+
+        if (!isViewChanged && changedAmount == 0) {
+            return;
+        }
+
+        updateDetails();
+
+        for (int c = 0; c < changedAmount; c++) {
+            int g = changedGroups[c];
+            copyPoints(groupFirstPoint[g], groupFirstPoint[g + 1]);
+
+            for (int k = groupFirstFace[g]; k < groupFirstFace[g + 1]; k++) {
+                locateFace(groupFaces[k]);
+            }
+        }
+
+        if (isViewChanged) {
+            JobSystem jobs = JobSystem.getDefault();
+            int clusterAmount = clusterRoom.length;
+            int staticEnd = clusterFirstPoint[clusterAmount];
+            updateVisibleRooms();
+
+            jobs.parallelFor(staticEnd, pointX.length, PROJECTION_GRAIN,
+                    (from, to) -> projectPoints(from, to));
+            projectedAmount = pointX.length - staticEnd;
+            cullClusters();
+
+            for (int c = 0; c < clusterAmount; c++) {
+
+                if (clusterProjected[c]) {
+                    projectedAmount += clusterFirstPoint[c + 1]
+                            - clusterFirstPoint[c];
+                }
+            }
+
+            int c = 0;
+
+            while (c < clusterAmount) {
+                int end = c;
+
+                while (end < clusterAmount && clusterVisible[end]
+                        && !clusterProjected[end]) {
+                    end++;
+                }
+
+                if (end > c) {
+                    jobs.parallelFor(clusterFirstPoint[c],
+                            clusterFirstPoint[end], PROJECTION_GRAIN,
+                            (from, to) -> projectPoints(from, to));
+                    projectedAmount += clusterFirstPoint[end]
+                            - clusterFirstPoint[c];
+                    c = end;
+                } else {
+                    c++;
+                }
+            }
+
+            for (int face = 0; face < movingAmount; face++) {
+                faceOccluded[face] = isOccluded(face);
+            }
+
+            jobs.parallelFor(0, movingAmount, PROJECTION_GRAIN,
+                    (from, to) -> {
+
+                for (int j = from; j < to; j++) {
+                    sortKeys[j] = getSortKey((int) sortKeys[j]);
+                }
+            });
+        } else {
+
+            for (int c = 0; c < changedAmount; c++) {
+                int g = changedGroups[c];
+                projectPoints(groupFirstPoint[g], groupFirstPoint[g + 1]);
+
+                for (int k = groupFirstFace[g]; k < groupFirstFace[g + 1];
+                        k++) {
+
+                    int face = groupFaces[k];
+                    sortKeys[orderPosition[face]] = getSortKey(face);
+                    faceOccluded[face] = isOccluded(face);
+                }
+            }
+        }
+
+        orderFaces();
+    }
+
+    /**
+     * Sorts the moving faces into their slots and lists the faces of the
+     * visible rooms in the order of the tree.
+     */
+    private void orderFaces() {
+
+        int slotAmount = tree.getSlotAmount();
+
+        Arrays.sort(sortKeys, 0, movingAmount);
+        Arrays.fill(slotFirst, 0);
+
+        for (int j = 0; j < movingAmount; j++) {
+            slotFirst[faceSlot[(int) sortKeys[j]] + 1]++;
+        }
+
+        for (int s = 0; s < slotAmount; s++) {
+            slotFirst[s + 1] += slotFirst[s];
+        }
+
+        System.arraycopy(slotFirst, 0, slotFill, 0, slotAmount);
+
+        for (int j = 0; j < movingAmount; j++) {
+            int face = (int) sortKeys[j];
+            orderPosition[face] = j;
+            slotFaces[slotFill[faceSlot[face]]++] = face;
+        }
+
+        int length = tree.getOrder(viewMatrix[9], viewMatrix[10],
+                viewMatrix[11], treeOrder);
+        int amount = 0;
+
+        for (int t = 0; t < length; t++) {
+            int node = treeOrder[t];
+
+            if (node < 0) {
+                int slot = ~node;
+
+                for (int k = slotFirst[slot]; k < slotFirst[slot + 1]; k++) {
+                    int face = slotFaces[k];
+
+                    if (isVisible(face)) {
+                        drawOrder[amount++] = face;
+                    }
+                }
+            } else {
+                int end = movingAmount + tree.getNodeFirstFace(node + 1);
+
+                for (int face = movingAmount + tree.getNodeFirstFace(node);
+                        face < end; face++) {
+
+                    if (isVisible(face)) {
+                        drawOrder[amount++] = face;
+                    }
+                }
+            }
+        }
+
+        drawAmount = amount;
+    }
+
+    /**
+     * Tells whether a face is in a room which the camera sees or in no room
+     * and is not hidden.
+     *
+     * @param face Index of the face.
+     * @return Whether the face is drawn.
+     */
+    private boolean isVisible(int face) {
+
+        if (faceCluster[face] >= 0) {
+            return clusterVisible[faceCluster[face]];
+        }
+
+        return !faceOccluded[face]
+                && (faceRoom[face] < 0 || roomVisible[faceRoom[face]])
+                && (faceLevel[face] < 0 || levelShown[faceLevel[face]]);
+    }
+
+    /**
+     * Chooses the level drawn of every object with levels of detail.
+     */
+    private void updateDetails() {
+
+        for (int d = 0; d < tableDetails.length; d++) {
+            int first = detailFirstLevel[d];
+
+            levelShown[first + detailLevel[d]] = false;
+            detailLevel[d] = tableDetails[d].chooseLevel(viewMatrix[9],
+                    viewMatrix[10], viewMatrix[11], scaleX, detailLevel[d]);
+            levelShown[first + detailLevel[d]] = true;
+        }
+    }
+
+    /**
+     * Finds the clusters which are drawn.
+     *
+     * <p>
+     * Clusters of the seen rooms and drawn levels of detail are drawn unless
+     * occlusion culling is on and their bounds are outside the screen or
+     * behind the occluders. The clusters which cover the largest part of the
+     * screen are the occluders and are projected here, the others are
+     * projected after culling.
+     */
+    private void cullClusters() {
+
+        int clusterAmount = clusterRoom.length;
+        int keyAmount = 0;
+        occluderAmount = 0;
+        occludedAmount = 0;
+        outsideAmount = 0;
+
+        for (int c = 0; c < clusterAmount; c++) {
+            clusterVisible[c] = (clusterRoom[c] < 0
+                    || roomVisible[clusterRoom[c]])
+                    && (clusterLevel[c] < 0 || levelShown[clusterLevel[c]]);
+            clusterProjected[c] = false;
+
+            if (!isOcclusionCulling || !clusterVisible[c]) {
+                continue;
+            }
+
+            int a = c * 5;
+            updateClusterArea(c);
+
+            if (clusterArea[a + 4] == 0) {
+                continue;
+            }
+
+            if (isOutside(clusterArea[a], clusterArea[a + 1],
+                    clusterArea[a + 2], clusterArea[a + 3])) {
+
+                clusterVisible[c] = false;
+                outsideAmount++;
+                continue;
+            }
+
+            double width = Math.min(clusterArea[a + 2], screenWidth)
+                    - Math.max(clusterArea[a], 0);
+            double height = Math.min(clusterArea[a + 3], screenHeight)
+                    - Math.max(clusterArea[a + 1], 0);
+
+            clusterKeys[keyAmount++] = (long) Float.floatToIntBits(
+                    (float) (width * height)) << 32 | c;
+        }
+
+        if (!isOcclusionCulling) {
+            return;
+        }
+
+        Arrays.sort(clusterKeys, 0, keyAmount);
+        occlusion.clear();
+
+        for (int k = keyAmount - 1;
+                k >= Math.max(0, keyAmount - OCCLUDER_CLUSTERS); k--) {
+
+            int c = (int) clusterKeys[k];
+            projectPoints(clusterFirstPoint[c], clusterFirstPoint[c + 1]);
+            clusterProjected[c] = true;
+            addOccluders(c);
+            occluderAmount++;
+        }
+
+        occlusion.buildPyramid();
+
+        for (int k = 0; k < keyAmount; k++) {
+            int c = (int) clusterKeys[k];
+            int a = c * 5;
+
+            if (occlusion.isOccluded(clusterArea[a], clusterArea[a + 1],
+                    clusterArea[a + 2], clusterArea[a + 3],
+                    clusterArea[a + 4])) {
+
+                clusterVisible[c] = false;
+                occludedAmount++;
+            }
+        }
+    }
+
+    /**
+     * Projects the corners of the bounds of a cluster to its drawing area.
+     *
+     * @param cluster Index of the cluster.
+     */
+    private void updateClusterArea(int cluster) {
+
+        int b = cluster * 6;
+        int a = cluster * 5;
+        double centerX = screenWidth / 2;
+        double centerY = screenHeight / 2;
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        double nearest = Double.MAX_VALUE;
+
+        for (int corner = 0; corner < 8; corner++) {
+            double dx = viewMatrix[9] - clusterBounds[b + (corner & 1) * 3];
+            double dy = viewMatrix[10]
+                    - clusterBounds[b + 1 + (corner >> 1 & 1) * 3];
+            double dz = viewMatrix[11]
+                    - clusterBounds[b + 2 + (corner >> 2) * 3];
+            double w = viewMatrix[0] * dx + viewMatrix[1] * dy
+                    + viewMatrix[2] * dz;
+
+            if (w <= 1) {
+                clusterArea[a + 4] = 0;
+                return;
+            }
+
+            double x = scaleX * (viewMatrix[3] * dx + viewMatrix[4] * dy
+                    + viewMatrix[5] * dz) / w + centerX;
+            double y = scaleY * (viewMatrix[6] * dx + viewMatrix[7] * dy
+                    + viewMatrix[8] * dz) / w + centerY;
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            nearest = Math.min(nearest, w);
+        }
+
+        clusterArea[a] = minX;
+        clusterArea[a + 1] = minY;
+        clusterArea[a + 2] = maxX;
+        clusterArea[a + 3] = maxY;
+        clusterArea[a + 4] = nearest;
+    }
+
+    /**
+     * Writes the faces of a projected cluster to the occlusion buffer.
+     *
+     * <p>
+     * Only opaque faces which are wholly in front of the camera are written,
+     * so an occluder never covers more than it draws and faces seen through
+     * transparent faces are not culled.
+     *
+     * @param cluster Index of the cluster.
+     */
+    private void addOccluders(int cluster) {
+
+        int centerX = screenWidth / 2;
+        int centerY = screenHeight / 2;
+
+        for (int f = clusterFirstFace[cluster];
+                f < clusterFirstFace[cluster + 1]; f++) {
+
+            int face = clusterFaces[f];
+            int amount = 0;
+            double farthest = 0;
+
+            if (faceColor[face].getAlpha() < 255) {
+                continue;
+            }
+
+            for (int k = firstIndex[face]; k < firstIndex[face + 1]; k++) {
+                int i = pointIndices[k];
+
+                if (depth[i] <= 1) {
+                    amount = 0;
+                    break;
+                }
+
+                occluderX[amount] = screenX[i] + centerX;
+                occluderY[amount] = screenY[i] + centerY;
+                farthest = Math.max(farthest, depth[i]);
+                amount++;
+            }
+
+            occlusion.addOccluder(occluderX, occluderY, amount, farthest);
+        }
+    }
+
+    /**
+     * Tells whether a projected moving face is outside the screen or behind
+     * the occluders.
+     *
+     * @param face Index of the face.
+     * @return Whether the face is hidden.
+     */
+    private boolean isOccluded(int face) {
+
+        if (!isOcclusionCulling) {
+            return false;
+        }
+
+        int centerX = screenWidth / 2;
+        int centerY = screenHeight / 2;
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        double nearest = Double.MAX_VALUE;
+
+        for (int k = firstIndex[face]; k < firstIndex[face + 1]; k++) {
+            int i = pointIndices[k];
+
+            if (depth[i] <= 1) {
+                return false;
+            }
+
+            minX = Math.min(minX, screenX[i] + centerX);
+            minY = Math.min(minY, screenY[i] + centerY);
+            maxX = Math.max(maxX, screenX[i] + centerX);
+            maxY = Math.max(maxY, screenY[i] + centerY);
+            nearest = Math.min(nearest, depth[i]);
+        }
+
+        return minX <= maxX && (isOutside(minX, minY, maxX, maxY)
+                || occlusion.isOccluded(minX, minY, maxX, maxY, nearest));
+    }
+
+    /**
+     * Tells whether a drawing area is outside the screen.
+     *
+     * @param left Left edge.
+     * @param top Top edge.
+     * @param right Right edge.
+     * @param bottom Bottom edge.
+     * @return Whether no part of the area is on the screen.
+     */
+    private boolean isOutside(double left, double top, double right,
+            double bottom) {
+
+        return right < 0 || bottom < 0 || left > screenWidth
+                || top > screenHeight;
+    }
+
+    /**
+     * Finds the rooms which the camera sees.
+     *
+     * <p>
+     * Starting from the room of the camera, every portal is projected and
+     * the room behind it is seen if the portal is inside the part of the
+     * screen through which the portal was reached. A camera which is in no
+     * room sees every room.
+     */
+    private void updateVisibleRooms() {
+
+        int room = findRoom(viewMatrix[9], viewMatrix[10], viewMatrix[11]);
+
+        if (room < 0) {
+            Arrays.fill(roomVisible, true);
+            return;
+        }
+
+        int halfWidth = screenWidth / 2;
+        int halfHeight = screenHeight / 2;
+
+        Arrays.fill(roomVisible, false);
+        showRoom(room, -halfWidth, -halfHeight, halfWidth, halfHeight);
+    }
+
+    /**
+     * Marks a room seen and looks through its portals.
+     *
+     * <p>
+     * A portal with a corner behind the camera can not be projected. If it
+     * has corners in front of the camera or the camera is passing through
+     * its opening, the room behind it is seen through the whole part of the
+     * screen.
+     *
+     * @param room Room.
+     * @param left Left edge of the part of the screen where the room is
+     * seen.
+     * @param top Top edge of the part of the screen.
+     * @param right Right edge of the part of the screen.
+     * @param bottom Bottom edge of the part of the screen.
+     */
+    private void showRoom(int room, double left, double top, double right,
+            double bottom) {
+
+        roomVisible[room] = true;
+        roomOnPath[room] = true;
+
+        for (int p = 0; p < roomPortals[room].length; p++) {
+            int next = portalRooms[room][p];
+
+            if (next < 0 || roomOnPath[next]) {
+                continue;
+            }
+
+            Portal portal = roomPortals[room][p];
+            double minX = Double.MAX_VALUE;
+            double minY = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE;
+            double maxY = -Double.MAX_VALUE;
+            boolean isBehind = false;
+
+            for (Point3D corner : portal.getCorners()) {
+                double dx = viewMatrix[9] - corner.getX();
+                double dy = viewMatrix[10] - corner.getY();
+                double dz = viewMatrix[11] - corner.getZ();
+                double w = viewMatrix[0] * dx + viewMatrix[1] * dy
+                        + viewMatrix[2] * dz;
+
+                if (w > 0) {
+                    double x = scaleX * (viewMatrix[3] * dx
+                            + viewMatrix[4] * dy + viewMatrix[5] * dz) / w;
+                    double y = scaleY * (viewMatrix[6] * dx
+                            + viewMatrix[7] * dy + viewMatrix[8] * dz) / w;
+                    minX = Math.min(minX, x);
+                    minY = Math.min(minY, y);
+                    maxX = Math.max(maxX, x);
+                    maxY = Math.max(maxY, y);
+                } else {
+                    isBehind = true;
+                }
+            }
+
+            if (isBehind) {
+
+                if (minX <= maxX || portal.isInOpening(viewMatrix[9],
+                        viewMatrix[10], viewMatrix[11], NEAR_DISTANCE)) {
+
+                    showRoom(next, left, top, right, bottom);
+                }
+            } else {
+                minX = Math.max(minX, left);
+                minY = Math.max(minY, top);
+                maxX = Math.min(maxX, right);
+                maxY = Math.min(maxY, bottom);
+
+                if (minX < maxX && minY < maxY) {
+                    showRoom(next, minX, minY, maxX, maxY);
+                }
+            }
+        }
+
+        roomOnPath[room] = false;
+    }
+
+    /**
+     * Finds the first room where a position is.
+     *
+     * @param x Position on the x-plane.
+     * @param y Position on the y-plane.
+     * @param z Position on the z-plane.
+     * @return Index of the room or -1 if the position is in no room.
+     */
+    private int findRoom(double x, double y, double z) {
+
+        for (int room = 0; room < tableRooms.length; room++) {
+
+            if (tableRooms[room].contains(x, y, z)) {
+                return room;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Finds the slot of the tree and the room where the center of a moving
+     * face is.
+     *
+     * @param face Index of the face.
+     */
+    private void locateFace(int face) {
+
+        double x = 0;
+        double y = 0;
+        double z = 0;
+        int first = firstIndex[face];
+        int end = firstIndex[face + 1];
+
+        for (int k = first; k < end; k++) {
+            x += pointX[pointIndices[k]];
+            y += pointY[pointIndices[k]];
+            z += pointZ[pointIndices[k]];
+        }
+
+        int n = Math.max(1, end - first);
+
+        faceSlot[face] = tree.locate(x / n, y / n, z / n);
+        faceRoom[face] = findRoom(x / n, y / n, z / n);
+    }
+
+    /**
+     * Stores the view matrix and the projection scales of this update.
+     *
+     * @return Whether they differ from the last update.
+     */
+    private boolean updateProjectedView() {
+
+        boolean isChanged = projectedView[12] != scaleX
+                || projectedView[13] != scaleY;
+
+        for (int i = 0; i < viewMatrix.length; i++) {
+            isChanged |= projectedView[i] != viewMatrix[i];
+            projectedView[i] = viewMatrix[i];
+        }
+
+        projectedView[12] = scaleX;
+        projectedView[13] = scaleY;
+
+        return isChanged;
+    }
+
+    /**
+     * Copies a range of points from the point table to the point arrays.
+     *
+     * @param from First index.
+     * @param to Index after the last index.
+     */
+    private void copyPoints(int from, int to) {
+
+        for (int i = from; i < to; i++) {
+            Point3D point = tablePoints[i];
+            pointX[i] = point.getX();
+            pointY[i] = point.getY();
+            pointZ[i] = point.getZ();
+        }
+    }
+
+    /**
+     * Projects a range of the point arrays.
+     *
+     * @param from First index.
+     * @param to Index after the last index.
+     */
+    private void projectPoints(int from, int to) {
+        ProjectionKernel.project(viewMatrix, scaleX, scaleY,
+                pointX, pointY, pointZ, from, to,
+                screenX, screenY, depth, squared);
+    }
+
+    /**
+     * Packs the depth and the index of a face so that sorting the keys puts
+     * the farthest face first.
+     *
+     * @param face Index of the face.
+     * @return Sort key.
+     */
+    private long getSortKey(int face) {
+
+        double min = 1000;
+        double max = 0;
+
+        for (int k = firstIndex[face]; k < firstIndex[face + 1]; k++) {
+            double d = squared[pointIndices[k]];
+            min = d < min ? d : min;
+            max = d > max ? d : max;
+        }
+
+        long distance = (int) ((max + min) / 2.0 * 2);
+
+        return -distance << 32 | face;
+    }
+
+    /**
+     * Collects the points of the scene so that points shared by polygons
+     * are in the table once, and builds the faces.
+     *
+     * <p>
+     * Polygons with points of point groups become moving faces as they are
+     * and the other polygons are built into the BSP tree. The tree is built
+     * again only when the static polygons change, so adding moving objects
+     * such as bullets only collects the moving points again. Points of every
+     * point group are put next to each other and all the points are copied
+     * to the point arrays.
+     */
+    private void buildPointTable() {
+
+        int polygonAmount = scene.getPolygonAmount();
+        int groupAmount = scene.getPointGroupAmount();
+        IdentityHashMap<Point3D, Integer> groupIndexOf
+                = new IdentityHashMap<>();
+        ArrayList<Point3D> points = new ArrayList<>();
+
+        tablePolygons = Arrays.copyOf(scene.getPolygons(), polygonAmount);
+        tableGroups = Arrays.copyOf(scene.getPointGroups(), groupAmount);
+        seenVersions = new int[groupAmount];
+        changedGroups = new int[groupAmount];
+        groupFirstPoint = new int[groupAmount + 1];
+
+        for (int g = 0; g < groupAmount; g++) {
+            groupFirstPoint[g] = points.size();
+            seenVersions[g] = tableGroups[g].getVersion();
+
+            for (Point3D point : tableGroups[g].getPoints()) {
+
+                if (!groupIndexOf.containsKey(point)) {
+                    groupIndexOf.put(point, points.size());
+                    points.add(point);
+                }
+            }
+        }
+
+        groupFirstPoint[groupAmount] = points.size();
+
+        IdentityHashMap<Polygon3D, Integer> roomOf = buildRooms();
+        IdentityHashMap<Polygon3D, Integer> levelOf = buildDetails();
+        int roomAmount = tableRooms.length;
+        boolean[] isMoving = new boolean[polygonAmount];
+        long[] staticKeys = new long[polygonAmount];
+        int staticAmount = 0;
+        int movingIndexAmount = 0;
+        movingAmount = 0;
+
+        for (int i = 0; i < polygonAmount; i++) {
+
+            for (Point3D point : tablePolygons[i].getPoints()) {
+                isMoving[i] |= groupIndexOf.containsKey(point);
+            }
+
+            if (isMoving[i]) {
+                movingAmount++;
+                movingIndexAmount += tablePolygons[i].getPoints().length;
+            } else {
+                Integer room = roomOf.get(tablePolygons[i]);
+                staticKeys[staticAmount++] = (long) (room == null ? roomAmount
+                        : room) << 32 | i;
+            }
+        }
+
+        Arrays.sort(staticKeys, 0, staticAmount);
+        int[] staticPolygons = new int[staticAmount];
+        int[] staticRooms = new int[staticAmount];
+        int[] staticLevels = new int[staticAmount];
+
+        for (int i = 0; i < staticAmount; i++) {
+            int room = (int) (staticKeys[i] >>> 32);
+            staticPolygons[i] = (int) staticKeys[i];
+            staticRooms[i] = room == roomAmount ? -1 : room;
+            staticLevels[i] = levelOf.getOrDefault(
+                    tablePolygons[staticPolygons[i]], -1);
+        }
+
+        buildTree(staticPolygons, staticRooms, staticLevels);
+        int treePointAmount = tree.getPointAmount();
+        IdentityHashMap<Point3D, Integer> indexOf = new IdentityHashMap<>();
+
+        for (int g = 0; g <= groupAmount; g++) {
+            groupFirstPoint[g] += treePointAmount;
+        }
+
+        for (int i = 0; i < points.size(); i++) {
+            indexOf.put(points.get(i), treePointAmount + i);
+        }
+
+        facePolygon = new int[movingAmount];
+        faceLevel = new int[movingAmount];
+        firstIndex = new int[movingAmount + 1];
+        pointIndices = new int[movingIndexAmount];
+        int face = 0;
+        int indexAmount = 0;
+
+        for (int i = 0; i < polygonAmount; i++) {
+
+            if (!isMoving[i]) {
+                continue;
+            }
+
+            for (Point3D point : tablePolygons[i].getPoints()) {
+                Integer index = indexOf.get(point);
+
+                if (index == null) {
+                    index = treePointAmount + points.size();
+                    indexOf.put(point, index);
+                    points.add(point);
+                }
+
+                pointIndices[indexAmount++] = index;
+            }
+
+            facePolygon[face] = i;
+            faceLevel[face] = levelOf.getOrDefault(tablePolygons[i], -1);
+            face++;
+            firstIndex[face] = indexAmount;
+        }
+
+        Point3D[] staticPoints = tablePoints;
+        tablePoints = new Point3D[treePointAmount + points.size()];
+        System.arraycopy(staticPoints, 0, tablePoints, 0, treePointAmount);
+
+        for (int i = 0; i < points.size(); i++) {
+            tablePoints[treePointAmount + i] = points.get(i);
+        }
+
+        addTreeFaces();
+
+        int pointAmount = tablePoints.length;
+        pointX = new double[pointAmount];
+        pointY = new double[pointAmount];
+        pointZ = new double[pointAmount];
+        screenX = new double[pointAmount];
+        screenY = new double[pointAmount];
+        depth = new double[pointAmount];
+        squared = new double[pointAmount];
+        tree.getPoints(pointX, pointY, pointZ);
+        copyPoints(treePointAmount, pointAmount);
+        createGroupFaces();
+        createEdges();
+
+        int maxCorners = 0;
+
+        for (int f = 0; f < faceAmount; f++) {
+            maxCorners = Math.max(maxCorners,
+                    firstIndex[f + 1] - firstIndex[f]);
+        }
+
+        int slotAmount = tree.getSlotAmount();
+        treeOrder = new int[tree.getOrderLength()];
+        slotFirst = new int[slotAmount + 1];
+        slotFill = new int[slotAmount];
+        slotFaces = new int[movingAmount];
+        drawOrder = new int[faceAmount];
+        orderPosition = new int[movingAmount];
+        sortKeys = new long[movingAmount];
+        drawX = new int[maxCorners + 1];
+        drawY = new int[maxCorners + 1];
+        occluderX = new double[maxCorners];
+        occluderY = new double[maxCorners];
+        faceOccluded = new boolean[movingAmount];
+
+        for (int f = 0; f < movingAmount; f++) {
+            sortKeys[f] = f;
+            locateFace(f);
+        }
+
+        tablePolygonAmount = polygonAmount;
+    }
+
+    /**
+     * Reads the rooms of the scene and their portals.
+     *
+     * @return Index of the room of every polygon which is in a room.
+     */
+    private IdentityHashMap<Polygon3D, Integer> buildRooms() {
+
+        int roomAmount = scene.getRoomAmount();
+        IdentityHashMap<Polygon3D, Integer> roomOf = new IdentityHashMap<>();
+
+        tableRooms = Arrays.copyOf(scene.getRooms(), roomAmount);
+        tableRoomVersions = new int[roomAmount];
+        roomPortals = new Portal[roomAmount][];
+        portalRooms = new int[roomAmount][];
+        roomVisible = new boolean[roomAmount];
+        roomOnPath = new boolean[roomAmount];
+
+        for (int room = 0; room < roomAmount; room++) {
+            tableRoomVersions[room] = tableRooms[room].getVersion();
+            roomPortals[room] = tableRooms[room].getPortals();
+            portalRooms[room] = new int[roomPortals[room].length];
+
+            for (int p = 0; p < roomPortals[room].length; p++) {
+                portalRooms[room][p] = Arrays.asList(tableRooms)
+                        .indexOf(roomPortals[room][p].getRoom());
+            }
+
+            for (Polygon3D polygon : tableRooms[room].getPolygons()) {
+                roomOf.putIfAbsent(polygon, room);
+            }
+        }
+
+        return roomOf;
+    }
+
+    /**
+     * Checks if polygons or portals were added to a room of the point table
+     * after the table was built.
+     *
+     * @return True if a room has changed.
+     */
+    private boolean isRoomChanged() {
+
+        for (int room = 0; room < tableRooms.length; room++) {
+
+            if (tableRooms[room].getVersion() != tableRoomVersions[room]) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Reads the objects of the scene which are drawn in levels of detail.
+     *
+     * <p>
+     * Every object is drawn at its finest level until the levels are chosen.
+     *
+     * @return Index of the level of every polygon which is in a level.
+     */
+    private IdentityHashMap<Polygon3D, Integer> buildDetails() {
+
+        int detailAmount = scene.getDetailAmount();
+        IdentityHashMap<Polygon3D, Integer> levelOf = new IdentityHashMap<>();
+
+        tableDetails = Arrays.copyOf(scene.getDetails(), detailAmount);
+        detailFirstLevel = new int[detailAmount + 1];
+        detailLevel = new int[detailAmount];
+
+        for (int d = 0; d < detailAmount; d++) {
+            int levelAmount = tableDetails[d].getLevelAmount();
+            detailFirstLevel[d + 1] = detailFirstLevel[d] + levelAmount;
+
+            for (int level = 0; level < levelAmount; level++) {
+
+                for (Polygon3D polygon : tableDetails[d].getPolygons(level)) {
+                    levelOf.putIfAbsent(polygon,
+                            detailFirstLevel[d] + level);
+                }
+            }
+        }
+
+        levelShown = new boolean[detailFirstLevel[detailAmount]];
+
+        for (int d = 0; d < detailAmount; d++) {
+            levelShown[detailFirstLevel[d]] = true;
+        }
+
+        return levelOf;
+    }
+
+    /**
+     * Builds the BSP tree from the static polygons unless it was built from
+     * the same polygons in the same rooms and levels of detail before.
+     *
+     * <p>
+     * The static polygons of every room and level of detail are merged into
+     * a mesh, which welds quads of the same color into larger quads, and the
+     * faces of the meshes are divided into clusters of faces which are next
+     * to each other and so usually parts of the same object. The points of
+     * the faces are put at the start of the point table, the points of every
+     * cluster next to each other. A point of faces in many clusters is in the
+     * table once for every cluster, so the points of a cluster can be
+     * projected without the others.
+     *
+     * @param staticPolygons Indices of the static polygons in the scene,
+     * sorted by room.
+     * @param staticRooms Room of every static polygon or -1.
+     * @param staticLevels Level of detail of every static polygon or -1.
+     */
+    private void buildTree(int[] staticPolygons, int[] staticRooms,
+            int[] staticLevels) {
+
+        int staticAmount = staticPolygons.length;
+        Polygon3D[] polygons = new Polygon3D[staticAmount];
+
+        for (int i = 0; i < staticAmount; i++) {
+            polygons[i] = tablePolygons[staticPolygons[i]];
+        }
+
+        if (tree != null && Arrays.equals(polygons, treePolygons)
+                && Arrays.equals(staticRooms, treeRooms)
+                && Arrays.equals(staticLevels, treeLevels)
+                && !isTreeColorChanged()) {
+            return;
+        }
+
+        ArrayList<MeshData> meshes = new ArrayList<>();
+        ArrayList<Integer> meshStarts = new ArrayList<>();
+        int faceTotal = 0;
+        int indexAmount = 0;
+
+        for (int i = 0; i < staticAmount;) {
+            int end = i + 1;
+
+            while (end < staticAmount && staticRooms[end] == staticRooms[i]
+                    && staticLevels[end] == staticLevels[i]) {
+                end++;
+            }
+
+            MeshData mesh = MeshData.merge(Arrays.copyOfRange(polygons, i,
+                    end));
+            meshes.add(mesh);
+            meshStarts.add(i);
+            faceTotal += mesh.getFaceAmount();
+            indexAmount += mesh.indices.length;
+            i = end;
+        }
+
+        HashMap<Integer, Color> colorOf = new HashMap<>();
+        double[] x = new double[indexAmount];
+        double[] y = new double[indexAmount];
+        double[] z = new double[indexAmount];
+        int[] first = new int[faceTotal + 1];
+        int[] indices = new int[indexAmount];
+        int[] order = new int[faceTotal];
+        int[] clusters = new int[faceTotal];
+        int[] firstPoint = new int[faceTotal + 1];
+        int[] rooms = new int[faceTotal];
+        int[] levels = new int[faceTotal];
+        int clusterAmount = 0;
+        int pointAmount = 0;
+        int face = 0;
+        treeColors = new Color[faceTotal];
+        indexAmount = 0;
+
+        for (int m = 0; m < meshes.size(); m++) {
+            MeshData mesh = meshes.get(m);
+            int[] pointOf = new int[mesh.getVertexAmount()];
+
+            for (int f = 0; f < mesh.getFaceAmount(); f++) {
+
+                if (f % CLUSTER_SIZE == 0) {
+                    firstPoint[clusterAmount] = pointAmount;
+                    rooms[clusterAmount] = staticRooms[meshStarts.get(m)];
+                    levels[clusterAmount] = staticLevels[meshStarts.get(m)];
+                    clusterAmount++;
+                    Arrays.fill(pointOf, -1);
+                }
+
+                for (int k = mesh.faceOffsets[f]; k < mesh.faceOffsets[f + 1];
+                        k++) {
+
+                    int vertex = mesh.indices[k];
+
+                    if (pointOf[vertex] < 0) {
+                        pointOf[vertex] = pointAmount;
+                        x[pointAmount] = mesh.vertices[vertex * 3];
+                        y[pointAmount] = mesh.vertices[vertex * 3 + 1];
+                        z[pointAmount] = mesh.vertices[vertex * 3 + 2];
+                        pointAmount++;
+                    }
+
+                    indices[indexAmount++] = pointOf[vertex];
+                }
+
+                order[face] = face;
+                clusters[face] = clusterAmount - 1;
+                treeColors[face] = colorOf.computeIfAbsent(mesh.colors[f],
+                        argb -> new Color(argb, true));
+                face++;
+                first[face] = indexAmount;
+            }
+        }
+
+        firstPoint[clusterAmount] = pointAmount;
+        clusterFirstPoint = Arrays.copyOf(firstPoint, clusterAmount + 1);
+        clusterRoom = Arrays.copyOf(rooms, clusterAmount);
+        clusterLevel = Arrays.copyOf(levels, clusterAmount);
+        clusterBounds = new double[clusterAmount * 6];
+        clusterArea = new double[clusterAmount * 5];
+        clusterKeys = new long[clusterAmount];
+        clusterVisible = new boolean[clusterAmount];
+        clusterProjected = new boolean[clusterAmount];
+
+        for (int c = 0; c < clusterAmount; c++) {
+            int b = c * 6;
+            Arrays.fill(clusterBounds, b, b + 3, Double.MAX_VALUE);
+            Arrays.fill(clusterBounds, b + 3, b + 6, -Double.MAX_VALUE);
+
+            for (int i = firstPoint[c]; i < firstPoint[c + 1]; i++) {
+                clusterBounds[b] = Math.min(clusterBounds[b], x[i]);
+                clusterBounds[b + 1] = Math.min(clusterBounds[b + 1], y[i]);
+                clusterBounds[b + 2] = Math.min(clusterBounds[b + 2], z[i]);
+                clusterBounds[b + 3] = Math.max(clusterBounds[b + 3], x[i]);
+                clusterBounds[b + 4] = Math.max(clusterBounds[b + 4], y[i]);
+                clusterBounds[b + 5] = Math.max(clusterBounds[b + 5], z[i]);
+            }
+        }
+
+        tree = new BspTree(x, y, z, pointAmount, first, indices, order,
+                faceTotal);
+        tablePoints = new Point3D[tree.getPointAmount()];
+        treePolygons = polygons;
+        treePolygonColors = new Color[staticAmount];
+
+        for (int i = 0; i < staticAmount; i++) {
+            treePolygonColors[i] = polygons[i].getColor();
+        }
+
+        treeRooms = staticRooms;
+        treeLevels = staticLevels;
+        treeClusters = clusters;
+    }
+
+    /**
+     * Checks if the color of a polygon in the tree has changed after the
+     * tree was built.
+     *
+     * @return True if the tree has an old color.
+     */
+    private boolean isTreeColorChanged() {
+
+        for (int i = 0; i < treePolygons.length; i++) {
+
+            if (treePolygons[i].getColor() != treePolygonColors[i]) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Adds the faces of the tree after the moving faces in the order of the
+     * nodes.
+     */
+    private void addTreeFaces() {
+
+        int[] treeFaces = tree.getFaces();
+        int[] treeIndices = tree.getIndices();
+        int treeFaceAmount = tree.getFaceAmount();
+        int indexAmount = firstIndex[movingAmount];
+
+        for (int t = 0; t < treeFaceAmount; t++) {
+            indexAmount += tree.getEndIndex(treeFaces[t])
+                    - tree.getFirstIndex(treeFaces[t]);
+        }
+
+        int clusterAmount = clusterRoom.length;
+        faceAmount = movingAmount + treeFaceAmount;
+        faceRoom = new int[faceAmount];
+        faceCluster = new int[faceAmount];
+        clusterFirstFace = new int[clusterAmount + 1];
+        clusterFaces = new int[treeFaceAmount];
+        faceSlot = new int[movingAmount];
+        faceColor = new Color[faceAmount];
+        faceLevel = Arrays.copyOf(faceLevel, faceAmount);
+        firstIndex = Arrays.copyOf(firstIndex, faceAmount + 1);
+        pointIndices = Arrays.copyOf(pointIndices, indexAmount);
+
+        for (int t = 0; t < treeFaceAmount; t++) {
+            int face = movingAmount + t;
+            int first = tree.getFirstIndex(treeFaces[t]);
+            int length = tree.getEndIndex(treeFaces[t]) - first;
+
+            int mergedFace = tree.getPolygon(treeFaces[t]);
+
+            faceColor[face] = treeColors[mergedFace];
+            faceCluster[face] = treeClusters[mergedFace];
+            faceRoom[face] = clusterRoom[faceCluster[face]];
+            faceLevel[face] = clusterLevel[faceCluster[face]];
+            clusterFirstFace[faceCluster[face] + 1]++;
+            System.arraycopy(treeIndices, first, pointIndices,
+                    firstIndex[face], length);
+            firstIndex[face + 1] = firstIndex[face] + length;
+        }
+
+        Arrays.fill(faceCluster, 0, movingAmount, -1);
+
+        for (int c = 0; c < clusterAmount; c++) {
+            clusterFirstFace[c + 1] += clusterFirstFace[c];
+        }
+
+        int[] fill = Arrays.copyOf(clusterFirstFace, clusterAmount);
+
+        for (int face = movingAmount; face < faceAmount; face++) {
+            clusterFaces[fill[faceCluster[face]]++] = face;
+        }
+    }
+
+    /**
+     * Finds the edges of the faces so that an edge shared by faces is
+     * stored once.
+     */
+    private void createEdges() {
+
+        HashMap<Long, Integer> edgeOf = new HashMap<>();
+        indexEdges = new int[pointIndices.length];
+
+        for (int f = 0; f < faceAmount; f++) {
+            int first = firstIndex[f];
+            int end = firstIndex[f + 1];
+
+            for (int k = first; k < end; k++) {
+                int a = pointIndices[k];
+                int b = pointIndices[k + 1 < end ? k + 1 : first];
+                long key = (long) Math.min(a, b) << 32 | Math.max(a, b);
+                Integer edge = edgeOf.get(key);
+
+                if (edge == null) {
+                    edge = edgeOf.size();
+                    edgeOf.put(key, edge);
+                }
+
+                indexEdges[k] = edge;
+            }
+        }
+
+        edgeOwner = new int[edgeOf.size()];
+    }
+
+    /**
+     * Lists the faces which have points of every point group.
+     */
+    private void createGroupFaces() {
+
+        int groupAmount = tableGroups.length;
+        int groupPointStart = groupFirstPoint[0];
+        int groupPointEnd = groupFirstPoint[groupAmount];
+        int[] groupOf = new int[groupPointEnd - groupPointStart];
+        long[] pairs = new long[firstIndex[movingAmount]];
+        int pairAmount = 0;
+
+        for (int g = 0; g < groupAmount; g++) {
+            Arrays.fill(groupOf, groupFirstPoint[g] - groupPointStart,
+                    groupFirstPoint[g + 1] - groupPointStart, g);
+        }
+
+        for (int i = 0; i < movingAmount; i++) {
+
+            for (int k = firstIndex[i]; k < firstIndex[i + 1]; k++) {
+                int point = pointIndices[k];
+
+                if (point >= groupPointStart && point < groupPointEnd) {
+                    pairs[pairAmount++] = (long) groupOf[point
+                            - groupPointStart] << 32 | i;
+                }
+            }
+        }
+
+        Arrays.sort(pairs, 0, pairAmount);
+        groupFirstFace = new int[groupAmount + 1];
+        groupFaces = new int[pairAmount];
+        int amount = 0;
+
+        for (int p = 0; p < pairAmount; p++) {
+
+            if (p == 0 || pairs[p] != pairs[p - 1]) {
+                groupFaces[amount++] = (int) pairs[p];
+                groupFirstFace[(int) (pairs[p] >>> 32) + 1] = amount;
+            }
+        }
+
+        for (int g = 0; g < groupAmount; g++) {
+            groupFirstFace[g + 1] = Math.max(groupFirstFace[g + 1],
+                    groupFirstFace[g]);
+        }
+    }
+
+    /**
+     * Sets forward movement.
+     */
+    public void forward() {
+        move = FORWARD;
+    }
+
+    /**
+     * Sets backwards movement.
+     */
+    public void backWards() {
+        move = BACKWARD;
+    }
+
+    /**
+     * Stops backwards and forward movement.
+     */
+    public void stopMove() {
+        move = STILL;
+    }
+
+    /**
+     * Sets side ways left movement.
+     */
+    public void strafeLeft() {
+        strafe = LEFT;
+    }
+
+    /**
+     * Sets side ways right movement.
+     */
+    public void strafeRight() {
+        strafe = RIGHT;
+    }
+
+    /**
+     * Stops side ways left and right movement.
+     */
+    public void stopStrafe() {
+        strafe = STILL;
+    }
+
+    /**
+     * Sets turning left movement.
+     */
+    public void turnLeft() {
+        turn = LEFT;
+    }
+
+    /**
+     * Sets turning right movement.
+     */
+    public void turnRight() {
+        turn = RIGHT;
+    }
+
+    /**
+     * Stops turning.
+     */
+    public void stopTurn() {
+        turn = STILL;
+    }
+
+    /**
+     * Returns screen width value from the camera.
+     *
+     * @return Drawing width of the screen.
+     */
+    public int getScreenWidth() {
+        return this.screenWidth;
+    }
+
+    /**
+     * Returns screen height value from the camera.
+     *
+     * @return Drawing height of the screen.
+     */
+    public int getScreenHeight() {
+        return this.screenHeight;
+    }
+
+    /**
+     * Sets the field of view value for the camera.
+     *
+     * @param fov Field of View value.
+     */
+    public void setFOV(double fov) {
+        this.fieldOfView = fov;
+    }
+
+    /**
+     * Returns the field of view value of the camera.
+     *
+     * @return Field of view value of the camera.
+     */
+    public double getFOV() {
+        return this.fieldOfView;
+    }
+
+    /**
+     * Determines whether to draw wire frame.
+     */
+    private boolean isWireFrame = true;
+
+    /**
+     * Renders cameras view.
+     *
+     * <p>
+     * Faces partly behind the camera are cut where they are one unit in
+     * front of it and the graphics clips the faces at the edges of the
+     * screen, so large faces keep their shape however close they are.
+     *
+     * <p>
+     * An edge shared by faces is outlined only by the nearest of them, which
+     * is drawn last and would cover the outlines of the others anyway.
+     * Outlines are gathered into one path which is drawn when a face is about
+     * to be filled over the area of the path and after the last face, so the
+     * outlines are hidden by nearer faces as if every face were outlined
+     * right after it is filled.
+     *
+     * @param g Graphics2D drawing element.
+     */
+    public void renderCameraView(Graphics2D g) {
+
+        int centerX = screenWidth / 2;
+        int centerY = screenHeight / 2;
+
+        if (isWireFrame) {
+
+            for (int j = 0; j < drawAmount; j++) {
+                int face = drawOrder[j];
+
+                for (int k = firstIndex[face]; k < firstIndex[face + 1];
+                        k++) {
+
+                    edgeOwner[indexEdges[k]] = j;
+                }
+            }
+
+            outlines.reset();
+        }
+
+        for (int j = 0; j < drawAmount; j++) {
+            int face = drawOrder[j];
+            int amount = 0;
+            boolean isCut = false;
+
+            for (int k = firstIndex[face]; k < firstIndex[face + 1]; k++) {
+                int i = pointIndices[k];
+
+                if (depth[i] <= 1) {
+                    amount = clipFace(face, centerX, centerY);
+                    isCut = true;
+                    break;
+                }
+
+                drawX[amount] = (int) screenX[i] + centerX;
+                drawY[amount] = (int) screenY[i] + centerY;
+                amount++;
+            }
+
+            if (isWireFrame && isOutlineCovered(amount)) {
+                drawOutlines(g);
+            }
+
+            if (face < movingAmount) {
+                tablePolygons[facePolygon[face]].drawFilledPolygon(g, drawX,
+                        drawY, amount);
+            } else {
+                g.setColor(faceColor[face]);
+                g.fillPolygon(drawX, drawY, amount);
+                g.setColor(Polygon3D.OUTLINE_COLOR);
+            }
+
+            if (isWireFrame && amount > 0) {
+                addOutline(face, j, amount, isCut);
+            }
+        }
+
+        if (isWireFrame) {
+            drawOutlines(g);
+        }
+    }
+
+    /**
+     * Tells whether the drawing positions of a face are over the outlines
+     * waiting to be drawn.
+     *
+     * <p>
+     * Bounds which only touch do not overlap. Faces next to each other
+     * always touch, and the edges they share are outlined by the nearer
+     * face after it is filled.
+     *
+     * @param amount Amount of the drawing positions.
+     * @return Whether the bounds of the face and the outlines overlap.
+     */
+    private boolean isOutlineCovered(int amount) {
+
+        if (outlines.getCurrentPoint() == null || amount == 0) {
+            return false;
+        }
+
+        int left = drawX[0];
+        int top = drawY[0];
+        int right = drawX[0];
+        int bottom = drawY[0];
+
+        for (int k = 1; k < amount; k++) {
+            left = Math.min(left, drawX[k]);
+            top = Math.min(top, drawY[k]);
+            right = Math.max(right, drawX[k]);
+            bottom = Math.max(bottom, drawY[k]);
+        }
+
+        return left < outlineBounds[2] && right > outlineBounds[0]
+                && top < outlineBounds[3] && bottom > outlineBounds[1];
+    }
+
+    /**
+     * Adds the edges of a face which it draws to the outlines.
+     *
+     * <p>
+     * A face which is cut at the camera adds its whole outline, because its
+     * drawing positions are not its points.
+     *
+     * @param face Index of the face.
+     * @param place Place of the face in the draw order.
+     * @param amount Amount of the drawing positions.
+     * @param isCut Whether the face is cut at the camera.
+     */
+    private void addOutline(int face, int place, int amount, boolean isCut) {
+
+        int first = firstIndex[face];
+        boolean isOpen = false;
+
+        if (outlines.getCurrentPoint() == null) {
+            outlineBounds[0] = drawX[0];
+            outlineBounds[1] = drawY[0];
+            outlineBounds[2] = drawX[0];
+            outlineBounds[3] = drawY[0];
+        }
+
+        for (int k = 0; k < amount; k++) {
+            int next = k + 1 < amount ? k + 1 : 0;
+
+            if (isCut || edgeOwner[indexEdges[first + k]] == place) {
+
+                if (!isOpen) {
+                    outlines.moveTo(drawX[k], drawY[k]);
+                    isOpen = true;
+                }
+
+                outlines.lineTo(drawX[next], drawY[next]);
+                outlineBounds[0] = Math.min(outlineBounds[0],
+                        Math.min(drawX[k], drawX[next]));
+                outlineBounds[1] = Math.min(outlineBounds[1],
+                        Math.min(drawY[k], drawY[next]));
+                outlineBounds[2] = Math.max(outlineBounds[2],
+                        Math.max(drawX[k], drawX[next]));
+                outlineBounds[3] = Math.max(outlineBounds[3],
+                        Math.max(drawY[k], drawY[next]));
+            } else {
+                isOpen = false;
+            }
+        }
+    }
+
+    /**
+     * Draws the outlines waiting to be drawn.
+     *
+     * @param g Graphics2D drawing element.
+     */
+    private void drawOutlines(Graphics2D g) {
+
+        if (outlines.getCurrentPoint() != null) {
+            g.setColor(Polygon3D.OUTLINE_COLOR);
+            g.draw(outlines);
+            outlines.reset();
+        }
+    }
+
+    /**
+     * Cuts a face which is partly behind the camera at the depth of one and
+     * stores the drawing positions of the part in front.
+     *
+     * @param face Index of the face.
+     * @param centerX Drawing position of the center of the view on the
+     * x-plane.
+     * @param centerY Drawing position of the center of the view on the
+     * y-plane.
+     * @return Amount of the drawing positions.
+     */
+    private int clipFace(int face, int centerX, int centerY) {
+
+        int first = firstIndex[face];
+        int end = firstIndex[face + 1];
+        int amount = 0;
+
+        for (int k = first; k < end; k++) {
+            int i = pointIndices[k];
+            int next = pointIndices[k + 1 < end ? k + 1 : first];
+
+            if (depth[i] > 1) {
+                drawX[amount] = (int) screenX[i] + centerX;
+                drawY[amount] = (int) screenY[i] + centerY;
+                amount++;
+            }
+
+            if (depth[i] > 1 != depth[next] > 1) {
+                double t = (depth[i] - 1) / (depth[i] - depth[next]);
+                double dx = viewMatrix[9] - pointX[i]
+                        - t * (pointX[next] - pointX[i]);
+                double dy = viewMatrix[10] - pointY[i]
+                        - t * (pointY[next] - pointY[i]);
+                double dz = viewMatrix[11] - pointZ[i]
+                        - t * (pointZ[next] - pointZ[i]);
+
+                drawX[amount] = (int) (scaleX * (viewMatrix[3] * dx
+                        + viewMatrix[4] * dy + viewMatrix[5] * dz)) + centerX;
+                drawY[amount] = (int) (scaleY * (viewMatrix[6] * dx
+                        + viewMatrix[7] * dy + viewMatrix[8] * dz)) + centerY;
+                amount++;
+            }
+        }
+
+        return amount;
+    }
+
+    /**
+     * Toggles wire frame view by given boolean value.
+     *
+     * @param isWireFrame Whether wire frame is on or off.
+     */
+    public void setWireFrame(boolean isWireFrame) {
+        this.isWireFrame = isWireFrame;
+    }
+
+    /**
+     * Toggles wire frame view on and off.
+     */
+    public void toggleWireFrame() {
+        if (isWireFrame) {
+            isWireFrame = false;
+        } else {
+            isWireFrame = true;
+        }
+    }
+
+    /**
+     * Toggles skipping the polygons which are hidden by nearer polygons or
+     * outside the screen.
+     *
+     * @param isOcclusionCulling Whether occlusion culling is on or off.
+     */
+    public void setOcclusionCulling(boolean isOcclusionCulling) {
+        this.isOcclusionCulling = isOcclusionCulling;
+        projectedView[12] = Double.NaN;
+    }
+
+    /**
+     * Returns the amount of the faces drawn on the last update.
+     *
+     * @return Amount of faces.
+     */
+    public int getDrawnFaceAmount() {
+        return drawAmount;
+    }
+
+    /**
+     * Returns the amount of the points projected when the camera last moved.
+     *
+     * @return Amount of points.
+     */
+    public int getProjectedPointAmount() {
+        return projectedAmount;
+    }
+
+    /**
+     * Returns the amount of the clusters of static polygons hidden by the
+     * occluders when the camera last moved.
+     *
+     * @return Amount of clusters.
+     */
+    public int getOccludedClusterAmount() {
+        return occludedAmount;
+    }
+
+    /**
+     * Returns rendering statistics for debugging.
+     *
+     * @return Drawn faces, projected points, culled clusters and levels of
+     * detail as a string.
+     */
+    public String getStatistics() {
+
+        int occludedFaces = 0;
+        int coarseDetails = 0;
+
+        for (boolean isOccluded : faceOccluded) {
+            occludedFaces += isOccluded ? 1 : 0;
+        }
+
+        for (int level : detailLevel) {
+            coarseDetails += level > 0 ? 1 : 0;
+        }
+
+        return String.format("Camera: %d of %d faces drawn, %d of %d points "
+                + "projected, %d clusters, %d occluders, %d occluded, "
+                + "%d outside the screen, %d moving faces hidden, "
+                + "%d of %d objects at a coarser level",
+                drawAmount, faceAmount, projectedAmount, pointX.length,
+                clusterRoom.length, occluderAmount, occludedAmount,
+                outsideAmount, occludedFaces, coarseDetails,
+                detailLevel.length);
+    }
+
+    /**
+     * Sets cameras´s direction.
+     *
+     * @param p Direction vector.
+     */
+    public void setDirection(Point3D p) {
+        direction.setDirection(p, origin);
+        double mag = direction.getMagnitude();
+        direction.setY(0);
+        direction.normalize();
+        updateRightAndUp();
+    }
+
+    /**
+     * Sets movement speed.
+     *
+     * @param factor Move factor.
+     */
+    public void setMoveFactor(double factor) {
+
+        this.moveFactor = factor;
+    }
+}
@@ -0,0 +1,150 @@
+package com.nikoengine.camera;
+
+import com.nikoengine.geometry.Point3D;
+import com.nikoengine.geometry.Polygon3D;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Tessellations of an object from the finest to the coarsest of which a
+ * camera draws one.
+ *
+ * <p>
+ * Every level is a complete set of polygons of the object, usually made of
+ * the same points. A camera draws the finest level whose polygons are at
+ * least {@value #DETAIL_PIXELS} pixels on the screen at the nearest edge of
+ * the object. A level finer than the drawn one is taken back only when its
+ * polygons are a quarter larger than that, so an object at the limit does not
+ * change its level every frame.
+ *
+ * <p>
+ * Levels are added to the current scene when they are created and should be
+ * added while the level is built, because cameras read them when they build
+ * their point tables.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class LevelOfDetail {
+
+    /**
+     * Holds the smallest size in pixels of the polygons of a drawn level.
+     */
+    public static final int DETAIL_PIXELS = 16;
+
+    /**
+     * Holds how much larger the polygons of a finer level must be to take it
+     * back.
+     */
+    private static final double HYSTERESIS = 1.25;
+
+    /**
+     * Holds the center of the object.
+     */
+    private final Point3D center;
+
+    /**
+     * Holds the distance from the center to the farthest point of the object.
+     */
+    private final double radius;
+
+    /**
+     * Holds the polygons of every level.
+     */
+    private final ArrayList<Polygon3D[]> levels = new ArrayList<>();
+
+    /**
+     * Holds the size of the polygons of every level.
+     */
+    private double[] sizes = new double[0];
+
+    /**
+     * Creates an object without levels and adds it to the current scene.
+     *
+     * @param center Center of the object, which moves with the object.
+     * @param radius Distance from the center to the farthest point.
+     */
+    public LevelOfDetail(Point3D center, double radius) {
+        this.center = center;
+        this.radius = radius;
+        Scene.getCurrent().add(this);
+    }
+
+    /**
+     * Adds a level coarser than the levels added before.
+     *
+     * @param size Size of the polygons of the level.
+     * @param polygons Polygons of the level.
+     */
+    public void add(double size, Polygon3D... polygons) {
+        sizes = Arrays.copyOf(sizes, sizes.length + 1);
+        sizes[sizes.length - 1] = size;
+        levels.add(polygons);
+    }
+
+    /**
+     * Returns the amount of the levels.
+     *
+     * @return Amount of levels.
+     */
+    public int getLevelAmount() {
+        return levels.size();
+    }
+
+    /**
+     * Returns the polygons of a level.
+     *
+     * @param level Index of the level, zero being the finest.
+     * @return Array of polygons.
+     */
+    public Polygon3D[] getPolygons(int level) {
+        return levels.get(level);
+    }
+
+    /**
+     * Returns the polygons of every level.
+     *
+     * @return Array of polygons.
+     */
+    public Polygon3D[] getPolygons() {
+
+        ArrayList<Polygon3D> polygons = new ArrayList<>();
+
+        for (Polygon3D[] level : levels) {
+            polygons.addAll(Arrays.asList(level));
+        }
+
+        return polygons.toArray(new Polygon3D[polygons.size()]);
+    }
+
+    /**
+     * Chooses the level to draw.
+     *
+     * @param x Position of the camera on the x-plane.
+     * @param y Position of the camera on the y-plane.
+     * @param z Position of the camera on the z-plane.
+     * @param scale Projection scale of the camera.
+     * @param current Level drawn until now.
+     * @return Index of the level.
+     */
+    int chooseLevel(double x, double y, double z, double scale,
+            int current) {
+
+        double dx = x - center.getX();
+        double dy = y - center.getY();
+        double dz = z - center.getZ();
+        double distance = Math.max(1, Math.sqrt(dx * dx + dy * dy + dz * dz)
+                - radius);
+
+        for (int level = 0; level < sizes.length - 1; level++) {
+            double pixels = sizes[level] * scale / distance;
+
+            if (pixels >= DETAIL_PIXELS * (level < current ? HYSTERESIS : 1)) {
+                return level;
+            }
+        }
+
+        return sizes.length - 1;
+    }
+}
@@ -0,0 +1,286 @@
+package com.nikoengine.camera;
+
+import java.util.Arrays;
+
+/**
+ * Coarse depth buffer of the faces which hide the rest of the scene.
+ *
+ * <p>
+ * Occluders are written at the corners of texels which are eight pixels
+ * wide. A corner gets the farthest depth of the nearest occluder which covers
+ * it and a texel the farthest depth of its corners, so a texel is covered
+ * only when all its corners are and its depth is never nearer than the
+ * occluders. Every level of the pyramid holds the farthest depth of four
+ * texels of the level below, so any screen area is tested against at most
+ * four texels.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+final class OcclusionBuffer {
+
+    /**
+     * Holds the width and height of a texel in pixels.
+     */
+    static final int TEXEL_SIZE = 8;
+
+    /**
+     * Holds the amount of texel corners on a row.
+     */
+    private final int cornerColumns;
+
+    /**
+     * Holds the amount of texel corner rows.
+     */
+    private final int cornerRows;
+
+    /**
+     * Holds the depth at every texel corner.
+     */
+    private final double[] cornerDepth;
+
+    /**
+     * Holds the texel depths of every level.
+     */
+    private final double[][] levels;
+
+    /**
+     * Holds the amount of texels on a row on every level.
+     */
+    private final int[] levelColumns;
+
+    /**
+     * Holds the amount of texel rows on every level.
+     */
+    private final int[] levelRows;
+
+    /**
+     * Creates an empty buffer.
+     *
+     * @param width Width of the screen in pixels.
+     * @param height Height of the screen in pixels.
+     */
+    OcclusionBuffer(int width, int height) {
+
+        int columns = Math.max(1, (width + TEXEL_SIZE - 1) / TEXEL_SIZE);
+        int rows = Math.max(1, (height + TEXEL_SIZE - 1) / TEXEL_SIZE);
+        int levelAmount = 1;
+
+        while (columns >> (levelAmount - 1) > 1
+                || rows >> (levelAmount - 1) > 1) {
+            levelAmount++;
+        }
+
+        cornerColumns = columns + 1;
+        cornerRows = rows + 1;
+        cornerDepth = new double[cornerColumns * cornerRows];
+        levels = new double[levelAmount][];
+        levelColumns = new int[levelAmount];
+        levelRows = new int[levelAmount];
+
+        for (int level = 0; level < levelAmount; level++) {
+            levelColumns[level] = Math.max(1, (columns + (1 << level) - 1)
+                    >> level);
+            levelRows[level] = Math.max(1, (rows + (1 << level) - 1) >> level);
+            levels[level] = new double[levelColumns[level] * levelRows[level]];
+        }
+
+        clear();
+    }
+
+    /**
+     * Removes all occluders.
+     */
+    void clear() {
+        Arrays.fill(cornerDepth, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Writes a convex occluder.
+     *
+     * <p>
+     * The corners inside the occluder are found a row at a time from the
+     * edges. Corners within a millionth of a pixel from an edge are inside, so
+     * corners on the edge shared by two faces are not lost to rounding.
+     *
+     * @param x Positions of the corners on the screen on the x-plane.
+     * @param y Positions of the corners on the screen on the y-plane.
+     * @param amount Amount of the corners.
+     * @param depth Farthest depth of the occluder.
+     */
+    void addOccluder(double[] x, double[] y, int amount, double depth) {
+
+        if (amount < 3) {
+            return;
+        }
+
+        double minX = x[0];
+        double maxX = x[0];
+        double minY = y[0];
+        double maxY = y[0];
+        double area = 0;
+
+        for (int i = 0; i < amount; i++) {
+            int j = i + 1 < amount ? i + 1 : 0;
+            minX = Math.min(minX, x[i]);
+            maxX = Math.max(maxX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxY = Math.max(maxY, y[i]);
+            area += x[i] * y[j] - x[j] * y[i];
+        }
+
+        if (area == 0) {
+            return;
+        }
+
+        double sign = Math.signum(area);
+        int fromX = Math.max(0, (int) Math.ceil(minX / TEXEL_SIZE));
+        int toX = Math.min(cornerColumns - 1, (int) Math.floor(maxX
+                / TEXEL_SIZE));
+        int fromY = Math.max(0, (int) Math.ceil(minY / TEXEL_SIZE));
+        int toY = Math.min(cornerRows - 1, (int) Math.floor(maxY
+                / TEXEL_SIZE));
+
+        for (int row = fromY; row <= toY; row++) {
+            double left = fromX * TEXEL_SIZE;
+            double right = toX * TEXEL_SIZE;
+            double py = row * TEXEL_SIZE;
+
+            for (int i = 0; i < amount && left <= right; i++) {
+                int j = i + 1 < amount ? i + 1 : 0;
+                double dx = (x[j] - x[i]) * sign;
+                double dy = (y[j] - y[i]) * sign;
+                double limit = dx * (py - y[i]) + dy * x[i]
+                        + 1e-6 * (Math.abs(dx) + Math.abs(dy));
+
+                if (dy > 0) {
+                    right = Math.min(right, limit / dy);
+                } else if (dy < 0) {
+                    left = Math.max(left, limit / dy);
+                } else if (limit < 0) {
+                    left = right + 1;
+                }
+            }
+
+            int corner = row * cornerColumns;
+            int end = corner + (int) Math.floor(right / TEXEL_SIZE);
+
+            for (corner += (int) Math.ceil(left / TEXEL_SIZE); corner <= end;
+                    corner++) {
+
+                if (depth < cornerDepth[corner]) {
+                    cornerDepth[corner] = depth;
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the texels and the levels of the pyramid from the corners.
+     */
+    void buildPyramid() {
+
+        double[] texels = levels[0];
+        int columns = levelColumns[0];
+
+        for (int row = 0; row < levelRows[0]; row++) {
+
+            for (int column = 0; column < columns; column++) {
+                int corner = row * cornerColumns + column;
+
+                texels[row * columns + column] = farthest(
+                        cornerDepth[corner], cornerDepth[corner + 1],
+                        cornerDepth[corner + cornerColumns],
+                        cornerDepth[corner + cornerColumns + 1]);
+            }
+        }
+
+        for (int level = 1; level < levels.length; level++) {
+            double[] below = levels[level - 1];
+            int belowColumns = levelColumns[level - 1];
+            int belowRows = levelRows[level - 1];
+            columns = levelColumns[level];
+
+            for (int row = 0; row < levelRows[level]; row++) {
+                int row1 = row * 2;
+                int row2 = Math.min(row1 + 1, belowRows - 1);
+
+                for (int column = 0; column < columns; column++) {
+                    int column1 = column * 2;
+                    int column2 = Math.min(column1 + 1, belowColumns - 1);
+
+                    levels[level][row * columns + column] = farthest(
+                            below[row1 * belowColumns + column1],
+                            below[row1 * belowColumns + column2],
+                            below[row2 * belowColumns + column1],
+                            below[row2 * belowColumns + column2]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tells whether an area of the screen is behind the occluders.
+     *
+     * @param left Left edge in pixels.
+     * @param top Top edge in pixels.
+     * @param right Right edge in pixels.
+     * @param bottom Bottom edge in pixels.
+     * @param depth Nearest depth of the area.
+     * @return Whether every texel of the area is covered nearer than the
+     * depth.
+     */
+    boolean isOccluded(double left, double top, double right, double bottom,
+            double depth) {
+
+        int fromX = Math.max(0, (int) Math.floor(left / TEXEL_SIZE));
+        int toX = Math.min(levelColumns[0] - 1,
+                (int) Math.floor(right / TEXEL_SIZE));
+        int fromY = Math.max(0, (int) Math.floor(top / TEXEL_SIZE));
+        int toY = Math.min(levelRows[0] - 1,
+                (int) Math.floor(bottom / TEXEL_SIZE));
+        int level = 0;
+
+        if (fromX > toX || fromY > toY) {
+            return false;
+        }
+
+        while (toX - fromX > 1 || toY - fromY > 1) {
+            fromX >>= 1;
+            toX >>= 1;
+            fromY >>= 1;
+            toY >>= 1;
+            level++;
+        }
+
+        for (int row = fromY; row <= toY; row++) {
+
+            for (int column = fromX; column <= toX; column++) {
+
+                if (levels[level][row * levelColumns[level] + column]
+                        >= depth) {
+
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the farthest of four depths.
+     *
+     * @param a First depth.
+     * @param b Second depth.
+     * @param c Third depth.
+     * @param d Fourth depth.
+     * @return Largest depth.
+     */
+    private static double farthest(double a, double b, double c, double d) {
+        double ab = a > b ? a : b;
+        double cd = c > d ? c : d;
+        return ab > cd ? ab : cd;
+    }
+}
@@ -0,0 +1,140 @@
+package com.nikoengine.camera;
+
+import com.nikoengine.geometry.Point3D;
+
+/**
+ * Opening through which a room sees another room.
+ *
+ * <p>
+ * A portal is one way, so two rooms which see each other need a portal in
+ * both directions. The shape may differ between the directions: a low room
+ * without a ceiling sees over its walls much more of the rooms next to it
+ * than they see of it through a door.
+ *
+ * <p>
+ * Cameras read the corners on every update, so the corners may be moved to
+ * change the opening, for example when a door opens.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class Portal {
+
+    /**
+     * Holds the room which is seen through the portal.
+     */
+    private final Room to;
+
+    /**
+     * Holds the corners of the opening.
+     */
+    private final Point3D[] corners;
+
+    /**
+     * Creates a portal and adds it to the room which sees through it.
+     *
+     * @param from Room which sees through the portal.
+     * @param to Room which is seen through the portal.
+     * @param corners Corners of the opening.
+     */
+    public Portal(Room from, Room to, Point3D... corners) {
+        this.to = to;
+        this.corners = corners;
+        from.add(this);
+    }
+
+    /**
+     * Returns the room which is seen through the portal.
+     *
+     * @return Room.
+     */
+    public Room getRoom() {
+        return to;
+    }
+
+    /**
+     * Returns the corners of the opening.
+     *
+     * @return Array of points.
+     */
+    public Point3D[] getCorners() {
+        return corners;
+    }
+
+    /**
+     * Tells whether a position is close to the opening and in front of it.
+     *
+     * <p>
+     * The position is projected along the normal of the opening to its
+     * plane, and the projected position must be inside the opening.
+     *
+     * @param x Position on the x-plane.
+     * @param y Position on the y-plane.
+     * @param z Position on the z-plane.
+     * @param distance Largest distance from the plane of the opening.
+     * @return Whether the position is at most the distance away from the
+     * plane and inside the opening.
+     */
+    boolean isInOpening(double x, double y, double z, double distance) {
+
+        double nx = 0;
+        double ny = 0;
+        double nz = 0;
+
+        for (int i = 0; i < corners.length; i++) {
+            Point3D a = corners[i];
+            Point3D b = corners[(i + 1) % corners.length];
+            nx += (a.getY() - b.getY()) * (a.getZ() + b.getZ());
+            ny += (a.getZ() - b.getZ()) * (a.getX() + b.getX());
+            nz += (a.getX() - b.getX()) * (a.getY() + b.getY());
+        }
+
+        double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+
+        if (length == 0) {
+            return false;
+        }
+
+        double offset = (nx * (x - corners[0].getX())
+                + ny * (y - corners[0].getY())
+                + nz * (z - corners[0].getZ())) / length;
+
+        if (Math.abs(offset) > distance) {
+            return false;
+        }
+
+        int axis = Math.abs(nx) >= Math.abs(ny) && Math.abs(nx) >= Math.abs(nz)
+                ? 0 : Math.abs(ny) >= Math.abs(nz) ? 1 : 2;
+        int u = (axis + 1) % 3;
+        int v = (axis + 2) % 3;
+        double[] position = {x, y, z};
+        boolean isInside = false;
+
+        for (int i = 0, j = corners.length - 1; i < corners.length; j = i++) {
+            double au = getCoordinate(corners[i], u);
+            double av = getCoordinate(corners[i], v);
+            double bu = getCoordinate(corners[j], u);
+            double bv = getCoordinate(corners[j], v);
+
+            if ((av > position[v]) != (bv > position[v]) && position[u]
+                    < (bu - au) * (position[v] - av) / (bv - av) + au) {
+
+                isInside = !isInside;
+            }
+        }
+
+        return isInside;
+    }
+
+    /**
+     * Returns a coordinate of a point.
+     *
+     * @param p Point.
+     * @param axis 0 for x, 1 for y and 2 for z.
+     * @return Coordinate.
+     */
+    private static double getCoordinate(Point3D p, int axis) {
+        return axis == 0 ? p.getX() : axis == 1 ? p.getY() : p.getZ();
+    }
+}
@@ -0,0 +1,65 @@
+package com.nikoengine.camera;
+
+/**
+ * Projects batches of points which are stored in primitive arrays.
+ *
+ * <p>
+ * The loop has no branches, calls or object fields, so the JIT compiler can
+ * turn it into vector instructions which project several points at a time.
+ * Clipping is left to the camera which draws the results.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public final class ProjectionKernel {
+
+    /**
+     * Prevents creating instances.
+     */
+    private ProjectionKernel() {
+    }
+
+    /**
+     * Projects the points from the start index up to the end index.
+     *
+     * <p>
+     * Results are written to the same indices of the output arrays.
+     *
+     * @param m View matrix of the camera.
+     * @param scaleX Projection scale on the x-plane.
+     * @param scaleY Projection scale on the y-plane.
+     * @param x Positions on the x-plane.
+     * @param y Positions on the y-plane.
+     * @param z Positions on the z-plane.
+     * @param from First index.
+     * @param to Index after the last index.
+     * @param screenX Projected positions on the x-plane.
+     * @param screenY Projected positions on the y-plane.
+     * @param depth Distances along the direction of the camera.
+     * @param squared Squared distances from the camera.
+     */
+    public static void project(double[] m, double scaleX, double scaleY,
+            double[] x, double[] y, double[] z, int from, int to,
+            double[] screenX, double[] screenY, double[] depth,
+            double[] squared) {
+
+        double m0 = m[0], m1 = m[1], m2 = m[2];
+        double m3 = m[3], m4 = m[4], m5 = m[5];
+        double m6 = m[6], m7 = m[7], m8 = m[8];
+        double cx = m[9], cy = m[10], cz = m[11];
+
+        for (int i = from; i < to; i++) {
+            double dx = cx - x[i];
+            double dy = cy - y[i];
+            double dz = cz - z[i];
+            double w1 = m0 * dx + m1 * dy + m2 * dz;
+            double inverse = 1 / w1;
+
+            screenX[i] = scaleX * (m3 * dx + m4 * dy + m5 * dz) * inverse;
+            screenY[i] = scaleY * (m6 * dx + m7 * dy + m8 * dz) * inverse;
+            depth[i] = w1;
+            squared[i] = dx * dx + dy * dy + dz * dz;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.nikoengine.camera;
+
+import com.nikoengine.geometry.Point3D;
+import com.nikoengine.geometry.Polygon3D;
+import java.util.ArrayList;
+
+/**
+ * Part of a level which is seen from other rooms only through portals.
+ *
+ * <p>
+ * A room is a box which holds the polygons added to it. A camera inside a
+ * room draws the polygons of the rooms it sees through the portals and does
+ * not project the others at all. Moving polygons belong to the room where
+ * their center is. Polygons which are in no room are always drawn.
+ *
+ * <p>
+ * A room is added to the current scene when it is created. The bounds of a
+ * room do not change. Polygons and portals can be added to a room later, but
+ * every addition makes the cameras read the scene again, so they should be
+ * added while the level is built.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class Room {
+
+    /**
+     * Holds the smallest position of the room on every plane.
+     */
+    private final double[] min = new double[3];
+
+    /**
+     * Holds the largest position of the room on every plane.
+     */
+    private final double[] max = new double[3];
+
+    /**
+     * Holds the polygons of the room.
+     */
+    private final ArrayList<Polygon3D> polygons = new ArrayList<>();
+
+    /**
+     * Holds the portals through which the room sees other rooms.
+     */
+    private final ArrayList<Portal> portals = new ArrayList<>();
+
+    /**
+     * Holds the amount of changes of the polygons and portals.
+     */
+    private int version;
+
+    /**
+     * Creates a room and adds it to the current scene.
+     *
+     * @param corner Corner of the room.
+     * @param oppositeCorner Opposite corner of the room.
+     */
+    public Room(Point3D corner, Point3D oppositeCorner) {
+
+        double[] a = {corner.getX(), corner.getY(), corner.getZ()};
+        double[] b = {oppositeCorner.getX(), oppositeCorner.getY(),
+            oppositeCorner.getZ()};
+
+        for (int i = 0; i < 3; i++) {
+            min[i] = Math.min(a[i], b[i]);
+            max[i] = Math.max(a[i], b[i]);
+        }
+
+        Scene.getCurrent().add(this);
+    }
+
+    /**
+     * Adds polygons to the room.
+     *
+     * @param polygons Polygons.
+     */
+    public void add(Polygon3D... polygons) {
+
+        for (Polygon3D polygon : polygons) {
+            this.polygons.add(polygon);
+        }
+
+        version++;
+    }
+
+    /**
+     * Returns the polygons of the room.
+     *
+     * @return Array of polygons.
+     */
+    public Polygon3D[] getPolygons() {
+        return polygons.toArray(new Polygon3D[polygons.size()]);
+    }
+
+    /**
+     * Adds a portal through which the room sees another room.
+     *
+     * @param portal Portal.
+     */
+    void add(Portal portal) {
+        portals.add(portal);
+        version++;
+    }
+
+    /**
+     * Returns the version of the room which changes when polygons or
+     * portals are added.
+     *
+     * @return Version of the room.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the portals through which the room sees other rooms.
+     *
+     * @return Array of portals.
+     */
+    public Portal[] getPortals() {
+        return portals.toArray(new Portal[portals.size()]);
+    }
+
+    /**
+     * Tells whether a position is inside the room.
+     *
+     * @param x Position on the x-plane.
+     * @param y Position on the y-plane.
+     * @param z Position on the z-plane.
+     * @return Whether the position is inside or on the edge.
+     */
+    public boolean contains(double x, double y, double z) {
+        return x >= min[0] && x <= max[0] && y >= min[1] && y <= max[1]
+                && z >= min[2] && z <= max[2];
+    }
+}
@@ -0,0 +1,241 @@
+package com.nikoengine.camera;
+
+import com.nikoengine.geometry.PointGroup;
+import com.nikoengine.geometry.Polygon3D;
+import java.util.Arrays;
+
+/**
+ * Holds the polygons which a 3D camera draws, their levels of detail and
+ * the rooms of a level.
+ *
+ * <p>
+ * Every thread adds new polygons to its current scene and a camera draws the
+ * scene which was current when the camera was created. Threads which have not
+ * set a scene share the default scene. This lets a screen be built on a
+ * background thread into a scene of its own while another screen is drawn.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class Scene {
+
+    /**
+     * Holds the scene of the threads which have not set a scene.
+     */
+    private static final Scene DEFAULT_SCENE = new Scene();
+
+    /**
+     * Holds the current scene of every thread.
+     */
+    private static final ThreadLocal<Scene> current = new ThreadLocal<>();
+
+    /**
+     * Holds the polygons of the scene.
+     */
+    private Polygon3D[] polygons = new Polygon3D[256];
+
+    /**
+     * Holds the amount of the polygons in the scene.
+     */
+    private int polygonAmount;
+
+    /**
+     * Holds the groups of points which can move.
+     */
+    private PointGroup[] pointGroups = new PointGroup[16];
+
+    /**
+     * Holds the amount of the point groups in the scene.
+     */
+    private int pointGroupAmount;
+
+    /**
+     * Holds the rooms of the scene.
+     */
+    private Room[] rooms = new Room[4];
+
+    /**
+     * Holds the amount of the rooms in the scene.
+     */
+    private int roomAmount;
+
+    /**
+     * Holds the objects drawn in levels of detail.
+     */
+    private LevelOfDetail[] details = new LevelOfDetail[16];
+
+    /**
+     * Holds the amount of the objects drawn in levels of detail.
+     */
+    private int detailAmount;
+
+    /**
+     * Holds the amount of color changes of the polygons of the scene.
+     */
+    private int colorVersion;
+
+    /**
+     * Returns the scene where the current thread adds new polygons.
+     *
+     * @return Current scene.
+     */
+    public static Scene getCurrent() {
+
+        Scene scene = current.get();
+        return scene == null ? DEFAULT_SCENE : scene;
+    }
+
+    /**
+     * Sets the scene where the current thread adds new polygons.
+     *
+     * @param scene Scene or null for the default scene.
+     */
+    public static void setCurrent(Scene scene) {
+        current.set(scene);
+    }
+
+    /**
+     * Adds a polygon to the scene.
+     *
+     * @param p Polygon.
+     */
+    public void add(Polygon3D p) {
+
+        if (polygonAmount == polygons.length) {
+            polygons = Arrays.copyOf(polygons, polygons.length * 2);
+        }
+
+        polygons[polygonAmount++] = p;
+    }
+
+    /**
+     * Tells that the color of a polygon of the scene has changed.
+     */
+    public void colorChanged() {
+        colorVersion++;
+    }
+
+    /**
+     * Returns the amount of color changes of the polygons of the scene.
+     *
+     * @return Version which changes with every color change.
+     */
+    public int getColorVersion() {
+        return colorVersion;
+    }
+
+    /**
+     * Returns the polygons of the scene.
+     *
+     * @return Array of polygons.
+     */
+    public Polygon3D[] getPolygons() {
+        return polygons;
+    }
+
+    /**
+     * Returns the amount of the polygons in the scene.
+     *
+     * @return Amount of polygons.
+     */
+    public int getPolygonAmount() {
+        return polygonAmount;
+    }
+
+    /**
+     * Adds a group of points which can move to the scene.
+     *
+     * @param group Point group.
+     */
+    public void add(PointGroup group) {
+
+        if (pointGroupAmount == pointGroups.length) {
+            pointGroups = Arrays.copyOf(pointGroups, pointGroups.length * 2);
+        }
+
+        pointGroups[pointGroupAmount++] = group;
+    }
+
+    /**
+     * Returns the point groups of the scene.
+     *
+     * @return Array of point groups.
+     */
+    public PointGroup[] getPointGroups() {
+        return pointGroups;
+    }
+
+    /**
+     * Returns the amount of the point groups in the scene.
+     *
+     * @return Amount of point groups.
+     */
+    public int getPointGroupAmount() {
+        return pointGroupAmount;
+    }
+
+    /**
+     * Adds a room to the scene.
+     *
+     * @param room Room.
+     */
+    public void add(Room room) {
+
+        if (roomAmount == rooms.length) {
+            rooms = Arrays.copyOf(rooms, rooms.length * 2);
+        }
+
+        rooms[roomAmount++] = room;
+    }
+
+    /**
+     * Returns the rooms of the scene.
+     *
+     * @return Array of rooms.
+     */
+    public Room[] getRooms() {
+        return rooms;
+    }
+
+    /**
+     * Returns the amount of the rooms in the scene.
+     *
+     * @return Amount of rooms.
+     */
+    public int getRoomAmount() {
+        return roomAmount;
+    }
+
+    /**
+     * Adds an object drawn in levels of detail to the scene.
+     *
+     * @param detail Levels of detail of the object.
+     */
+    public void add(LevelOfDetail detail) {
+
+        if (detailAmount == details.length) {
+            details = Arrays.copyOf(details, details.length * 2);
+        }
+
+        details[detailAmount++] = detail;
+    }
+
+    /**
+     * Returns the objects drawn in levels of detail.
+     *
+     * @return Array of levels of detail.
+     */
+    public LevelOfDetail[] getDetails() {
+        return details;
+    }
+
+    /**
+     * Returns the amount of the objects drawn in levels of detail.
+     *
+     * @return Amount of objects.
+     */
+    public int getDetailAmount() {
+        return detailAmount;
+    }
+}
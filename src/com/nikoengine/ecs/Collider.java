@@ -0,0 +1,57 @@
+package com.nikoengine.ecs;
+
+import java.util.Arrays;
+
+/**
+ * Stores the spherical colliders of the entities.
+ *
+ * <p>
+ * Two colliders touch when their layers share a bit and the distance between
+ * the entities is at most the sum of the radiuses. The arrays are indexed by
+ * component index and are replaced when the store grows.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class Collider extends ComponentStore {
+
+    /**
+     * Holds the radiuses.
+     */
+    public double[] radius = new double[0];
+
+    /**
+     * Holds the layer bits.
+     */
+    public int[] layers = new int[0];
+
+    /**
+     * Adds a collider to an entity.
+     *
+     * @param entity Entity.
+     * @param radius Radius of the collider.
+     * @param layers Layer bits of the collider.
+     * @return Index of the component.
+     */
+    public int add(int entity, double radius, int layers) {
+
+        int i = addEntity(entity);
+        this.radius[i] = radius;
+        this.layers[i] = layers;
+
+        return i;
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        radius = Arrays.copyOf(radius, capacity);
+        layers = Arrays.copyOf(layers, capacity);
+    }
+
+    @Override
+    protected void move(int from, int to) {
+        radius[to] = radius[from];
+        layers[to] = layers[from];
+    }
+}
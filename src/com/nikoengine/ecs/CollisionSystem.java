@@ -0,0 +1,161 @@
+package com.nikoengine.ecs;
+
+import java.util.Arrays;
+
+/**
+ * Finds the entities whose colliders touch.
+ *
+ * <p>
+ * Colliders are sorted by their smallest x value and compared only with the
+ * colliders which overlap them on the x-plane, so the work grows with the
+ * amount of colliders close to each other instead of with the square of all
+ * the colliders. Contacts of the last update are kept until the next update.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class CollisionSystem implements EntitySystem {
+
+    /**
+     * Holds the indices of the colliders sorted by their smallest x value.
+     */
+    private long[] order = new long[0];
+
+    /**
+     * Holds the transform index of every collider.
+     */
+    private int[] transformIndex = new int[0];
+
+    /**
+     * Holds the entities of the contacts, two for every contact.
+     */
+    private int[] contacts = new int[32];
+
+    /**
+     * Holds the amount of the contacts.
+     */
+    private int contactAmount;
+
+    @Override
+    public ComponentStore[] getReads(World world) {
+        return new ComponentStore[]{world.getTransforms(),
+            world.getColliders()};
+    }
+
+    @Override
+    public ComponentStore[] getWrites(World world) {
+        return new ComponentStore[0];
+    }
+
+    @Override
+    public void update(World world, float delta) {
+
+        Collider c = world.getColliders();
+        Transform t = world.getTransforms();
+        int n = 0;
+
+        if (order.length < c.size()) {
+            order = new long[c.size() * 2];
+            transformIndex = new int[c.size() * 2];
+        }
+
+        for (int i = 0; i < c.size(); i++) {
+            int j = t.indexOf(c.getEntity(i));
+
+            if (j >= 0) {
+                transformIndex[i] = j;
+                order[n++] = (long) sortKey(t.x[j] - c.radius[i]) << 32 | i;
+            }
+        }
+
+        Arrays.sort(order, 0, n);
+        contactAmount = 0;
+
+        for (int a = 0; a < n; a++) {
+            int i = (int) order[a];
+            int ti = transformIndex[i];
+            float maxX = (float) (t.x[ti] + c.radius[i]);
+
+            for (int b = a + 1; b < n; b++) {
+                int j = (int) order[b];
+                int tj = transformIndex[j];
+
+                if ((float) (t.x[tj] - c.radius[j]) > maxX) {
+                    break;
+                }
+
+                if ((c.layers[i] & c.layers[j]) == 0) {
+                    continue;
+                }
+
+                double dx = t.x[tj] - t.x[ti];
+                double dy = t.y[tj] - t.y[ti];
+                double dz = t.z[tj] - t.z[ti];
+                double r = c.radius[i] + c.radius[j];
+
+                if (dx * dx + dy * dy + dz * dz <= r * r) {
+                    addContact(c.getEntity(i), c.getEntity(j));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the amount of the contacts found in the last update.
+     *
+     * @return Amount of contacts.
+     */
+    public int getContactAmount() {
+        return contactAmount;
+    }
+
+    /**
+     * Returns the first entity of a contact.
+     *
+     * @param contact Index of the contact.
+     * @return Entity.
+     */
+    public int getFirst(int contact) {
+        return contacts[contact * 2];
+    }
+
+    /**
+     * Returns the second entity of a contact.
+     *
+     * @param contact Index of the contact.
+     * @return Entity.
+     */
+    public int getSecond(int contact) {
+        return contacts[contact * 2 + 1];
+    }
+
+    /**
+     * Adds a contact.
+     *
+     * @param first First entity.
+     * @param second Second entity.
+     */
+    private void addContact(int first, int second) {
+
+        if (contactAmount * 2 == contacts.length) {
+            contacts = Arrays.copyOf(contacts, contacts.length * 2);
+        }
+
+        contacts[contactAmount * 2] = first;
+        contacts[contactAmount * 2 + 1] = second;
+        contactAmount++;
+    }
+
+    /**
+     * Turns a float value into an int which sorts in the same order.
+     *
+     * @param value Value.
+     * @return Sortable int.
+     */
+    private static int sortKey(double value) {
+
+        int bits = Float.floatToIntBits((float) value);
+        return bits < 0 ? bits ^ 0x7FFFFFFF : bits;
+    }
+}
@@ -0,0 +1,174 @@
+package com.nikoengine.ecs;
+
+import java.util.Arrays;
+
+/**
+ * Base class for storing one kind of component of all the entities.
+ *
+ * <p>
+ * Components are kept in dense arrays without gaps, so systems can go
+ * through them from index 0 to size. The index of an entity's component is
+ * found from a sparse array indexed by entity. Removing a component moves the
+ * last component into its place, so indices change when components are
+ * removed.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public abstract class ComponentStore {
+
+    /**
+     * Holds the entity of every component.
+     */
+    private int[] entities = new int[0];
+
+    /**
+     * Holds the index of the component of every entity or -1.
+     */
+    private int[] indices = new int[0];
+
+    /**
+     * Holds the amount of the components.
+     */
+    private int size;
+
+    /**
+     * Tells whether an entity has this component.
+     *
+     * @param entity Entity.
+     * @return Whether the entity has the component.
+     */
+    public final boolean has(int entity) {
+        return indexOf(entity) >= 0;
+    }
+
+    /**
+     * Returns the index of the component of an entity.
+     *
+     * @param entity Entity.
+     * @return Index or -1 if the entity does not have the component.
+     */
+    public final int indexOf(int entity) {
+        return entity >= 0 && entity < indices.length ? indices[entity] : -1;
+    }
+
+    /**
+     * Returns the entity of the component at an index.
+     *
+     * @param index Index of the component.
+     * @return Entity.
+     */
+    public final int getEntity(int index) {
+        return entities[index];
+    }
+
+    /**
+     * Returns the amount of the components.
+     *
+     * @return Amount of components.
+     */
+    public final int size() {
+        return size;
+    }
+
+    /**
+     * Removes the component of an entity if it has one.
+     *
+     * @param entity Entity.
+     */
+    public final void remove(int entity) {
+
+        int index = indexOf(entity);
+
+        if (index < 0) {
+            return;
+        }
+
+        int last = --size;
+
+        if (index != last) {
+            move(last, index);
+            entities[index] = entities[last];
+            indices[entities[index]] = index;
+        }
+
+        clear(last);
+        indices[entity] = -1;
+    }
+
+    /**
+     * Adds a component to an entity or returns the existing one.
+     *
+     * @param entity Entity.
+     * @return Index of the component.
+     */
+    protected final int addEntity(int entity) {
+
+        if (entity < 0) {
+            throw new IllegalArgumentException("Invalid entity " + entity);
+        }
+
+        if (entity >= indices.length) {
+            int old = indices.length;
+            indices = Arrays.copyOf(indices, Math.max(16, entity * 2));
+            Arrays.fill(indices, old, indices.length, -1);
+        }
+
+        if (indices[entity] >= 0) {
+            return indices[entity];
+        }
+
+        if (size == entities.length) {
+            int capacity = Math.max(16, size * 2);
+            entities = Arrays.copyOf(entities, capacity);
+            grow(capacity);
+        }
+
+        entities[size] = entity;
+        indices[entity] = size;
+
+        return size++;
+    }
+
+    /**
+     * Returns the index of the component of an entity which must have it.
+     *
+     * @param entity Entity.
+     * @return Index of the component.
+     */
+    protected final int require(int entity) {
+
+        int index = indexOf(entity);
+
+        if (index < 0) {
+            throw new IllegalArgumentException("Entity " + entity
+                    + " has no " + getClass().getSimpleName());
+        }
+
+        return index;
+    }
+
+    /**
+     * Grows the component arrays.
+     *
+     * @param capacity New capacity.
+     */
+    protected abstract void grow(int capacity);
+
+    /**
+     * Copies a component to another index.
+     *
+     * @param from Index of the component.
+     * @param to Index where the component is copied.
+     */
+    protected abstract void move(int from, int to);
+
+    /**
+     * Clears a removed component so it does not keep objects alive.
+     *
+     * @param index Index of the component.
+     */
+    protected void clear(int index) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.nikoengine.ecs;
+
+/**
+ * Updates the components of all the entities in a world.
+ *
+ * <p>
+ * A system tells which component stores it reads and which it writes. Systems
+ * which do not write anything the other reads or writes can run at the same
+ * time on different threads.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public interface EntitySystem {
+
+    /**
+     * Returns the component stores the system reads.
+     *
+     * @param world World the system runs in.
+     * @return Read component stores.
+     */
+    ComponentStore[] getReads(World world);
+
+    /**
+     * Returns the component stores the system writes.
+     *
+     * @param world World the system runs in.
+     * @return Written component stores.
+     */
+    ComponentStore[] getWrites(World world);
+
+    /**
+     * Updates the components.
+     *
+     * @param world World the system runs in.
+     * @param delta Delta time.
+     */
+    void update(World world, float delta);
+}
@@ -0,0 +1,82 @@
+package com.nikoengine.ecs;
+
+import com.nikoengine.geometry.Point3D;
+import com.nikoengine.geometry.PointGroup;
+import java.util.Arrays;
+
+/**
+ * Stores references to the points which are drawn for the entities.
+ *
+ * <p>
+ * Points of a mesh are moved and rotated around its origin point to follow
+ * the transform of the entity. The transform the points currently have is
+ * kept, so only the change since the last update is applied. The arrays are
+ * indexed by component index and are replaced when the store grows.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class MeshRef extends ComponentStore {
+
+    /**
+     * Holds the origin points of the meshes.
+     */
+    public Point3D[] origin = new Point3D[0];
+
+    /**
+     * Holds the points of the meshes.
+     */
+    public PointGroup[] points = new PointGroup[0];
+
+    /**
+     * Holds the transforms the points currently have, six values for every
+     * mesh in the order of x, y, z and rotations on the XY, XZ and YZ planes.
+     */
+    public double[] applied = new double[0];
+
+    /**
+     * Adds a mesh to an entity.
+     *
+     * <p>
+     * Points are taken to be at the origin point without rotation and follow
+     * the entity from the next update on.
+     *
+     * @param entity Entity.
+     * @param origin Origin point of the mesh.
+     * @param points Group of the points of the mesh.
+     * @return Index of the component.
+     */
+    public int add(int entity, Point3D origin, PointGroup points) {
+
+        int i = addEntity(entity);
+        this.origin[i] = origin;
+        this.points[i] = points;
+        Arrays.fill(applied, i * 6, i * 6 + 6, 0);
+        applied[i * 6] = origin.getX();
+        applied[i * 6 + 1] = origin.getY();
+        applied[i * 6 + 2] = origin.getZ();
+
+        return i;
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        origin = Arrays.copyOf(origin, capacity);
+        points = Arrays.copyOf(points, capacity);
+        applied = Arrays.copyOf(applied, capacity * 6);
+    }
+
+    @Override
+    protected void move(int from, int to) {
+        origin[to] = origin[from];
+        points[to] = points[from];
+        System.arraycopy(applied, from * 6, applied, to * 6, 6);
+    }
+
+    @Override
+    protected void clear(int index) {
+        origin[index] = null;
+        points[index] = null;
+    }
+}
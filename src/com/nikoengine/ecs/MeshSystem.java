@@ -0,0 +1,88 @@
+package com.nikoengine.ecs;
+
+import com.nikoengine.geometry.Point3D;
+import com.nikoengine.geometry.Vector3D;
+
+/**
+ * Moves and rotates the points of the meshes to follow their transforms.
+ *
+ * <p>
+ * Points are first moved with the origin point and then rotated around it on
+ * the XY, XZ and YZ planes in this order, by the change since the last
+ * update.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class MeshSystem implements EntitySystem {
+
+    /**
+     * Is used for rotating the points.
+     */
+    private final Vector3D rotVec = new Vector3D(0, 0, 0);
+
+    @Override
+    public ComponentStore[] getReads(World world) {
+        return new ComponentStore[]{world.getTransforms()};
+    }
+
+    @Override
+    public ComponentStore[] getWrites(World world) {
+        return new ComponentStore[]{world.getMeshes()};
+    }
+
+    @Override
+    public void update(World world, float delta) {
+
+        MeshRef m = world.getMeshes();
+        Transform t = world.getTransforms();
+        double[] applied = m.applied;
+
+        for (int i = 0; i < m.size(); i++) {
+            int j = t.indexOf(m.getEntity(i));
+
+            if (j < 0) {
+                continue;
+            }
+
+            int a = i * 6;
+            double dx = t.x[j] - applied[a];
+            double dy = t.y[j] - applied[a + 1];
+            double dz = t.z[j] - applied[a + 2];
+            double xy = t.rotationXY[j] - applied[a + 3];
+            double xz = t.rotationXZ[j] - applied[a + 4];
+            double yz = t.rotationYZ[j] - applied[a + 5];
+
+            if (dx == 0 && dy == 0 && dz == 0 && xy == 0 && xz == 0
+                    && yz == 0) {
+                continue;
+            }
+
+            Point3D origin = m.origin[i];
+            origin.addVectorToPoint(dx, dy, dz);
+
+            for (Point3D p : m.points[i].getPoints()) {
+                p.addVectorToPoint(dx, dy, dz);
+
+                if (xy != 0 || xz != 0 || yz != 0) {
+                    rotVec.setDirection(origin, p);
+                    rotVec.rotateXY(xy);
+                    rotVec.rotateXZ(xz);
+                    rotVec.rotateYZ(yz);
+                    p.setPosition(origin.getX() + rotVec.getX(),
+                            origin.getY() + rotVec.getY(),
+                            origin.getZ() + rotVec.getZ());
+                }
+            }
+
+            m.points[i].markChanged();
+            applied[a] = t.x[j];
+            applied[a + 1] = t.y[j];
+            applied[a + 2] = t.z[j];
+            applied[a + 3] = t.rotationXY[j];
+            applied[a + 4] = t.rotationXZ[j];
+            applied[a + 5] = t.rotationYZ[j];
+        }
+    }
+}
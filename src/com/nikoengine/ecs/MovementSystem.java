@@ -0,0 +1,43 @@
+package com.nikoengine.ecs;
+
+/**
+ * Moves and spins the entities which have a velocity and a transform.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class MovementSystem implements EntitySystem {
+
+    @Override
+    public ComponentStore[] getReads(World world) {
+        return new ComponentStore[]{world.getVelocities()};
+    }
+
+    @Override
+    public ComponentStore[] getWrites(World world) {
+        return new ComponentStore[]{world.getTransforms()};
+    }
+
+    @Override
+    public void update(World world, float delta) {
+
+        Velocity v = world.getVelocities();
+        Transform t = world.getTransforms();
+
+        for (int i = 0; i < v.size(); i++) {
+            int j = t.indexOf(v.getEntity(i));
+
+            if (j < 0) {
+                continue;
+            }
+
+            t.x[j] += v.x[i];
+            t.y[j] += v.y[i];
+            t.z[j] += v.z[i];
+            t.rotationXY[j] += v.spinXY[i];
+            t.rotationXZ[j] += v.spinXZ[i];
+            t.rotationYZ[j] += v.spinYZ[i];
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.nikoengine.ecs;
+
+import java.util.Arrays;
+
+/**
+ * Stores the positions and rotations of the entities.
+ *
+ * <p>
+ * Rotations are angles in degrees on the XY, XZ and YZ planes, the same
+ * planes Vector3D rotates on. The arrays are indexed by component index and
+ * are replaced when the store grows.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class Transform extends ComponentStore {
+
+    /**
+     * Holds the x positions.
+     */
+    public double[] x = new double[0];
+
+    /**
+     * Holds the y positions.
+     */
+    public double[] y = new double[0];
+
+    /**
+     * Holds the z positions.
+     */
+    public double[] z = new double[0];
+
+    /**
+     * Holds the rotations on the XY plane.
+     */
+    public double[] rotationXY = new double[0];
+
+    /**
+     * Holds the rotations on the XZ plane.
+     */
+    public double[] rotationXZ = new double[0];
+
+    /**
+     * Holds the rotations on the YZ plane.
+     */
+    public double[] rotationYZ = new double[0];
+
+    /**
+     * Adds a transform to an entity.
+     *
+     * @param entity Entity.
+     * @param x Position on the x-plane.
+     * @param y Position on the y-plane.
+     * @param z Position on the z-plane.
+     * @return Index of the component.
+     */
+    public int add(int entity, double x, double y, double z) {
+
+        int i = addEntity(entity);
+        this.x[i] = x;
+        this.y[i] = y;
+        this.z[i] = z;
+
+        return i;
+    }
+
+    /**
+     * Sets the position of an entity.
+     *
+     * @param entity Entity.
+     * @param x Position on the x-plane.
+     * @param y Position on the y-plane.
+     * @param z Position on the z-plane.
+     */
+    public void setPosition(int entity, double x, double y, double z) {
+
+        int i = require(entity);
+        this.x[i] = x;
+        this.y[i] = y;
+        this.z[i] = z;
+    }
+
+    /**
+     * Sets the rotation of an entity.
+     *
+     * @param entity Entity.
+     * @param xy Rotation on the XY plane in degrees.
+     * @param xz Rotation on the XZ plane in degrees.
+     * @param yz Rotation on the YZ plane in degrees.
+     */
+    public void setRotation(int entity, double xy, double xz, double yz) {
+
+        int i = require(entity);
+        rotationXY[i] = xy;
+        rotationXZ[i] = xz;
+        rotationYZ[i] = yz;
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        z = Arrays.copyOf(z, capacity);
+        rotationXY = Arrays.copyOf(rotationXY, capacity);
+        rotationXZ = Arrays.copyOf(rotationXZ, capacity);
+        rotationYZ = Arrays.copyOf(rotationYZ, capacity);
+    }
+
+    @Override
+    protected void move(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        z[to] = z[from];
+        rotationXY[to] = rotationXY[from];
+        rotationXZ[to] = rotationXZ[from];
+        rotationYZ[to] = rotationYZ[from];
+    }
+
+    @Override
+    protected void clear(int index) {
+        x[index] = 0;
+        y[index] = 0;
+        z[index] = 0;
+        rotationXY[index] = 0;
+        rotationXZ[index] = 0;
+        rotationYZ[index] = 0;
+    }
+}
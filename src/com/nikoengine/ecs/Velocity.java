@@ -0,0 +1,128 @@
+package com.nikoengine.ecs;
+
+import java.util.Arrays;
+
+/**
+ * Stores the movement and spinning speeds of the entities.
+ *
+ * <p>
+ * Speeds are given per update like the speeds of GameObject3D. The arrays are
+ * indexed by component index and are replaced when the store grows.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class Velocity extends ComponentStore {
+
+    /**
+     * Holds the speeds on the x-plane.
+     */
+    public double[] x = new double[0];
+
+    /**
+     * Holds the speeds on the y-plane.
+     */
+    public double[] y = new double[0];
+
+    /**
+     * Holds the speeds on the z-plane.
+     */
+    public double[] z = new double[0];
+
+    /**
+     * Holds the spinning speeds on the XY plane in degrees.
+     */
+    public double[] spinXY = new double[0];
+
+    /**
+     * Holds the spinning speeds on the XZ plane in degrees.
+     */
+    public double[] spinXZ = new double[0];
+
+    /**
+     * Holds the spinning speeds on the YZ plane in degrees.
+     */
+    public double[] spinYZ = new double[0];
+
+    /**
+     * Adds a velocity to an entity.
+     *
+     * @param entity Entity.
+     * @param x Speed on the x-plane.
+     * @param y Speed on the y-plane.
+     * @param z Speed on the z-plane.
+     * @return Index of the component.
+     */
+    public int add(int entity, double x, double y, double z) {
+
+        int i = addEntity(entity);
+        this.x[i] = x;
+        this.y[i] = y;
+        this.z[i] = z;
+
+        return i;
+    }
+
+    /**
+     * Sets the movement speed of an entity.
+     *
+     * @param entity Entity.
+     * @param x Speed on the x-plane.
+     * @param y Speed on the y-plane.
+     * @param z Speed on the z-plane.
+     */
+    public void setSpeed(int entity, double x, double y, double z) {
+
+        int i = require(entity);
+        this.x[i] = x;
+        this.y[i] = y;
+        this.z[i] = z;
+    }
+
+    /**
+     * Sets the spinning speed of an entity.
+     *
+     * @param entity Entity.
+     * @param xy Spinning speed on the XY plane in degrees.
+     * @param xz Spinning speed on the XZ plane in degrees.
+     * @param yz Spinning speed on the YZ plane in degrees.
+     */
+    public void setSpin(int entity, double xy, double xz, double yz) {
+
+        int i = require(entity);
+        spinXY[i] = xy;
+        spinXZ[i] = xz;
+        spinYZ[i] = yz;
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        z = Arrays.copyOf(z, capacity);
+        spinXY = Arrays.copyOf(spinXY, capacity);
+        spinXZ = Arrays.copyOf(spinXZ, capacity);
+        spinYZ = Arrays.copyOf(spinYZ, capacity);
+    }
+
+    @Override
+    protected void move(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        z[to] = z[from];
+        spinXY[to] = spinXY[from];
+        spinXZ[to] = spinXZ[from];
+        spinYZ[to] = spinYZ[from];
+    }
+
+    @Override
+    protected void clear(int index) {
+        x[index] = 0;
+        y[index] = 0;
+        z[index] = 0;
+        spinXY[index] = 0;
+        spinXZ[index] = 0;
+        spinYZ[index] = 0;
+    }
+}
@@ -0,0 +1,359 @@
+package com.nikoengine.ecs;
+
+import com.nikoengine.job.Job;
+import com.nikoengine.job.JobGraph;
+import com.nikoengine.job.JobSystem;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Holds entities, their components and the systems which update them.
+ *
+ * <p>
+ * An entity is only a number. Its data is kept in component stores which
+ * have a dense array for every value, so systems go through the components
+ * of all the entities in one loop instead of calling every object.
+ *
+ * <p>
+ * Systems are updated in the order they were added, except that systems
+ * which do not conflict run at the same time as jobs of a JobGraph. Every
+ * system waits only for the systems added before it which it conflicts with.
+ * Two systems conflict when one writes a component store the other reads or
+ * writes. Entities must not be created or
+ * destroyed while the systems run, but systems can destroy entities with
+ * destroyLater.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class World {
+
+    /**
+     * Stores the positions and rotations.
+     */
+    private final Transform transforms = new Transform();
+
+    /**
+     * Stores the movement and spinning speeds.
+     */
+    private final Velocity velocities = new Velocity();
+
+    /**
+     * Stores the points which are drawn.
+     */
+    private final MeshRef meshes = new MeshRef();
+
+    /**
+     * Stores the colliders.
+     */
+    private final Collider colliders = new Collider();
+
+    /**
+     * Holds all the component stores.
+     */
+    private final ArrayList<ComponentStore> stores = new ArrayList<>();
+
+    /**
+     * Holds the systems in the order they were added.
+     */
+    private final ArrayList<EntitySystem> systems = new ArrayList<>();
+
+    /**
+     * Runs the jobs of the systems.
+     */
+    private final JobSystem jobSystem;
+
+    /**
+     * Holds a job for every system or null if the jobs have to be created
+     * again.
+     */
+    private JobGraph jobGraph;
+
+    /**
+     * Holds the delta time of the running update.
+     */
+    private volatile float delta;
+
+    /**
+     * Holds the destroyed entities which can be used again.
+     */
+    private int[] freeEntities = new int[16];
+
+    /**
+     * Holds the amount of the free entities.
+     */
+    private int freeAmount;
+
+    /**
+     * Holds the next entity which has never been used.
+     */
+    private int nextEntity;
+
+    /**
+     * Holds the entities to be destroyed after the systems have run.
+     */
+    private int[] destroyed = new int[16];
+
+    /**
+     * Holds the amount of the entities to be destroyed.
+     */
+    private int destroyedAmount;
+
+    /**
+     * Creates an empty world with the built in component stores.
+     */
+    public World() {
+        this(JobSystem.getDefault());
+    }
+
+    /**
+     * Creates an empty world which runs its systems on a job system.
+     *
+     * @param jobSystem Job system which runs the systems.
+     */
+    public World(JobSystem jobSystem) {
+        this.jobSystem = jobSystem;
+        stores.add(transforms);
+        stores.add(velocities);
+        stores.add(meshes);
+        stores.add(colliders);
+    }
+
+    /**
+     * Creates a new entity without components.
+     *
+     * <p>
+     * Numbers of destroyed entities are used again.
+     *
+     * @return Entity.
+     */
+    public int createEntity() {
+        return freeAmount > 0 ? freeEntities[--freeAmount] : nextEntity++;
+    }
+
+    /**
+     * Destroys an entity and removes all its components.
+     *
+     * @param entity Entity.
+     */
+    public void destroyEntity(int entity) {
+
+        for (ComponentStore store : stores) {
+            store.remove(entity);
+        }
+
+        if (freeAmount == freeEntities.length) {
+            freeEntities = Arrays.copyOf(freeEntities, freeAmount * 2);
+        }
+
+        freeEntities[freeAmount++] = entity;
+    }
+
+    /**
+     * Destroys an entity after all the systems have been updated.
+     *
+     * <p>
+     * Can be called from systems running at the same time.
+     *
+     * @param entity Entity.
+     */
+    public synchronized void destroyLater(int entity) {
+
+        if (destroyedAmount == destroyed.length) {
+            destroyed = Arrays.copyOf(destroyed, destroyedAmount * 2);
+        }
+
+        destroyed[destroyedAmount++] = entity;
+    }
+
+    /**
+     * Adds a component store of another kind of component.
+     *
+     * <p>
+     * Components of the store are removed when their entity is destroyed.
+     *
+     * @param <T> Type of the store.
+     * @param store Component store.
+     * @return The store.
+     */
+    public <T extends ComponentStore> T addStore(T store) {
+        stores.add(store);
+        return store;
+    }
+
+    /**
+     * Adds a system to be updated after the systems added before it.
+     *
+     * @param system System.
+     */
+    public void addSystem(EntitySystem system) {
+        systems.add(system);
+        jobGraph = null;
+    }
+
+    /**
+     * Updates all the systems.
+     *
+     * @param delta Delta time.
+     */
+    public void update(float delta) {
+
+        this.delta = delta;
+        getJobGraph().run();
+
+        synchronized (this) {
+
+            for (int i = 0; i < destroyedAmount; i++) {
+
+                if (isAlive(destroyed[i])) {
+                    destroyEntity(destroyed[i]);
+                }
+            }
+
+            destroyedAmount = 0;
+        }
+    }
+
+    /**
+     * Returns the graph which runs the systems.
+     *
+     * <p>
+     * Jobs are named after the classes of the systems and hold their
+     * timings.
+     *
+     * @return Job graph.
+     */
+    public JobGraph getJobGraph() {
+
+        if (jobGraph == null) {
+            jobGraph = createJobGraph();
+        }
+
+        return jobGraph;
+    }
+
+    /**
+     * Returns the store of the positions and rotations.
+     *
+     * @return Transforms.
+     */
+    public Transform getTransforms() {
+        return transforms;
+    }
+
+    /**
+     * Returns the store of the movement and spinning speeds.
+     *
+     * @return Velocities.
+     */
+    public Velocity getVelocities() {
+        return velocities;
+    }
+
+    /**
+     * Returns the store of the points which are drawn.
+     *
+     * @return Meshes.
+     */
+    public MeshRef getMeshes() {
+        return meshes;
+    }
+
+    /**
+     * Returns the store of the colliders.
+     *
+     * @return Colliders.
+     */
+    public Collider getColliders() {
+        return colliders;
+    }
+
+    /**
+     * Tells whether an entity is in use.
+     *
+     * @param entity Entity.
+     * @return Whether the entity is created and not destroyed.
+     */
+    private boolean isAlive(int entity) {
+
+        if (entity < 0 || entity >= nextEntity) {
+            return false;
+        }
+
+        for (int i = 0; i < freeAmount; i++) {
+
+            if (freeEntities[i] == entity) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Creates a job for every system which waits for the systems added
+     * before it which it conflicts with.
+     *
+     * @return Job graph of the systems.
+     */
+    private JobGraph createJobGraph() {
+
+        JobGraph graph = new JobGraph(jobSystem);
+        Job[] jobs = new Job[systems.size()];
+
+        for (int i = 0; i < systems.size(); i++) {
+            EntitySystem system = systems.get(i);
+            ArrayList<Job> dependencies = new ArrayList<>();
+
+            for (int j = 0; j < i; j++) {
+
+                if (isConflict(system, systems.get(j))) {
+                    dependencies.add(jobs[j]);
+                }
+            }
+
+            jobs[i] = graph.add(system.getClass().getSimpleName(),
+                    () -> system.update(this, delta),
+                    dependencies.toArray(new Job[dependencies.size()]));
+        }
+
+        return graph;
+    }
+
+    /**
+     * Tells whether two systems can not run at the same time.
+     *
+     * @param a First system.
+     * @param b Second system.
+     * @return Whether either writes a store the other uses.
+     */
+    private boolean isConflict(EntitySystem a, EntitySystem b) {
+
+        return isShared(a.getWrites(this), b.getReads(this))
+                || isShared(a.getWrites(this), b.getWrites(this))
+                || isShared(b.getWrites(this), a.getReads(this));
+    }
+
+    /**
+     * Tells whether two arrays share a component store.
+     *
+     * @param a First stores.
+     * @param b Second stores.
+     * @return Whether a store is in both arrays.
+     */
+    private static boolean isShared(ComponentStore[] a, ComponentStore[] b) {
+
+        for (ComponentStore s : a) {
+
+            for (ComponentStore t : b) {
+
+                if (s == t) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+}
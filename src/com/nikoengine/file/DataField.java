@@ -1,66 +1,492 @@
-package com.nikoengine.file;
-
-import java.io.Serializable;
-
-/**
- * Holds data with key string.
- *
- * @author Niko Mustonen mustonen.niko@gmail.com
- * @version 2016.1205
- * @since 1.8
- */
-public class DataField implements Serializable {
-
-    /**
-     * Helps find correct data field.
-     */
-    private String key;
-    
-    /**
-     * Stores data field data.
-     */
-    private Object data;
-
-    /**
-     * Creates a new data field which has a key string and saved data.
-     * 
-     * @param key Key to the data.
-     * @param data Saved data.
-     */
-    protected DataField(String key, Object data) {
-        this.key = key;
-        this.data = data;
-    }
-
-    /**
-     * Returns the key value of the data field.
-     * 
-     * @return Key value to data field.
-     */
-    public String getKey() {
-        return this.key;
-    }
-
-    /**
-     * Returns the data of the data field.
-     * 
-     * @return Saved data.
-     */
-    public Object getData() {
-        return data;
-    }
-
-    /**
-     * Replaces data with new data.
-     * 
-     * @param data New data.
-     */
-    public void setData(Object data) {
-        this.data = data;
-    }
-
-    @Override
-    public String toString() {
-        return "Key: " + key + ", Data: " + data.toString();
-    }
-}
+package com.nikoengine.file;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Holds data with key string.
+ *
+ * <p>
+ * Primitive values and strings are stored with their type, so they can be
+ * saved in the binary save format without Java serialization and read back
+ * without boxing.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class DataField implements Serializable {
+
+    /**
+     * Keeps save files written with Java serialization readable.
+     */
+    private static final long serialVersionUID = -7746438626724214735L;
+
+    /**
+     * Defines type of a field without data.
+     */
+    public static final byte TYPE_NULL = 0;
+
+    /**
+     * Defines type of a boolean field.
+     */
+    public static final byte TYPE_BOOLEAN = 1;
+
+    /**
+     * Defines type of an int field.
+     */
+    public static final byte TYPE_INT = 2;
+
+    /**
+     * Defines type of a long field.
+     */
+    public static final byte TYPE_LONG = 3;
+
+    /**
+     * Defines type of a float field.
+     */
+    public static final byte TYPE_FLOAT = 4;
+
+    /**
+     * Defines type of a double field.
+     */
+    public static final byte TYPE_DOUBLE = 5;
+
+    /**
+     * Defines type of a string field.
+     */
+    public static final byte TYPE_STRING = 6;
+
+    /**
+     * Defines type of a byte array field.
+     */
+    public static final byte TYPE_BYTES = 7;
+
+    /**
+     * Defines type of any other serializable object.
+     */
+    public static final byte TYPE_OBJECT = 8;
+
+    /**
+     * Helps find correct data field.
+     */
+    private String key;
+
+    /**
+     * Stores strings, byte arrays and other objects.
+     */
+    private Object data;
+
+    /**
+     * Stores the type of the data.
+     */
+    private byte type;
+
+    /**
+     * Stores primitive data as raw bits.
+     */
+    private long primitive;
+
+    /**
+     * Holds the segment which has this field.
+     */
+    private transient DataSegment segment;
+
+    /**
+     * Tells if the data has changed since the field was last saved.
+     */
+    private transient boolean changed;
+
+    /**
+     * Holds the serialized object of a copy made for writing or null.
+     */
+    private transient byte[] serialized;
+
+    /**
+     * Creates a new data field which has a key string and saved data.
+     *
+     * @param key Key to the data.
+     * @param data Saved data.
+     */
+    protected DataField(String key, Object data) {
+        this.key = key;
+        setData(data);
+    }
+
+    /**
+     * Returns the key value of the data field.
+     *
+     * @return Key value to data field.
+     */
+    public String getKey() {
+        return this.key;
+    }
+
+    /**
+     * Returns the data of the data field.
+     *
+     * <p>
+     * Primitive values are returned as their wrapper objects.
+     *
+     * @return Saved data.
+     */
+    public Object getData() {
+
+        switch (type) {
+            case TYPE_BOOLEAN:
+                return primitive != 0;
+            case TYPE_INT:
+                return (int) primitive;
+            case TYPE_LONG:
+                return primitive;
+            case TYPE_FLOAT:
+                return Float.intBitsToFloat((int) primitive);
+            case TYPE_DOUBLE:
+                return Double.longBitsToDouble(primitive);
+            default:
+                return data;
+        }
+    }
+
+    /**
+     * Replaces data with new data.
+     *
+     * @param data New data.
+     */
+    public void setData(Object data) {
+
+        if (data instanceof Integer) {
+            setInt((Integer) data);
+        } else if (data instanceof Long) {
+            setLong((Long) data);
+        } else if (data instanceof Double) {
+            setDouble((Double) data);
+        } else if (data instanceof Float) {
+            setFloat((Float) data);
+        } else if (data instanceof Boolean) {
+            setBoolean((Boolean) data);
+        } else if (data instanceof String) {
+            setString((String) data);
+        } else if (data instanceof byte[]) {
+            set(TYPE_BYTES, 0, data);
+        } else if (data == null) {
+            set(TYPE_NULL, 0, null);
+        } else {
+            set(TYPE_OBJECT, 0, data);
+        }
+    }
+
+    /**
+     * Replaces data with a boolean value.
+     *
+     * @param value New value.
+     */
+    public void setBoolean(boolean value) {
+        set(TYPE_BOOLEAN, value ? 1 : 0, null);
+    }
+
+    /**
+     * Replaces data with an int value.
+     *
+     * @param value New value.
+     */
+    public void setInt(int value) {
+        set(TYPE_INT, value, null);
+    }
+
+    /**
+     * Replaces data with a long value.
+     *
+     * @param value New value.
+     */
+    public void setLong(long value) {
+        set(TYPE_LONG, value, null);
+    }
+
+    /**
+     * Replaces data with a float value.
+     *
+     * @param value New value.
+     */
+    public void setFloat(float value) {
+        set(TYPE_FLOAT, Float.floatToRawIntBits(value), null);
+    }
+
+    /**
+     * Replaces data with a double value.
+     *
+     * @param value New value.
+     */
+    public void setDouble(double value) {
+        set(TYPE_DOUBLE, Double.doubleToRawLongBits(value), null);
+    }
+
+    /**
+     * Replaces data with a string.
+     *
+     * @param value New value.
+     */
+    public void setString(String value) {
+
+        if (value == null) {
+            set(TYPE_NULL, 0, null);
+        } else {
+            set(TYPE_STRING, 0, value);
+        }
+    }
+
+    /**
+     * Returns the type of the data.
+     *
+     * @return One of the TYPE constants.
+     */
+    public byte getType() {
+        return type;
+    }
+
+    /**
+     * Returns the data as a boolean.
+     *
+     * @return True if the data is true or a non zero number.
+     */
+    public boolean getBoolean() {
+
+        if (type == TYPE_FLOAT || type == TYPE_DOUBLE) {
+            return getDouble() != 0;
+        }
+
+        return type <= TYPE_LONG ? primitive != 0
+                : Boolean.parseBoolean(getString());
+    }
+
+    /**
+     * Returns the data as an int.
+     *
+     * @return Data converted to int or zero if it is not a number.
+     */
+    public int getInt() {
+        return (int) getLong();
+    }
+
+    /**
+     * Returns the data as a long.
+     *
+     * @return Data converted to long or zero if it is not a number.
+     */
+    public long getLong() {
+
+        switch (type) {
+            case TYPE_BOOLEAN:
+            case TYPE_INT:
+            case TYPE_LONG:
+                return primitive;
+            case TYPE_FLOAT:
+            case TYPE_DOUBLE:
+                return (long) getDouble();
+            default:
+                return data instanceof Number ? ((Number) data).longValue() : 0;
+        }
+    }
+
+    /**
+     * Returns the data as a float.
+     *
+     * @return Data converted to float or zero if it is not a number.
+     */
+    public float getFloat() {
+        return type == TYPE_FLOAT ? Float.intBitsToFloat((int) primitive)
+                : (float) getDouble();
+    }
+
+    /**
+     * Returns the data as a double.
+     *
+     * @return Data converted to double or zero if it is not a number.
+     */
+    public double getDouble() {
+
+        switch (type) {
+            case TYPE_FLOAT:
+                return Float.intBitsToFloat((int) primitive);
+            case TYPE_DOUBLE:
+                return Double.longBitsToDouble(primitive);
+            case TYPE_BOOLEAN:
+            case TYPE_INT:
+            case TYPE_LONG:
+                return primitive;
+            default:
+                return data instanceof Number
+                        ? ((Number) data).doubleValue() : 0;
+        }
+    }
+
+    /**
+     * Returns the data as a string.
+     *
+     * @return Data converted to string or null if there is no data.
+     */
+    public String getString() {
+
+        if (type == TYPE_STRING || type == TYPE_NULL) {
+            return (String) data;
+        }
+
+        return String.valueOf(getData());
+    }
+
+    /**
+     * Returns the raw bits of primitive data.
+     *
+     * @return Raw bits.
+     */
+    long getPrimitive() {
+        return primitive;
+    }
+
+    /**
+     * Returns the stored object.
+     *
+     * @return String, byte array, other object or null for primitives.
+     */
+    Object getObject() {
+        return data;
+    }
+
+    /**
+     * Sets the type and the data.
+     *
+     * <p>
+     * Setting a byte array or other object always marks the field changed,
+     * because their contents can change without the reference changing.
+     *
+     * @param type One of the TYPE constants.
+     * @param primitive Raw bits of primitive data.
+     * @param data Object data.
+     */
+    void set(byte type, long primitive, Object data) {
+
+        if (type == this.type && primitive == this.primitive
+                && type != TYPE_BYTES && type != TYPE_OBJECT
+                && Objects.equals(data, this.data)) {
+            return;
+        }
+
+        this.type = type;
+        this.primitive = primitive;
+        this.data = data;
+        this.serialized = null;
+        markChanged();
+    }
+
+    /**
+     * Sets the type and the data of another field.
+     *
+     * @param df Field the data is taken from.
+     */
+    void set(DataField df) {
+        set(df.type, df.primitive, df.data);
+        serialized = df.serialized;
+    }
+
+    /**
+     * Returns the object of the field serialized with Java serialization.
+     *
+     * @return Serialized object.
+     * @throws IOException If the object is not serializable.
+     */
+    byte[] getSerialized() throws IOException {
+        return serialized != null ? serialized
+                : SaveFileFormat.serialize(data);
+    }
+
+    /**
+     * Marks the field and its segment changed since the last save.
+     */
+    void markChanged() {
+
+        changed = true;
+
+        if (segment != null) {
+            segment.markChanged();
+        }
+    }
+
+    /**
+     * Tells if the data has changed since the field was last saved.
+     *
+     * @return Whether the field has changed.
+     */
+    boolean isChanged() {
+        return changed;
+    }
+
+    /**
+     * Marks the field saved.
+     */
+    void clearChanged() {
+        changed = false;
+    }
+
+    /**
+     * Sets the segment which has this field.
+     *
+     * @param segment Data segment.
+     */
+    void setSegment(DataSegment segment) {
+        this.segment = segment;
+    }
+
+    /**
+     * Creates a copy of the field for writing it on another thread.
+     *
+     * <p>
+     * Byte arrays are copied. Other objects are serialized here on the
+     * calling thread, so the writer never reads an object which the game
+     * may be changing. The copy holds only the serialized form of an object
+     * and its data is null.
+     *
+     * @return Copy of the field.
+     * @throws IOException If the object is not serializable.
+     */
+    DataField copy() throws IOException {
+
+        DataField df = new DataField(key, null);
+
+        if (type == TYPE_OBJECT) {
+            df.set(type, 0, null);
+            df.serialized = getSerialized();
+        } else {
+            df.set(type, primitive, type == TYPE_BYTES
+                    ? ((byte[]) data).clone() : data);
+        }
+
+        return df;
+    }
+
+    /**
+     * Converts fields read from save files made with Java serialization.
+     *
+     * <p>
+     * Older save files hold primitives as wrapper objects without a type.
+     *
+     * @param in Stream the field is read from.
+     * @throws IOException If the stream can not be read.
+     * @throws ClassNotFoundException If the class of the data is missing.
+     */
+    private void readObject(ObjectInputStream in) throws IOException,
+            ClassNotFoundException {
+
+        in.defaultReadObject();
+
+        if (type == TYPE_NULL) {
+            setData(data);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Key: " + key + ", Data: " + getData();
+    }
+}
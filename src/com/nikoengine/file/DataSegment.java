@@ -1,117 +1,507 @@
-package com.nikoengine.file;
-
-import java.io.Serializable;
-
-/**
- * Helps organize data in the save file.
- *
- * @author Niko Mustonen mustonen.niko@gmail.com
- * @version 2016.1205
- * @since 1.8
- */
-public class DataSegment implements Serializable {
-
-    /**
-     * Defines the segments name.
-     */
-    private final String segmentName;
-
-    /**
-     * Controls all the data fields in the segment.
-     */
-    private DataField[] dataFields;
-
-    /**
-     * Keeps track how many data fields there are in the segment.
-     */
-    private int amountOfDataFields = 0;
-
-    /**
-     * Creates a data segment which is used to put data in a SaveFile.
-     *
-     * <p>
-     * Take when created.
-     *
-     * @param segmentName Defines a name for this data segment.
-     * @param key Key string value to the data field.
-     * @param data Saved data itself.
-     */
-    DataSegment(String segmentName, String key, Object data) {
-        this.segmentName = segmentName;
-        dataFields = new DataField[SaveFile.TREHESOLD];
-        saveDataSegment(key, data);
-    }
-
-    /**
-     * Gets data field with corresponding name.
-     *
-     * @param key Key string value to the data field.
-     * @return Data field.
-     */
-    public DataField getDataField(String key) {
-
-        for (int i = 0; i < amountOfDataFields; i++) {
-            if (dataFields[i].getKey().equals(key)) {
-                return dataFields[i];
-            }
-        }
-
-        return null;
-    }
-
-    /**
-     * Saves data to data segment with key string.
-     *
-     * @param key Key to data.
-     * @param data Saved data itself.
-     */
-    public final void saveDataSegment(String key, Object data) {
-
-        DataField df = getDataField(key);
-
-        if (df != null) {
-            df.setData(data);
-        } else {
-
-            if (amountOfDataFields >= dataFields.length - 1) {
-                DataField[] tmp = new DataField[dataFields.length
-                        + SaveFile.TREHESOLD];
-
-                System.arraycopy(dataFields, 0, tmp, 0, dataFields.length);
-                dataFields = tmp;
-            } else {
-                dataFields[amountOfDataFields] = new DataField(key, data);
-            }
-
-            amountOfDataFields++;
-        }
-    }
-
-    /**
-     * Returns segments name.
-     *
-     * @return Segment name.
-     */
-    public String getSegmentName() {
-
-        return segmentName;
-    }
-
-    /**
-     * Gets array of data fields from the data segment.
-     *
-     * @return Array of data fields.
-     */
-    DataField[] getDataFields() {
-        return this.dataFields;
-    }
-
-    /**
-     * Returns the amount of the data fields in the data segment.
-     *
-     * @return Amount of data fields.
-     */
-    public int getAmountOfDataFields() {
-        return amountOfDataFields;
-    }
-}
+package com.nikoengine.file;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.HashMap;
+
+/**
+ * Helps organize data in the save file.
+ *
+ * <p>
+ * Data fields are kept in the order they were added and are found by their
+ * key from a hash index. Segments of a mapped save file read their fields
+ * from the file when the fields are used the first time.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class DataSegment implements Serializable {
+
+    /**
+     * Keeps save files written with Java serialization readable.
+     */
+    private static final long serialVersionUID = 7757361799357754714L;
+
+    /**
+     * Defines the segments name.
+     */
+    private final String segmentName;
+
+    /**
+     * Controls all the data fields in the segment.
+     */
+    private DataField[] dataFields;
+
+    /**
+     * Keeps track how many data fields there are in the segment.
+     */
+    private int amountOfDataFields = 0;
+
+    /**
+     * Finds data fields by their keys. Is built again when needed after
+     * deserialization.
+     */
+    private transient HashMap<String, DataField> index;
+
+    /**
+     * Tells if any field has changed since the segment was last saved.
+     */
+    private transient boolean changed;
+
+    /**
+     * Holds the mapped save file where fields are not read yet or null.
+     */
+    private transient SaveFileIndex mapped;
+
+    /**
+     * Holds the offset of the segment in the mapped save file.
+     */
+    private transient int mappedOffset;
+
+    /**
+     * Creates an empty data segment which is used to put data in a SaveFile.
+     *
+     * @param segmentName Defines a name for this data segment.
+     */
+    DataSegment(String segmentName) {
+        this.segmentName = segmentName;
+        dataFields = new DataField[SaveFile.TREHESOLD];
+        index = new HashMap<>();
+    }
+
+    /**
+     * Gets data field with corresponding name.
+     *
+     * @param key Key string value to the data field.
+     * @return Data field.
+     */
+    public DataField getDataField(String key) {
+
+        DataField df = getIndex().get(key);
+
+        if (df == null && mapped != null) {
+
+            try {
+                int offset = mapped.findField(mappedOffset, key);
+
+                if (offset >= 0) {
+                    df = mapped.readField(offset);
+                    attach(df);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        return df;
+    }
+
+    /**
+     * Saves data to data segment with key string.
+     *
+     * @param key Key to data.
+     * @param data Saved data itself.
+     */
+    public final void saveDataSegment(String key, Object data) {
+        getOrAddDataField(key).setData(data);
+    }
+
+    /**
+     * Saves a boolean value to data segment with key string.
+     *
+     * @param key Key to data.
+     * @param value Saved value.
+     */
+    public void saveDataSegment(String key, boolean value) {
+        getOrAddDataField(key).setBoolean(value);
+    }
+
+    /**
+     * Saves an int value to data segment with key string.
+     *
+     * @param key Key to data.
+     * @param value Saved value.
+     */
+    public void saveDataSegment(String key, int value) {
+        getOrAddDataField(key).setInt(value);
+    }
+
+    /**
+     * Saves a long value to data segment with key string.
+     *
+     * @param key Key to data.
+     * @param value Saved value.
+     */
+    public void saveDataSegment(String key, long value) {
+        getOrAddDataField(key).setLong(value);
+    }
+
+    /**
+     * Saves a float value to data segment with key string.
+     *
+     * @param key Key to data.
+     * @param value Saved value.
+     */
+    public void saveDataSegment(String key, float value) {
+        getOrAddDataField(key).setFloat(value);
+    }
+
+    /**
+     * Saves a double value to data segment with key string.
+     *
+     * @param key Key to data.
+     * @param value Saved value.
+     */
+    public void saveDataSegment(String key, double value) {
+        getOrAddDataField(key).setDouble(value);
+    }
+
+    /**
+     * Returns a boolean value with key string.
+     *
+     * @param key Key to data.
+     * @param defaultValue Value returned if there is no data with the key.
+     * @return Saved value or the default value.
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+
+        DataField df = getDataField(key);
+        return df == null ? defaultValue : df.getBoolean();
+    }
+
+    /**
+     * Returns an int value with key string.
+     *
+     * @param key Key to data.
+     * @param defaultValue Value returned if there is no data with the key.
+     * @return Saved value or the default value.
+     */
+    public int getInt(String key, int defaultValue) {
+
+        DataField df = getDataField(key);
+        return df == null ? defaultValue : df.getInt();
+    }
+
+    /**
+     * Returns a long value with key string.
+     *
+     * @param key Key to data.
+     * @param defaultValue Value returned if there is no data with the key.
+     * @return Saved value or the default value.
+     */
+    public long getLong(String key, long defaultValue) {
+
+        DataField df = getDataField(key);
+        return df == null ? defaultValue : df.getLong();
+    }
+
+    /**
+     * Returns a float value with key string.
+     *
+     * @param key Key to data.
+     * @param defaultValue Value returned if there is no data with the key.
+     * @return Saved value or the default value.
+     */
+    public float getFloat(String key, float defaultValue) {
+
+        DataField df = getDataField(key);
+        return df == null ? defaultValue : df.getFloat();
+    }
+
+    /**
+     * Returns a double value with key string.
+     *
+     * @param key Key to data.
+     * @param defaultValue Value returned if there is no data with the key.
+     * @return Saved value or the default value.
+     */
+    public double getDouble(String key, double defaultValue) {
+
+        DataField df = getDataField(key);
+        return df == null ? defaultValue : df.getDouble();
+    }
+
+    /**
+     * Returns a string with key string.
+     *
+     * @param key Key to data.
+     * @param defaultValue Value returned if there is no data with the key.
+     * @return Saved value or the default value.
+     */
+    public String getString(String key, String defaultValue) {
+
+        DataField df = getDataField(key);
+        return df == null ? defaultValue : df.getString();
+    }
+
+    /**
+     * Adds a data field to the end of the segment.
+     *
+     * @param df Data field.
+     */
+    void addDataField(DataField df) {
+        attach(df);
+        df.markChanged();
+    }
+
+    /**
+     * Replaces the data of the field with the same key or adds the field.
+     *
+     * @param df Data field.
+     */
+    void putDataField(DataField df) {
+
+        DataField old = getDataField(df.getKey());
+
+        if (old == null) {
+            addDataField(df);
+        } else {
+            old.set(df);
+        }
+    }
+
+    /**
+     * Marks the segment changed since the last save.
+     */
+    void markChanged() {
+        changed = true;
+    }
+
+    /**
+     * Tells if any field has changed since the segment was last saved.
+     *
+     * @return Whether the segment has changed.
+     */
+    boolean isChanged() {
+        return changed;
+    }
+
+    /**
+     * Creates a copy of the changed fields and marks them saved.
+     *
+     * @return Segment with copies of the changed fields.
+     * @throws IOException If an object value is not serializable.
+     */
+    DataSegment copyChanges() throws IOException {
+
+        DataSegment ds = new DataSegment(segmentName);
+
+        for (int i = 0; i < amountOfDataFields; i++) {
+
+            if (dataFields[i].isChanged()) {
+                ds.addDataField(dataFields[i].copy());
+                dataFields[i].clearChanged();
+            }
+        }
+
+        changed = false;
+        return ds;
+    }
+
+    /**
+     * Marks all the fields saved.
+     */
+    void clearChanges() {
+
+        if (changed) {
+
+            for (int i = 0; i < amountOfDataFields; i++) {
+                dataFields[i].clearChanged();
+            }
+
+            changed = false;
+        }
+    }
+
+    /**
+     * Creates a copy of the segment for writing it on another thread.
+     *
+     * <p>
+     * The hash index of the copy is built only if it is used.
+     *
+     * @return Copy of the segment.
+     * @throws IOException If the fields can not be read from the mapped
+     * file or an object value is not serializable.
+     */
+    DataSegment copy() throws IOException {
+
+        loadAll();
+
+        DataSegment ds = new DataSegment(segmentName);
+        ds.dataFields = new DataField[Math.max(amountOfDataFields,
+                SaveFile.TREHESOLD)];
+        ds.amountOfDataFields = amountOfDataFields;
+        ds.index = null;
+
+        for (int i = 0; i < amountOfDataFields; i++) {
+            ds.dataFields[i] = dataFields[i].copy();
+        }
+
+        return ds;
+    }
+
+    /**
+     * Returns segments name.
+     *
+     * @return Segment name.
+     */
+    public String getSegmentName() {
+
+        return segmentName;
+    }
+
+    /**
+     * Gets array of data fields from the data segment.
+     *
+     * @return Array of data fields.
+     */
+    DataField[] getDataFields() {
+
+        loadAllQuietly();
+        return this.dataFields;
+    }
+
+    /**
+     * Returns the amount of the data fields in the data segment.
+     *
+     * @return Amount of data fields.
+     */
+    public int getAmountOfDataFields() {
+
+        loadAllQuietly();
+        return amountOfDataFields;
+    }
+
+    /**
+     * Reads the fields of the segment from a mapped save file when they are
+     * used.
+     *
+     * @param mapped Mapped save file.
+     * @param offset Offset of the segment in the file.
+     */
+    void setMapped(SaveFileIndex mapped, int offset) {
+        this.mapped = mapped;
+        this.mappedOffset = offset;
+    }
+
+    /**
+     * Reads all the fields which are not read yet from the mapped save file.
+     *
+     * @throws IOException If the fields can not be read.
+     */
+    void loadAll() throws IOException {
+
+        if (mapped != null) {
+            mapped.readFields(mappedOffset, df -> {
+
+                if (!getIndex().containsKey(df.getKey())) {
+                    attach(df);
+                }
+            });
+
+            mapped = null;
+        }
+    }
+
+    /**
+     * Reads all the fields from the mapped save file and prints the error if
+     * reading fails.
+     */
+    private void loadAllQuietly() {
+
+        try {
+            loadAll();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Adds a field to the end of the segment without marking it changed.
+     *
+     * @param df Data field.
+     */
+    private void attach(DataField df) {
+
+        if (amountOfDataFields == dataFields.length) {
+            DataField[] tmp = new DataField[dataFields.length * 2];
+            System.arraycopy(dataFields, 0, tmp, 0, amountOfDataFields);
+            dataFields = tmp;
+        }
+
+        dataFields[amountOfDataFields++] = df;
+        getIndex().put(df.getKey(), df);
+        df.setSegment(this);
+    }
+
+    /**
+     * Returns the data field with the key or adds an empty one.
+     *
+     * @param key Key to data.
+     * @return Data field.
+     */
+    private DataField getOrAddDataField(String key) {
+
+        DataField df = getDataField(key);
+
+        if (df == null) {
+            df = new DataField(key, null);
+            addDataField(df);
+        }
+
+        return df;
+    }
+
+    /**
+     * Connects the fields to the segment after deserialization.
+     *
+     * <p>
+     * Older save files can have empty slots among the fields, because the
+     * field array was grown without placing the new field in it. Empty slots
+     * are dropped here and the amount of fields is counted again.
+     *
+     * @param in Stream the segment is read from.
+     * @throws IOException If the stream can not be read.
+     * @throws ClassNotFoundException If the class of the data is missing.
+     */
+    private void readObject(ObjectInputStream in) throws IOException,
+            ClassNotFoundException {
+
+        in.defaultReadObject();
+
+        int length = Math.min(amountOfDataFields, dataFields.length);
+        amountOfDataFields = 0;
+
+        for (int i = 0; i < length; i++) {
+
+            if (dataFields[i] != null) {
+                dataFields[i].setSegment(this);
+                dataFields[amountOfDataFields++] = dataFields[i];
+            }
+        }
+
+        for (int i = amountOfDataFields; i < length; i++) {
+            dataFields[i] = null;
+        }
+    }
+
+    /**
+     * Returns the hash index and builds it if the segment was deserialized.
+     *
+     * @return Data fields by their keys.
+     */
+    private HashMap<String, DataField> getIndex() {
+
+        if (index == null) {
+            index = new HashMap<>(amountOfDataFields * 2);
+
+            for (int i = 0; i < amountOfDataFields; i++) {
+                index.put(dataFields[i].getKey(), dataFields[i]);
+            }
+        }
+
+        return index;
+    }
+}
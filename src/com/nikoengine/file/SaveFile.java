@@ -1,128 +1,572 @@
-package com.nikoengine.file;
-
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.Serializable;
-
-/**
- * Creates a save file instance where developer can place saved data.
- *
- * @author Niko Mustonen mustonen.niko@gmail.com
- * @version 2016.1205
- * @since 1.8
- */
-public class SaveFile implements Serializable {
-
-    /**
-     * Holds upper level data segments which hold data fields.
-     */
-    private DataSegment[] dataSegments;
-
-    /**
-     * Defines how many different data segments there is in the file.
-     */
-    private int amountOfDataSegments;
-
-    /**
-     * Defines the threshold value for increasing the array size.
-     */
-    final static int TREHESOLD = 5;
-
-    /**
-     * Reference to actual save file.
-     */
-    private File file;
-
-    /**
-     * Creates a save file instance where developer can place saved data.
-     *
-     * @param fileName Path to file.
-     */
-    public SaveFile(String fileName) {
-        this.file = new File(fileName);
-
-        if (!file.isFile()) {
-            try (FileOutputStream fos = new FileOutputStream(file)) {
-                fos.close();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
-
-        dataSegments = new DataSegment[TREHESOLD];
-    }
-
-    /**
-     * Returns a data segment with corresponding name from save file.
-     *
-     * @param segmentName Name of the data segment.
-     * @return Corresponding data segment.
-     */
-    public DataSegment getSegment(String segmentName) {
-
-        for (int i = 0; i < amountOfDataSegments; i++) {
-            if (dataSegments[i].getSegmentName().equals(segmentName)) {
-                return dataSegments[i];
-            }
-        }
-
-        return null;
-    }
-
-    /**
-     * Saves data to data segment with key string.
-     *
-     * @param segmentName Name of the data segment.
-     * @param fieldKey Key string to data.
-     * @param data Data itself.
-     */
-    public void save(String segmentName, String fieldKey, Object data) {
-
-        DataSegment ds = getSegment(segmentName);
-        
-        if (ds != null) {
-            
-            ds.saveDataSegment(fieldKey, data);
-        } else {
-
-            if (amountOfDataSegments >= dataSegments.length - 1) {
-                DataSegment[] tmp = new DataSegment[dataSegments.length
-                        + TREHESOLD];
-                System.arraycopy(dataSegments, 0, tmp, 0, amountOfDataSegments);
-                dataSegments = tmp;
-            } else {
-                dataSegments[amountOfDataSegments] = new DataSegment(
-                        segmentName, fieldKey, data);
-            }
-
-            amountOfDataSegments++;
-        }
-    }
-
-    /**
-     * Gets the file reference to actual save file.
-     *
-     * @return File reference to actual save file.
-     */
-    public File getFile() {
-        return this.file;
-    }
-
-    @Override
-    public String toString() {
-        String saveFileDataAsAString = "";
-
-        for (int i = 0; i < amountOfDataSegments; i++) {
-            System.out.println(dataSegments[i].getAmountOfDataFields());
-
-            for (int j = 0; j < dataSegments[i].getAmountOfDataFields(); j++) {
-
-                saveFileDataAsAString += dataSegments[i].
-                        getDataFields()[j] + "\n";
-            }
-        }
-
-        return saveFileDataAsAString;
-    }
-}
+package com.nikoengine.file;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.HashMap;
+
+/**
+ * Creates a save file instance where developer can place saved data.
+ *
+ * <p>
+ * Data segments are kept in the order they were added and are found by their
+ * name from a hash index. A save file opened with SaveFileHandler.openFile
+ * reads segments and fields from the mapped file only when they are used.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class SaveFile implements Serializable {
+
+    /**
+     * Keeps save files written with Java serialization readable.
+     */
+    private static final long serialVersionUID = -7790873253992715077L;
+
+    /**
+     * Holds upper level data segments which hold data fields.
+     */
+    private DataSegment[] dataSegments;
+
+    /**
+     * Defines how many different data segments there is in the file.
+     */
+    private int amountOfDataSegments;
+
+    /**
+     * Defines the initial array size. Full arrays are doubled in size.
+     */
+    final static int TREHESOLD = 5;
+
+    /**
+     * Reference to actual save file.
+     */
+    private File file;
+
+    /**
+     * Finds data segments by their names. Is built again when needed after
+     * deserialization.
+     */
+    private transient HashMap<String, DataSegment> index;
+
+    /**
+     * Tells which journal belongs to the snapshot of this save file.
+     */
+    private transient long generation;
+
+    /**
+     * Holds the size of the snapshot on disk in bytes.
+     */
+    private transient volatile long snapshotSize;
+
+    /**
+     * Holds the size of the journal on disk in bytes.
+     */
+    private transient volatile long journalSize;
+
+    /**
+     * Counts the requests to write a full snapshot in the next save.
+     */
+    private transient int snapshotRequests;
+
+    /**
+     * Holds the amount of snapshot requests the last written snapshot was
+     * copied after.
+     */
+    private transient int savedSnapshotRequests;
+
+    /**
+     * Holds the mapped file where segments are not read yet or null.
+     */
+    private transient SaveFileIndex mapped;
+
+    /**
+     * Creates a save file instance where developer can place saved data.
+     *
+     * @param fileName Path to file.
+     */
+    public SaveFile(String fileName) {
+        this(new File(fileName));
+
+        if (!file.isFile()) {
+            try (FileOutputStream fos = new FileOutputStream(file)) {
+                fos.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Creates an empty save file instance without touching the file.
+     *
+     * @param file Reference to actual save file.
+     */
+    private SaveFile(File file) {
+        this.file = file;
+        dataSegments = new DataSegment[TREHESOLD];
+        index = new HashMap<>();
+    }
+
+    /**
+     * Returns a data segment with corresponding name from save file.
+     *
+     * @param segmentName Name of the data segment.
+     * @return Corresponding data segment.
+     */
+    public DataSegment getSegment(String segmentName) {
+
+        DataSegment ds = getIndex().get(segmentName);
+
+        if (ds == null && mapped != null) {
+
+            try {
+                int offset = mapped.findSegment(segmentName);
+
+                if (offset >= 0) {
+                    ds = new DataSegment(segmentName);
+                    ds.setMapped(mapped, offset);
+                    addSegment(ds);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        return ds;
+    }
+
+    /**
+     * Saves data to data segment with key string.
+     *
+     * @param segmentName Name of the data segment.
+     * @param fieldKey Key string to data.
+     * @param data Data itself.
+     */
+    public void save(String segmentName, String fieldKey, Object data) {
+        getOrAddSegment(segmentName).saveDataSegment(fieldKey, data);
+    }
+
+    /**
+     * Saves a boolean value to data segment with key string.
+     *
+     * @param segmentName Name of the data segment.
+     * @param fieldKey Key string to data.
+     * @param value Saved value.
+     */
+    public void save(String segmentName, String fieldKey, boolean value) {
+        getOrAddSegment(segmentName).saveDataSegment(fieldKey, value);
+    }
+
+    /**
+     * Saves an int value to data segment with key string.
+     *
+     * @param segmentName Name of the data segment.
+     * @param fieldKey Key string to data.
+     * @param value Saved value.
+     */
+    public void save(String segmentName, String fieldKey, int value) {
+        getOrAddSegment(segmentName).saveDataSegment(fieldKey, value);
+    }
+
+    /**
+     * Saves a long value to data segment with key string.
+     *
+     * @param segmentName Name of the data segment.
+     * @param fieldKey Key string to data.
+     * @param value Saved value.
+     */
+    public void save(String segmentName, String fieldKey, long value) {
+        getOrAddSegment(segmentName).saveDataSegment(fieldKey, value);
+    }
+
+    /**
+     * Saves a float value to data segment with key string.
+     *
+     * @param segmentName Name of the data segment.
+     * @param fieldKey Key string to data.
+     * @param value Saved value.
+     */
+    public void save(String segmentName, String fieldKey, float value) {
+        getOrAddSegment(segmentName).saveDataSegment(fieldKey, value);
+    }
+
+    /**
+     * Saves a double value to data segment with key string.
+     *
+     * @param segmentName Name of the data segment.
+     * @param fieldKey Key string to data.
+     * @param value Saved value.
+     */
+    public void save(String segmentName, String fieldKey, double value) {
+        getOrAddSegment(segmentName).saveDataSegment(fieldKey, value);
+    }
+
+    /**
+     * Adds a data segment to the end of the save file.
+     *
+     * @param ds Data segment.
+     */
+    void addSegment(DataSegment ds) {
+
+        if (amountOfDataSegments == dataSegments.length) {
+            DataSegment[] tmp = new DataSegment[dataSegments.length * 2];
+            System.arraycopy(dataSegments, 0, tmp, 0, amountOfDataSegments);
+            dataSegments = tmp;
+        }
+
+        dataSegments[amountOfDataSegments++] = ds;
+        getIndex().put(ds.getSegmentName(), ds);
+    }
+
+    /**
+     * Gets array of data segments from the save file.
+     *
+     * @return Array of data segments.
+     */
+    DataSegment[] getDataSegments() {
+
+        loadAllQuietly();
+        return this.dataSegments;
+    }
+
+    /**
+     * Returns the amount of the data segments in the save file.
+     *
+     * @return Amount of data segments.
+     */
+    public int getAmountOfDataSegments() {
+
+        loadAllQuietly();
+        return amountOfDataSegments;
+    }
+
+    /**
+     * Reads segments and fields from a mapped file when they are used.
+     *
+     * @param mapped Mapped file.
+     */
+    void setMapped(SaveFileIndex mapped) {
+        this.mapped = mapped;
+    }
+
+    /**
+     * Reads all the segments and fields which are not read yet from the
+     * mapped file.
+     *
+     * @throws IOException If the file can not be read.
+     */
+    void loadAll() throws IOException {
+
+        if (mapped != null) {
+            int segment = mapped.getFirstSegment();
+
+            for (int i = mapped.getSegmentAmount(); i > 0; i--) {
+                DataSegment ds = getSegment(mapped.getSegmentName(segment));
+
+                if (ds != null) {
+                    ds.loadAll();
+                }
+
+                segment = mapped.getNextSegment(segment);
+            }
+
+            mapped = null;
+        }
+    }
+
+    /**
+     * Creates a copy of the save file for writing it on another thread.
+     *
+     * @return Copy of the save file.
+     * @throws IOException If the data can not be read from the mapped file
+     * or an object value is not serializable.
+     */
+    SaveFile copy() throws IOException {
+
+        loadAll();
+
+        SaveFile save = new SaveFile(file);
+        save.generation = generation;
+
+        for (int i = 0; i < amountOfDataSegments; i++) {
+            save.addSegment(dataSegments[i].copy());
+        }
+
+        return save;
+    }
+
+    /**
+     * Creates a copy of the changed fields and marks them saved.
+     *
+     * @return Save file with copies of the changed fields or null if nothing
+     * has changed.
+     * @throws IOException If an object value is not serializable.
+     */
+    SaveFile copyChanges() throws IOException {
+
+        SaveFile save = null;
+
+        for (int i = 0; i < amountOfDataSegments; i++) {
+
+            if (dataSegments[i].isChanged()) {
+
+                if (save == null) {
+                    save = new SaveFile(file);
+                    save.generation = generation;
+                }
+
+                save.addSegment(dataSegments[i].copyChanges());
+            }
+        }
+
+        return save;
+    }
+
+    /**
+     * Marks all the fields saved.
+     */
+    void clearChanges() {
+
+        for (int i = 0; i < amountOfDataSegments; i++) {
+            dataSegments[i].clearChanges();
+        }
+    }
+
+    /**
+     * Moves all the fields of another copy to this one.
+     *
+     * <p>
+     * Fields which already are in this save file are replaced. The merged
+     * copy must not be used afterwards.
+     *
+     * @param save Copy to be merged.
+     */
+    void merge(SaveFile save) {
+
+        for (int i = 0; i < save.amountOfDataSegments; i++) {
+            DataSegment ds = save.dataSegments[i];
+            DataSegment target = getOrAddSegment(ds.getSegmentName());
+            DataField[] fields = ds.getDataFields();
+
+            for (int j = 0; j < ds.getAmountOfDataFields(); j++) {
+                target.putDataField(fields[j]);
+            }
+        }
+    }
+
+    /**
+     * Returns the generation of the snapshot of this save file.
+     *
+     * @return Generation.
+     */
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Sets the generation of the snapshot of this save file.
+     *
+     * @param generation Generation.
+     */
+    void setGeneration(long generation) {
+        this.generation = generation;
+    }
+
+    /**
+     * Returns the size of the snapshot on disk.
+     *
+     * @return Size in bytes.
+     */
+    long getSnapshotSize() {
+        return snapshotSize;
+    }
+
+    /**
+     * Sets the size of the snapshot on disk.
+     *
+     * @param snapshotSize Size in bytes.
+     */
+    void setSnapshotSize(long snapshotSize) {
+        this.snapshotSize = snapshotSize;
+    }
+
+    /**
+     * Returns the size of the journal on disk.
+     *
+     * @return Size in bytes.
+     */
+    long getJournalSize() {
+        return journalSize;
+    }
+
+    /**
+     * Sets the size of the journal on disk.
+     *
+     * @param journalSize Size in bytes.
+     */
+    void setJournalSize(long journalSize) {
+        this.journalSize = journalSize;
+    }
+
+    /**
+     * Tells whether the next save must write a full snapshot.
+     *
+     * @return Whether a snapshot is needed.
+     */
+    synchronized boolean isSnapshotNeeded() {
+        return snapshotRequests != savedSnapshotRequests;
+    }
+
+    /**
+     * Requests the next save to write a full snapshot.
+     */
+    synchronized void requestSnapshot() {
+        snapshotRequests++;
+    }
+
+    /**
+     * Returns the amount of snapshot requests so far.
+     *
+     * @return Amount of requests.
+     */
+    synchronized int getSnapshotRequests() {
+        return snapshotRequests;
+    }
+
+    /**
+     * Tells that a snapshot copied after the amount of requests is written.
+     *
+     * <p>
+     * Requests made after the copy stay open, because the snapshot may not
+     * have the data they were made for.
+     *
+     * @param snapshotRequests Amount of requests when the snapshot was
+     * copied.
+     */
+    synchronized void setSnapshotSaved(int snapshotRequests) {
+
+        if (snapshotRequests - savedSnapshotRequests > 0) {
+            savedSnapshotRequests = snapshotRequests;
+        }
+    }
+
+    /**
+     * Gets the file reference to actual save file.
+     *
+     * @return File reference to actual save file.
+     */
+    public File getFile() {
+        return this.file;
+    }
+
+    /**
+     * Sets the file reference to actual save file.
+     *
+     * @param file File reference to actual save file.
+     */
+    void setFile(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the data segment with the name or adds an empty one.
+     *
+     * @param segmentName Name of the data segment.
+     * @return Data segment.
+     */
+    DataSegment getOrAddSegment(String segmentName) {
+
+        DataSegment ds = getSegment(segmentName);
+
+        if (ds == null) {
+            ds = new DataSegment(segmentName);
+            addSegment(ds);
+        }
+
+        return ds;
+    }
+
+    /**
+     * Returns the hash index and builds it if the save file was deserialized.
+     *
+     * @return Data segments by their names.
+     */
+    private HashMap<String, DataSegment> getIndex() {
+
+        if (index == null) {
+            index = new HashMap<>(amountOfDataSegments * 2);
+
+            for (int i = 0; i < amountOfDataSegments; i++) {
+                index.put(dataSegments[i].getSegmentName(), dataSegments[i]);
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * Drops empty slots among the segments after deserialization.
+     *
+     * <p>
+     * Older save files can have empty slots, because the segment array was
+     * grown without placing the new segment in it. The amount of segments is
+     * counted again.
+     *
+     * @param in Stream the save file is read from.
+     * @throws IOException If the stream can not be read.
+     * @throws ClassNotFoundException If the class of the data is missing.
+     */
+    private void readObject(ObjectInputStream in) throws IOException,
+            ClassNotFoundException {
+
+        in.defaultReadObject();
+
+        int length = Math.min(amountOfDataSegments, dataSegments.length);
+        amountOfDataSegments = 0;
+
+        for (int i = 0; i < length; i++) {
+
+            if (dataSegments[i] != null) {
+                dataSegments[amountOfDataSegments++] = dataSegments[i];
+            }
+        }
+
+        for (int i = amountOfDataSegments; i < length; i++) {
+            dataSegments[i] = null;
+        }
+    }
+
+    /**
+     * Reads everything from the mapped file and prints the error if reading
+     * fails.
+     */
+    private void loadAllQuietly() {
+
+        try {
+            loadAll();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public String toString() {
+        String saveFileDataAsAString = "";
+
+        for (int i = 0; i < amountOfDataSegments; i++) {
+            System.out.println(dataSegments[i].getAmountOfDataFields());
+
+            for (int j = 0; j < dataSegments[i].getAmountOfDataFields(); j++) {
+
+                saveFileDataAsAString += dataSegments[i].
+                        getDataFields()[j] + "\n";
+            }
+        }
+
+        return saveFileDataAsAString;
+    }
+}
@@ -0,0 +1,773 @@
+package com.nikoengine.file;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Reads and writes save files in a typed binary format.
+ *
+ * <p>
+ * File starts with a header which has a magic number and the format version.
+ * All the segment names, keys and string values are stored once in a string
+ * table and the fields refer to them by index. Every segment is prefixed with
+ * its length in bytes, so a segment can be skipped without reading its fields.
+ * Primitive values are stored as they are and only other objects go through
+ * Java serialization.
+ *
+ * <p>
+ * Full save files also have an index: the offsets of the strings, a hash
+ * table of the fields at the end of every segment and a hash table of the
+ * segments at the end of the file. The index lets a mapped file be read one
+ * field at a time. Hash tables use linear probing and slots hold the hash
+ * code of the name and the offset of the entry, or zero when the slot is
+ * empty.
+ *
+ * <pre>
+ * header:   int magic, int version, int strings, int segments,
+ *           long generation, int string offsets, int segment table,
+ *           int segment table capacity
+ * strings:  int length, UTF-8 bytes
+ * offsets:  int offset of each string
+ * segment:  int length, int name, int fields, fields,
+ *           int field table capacity, field table
+ * field:    int key, byte type, value
+ * table:    int hash, int offset
+ * </pre>
+ *
+ * All the numbers are little endian. The generation tells which journal
+ * belongs to the file. Offsets are from the beginning of the file and are
+ * zero when the file has no index. Version 1 files have no generation and
+ * version 2 files have no index.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+class SaveFileFormat {
+
+    /**
+     * Defines the magic number at the beginning of the file, "NKSV".
+     */
+    static final int MAGIC = 0x4E4B5356;
+
+    /**
+     * Defines the version of the format.
+     */
+    static final int VERSION = 3;
+
+    /**
+     * Defines the size of the header in bytes.
+     */
+    static final int HEADER_SIZE = 36;
+
+    /**
+     * Defines the size of the header of version 1 files in bytes.
+     */
+    private static final int HEADER_SIZE_V1 = 16;
+
+    /**
+     * Defines the size of the header of version 2 files in bytes.
+     */
+    private static final int HEADER_SIZE_V2 = 24;
+
+    /**
+     * Defines the size of the write buffer in bytes.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Defines the size of the write buffer for small writes in bytes.
+     */
+    private static final int SMALL_BUFFER_SIZE = 4 * 1024;
+
+    /**
+     * Writes through a buffer and keeps track of the position.
+     *
+     * @author Niko Mustonen mustonen.niko@gmail.com
+     * @version 2026.1019
+     * @since 1.8
+     */
+    private static class Output {
+
+        /**
+         * Holds the channel where the bytes are written.
+         */
+        final WritableByteChannel channel;
+
+        /**
+         * Holds the write buffer.
+         */
+        final ByteBuffer buffer;
+
+        /**
+         * Holds the amount of bytes written to the channel.
+         */
+        long flushed = 0;
+
+        /**
+         * Creates an output.
+         *
+         * @param channel Channel where the bytes are written.
+         * @param buffer Empty write buffer.
+         */
+        Output(WritableByteChannel channel, ByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * Returns the position of the next written byte.
+         *
+         * @return Position from the beginning of the output.
+         * @throws IOException If the position does not fit in an int.
+         */
+        int position() throws IOException {
+
+            long position = flushed + buffer.position();
+
+            if (position > Integer.MAX_VALUE) {
+                throw new IOException("Save file is too large");
+            }
+
+            return (int) position;
+        }
+
+        /**
+         * Makes sure the buffer has room for the given amount of bytes.
+         *
+         * @param bytes Amount of needed bytes.
+         * @throws IOException If writing fails.
+         */
+        void ensure(int bytes) throws IOException {
+
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        /**
+         * Writes bytes through the buffer or straight to the channel if they
+         * do not fit in the buffer.
+         *
+         * @param bytes Bytes to be written.
+         * @throws IOException If writing fails.
+         */
+        void putBytes(byte[] bytes) throws IOException {
+
+            if (bytes.length <= buffer.remaining()) {
+                buffer.put(bytes);
+            } else if (bytes.length <= buffer.capacity()) {
+                flush();
+                buffer.put(bytes);
+            } else {
+                flush();
+                ByteBuffer wrapped = ByteBuffer.wrap(bytes);
+
+                while (wrapped.hasRemaining()) {
+                    flushed += channel.write(wrapped);
+                }
+            }
+        }
+
+        /**
+         * Writes the contents of the buffer to the channel and clears the
+         * buffer.
+         *
+         * @throws IOException If writing fails.
+         */
+        void flush() throws IOException {
+
+            buffer.flip();
+
+            while (buffer.hasRemaining()) {
+                flushed += channel.write(buffer);
+            }
+
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Tells whether the file starts with the binary save format header.
+     *
+     * @param header First bytes of the file.
+     * @return Whether the file is in this format.
+     */
+    static boolean isSaveFileFormat(ByteBuffer header) {
+
+        return header.remaining() >= HEADER_SIZE_V1 && header.order(
+                ByteOrder.LITTLE_ENDIAN).getInt(header.position()) == MAGIC;
+    }
+
+    /**
+     * Writes all the segments of the save file and the index to a file.
+     *
+     * <p>
+     * Returns after the data has been forced to the storage device.
+     *
+     * @param save Save file to be written.
+     * @param file File where the data is written.
+     * @return Size of the file in bytes.
+     * @throws IOException If the file can not be written.
+     */
+    static long write(SaveFile save, File file) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            write(save, new Output(channel, ByteBuffer.allocateDirect(
+                    BUFFER_SIZE)), true);
+            channel.force(true);
+
+            return channel.size();
+        }
+    }
+
+    /**
+     * Writes all the segments of the save file to a byte array without an
+     * index.
+     *
+     * @param save Save file to be written.
+     * @return Save file in this format.
+     * @throws IOException If an object value can not be serialized.
+     */
+    static byte[] toBytes(SaveFile save) throws IOException {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(save, new Output(Channels.newChannel(out), ByteBuffer.allocate(
+                SMALL_BUFFER_SIZE)), false);
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes all the segments of the save file.
+     *
+     * @param save Save file to be written.
+     * @param out Output where the data is written.
+     * @param isIndexed Whether the index is written.
+     * @throws IOException If the data can not be written.
+     */
+    private static void write(SaveFile save, Output out, boolean isIndexed)
+            throws IOException {
+
+        DataSegment[] segments = save.getDataSegments();
+        int segmentAmount = save.getAmountOfDataSegments();
+
+        HashMap<String, Integer> stringIndex = new HashMap<>();
+        ArrayList<byte[]> strings = new ArrayList<>();
+        ArrayList<byte[]> objects = new ArrayList<>();
+        int[] segmentSizes = new int[segmentAmount];
+        long segmentsSize = 0;
+
+        for (int i = 0; i < segmentAmount; i++) {
+            DataSegment ds = segments[i];
+            DataField[] fields = ds.getDataFields();
+            int fieldAmount = ds.getAmountOfDataFields();
+            long size = 8;
+
+            intern(ds.getSegmentName(), stringIndex, strings);
+
+            for (int j = 0; j < fieldAmount; j++) {
+                DataField df = fields[j];
+
+                intern(df.getKey(), stringIndex, strings);
+                size += 5 + getValueSize(df, stringIndex, strings, objects);
+            }
+
+            if (isIndexed) {
+                size += 4 + 8L * getTableCapacity(fieldAmount);
+            }
+
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Save file is too large");
+            }
+
+            segmentSizes[i] = (int) size;
+            segmentsSize += 4 + size;
+        }
+
+        int segmentCapacity = isIndexed ? getTableCapacity(segmentAmount) : 0;
+        int stringOffsets = 0;
+        int segmentTable = 0;
+
+        if (isIndexed) {
+            long position = HEADER_SIZE;
+
+            for (byte[] s : strings) {
+                position += 4 + s.length;
+            }
+
+            stringOffsets = (int) Math.min(Integer.MAX_VALUE, position);
+            segmentTable = (int) Math.min(Integer.MAX_VALUE,
+                    position + 4L * strings.size() + segmentsSize);
+        }
+
+        ByteBuffer buffer = out.buffer;
+
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(strings.size());
+        buffer.putInt(segmentAmount);
+        buffer.putLong(save.getGeneration());
+        buffer.putInt(stringOffsets);
+        buffer.putInt(segmentTable);
+        buffer.putInt(segmentCapacity);
+
+        int[] offsets = new int[strings.size()];
+
+        for (int i = 0; i < offsets.length; i++) {
+            byte[] s = strings.get(i);
+
+            out.ensure(4);
+            offsets[i] = out.position();
+            buffer.putInt(s.length);
+            out.putBytes(s);
+        }
+
+        if (isIndexed) {
+
+            for (int offset : offsets) {
+                out.ensure(4);
+                buffer.putInt(offset);
+            }
+        }
+
+        int[] segmentOffsets = new int[segmentAmount];
+        int object = 0;
+
+        for (int i = 0; i < segmentAmount; i++) {
+            DataSegment ds = segments[i];
+            DataField[] fields = ds.getDataFields();
+            int fieldAmount = ds.getAmountOfDataFields();
+            int[] fieldOffsets = new int[fieldAmount];
+
+            out.ensure(12);
+            segmentOffsets[i] = out.position();
+            buffer.putInt(segmentSizes[i]);
+            buffer.putInt(stringIndex.get(ds.getSegmentName()));
+            buffer.putInt(fieldAmount);
+
+            for (int j = 0; j < fieldAmount; j++) {
+                DataField df = fields[j];
+                byte type = df.getType();
+
+                out.ensure(13);
+                fieldOffsets[j] = out.position();
+                buffer.putInt(stringIndex.get(df.getKey()));
+                buffer.put(type);
+
+                switch (type) {
+                    case DataField.TYPE_BOOLEAN:
+                        buffer.put((byte) df.getPrimitive());
+                        break;
+                    case DataField.TYPE_INT:
+                    case DataField.TYPE_FLOAT:
+                        buffer.putInt((int) df.getPrimitive());
+                        break;
+                    case DataField.TYPE_LONG:
+                    case DataField.TYPE_DOUBLE:
+                        buffer.putLong(df.getPrimitive());
+                        break;
+                    case DataField.TYPE_STRING:
+                        buffer.putInt(stringIndex.get(
+                                (String) df.getObject()));
+                        break;
+                    case DataField.TYPE_BYTES:
+                        byte[] bytes = (byte[]) df.getObject();
+                        buffer.putInt(bytes.length);
+                        out.putBytes(bytes);
+                        break;
+                    case DataField.TYPE_OBJECT:
+                        byte[] serialized = objects.get(object++);
+                        buffer.putInt(serialized.length);
+                        out.putBytes(serialized);
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            if (isIndexed) {
+                String[] keys = new String[fieldAmount];
+
+                for (int j = 0; j < fieldAmount; j++) {
+                    keys[j] = fields[j].getKey();
+                }
+
+                out.ensure(4);
+                buffer.putInt(getTableCapacity(fieldAmount));
+                putTable(out, keys, fieldOffsets);
+            }
+        }
+
+        if (isIndexed) {
+            String[] names = new String[segmentAmount];
+
+            for (int i = 0; i < segmentAmount; i++) {
+                names[i] = segments[i].getSegmentName();
+            }
+
+            putTable(out, names, segmentOffsets);
+        }
+
+        out.flush();
+    }
+
+    /**
+     * Reads all the segments from a file to the save file.
+     *
+     * @param save Save file where the segments are added.
+     * @param file File to be read.
+     * @return Generation of the file or -1 if the file has no generation.
+     * @throws IOException If the file can not be read or is not in this
+     * format.
+     */
+    static long read(SaveFile save, File file) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.READ)) {
+
+            MappedByteBuffer buffer = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            return read(save, buffer, file);
+        }
+    }
+
+    /**
+     * Reads all the segments from a buffer to the save file.
+     *
+     * <p>
+     * Fields which already are in the save file are replaced.
+     *
+     * @param save Save file where the segments are added.
+     * @param buffer Buffer which holds the data in this format.
+     * @param file File for error messages.
+     * @return Generation of the data or -1 if the data has no generation.
+     * @throws IOException If the data is not in this format.
+     */
+    static long read(SaveFile save, ByteBuffer buffer, File file)
+            throws IOException {
+
+        try {
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            final String[] strings = readHeader(buffer, file);
+            IntFunction<String> stringTable = i -> strings[i];
+            int segmentAmount = buffer.getInt(12);
+            long generation = buffer.getInt(4) == 1 ? -1 : buffer.getLong(16);
+
+            for (int i = 0; i < segmentAmount; i++) {
+                int length = buffer.getInt();
+                int end = buffer.position() + length;
+                DataSegment ds = save.getOrAddSegment(
+                        strings[buffer.getInt()]);
+                int fieldAmount = buffer.getInt();
+
+                for (int j = 0; j < fieldAmount; j++) {
+                    ds.putDataField(readField(buffer, stringTable));
+                }
+
+                if (buffer.position() > end) {
+                    throw new IOException("Corrupted save file: " + file);
+                }
+
+                buffer.position(end);
+            }
+
+            return generation;
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted save file: " + file, e);
+        }
+    }
+
+    /**
+     * Checks the header and reads the string table.
+     *
+     * <p>
+     * Leaves the buffer at the first segment.
+     *
+     * @param buffer Buffer which holds the whole file.
+     * @param file File for error messages.
+     * @return Strings of the string table.
+     * @throws IOException If the file is not in this format.
+     */
+    static String[] readHeader(ByteBuffer buffer, File file)
+            throws IOException {
+
+        int version = getVersion(buffer, file);
+        String[] strings = new String[buffer.getInt(8)];
+
+        buffer.position(version == 1 ? HEADER_SIZE_V1 : version == 2
+                ? HEADER_SIZE_V2 : HEADER_SIZE);
+
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(buffer, buffer.position());
+            buffer.position(buffer.position() + 4
+                    + buffer.getInt(buffer.position()));
+        }
+
+        if (version >= 3 && buffer.getInt(24) != 0) {
+            buffer.position(buffer.position() + 4 * strings.length);
+        }
+
+        return strings;
+    }
+
+    /**
+     * Checks the header and returns the version of the format.
+     *
+     * @param buffer Buffer which holds the whole file.
+     * @param file File for error messages.
+     * @return Version.
+     * @throws IOException If the file is not in a supported version of this
+     * format.
+     */
+    static int getVersion(ByteBuffer buffer, File file) throws IOException {
+
+        if (!isSaveFileFormat(buffer)) {
+            throw new IOException("Not a save file: " + file);
+        }
+
+        int version = buffer.getInt(4);
+
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported save file version " + version
+                    + ": " + file);
+        }
+
+        return version;
+    }
+
+    /**
+     * Reads a string of the string table.
+     *
+     * @param buffer Buffer which holds the whole file.
+     * @param offset Offset of the string.
+     * @return String.
+     */
+    static String readString(ByteBuffer buffer, int offset) {
+
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        ByteBuffer source = buffer.duplicate();
+        source.position(offset + 4);
+        source.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads one field at the position of the buffer.
+     *
+     * @param buffer Buffer at the beginning of a field.
+     * @param strings Returns the strings of the string table by their index.
+     * @return Data field.
+     * @throws IOException If an object value can not be deserialized.
+     */
+    static DataField readField(ByteBuffer buffer, IntFunction<String> strings)
+            throws IOException {
+
+        DataField df = new DataField(strings.apply(buffer.getInt()), null);
+        byte type = buffer.get();
+
+        switch (type) {
+            case DataField.TYPE_NULL:
+                break;
+            case DataField.TYPE_BOOLEAN:
+                df.set(type, buffer.get(), null);
+                break;
+            case DataField.TYPE_INT:
+            case DataField.TYPE_FLOAT:
+                df.set(type, buffer.getInt(), null);
+                break;
+            case DataField.TYPE_LONG:
+            case DataField.TYPE_DOUBLE:
+                df.set(type, buffer.getLong(), null);
+                break;
+            case DataField.TYPE_STRING:
+                df.set(type, 0, strings.apply(buffer.getInt()));
+                break;
+            case DataField.TYPE_BYTES:
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                df.set(type, 0, bytes);
+                break;
+            case DataField.TYPE_OBJECT:
+                byte[] serialized = new byte[buffer.getInt()];
+                buffer.get(serialized);
+                df.set(type, 0, deserialize(serialized));
+                break;
+            default:
+                throw new IOException("Unknown field type " + type);
+        }
+
+        return df;
+    }
+
+    /**
+     * Returns the capacity of a hash table.
+     *
+     * @param entries Amount of entries in the table.
+     * @return Power of two which is at least twice the amount of entries.
+     */
+    static int getTableCapacity(int entries) {
+
+        int capacity = 1;
+
+        while (capacity < entries * 2) {
+            capacity <<= 1;
+        }
+
+        return capacity;
+    }
+
+    /**
+     * Returns the first slot of a name in a hash table.
+     *
+     * @param hash Hash code of the name.
+     * @param capacity Capacity of the table.
+     * @return Slot index.
+     */
+    static int getSlot(int hash, int capacity) {
+        return (hash ^ hash >>> 16) & capacity - 1;
+    }
+
+    /**
+     * Writes a hash table.
+     *
+     * @param out Output where the table is written.
+     * @param names Names of the entries.
+     * @param offsets Offsets of the entries.
+     * @throws IOException If writing fails.
+     */
+    private static void putTable(Output out, String[] names, int[] offsets)
+            throws IOException {
+
+        int capacity = getTableCapacity(names.length);
+        int[] table = new int[capacity * 2];
+
+        for (int i = 0; i < names.length; i++) {
+            int hash = names[i].hashCode();
+            int slot = getSlot(hash, capacity);
+
+            while (table[slot * 2 + 1] != 0) {
+                slot = slot + 1 & capacity - 1;
+            }
+
+            table[slot * 2] = hash;
+            table[slot * 2 + 1] = offsets[i];
+        }
+
+        for (int value : table) {
+            out.ensure(4);
+            out.buffer.putInt(value);
+        }
+    }
+
+    /**
+     * Adds a string to the string table unless it is already there.
+     *
+     * @param s String to be added.
+     * @param stringIndex Indices of the added strings.
+     * @param strings Added strings as UTF-8.
+     */
+    private static void intern(String s, HashMap<String, Integer> stringIndex,
+            ArrayList<byte[]> strings) {
+
+        if (!stringIndex.containsKey(s)) {
+            stringIndex.put(s, strings.size());
+            strings.add(s.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Calculates the size of the value of the field and prepares the value
+     * for writing.
+     *
+     * @param df Data field.
+     * @param stringIndex Indices of the added strings.
+     * @param strings Added strings as UTF-8.
+     * @param objects Serialized objects in writing order.
+     * @return Size of the value in bytes.
+     * @throws IOException If an object can not be serialized.
+     */
+    private static int getValueSize(DataField df,
+            HashMap<String, Integer> stringIndex, ArrayList<byte[]> strings,
+            ArrayList<byte[]> objects) throws IOException {
+
+        switch (df.getType()) {
+            case DataField.TYPE_BOOLEAN:
+                return 1;
+            case DataField.TYPE_INT:
+            case DataField.TYPE_FLOAT:
+                return 4;
+            case DataField.TYPE_LONG:
+            case DataField.TYPE_DOUBLE:
+                return 8;
+            case DataField.TYPE_STRING:
+                intern((String) df.getObject(), stringIndex, strings);
+                return 4;
+            case DataField.TYPE_BYTES:
+                return 4 + ((byte[]) df.getObject()).length;
+            case DataField.TYPE_OBJECT:
+                byte[] serialized = df.getSerialized();
+                objects.add(serialized);
+                return 4 + serialized.length;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Serializes an object with Java serialization.
+     *
+     * @param o Object to be serialized.
+     * @return Serialized bytes.
+     * @throws IOException If the object is not serializable.
+     */
+    static byte[] serialize(Object o) throws IOException {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(o);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Deserializes an object with Java serialization.
+     *
+     * @param bytes Serialized bytes.
+     * @return Deserialized object.
+     * @throws IOException If the object can not be deserialized.
+     */
+    private static Object deserialize(byte[] bytes) throws IOException {
+
+        try (ObjectInputStream ois = new ObjectInputStream(
+                new ByteArrayInputStream(bytes))) {
+
+            return ois.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+}
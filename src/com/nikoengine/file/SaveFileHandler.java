@@ -1,52 +1,435 @@
-package com.nikoengine.file;
-
-import java.io.ObjectInputStream;
-import java.io.*;
-
-/**
- * Handles save files.
- *
- * @author Niko Mustonen mustonen.niko@gmail.com
- * @version 2016.1205
- * @since 1.8
- */
-public class SaveFileHandler {
-
-    /**
-     * Loads data from the save file and returns it in a SaveFile format.
-     * 
-     * @param fileName Path to file.
-     * @return SaveFile instance.
-     * @throws IOException Is thrown when file is not found.
-     */
-    public static SaveFile loadFile(String fileName) throws IOException {
-
-        SaveFile save = new SaveFile(fileName);
-
-        try (ObjectInputStream ois = new ObjectInputStream(
-                new FileInputStream(save.getFile()))) {
-
-            save = (SaveFile) ois.readObject();
-        } catch (ClassNotFoundException e) {
-            e.printStackTrace();
-        }
-
-        return save;
-    }
-
-    /**
-     * Saves all the data stored in a save file.
-     * 
-     * @param save Save file to be saved.
-     */
-    public static void saveFile(SaveFile save) {
-
-        try (ObjectOutputStream oos = new ObjectOutputStream(
-                new FileOutputStream(save.getFile()))) {
-
-            oos.writeObject(save);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-}
+package com.nikoengine.file;
+
+import java.io.DataInputStream;
+import java.io.ObjectInputStream;
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Handles save files.
+ *
+ * <p>
+ * Save files are written in a typed binary format. Save files written with
+ * Java serialization by older versions can still be loaded and are written in
+ * the binary format when saved again.
+ *
+ * <p>
+ * Saving copies the data and writes the copy on a background thread, so the
+ * data can be changed again right away. The copy is written to a temporary
+ * file which replaces the save file only after it has been fully written, so
+ * a crash during saving leaves the previous save intact. When a save file is
+ * saved again before the previous copy has started writing, only the newest
+ * copy is written.
+ *
+ * <p>
+ * Frequent saves, like autosaves, should use saveChanges which appends only
+ * the changed fields to a journal next to the save file. The journal is
+ * replayed when the file is loaded and is compacted into a new full save when
+ * it grows larger than the save file.
+ *
+ * <p>
+ * Large save files should be opened with openFile which maps the file and
+ * reads segments and fields only when they are used.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class SaveFileHandler {
+
+    /**
+     * Defines the first bytes of a Java serialization stream.
+     */
+    private static final int SERIALIZATION_MAGIC = 0xACED;
+
+    /**
+     * Defines the journal size in bytes under which the journal is never
+     * compacted.
+     */
+    private static final long MIN_COMPACTION_SIZE = 64 * 1024;
+
+    /**
+     * Holds saves which have not started writing by their files.
+     */
+    private static final HashMap<File, PendingSave> pendingSaves
+            = new HashMap<>();
+
+    /**
+     * Writes the saves one at a time.
+     */
+    private static ExecutorService writer;
+
+    /**
+     * Holds a save waiting to be written.
+     *
+     * @author Niko Mustonen mustonen.niko@gmail.com
+     * @version 2026.1019
+     * @since 1.8
+     */
+    private static class PendingSave {
+
+        /**
+         * Completes when the save is written.
+         */
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        /**
+         * Holds the newest copy of the data or the changed fields.
+         */
+        SaveFile snapshot;
+
+        /**
+         * Tells whether the copy has all the data or only the changes.
+         */
+        boolean isSnapshot;
+
+        /**
+         * Holds the save file the copy was made from.
+         */
+        SaveFile source;
+
+        /**
+         * Holds the amount of snapshot requests of the source when the
+         * snapshot was copied.
+         */
+        int snapshotRequests;
+    }
+
+    /**
+     * Loads data from the save file and returns it in a SaveFile format.
+     *
+     * @param fileName Path to file.
+     * @return SaveFile instance.
+     * @throws IOException Is thrown when file is not found.
+     */
+    public static SaveFile loadFile(String fileName) throws IOException {
+
+        SaveFile save = new SaveFile(fileName);
+        long snapshotSize = save.getFile().length();
+
+        if (snapshotSize == 0) {
+            return save;
+        }
+
+        if (isSerialized(save.getFile())) {
+
+            try (ObjectInputStream ois = new ObjectInputStream(
+                    new BufferedInputStream(new FileInputStream(
+                            save.getFile())))) {
+
+                File file = save.getFile();
+                save = (SaveFile) ois.readObject();
+                save.setFile(file);
+            } catch (ClassNotFoundException e) {
+                e.printStackTrace();
+            }
+
+            save.requestSnapshot();
+        } else {
+            long generation = SaveFileFormat.read(save, save.getFile());
+
+            if (generation < 0) {
+                save.requestSnapshot();
+            } else {
+                save.setGeneration(generation);
+                save.setJournalSize(SaveJournal.replay(save));
+            }
+        }
+
+        save.setSnapshotSize(snapshotSize);
+        save.clearChanges();
+
+        return save;
+    }
+
+    /**
+     * Opens a save file without reading its data.
+     *
+     * <p>
+     * Segments and fields are read from the mapped file when they are used
+     * the first time, so opening takes the same time for every file size.
+     * Files without an index are loaded with loadFile.
+     *
+     * @param fileName Path to file.
+     * @return SaveFile instance.
+     * @throws IOException Is thrown when file can not be read.
+     */
+    public static SaveFile openFile(String fileName) throws IOException {
+
+        SaveFile save = new SaveFile(fileName);
+        long snapshotSize = save.getFile().length();
+
+        if (snapshotSize == 0) {
+            return save;
+        }
+
+        SaveFileIndex index = isSerialized(save.getFile()) ? null
+                : SaveFileIndex.open(save.getFile());
+
+        if (index == null) {
+            return loadFile(fileName);
+        }
+
+        save.setMapped(index);
+        save.setGeneration(index.getGeneration());
+        save.setJournalSize(SaveJournal.replay(save));
+        save.setSnapshotSize(snapshotSize);
+        save.clearChanges();
+
+        return save;
+    }
+
+    /**
+     * Saves all the data stored in a save file and waits until it is written.
+     *
+     * @param save Save file to be saved.
+     */
+    public static void saveFile(SaveFile save) {
+
+        try {
+            saveFileAsync(save).join();
+        } catch (CompletionException e) {
+            e.getCause().printStackTrace();
+        }
+    }
+
+    /**
+     * Saves all the data stored in a save file on a background thread.
+     *
+     * <p>
+     * The data is copied before returning, so later changes are not included
+     * in this save. The writer thread does not keep the application
+     * running, so wait for the future before exiting.
+     *
+     * @param save Save file to be saved.
+     * @return Future which completes when the save is on the disk or fails
+     * with the reason the save could not be written.
+     */
+    public static CompletableFuture<Void> saveFileAsync(SaveFile save) {
+
+        int snapshotRequests = save.getSnapshotRequests();
+        SaveFile snapshot;
+
+        try {
+            snapshot = save.copy();
+        } catch (IOException e) {
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+
+        save.setGeneration(save.getGeneration() + 1);
+        snapshot.setGeneration(save.getGeneration());
+        save.clearChanges();
+
+        return queue(save, snapshot, true, snapshotRequests);
+    }
+
+    /**
+     * Saves the fields changed since the last save on a background thread.
+     *
+     * <p>
+     * The changed fields are appended to the journal of the save file. All
+     * the data is saved instead if the save file has not been fully saved
+     * yet, the last save failed or the journal has grown larger than the save
+     * file.
+     *
+     * @param save Save file to be saved.
+     * @return Future which completes when the changes are on the disk or
+     * fails with the reason the changes could not be written.
+     */
+    public static CompletableFuture<Void> saveChanges(SaveFile save) {
+
+        if (save.isSnapshotNeeded() || save.getSnapshotSize() == 0
+                || save.getJournalSize() > Math.max(MIN_COMPACTION_SIZE,
+                        save.getSnapshotSize())) {
+
+            return saveFileAsync(save);
+        }
+
+        SaveFile changes;
+
+        try {
+            changes = save.copyChanges();
+        } catch (IOException e) {
+            save.requestSnapshot();
+
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+
+        if (changes == null) {
+
+            synchronized (pendingSaves) {
+                PendingSave pending = pendingSaves.get(
+                        save.getFile().getAbsoluteFile());
+
+                return pending != null ? pending.future
+                        : CompletableFuture.completedFuture(null);
+            }
+        }
+
+        return queue(save, changes, false, 0);
+    }
+
+    /**
+     * Queues a copy for writing or combines it with a queued copy of the
+     * same file.
+     *
+     * @param source Save file the copy was made from.
+     * @param copy Copy of the data or the changed fields.
+     * @param isSnapshot Whether the copy has all the data.
+     * @param snapshotRequests Amount of snapshot requests of the source
+     * before a snapshot was copied.
+     * @return Future which completes when the copy is written.
+     */
+    private static CompletableFuture<Void> queue(SaveFile source,
+            SaveFile copy, boolean isSnapshot, int snapshotRequests) {
+
+        final File file = copy.getFile().getAbsoluteFile();
+
+        synchronized (pendingSaves) {
+            PendingSave pending = pendingSaves.get(file);
+
+            if (pending == null) {
+                final PendingSave newPending = new PendingSave();
+                pendingSaves.put(file, newPending);
+                pending = newPending;
+
+                getWriter().execute(() -> write(file, newPending));
+            }
+
+            if (pending.snapshot == null || isSnapshot) {
+                pending.snapshot = copy;
+                pending.isSnapshot = isSnapshot;
+                pending.snapshotRequests = snapshotRequests;
+            } else {
+                pending.snapshot.merge(copy);
+            }
+
+            pending.source = source;
+            return pending.future;
+        }
+    }
+
+    /**
+     * Writes the newest copy of a pending save on the writer thread.
+     *
+     * @param file Save file.
+     * @param pending Pending save.
+     */
+    private static void write(File file, PendingSave pending) {
+
+        synchronized (pendingSaves) {
+            pendingSaves.remove(file, pending);
+        }
+
+        SaveFile source = pending.source;
+
+        try {
+
+            if (pending.isSnapshot) {
+                long size = writeAtomically(pending.snapshot, file);
+                SaveJournal.delete(file);
+
+                source.setSnapshotSize(size);
+                source.setJournalSize(0);
+                source.setSnapshotSaved(pending.snapshotRequests);
+            } else {
+                source.setJournalSize(SaveJournal.append(pending.snapshot,
+                        file));
+            }
+
+            pending.future.complete(null);
+        } catch (IOException | RuntimeException e) {
+            source.requestSnapshot();
+            pending.future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Writes the save to a temporary file and moves it over the save file.
+     *
+     * @param save Save file to be written.
+     * @param file Target file.
+     * @return Size of the file in bytes.
+     * @throws IOException If the save can not be written.
+     */
+    private static long writeAtomically(SaveFile save, File file)
+            throws IOException {
+
+        Path target = file.toPath();
+        Path tmp = target.resolveSibling(file.getName() + ".tmp");
+
+        long size;
+
+        try {
+            size = SaveFileFormat.write(save, tmp.toFile());
+
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+
+        try (FileChannel directory = FileChannel.open(target.getParent(),
+                StandardOpenOption.READ)) {
+
+            directory.force(true);
+        } catch (IOException e) {
+            // Not all platforms can force a directory, the file is saved.
+        }
+
+        return size;
+    }
+
+    /**
+     * Returns the writer thread and starts it if needed.
+     *
+     * @return Writer executor.
+     */
+    private static synchronized ExecutorService getWriter() {
+
+        if (writer == null) {
+            writer = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "SaveFileWriter");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        return writer;
+    }
+
+    /**
+     * Tells whether the file is written with Java serialization.
+     *
+     * @param file Save file.
+     * @return Whether the file starts like a serialization stream.
+     * @throws IOException If the file can not be read.
+     */
+    private static boolean isSerialized(File file) throws IOException {
+
+        try (DataInputStream in = new DataInputStream(
+                new FileInputStream(file))) {
+
+            return file.length() >= 2
+                    && in.readUnsignedShort() == SERIALIZATION_MAGIC;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.nikoengine.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntFunction;
+
+/**
+ * Finds segments and fields from a mapped save file through its index.
+ *
+ * <p>
+ * Opening reads only the header, so it takes the same time for every file
+ * size. Segments and fields are read from the mapping when they are looked
+ * up the first time.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+class SaveFileIndex {
+
+    /**
+     * Holds the mapped file.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Holds the file for error messages.
+     */
+    private final File file;
+
+    /**
+     * Holds the offset of the string offsets.
+     */
+    private final int stringOffsets;
+
+    /**
+     * Holds the offset of the segment table.
+     */
+    private final int segmentTable;
+
+    /**
+     * Holds the capacity of the segment table.
+     */
+    private final int segmentCapacity;
+
+    /**
+     * Returns the strings of the string table by their index.
+     */
+    private final IntFunction<String> strings;
+
+    /**
+     * Receives fields read from the file.
+     *
+     * @author Niko Mustonen mustonen.niko@gmail.com
+     * @version 2026.1019
+     * @since 1.8
+     */
+    interface FieldReceiver {
+
+        /**
+         * Receives a field.
+         *
+         * @param df Data field.
+         */
+        void field(DataField df);
+    }
+
+    /**
+     * Creates an index over a mapped file.
+     *
+     * @param buffer Mapped file.
+     * @param file File for error messages.
+     */
+    private SaveFileIndex(ByteBuffer buffer, File file) {
+        this.buffer = buffer;
+        this.file = file;
+        this.stringOffsets = buffer.getInt(24);
+        this.segmentTable = buffer.getInt(28);
+        this.segmentCapacity = buffer.getInt(32);
+        this.strings = this::getString;
+    }
+
+    /**
+     * Maps a save file.
+     *
+     * @param file Save file.
+     * @return Index or null if the file has no index.
+     * @throws IOException If the file can not be read or is not a save file.
+     */
+    static SaveFileIndex open(File file) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.READ)) {
+
+            MappedByteBuffer buffer = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (SaveFileFormat.getVersion(buffer, file) < 3
+                    || buffer.getInt(24) == 0) {
+                return null;
+            }
+
+            return new SaveFileIndex(buffer, file);
+        }
+    }
+
+    /**
+     * Returns the generation of the file.
+     *
+     * @return Generation.
+     */
+    long getGeneration() {
+        return buffer.getLong(16);
+    }
+
+    /**
+     * Returns the amount of the segments in the file.
+     *
+     * @return Amount of segments.
+     */
+    int getSegmentAmount() {
+        return buffer.getInt(12);
+    }
+
+    /**
+     * Returns the offset of the first segment.
+     *
+     * @return Offset.
+     */
+    int getFirstSegment() {
+        return stringOffsets + 4 * buffer.getInt(8);
+    }
+
+    /**
+     * Returns the offset of the segment which follows the segment.
+     *
+     * @param segment Offset of a segment.
+     * @return Offset of the next segment.
+     */
+    int getNextSegment(int segment) {
+        return segment + 4 + buffer.getInt(segment);
+    }
+
+    /**
+     * Finds a segment by its name.
+     *
+     * @param name Name of the segment.
+     * @return Offset of the segment or -1 if there is no such segment.
+     * @throws IOException If the file is corrupted.
+     */
+    int findSegment(String name) throws IOException {
+        return find(segmentTable, segmentCapacity, name, 4);
+    }
+
+    /**
+     * Returns the name of a segment.
+     *
+     * @param segment Offset of the segment.
+     * @return Name of the segment.
+     */
+    String getSegmentName(int segment) {
+        return getString(buffer.getInt(segment + 4));
+    }
+
+    /**
+     * Returns the amount of the fields in a segment.
+     *
+     * @param segment Offset of the segment.
+     * @return Amount of fields.
+     */
+    int getFieldAmount(int segment) {
+        return buffer.getInt(segment + 8);
+    }
+
+    /**
+     * Finds a field of a segment by its key.
+     *
+     * @param segment Offset of the segment.
+     * @param key Key of the field.
+     * @return Offset of the field or -1 if there is no such field.
+     * @throws IOException If the file is corrupted.
+     */
+    int findField(int segment, String key) throws IOException {
+
+        int capacity = SaveFileFormat.getTableCapacity(getFieldAmount(
+                segment));
+        int table = getNextSegment(segment) - 8 * capacity;
+
+        return find(table, capacity, key, 0);
+    }
+
+    /**
+     * Reads the fields of a segment one after another.
+     *
+     * @param segment Offset of the segment.
+     * @param receiver Receives every field.
+     * @throws IOException If the file is corrupted.
+     */
+    void readFields(int segment, FieldReceiver receiver) throws IOException {
+
+        ByteBuffer fields = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        fields.position(segment + 12);
+
+        try {
+
+            for (int i = getFieldAmount(segment); i > 0; i--) {
+                receiver.field(SaveFileFormat.readField(fields, strings));
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted save file: " + file, e);
+        }
+    }
+
+    /**
+     * Reads a field.
+     *
+     * @param field Offset of the field.
+     * @return Data field.
+     * @throws IOException If the file is corrupted.
+     */
+    DataField readField(int field) throws IOException {
+
+        ByteBuffer fields = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        fields.position(field);
+
+        try {
+            return SaveFileFormat.readField(fields, strings);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted save file: " + file, e);
+        }
+    }
+
+    /**
+     * Finds an entry from a hash table.
+     *
+     * @param table Offset of the table.
+     * @param capacity Capacity of the table.
+     * @param name Name of the entry.
+     * @param nameOffset Offset of the string index of the name inside the
+     * entry.
+     * @return Offset of the entry or -1 if there is no such entry.
+     * @throws IOException If the file is corrupted.
+     */
+    private int find(int table, int capacity, String name, int nameOffset)
+            throws IOException {
+
+        try {
+            int hash = name.hashCode();
+            int slot = SaveFileFormat.getSlot(hash, capacity);
+
+            for (int i = 0; i < capacity; i++) {
+                int offset = buffer.getInt(table + slot * 8 + 4);
+
+                if (offset == 0) {
+                    return -1;
+                }
+
+                if (buffer.getInt(table + slot * 8) == hash && name.equals(
+                        getString(buffer.getInt(offset + nameOffset)))) {
+                    return offset;
+                }
+
+                slot = slot + 1 & capacity - 1;
+            }
+
+            return -1;
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted save file: " + file, e);
+        }
+    }
+
+    /**
+     * Returns a string of the string table.
+     *
+     * @param index Index of the string.
+     * @return String.
+     */
+    private String getString(int index) {
+
+        return SaveFileFormat.readString(buffer, buffer.getInt(stringOffsets
+                + 4 * index));
+    }
+}
@@ -0,0 +1,256 @@
+package com.nikoengine.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Appends changed fields of a save file to a journal next to the save file.
+ *
+ * <p>
+ * Journal starts with a header which has the generation of the snapshot the
+ * journal belongs to. A journal with a different generation is left over
+ * from an older snapshot and is ignored. Every record holds the changed fields
+ * of one save in the save file format and is prefixed with its length and
+ * checksum, so a record which was not fully written is detected and dropped.
+ *
+ * <pre>
+ * header:   int magic, int version, long generation
+ * record:   int length, int crc32, changed fields in save file format
+ * </pre>
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+class SaveJournal {
+
+    /**
+     * Defines the magic number at the beginning of the journal, "NKJL".
+     */
+    static final int MAGIC = 0x4E4B4A4C;
+
+    /**
+     * Defines the version of the journal format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Defines the size of the header in bytes.
+     */
+    static final int HEADER_SIZE = 16;
+
+    /**
+     * Returns the journal file of a save file.
+     *
+     * @param saveFile Save file.
+     * @return Journal file.
+     */
+    static File getFile(File saveFile) {
+        return new File(saveFile.getPath() + ".journal");
+    }
+
+    /**
+     * Appends the changed fields to the journal.
+     *
+     * <p>
+     * Journal of another generation is started over. Returns after the record
+     * has been forced to the storage device.
+     *
+     * @param changes Save file which has the changed fields.
+     * @param saveFile Save file the journal belongs to.
+     * @return Size of the journal in bytes.
+     * @throws IOException If the journal can not be written.
+     */
+    static long append(SaveFile changes, File saveFile) throws IOException {
+
+        byte[] record = SaveFileFormat.toBytes(changes);
+        CRC32 crc = new CRC32();
+        crc.update(record);
+
+        try (FileChannel channel = FileChannel.open(getFile(saveFile)
+                .toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE)) {
+
+            long start = channel.size();
+
+            if (readGeneration(channel) != changes.getGeneration()) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+
+                header.putInt(MAGIC);
+                header.putInt(VERSION);
+                header.putLong(changes.getGeneration());
+                header.flip();
+
+                channel.truncate(0);
+                writeFully(channel, header, 0);
+                start = HEADER_SIZE;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(8 + record.length)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+
+            buffer.putInt(record.length);
+            buffer.putInt((int) crc.getValue());
+            buffer.put(record);
+            buffer.flip();
+
+            try {
+                writeFully(channel, buffer, start);
+                channel.force(false);
+            } catch (IOException e) {
+                channel.truncate(start);
+                throw e;
+            }
+
+            return start + buffer.limit();
+        }
+    }
+
+    /**
+     * Replays the journal over the snapshot.
+     *
+     * <p>
+     * Records after a broken record are dropped and the journal is cut to the
+     * last whole record.
+     *
+     * @param save Save file which holds the snapshot.
+     * @return Size of the replayed journal in bytes or zero if there is no
+     * journal for the snapshot.
+     * @throws IOException If the journal can not be read.
+     */
+    static long replay(SaveFile save) throws IOException {
+
+        File file = getFile(save.getFile());
+
+        if (!file.isFile()) {
+            return 0;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+            if (readGeneration(channel) != save.getGeneration()) {
+                return 0;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+
+            readFully(channel, buffer, 0);
+            CRC32 crc = new CRC32();
+            int position = HEADER_SIZE;
+
+            while (buffer.limit() - position >= 8) {
+                int length = buffer.getInt(position);
+                int checksum = buffer.getInt(position + 4);
+
+                if (length < 0 || length > buffer.limit() - position - 8) {
+                    break;
+                }
+
+                buffer.limit(position + 8 + length).position(position + 8);
+                ByteBuffer record = buffer.slice();
+                buffer.limit(buffer.capacity());
+
+                crc.reset();
+                crc.update(record.duplicate());
+
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+
+                SaveFileFormat.read(save, record, file);
+                position += 8 + length;
+            }
+
+            if (position < channel.size()) {
+                channel.truncate(position);
+            }
+
+            return position;
+        }
+    }
+
+    /**
+     * Deletes the journal.
+     *
+     * @param saveFile Save file the journal belongs to.
+     * @throws IOException If the journal can not be deleted.
+     */
+    static void delete(File saveFile) throws IOException {
+        Files.deleteIfExists(getFile(saveFile).toPath());
+    }
+
+    /**
+     * Reads the generation from the header of the journal.
+     *
+     * @param channel Journal.
+     * @return Generation or -1 if the journal has no valid header.
+     * @throws IOException If the journal can not be read.
+     */
+    private static long readGeneration(FileChannel channel)
+            throws IOException {
+
+        if (channel.size() < HEADER_SIZE) {
+            return -1;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        readFully(channel, header, 0);
+
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            return -1;
+        }
+
+        return header.getLong(8);
+    }
+
+    /**
+     * Fills the buffer from a position of the channel.
+     *
+     * @param channel Channel where the bytes are read.
+     * @param buffer Buffer to be filled.
+     * @param position Position in the channel.
+     * @throws IOException If the channel ends before the buffer is full.
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer,
+            long position) throws IOException {
+
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+
+            if (read < 0) {
+                throw new IOException("Unexpected end of journal");
+            }
+
+            position += read;
+        }
+
+        buffer.flip();
+    }
+
+    /**
+     * Writes the whole buffer to a position of the channel.
+     *
+     * @param channel Channel where the bytes are written.
+     * @param buffer Bytes to be written.
+     * @param position Position in the channel.
+     * @throws IOException If writing fails.
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer,
+            long position) throws IOException {
+
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
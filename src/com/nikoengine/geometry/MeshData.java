@@ -0,0 +1,439 @@
+package com.nikoengine.geometry;
+
+import com.nikoengine.camera.LevelOfDetail;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+/**
+ * Packed vertex, index and color data of a three dimensional model.
+ *
+ * <p>
+ * Vertices are stored as x, y and z values one after another. Faces are
+ * stored as vertex indices so that the vertices are shared between faces. The
+ * indices of face i are found from the index array between face offsets i and
+ * i + 1.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class MeshData {
+
+    /**
+     * Holds the origin point as x, y and z values.
+     */
+    public final double[] origin;
+
+    /**
+     * Holds all the vertices as x, y and z values.
+     */
+    public final double[] vertices;
+
+    /**
+     * Holds the starting index of every face in the index array.
+     *
+     * <p>
+     * Has one extra element at the end which holds the length of the index
+     * array.
+     */
+    public final int[] faceOffsets;
+
+    /**
+     * Holds the vertex indices of all the faces.
+     */
+    public final int[] indices;
+
+    /**
+     * Holds the ARGB color of every face.
+     */
+    public final int[] colors;
+
+    /**
+     * Creates new mesh data.
+     *
+     * @param origin Origin point as x, y and z values.
+     * @param vertices Vertices as x, y and z values.
+     * @param faceOffsets Starting index of every face and the index count.
+     * @param indices Vertex indices of all the faces.
+     * @param colors ARGB color of every face.
+     */
+    public MeshData(double[] origin, double[] vertices, int[] faceOffsets,
+            int[] indices, int[] colors) {
+
+        this.origin = origin;
+        this.vertices = vertices;
+        this.faceOffsets = faceOffsets;
+        this.indices = indices;
+        this.colors = colors;
+    }
+
+    /**
+     * Merges polygons into one mesh.
+     *
+     * <p>
+     * Points shared by the polygons are stored once. Two quads of the same
+     * color which share an edge are welded into one quad when the edges next
+     * to the shared edge continue each other, which also keeps them in the
+     * same plane. Welding is repeated, so a grid of quads of one color
+     * becomes a single face and a column of one color a single column.
+     * Polygons without a color get the outline color.
+     *
+     * @param polygons Polygons.
+     * @return Mesh data with the origin at zero.
+     */
+    public static MeshData merge(Polygon3D... polygons) {
+
+        IdentityHashMap<Point3D, Integer> indexOf = new IdentityHashMap<>();
+        ArrayList<Point3D> points = new ArrayList<>();
+        int[][] faces = new int[polygons.length][];
+        int[] faceColors = new int[polygons.length];
+
+        for (int f = 0; f < polygons.length; f++) {
+            Point3D[] facePoints = polygons[f].getPoints();
+            Color color = polygons[f].getColor();
+            faces[f] = new int[facePoints.length];
+            faceColors[f] = (color == null ? Polygon3D.OUTLINE_COLOR : color)
+                    .getRGB();
+
+            for (int k = 0; k < facePoints.length; k++) {
+                Integer index = indexOf.get(facePoints[k]);
+
+                if (index == null) {
+                    index = points.size();
+                    indexOf.put(facePoints[k], index);
+                    points.add(facePoints[k]);
+                }
+
+                faces[f][k] = index;
+            }
+        }
+
+        weldQuads(faces, faceColors, points);
+
+        int[] newIndex = new int[points.size()];
+        int vertexAmount = 0;
+        int faceAmount = 0;
+        int indexAmount = 0;
+        Arrays.fill(newIndex, -1);
+
+        for (int[] face : faces) {
+
+            if (face != null) {
+                faceAmount++;
+                indexAmount += face.length;
+
+                for (int index : face) {
+
+                    if (newIndex[index] < 0) {
+                        newIndex[index] = vertexAmount++;
+                    }
+                }
+            }
+        }
+
+        double[] vertices = new double[vertexAmount * 3];
+        int[] faceOffsets = new int[faceAmount + 1];
+        int[] indices = new int[indexAmount];
+        int[] colors = new int[faceAmount];
+        faceAmount = 0;
+        indexAmount = 0;
+
+        for (int i = 0; i < newIndex.length; i++) {
+
+            if (newIndex[i] >= 0) {
+                vertices[newIndex[i] * 3] = points.get(i).getX();
+                vertices[newIndex[i] * 3 + 1] = points.get(i).getY();
+                vertices[newIndex[i] * 3 + 2] = points.get(i).getZ();
+            }
+        }
+
+        for (int f = 0; f < faces.length; f++) {
+
+            if (faces[f] != null) {
+
+                for (int index : faces[f]) {
+                    indices[indexAmount++] = newIndex[index];
+                }
+
+                colors[faceAmount] = faceColors[f];
+                faceAmount++;
+                faceOffsets[faceAmount] = indexAmount;
+            }
+        }
+
+        return new MeshData(new double[3], vertices, faceOffsets, indices,
+                colors);
+    }
+
+    /**
+     * Welds quads of the same color which together form a quad.
+     *
+     * <p>
+     * A quad P, A, B, Q and a quad B, A, R, S sharing the edge from A to B
+     * form the quad P, R, S, Q when A is between P and R and B is between S
+     * and Q on a line. The welded quad replaces the first quad and the
+     * second is set to null.
+     *
+     * @param faces Point indices of every face.
+     * @param colors Color of every face.
+     * @param points Points.
+     */
+    private static void weldQuads(int[][] faces, int[] colors,
+            ArrayList<Point3D> points) {
+
+        HashMap<Long, Integer> faceOf = new HashMap<>();
+
+        for (int f = 0; f < faces.length; f++) {
+            putEdges(faceOf, faces[f], f);
+        }
+
+        for (int f = 0; f < faces.length; f++) {
+            int e = 0;
+
+            while (faces[f] != null && faces[f].length == 4 && e < 4) {
+                int[] quad = faces[f];
+                int a = quad[e];
+                int b = quad[(e + 1) % 4];
+                Integer other = faceOf.get((long) b << 32 | a);
+
+                if (other == null || other == f || faces[other].length != 4
+                        || colors[other] != colors[f]) {
+
+                    e++;
+                    continue;
+                }
+
+                int[] next = faces[other];
+                int k = 0;
+
+                while (next[k] != b) {
+                    k++;
+                }
+
+                int p = quad[(e + 3) % 4];
+                int q = quad[(e + 2) % 4];
+                int r = next[(k + 2) % 4];
+                int s = next[(k + 3) % 4];
+
+                if (!isBetween(points, p, a, r)
+                        || !isBetween(points, s, b, q)) {
+
+                    e++;
+                    continue;
+                }
+
+                removeEdges(faceOf, quad, f);
+                removeEdges(faceOf, next, other);
+                faces[f] = new int[]{p, r, s, q};
+                faces[other] = null;
+                putEdges(faceOf, faces[f], f);
+                e = 0;
+            }
+        }
+    }
+
+    /**
+     * Tells whether a point is on the line between two other points.
+     *
+     * @param points Points.
+     * @param from Index of the first point.
+     * @param middle Index of the middle point.
+     * @param to Index of the last point.
+     * @return Whether the middle point is between on the line.
+     */
+    private static boolean isBetween(ArrayList<Point3D> points, int from,
+            int middle, int to) {
+
+        Point3D p = points.get(from);
+        Point3D m = points.get(middle);
+        Point3D q = points.get(to);
+        double ax = m.getX() - p.getX();
+        double ay = m.getY() - p.getY();
+        double az = m.getZ() - p.getZ();
+        double bx = q.getX() - m.getX();
+        double by = q.getY() - m.getY();
+        double bz = q.getZ() - m.getZ();
+        double cx = ay * bz - az * by;
+        double cy = az * bx - ax * bz;
+        double cz = ax * by - ay * bx;
+        double lengths = (ax * ax + ay * ay + az * az)
+                * (bx * bx + by * by + bz * bz);
+
+        return ax * bx + ay * by + az * bz > 0
+                && cx * cx + cy * cy + cz * cz <= 1e-18 * lengths;
+    }
+
+    /**
+     * Maps the edges of a face to the face.
+     *
+     * @param faceOf Face of every edge.
+     * @param face Point indices of the face.
+     * @param index Index of the face.
+     */
+    private static void putEdges(HashMap<Long, Integer> faceOf, int[] face,
+            int index) {
+
+        for (int k = 0; k < face.length; k++) {
+            faceOf.put((long) face[k] << 32 | face[(k + 1) % face.length],
+                    index);
+        }
+    }
+
+    /**
+     * Removes the edges of a face which are mapped to it.
+     *
+     * @param faceOf Face of every edge.
+     * @param face Point indices of the face.
+     * @param index Index of the face.
+     */
+    private static void removeEdges(HashMap<Long, Integer> faceOf, int[] face,
+            int index) {
+
+        for (int k = 0; k < face.length; k++) {
+            faceOf.remove((long) face[k] << 32 | face[(k + 1) % face.length],
+                    index);
+        }
+    }
+
+    /**
+     * Returns the amount of vertices.
+     *
+     * @return Amount of vertices.
+     */
+    public int getVertexAmount() {
+        return vertices.length / 3;
+    }
+
+    /**
+     * Returns the amount of faces.
+     *
+     * @return Amount of faces.
+     */
+    public int getFaceAmount() {
+        return colors.length;
+    }
+
+    /**
+     * Returns the size of an average face.
+     *
+     * @return Square root of the average area of the faces.
+     */
+    public double getFaceSize() {
+
+        double area = 0;
+
+        for (int f = 0; f < getFaceAmount(); f++) {
+            double nx = 0;
+            double ny = 0;
+            double nz = 0;
+
+            for (int k = faceOffsets[f]; k < faceOffsets[f + 1]; k++) {
+                int a = indices[k] * 3;
+                int b = indices[k + 1 < faceOffsets[f + 1] ? k + 1
+                        : faceOffsets[f]] * 3;
+
+                nx += (vertices[a + 1] - vertices[b + 1])
+                        * (vertices[a + 2] + vertices[b + 2]);
+                ny += (vertices[a + 2] - vertices[b + 2])
+                        * (vertices[a] + vertices[b]);
+                nz += (vertices[a] - vertices[b])
+                        * (vertices[a + 1] + vertices[b + 1]);
+            }
+
+            area += Math.sqrt(nx * nx + ny * ny + nz * nz) / 2;
+        }
+
+        return Math.sqrt(area / Math.max(1, getFaceAmount()));
+    }
+
+    /**
+     * Returns the distance from the origin to the farthest vertex.
+     *
+     * @return Radius of the model.
+     */
+    public double getRadius() {
+
+        double radius = 0;
+
+        for (int i = 0; i < vertices.length; i += 3) {
+            double dx = vertices[i] - origin[0];
+            double dy = vertices[i + 1] - origin[1];
+            double dz = vertices[i + 2] - origin[2];
+            radius = Math.max(radius, dx * dx + dy * dy + dz * dz);
+        }
+
+        return Math.sqrt(radius);
+    }
+
+    /**
+     * Creates a game object from the mesh data.
+     *
+     * <p>
+     * Creates the points and the polygons of the object. Polygons are added
+     * to the 3D camera when they are created. When coarser levels are given,
+     * they must share the vertices of this mesh. The levels are then added
+     * to a level of detail around the origin, so the camera draws the level
+     * whose faces are large enough on the screen.
+     *
+     * @param scale Desired scale for the object.
+     * @param coarserLevels Coarser levels of the model.
+     * @return Three dimensional game object.
+     */
+    public GameObject3D createGameObject(double scale,
+            MeshData... coarserLevels) {
+
+        Point3D origin3D = new Point3D(scale * origin[0], scale * origin[1],
+                scale * origin[2]);
+
+        Point3D[] points = new Point3D[getVertexAmount()];
+
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Point3D(scale * vertices[i * 3],
+                    scale * vertices[i * 3 + 1],
+                    scale * vertices[i * 3 + 2]);
+        }
+
+        Polygon3D[] polygons = createPolygons(points);
+
+        if (coarserLevels.length > 0) {
+            LevelOfDetail detail = new LevelOfDetail(origin3D,
+                    scale * getRadius());
+            detail.add(scale * getFaceSize(), polygons);
+
+            for (MeshData level : coarserLevels) {
+                detail.add(scale * level.getFaceSize(),
+                        level.createPolygons(points));
+            }
+        }
+
+        return new GameObject3D(origin3D, new Vector3D(0, 0, 1), points);
+    }
+
+    /**
+     * Creates the polygons of the faces.
+     *
+     * @param points Points of the vertices.
+     * @return Array of polygons.
+     */
+    private Polygon3D[] createPolygons(Point3D[] points) {
+
+        Polygon3D[] polygons = new Polygon3D[getFaceAmount()];
+
+        for (int i = 0; i < polygons.length; i++) {
+            Point3D[] facePoints
+                    = new Point3D[faceOffsets[i + 1] - faceOffsets[i]];
+
+            for (int j = 0; j < facePoints.length; j++) {
+                facePoints[j] = points[indices[faceOffsets[i] + j]];
+            }
+
+            polygons[i] = new Polygon3D(facePoints);
+            polygons[i].setColor(new Color(colors[i], true));
+        }
+
+        return polygons;
+    }
+}
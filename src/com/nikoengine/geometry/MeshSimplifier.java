@@ -0,0 +1,618 @@
+package com.nikoengine.geometry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+
+/**
+ * Simplifies models by collapsing edges in the order of their quadric error.
+ *
+ * <p>
+ * Faces are split into triangles and the planes of the triangles around a
+ * vertex are summed into its error quadric, weighted by the areas of the
+ * triangles. An edge is collapsed by moving one of its end points on the
+ * other, and the error of the collapse is the summed quadric of both end
+ * points at the point which is kept. Because no new points are created, every
+ * level is made of the points of the original model and moves with it.
+ *
+ * <p>
+ * Edges on the border of the model and between faces of different colors
+ * get the quadrics of planes which are perpendicular to their faces, so
+ * outlines and color borders are kept the longest. Every triangle keeps the
+ * color of the face it was split from. A collapse which would turn a triangle
+ * over or join two surfaces through a single point is not made.
+ *
+ * <p>
+ * Collapsing stops when the error would be larger than moving the triangles
+ * around two average vertices by {@value #MAX_DEVIATION} of the radius of the
+ * model. Models with a few large faces are usually not simplified at all,
+ * because every collapse changes their shape.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public final class MeshSimplifier {
+
+    /**
+     * Holds the largest amount of coarser levels created of a model.
+     */
+    public static final int LEVEL_AMOUNT = 3;
+
+    /**
+     * Holds the smallest amount of triangles in a coarser level.
+     */
+    private static final int MIN_FACES = 8;
+
+    /**
+     * Holds the weight of the planes which keep borders and color borders.
+     */
+    private static final double BORDER_WEIGHT = 100;
+
+    /**
+     * Holds the largest change allowed as a part of the radius of the model.
+     */
+    private static final double MAX_DEVIATION = 1.0 / 16;
+
+    /**
+     * Holds the vertices as x, y and z values.
+     */
+    private final double[] vertices;
+
+    /**
+     * Holds ten coefficients of the error quadric of every vertex.
+     */
+    private final double[] quadrics;
+
+    /**
+     * Holds the version of every vertex, changed by every collapse of it.
+     */
+    private final int[] versions;
+
+    /**
+     * Determines whether a vertex is collapsed into another.
+     */
+    private final boolean[] isRemoved;
+
+    /**
+     * Holds the vertex indices of the triangles, three for each.
+     */
+    private final int[] triangles;
+
+    /**
+     * Holds the RGB color of every triangle.
+     */
+    private final int[] colors;
+
+    /**
+     * Determines whether a triangle is collapsed away.
+     */
+    private final boolean[] isCollapsed;
+
+    /**
+     * Holds the triangles around every vertex.
+     *
+     * <p>
+     * May hold triangles which are collapsed away.
+     */
+    private final ArrayList<ArrayList<Integer>> trianglesOf;
+
+    /**
+     * Holds the collapses in the order of their error.
+     */
+    private final PriorityQueue<Collapse> queue = new PriorityQueue<>();
+
+    /**
+     * Holds the amount of triangles left.
+     */
+    private int triangleAmount;
+
+    /**
+     * Holds the largest error of a collapse which is made.
+     */
+    private double maxError;
+
+    /**
+     * Edge collapse waiting in the queue.
+     */
+    private static final class Collapse implements Comparable<Collapse> {
+
+        /**
+         * Holds the error of the collapse.
+         */
+        private final double error;
+
+        /**
+         * Holds the vertex which is removed.
+         */
+        private final int from;
+
+        /**
+         * Holds the vertex which is kept.
+         */
+        private final int to;
+
+        /**
+         * Holds the version of the removed vertex.
+         */
+        private final int fromVersion;
+
+        /**
+         * Holds the version of the kept vertex.
+         */
+        private final int toVersion;
+
+        /**
+         * Creates a collapse.
+         *
+         * @param error Error of the collapse.
+         * @param from Vertex which is removed.
+         * @param to Vertex which is kept.
+         * @param fromVersion Version of the removed vertex.
+         * @param toVersion Version of the kept vertex.
+         */
+        private Collapse(double error, int from, int to, int fromVersion,
+                int toVersion) {
+
+            this.error = error;
+            this.from = from;
+            this.to = to;
+            this.fromVersion = fromVersion;
+            this.toVersion = toVersion;
+        }
+
+        @Override
+        public int compareTo(Collapse other) {
+            return Double.compare(error, other.error);
+        }
+    }
+
+    /**
+     * Creates a simplifier of a model.
+     *
+     * @param mesh Model.
+     */
+    private MeshSimplifier(MeshData mesh) {
+
+        int vertexAmount = mesh.getVertexAmount();
+        int amount = 0;
+
+        for (int f = 0; f < mesh.getFaceAmount(); f++) {
+            amount += Math.max(0,
+                    mesh.faceOffsets[f + 1] - mesh.faceOffsets[f] - 2);
+        }
+
+        vertices = mesh.vertices;
+        quadrics = new double[vertexAmount * 10];
+        versions = new int[vertexAmount];
+        isRemoved = new boolean[vertexAmount];
+        triangles = new int[amount * 3];
+        colors = new int[amount];
+        isCollapsed = new boolean[amount];
+        trianglesOf = new ArrayList<>(vertexAmount);
+        triangleAmount = amount;
+
+        for (int i = 0; i < vertexAmount; i++) {
+            trianglesOf.add(new ArrayList<>());
+        }
+
+        int t = 0;
+
+        for (int f = 0; f < mesh.getFaceAmount(); f++) {
+            int first = mesh.indices[mesh.faceOffsets[f]];
+
+            for (int k = mesh.faceOffsets[f] + 2; k < mesh.faceOffsets[f + 1];
+                    k++) {
+
+                triangles[t * 3] = first;
+                triangles[t * 3 + 1] = mesh.indices[k - 1];
+                triangles[t * 3 + 2] = mesh.indices[k];
+                colors[t] = mesh.colors[f];
+
+                for (int j = 0; j < 3; j++) {
+                    trianglesOf.get(triangles[t * 3 + j]).add(t);
+                }
+
+                t++;
+            }
+        }
+
+        double area = addQuadrics();
+        double deviation = MAX_DEVIATION * mesh.getRadius();
+        maxError = deviation * deviation * 6 * area / Math.max(1, vertexAmount);
+
+        for (int v = 0; v < vertexAmount; v++) {
+            queueCollapses(v);
+        }
+    }
+
+    /**
+     * Creates the coarser levels of a model.
+     *
+     * <p>
+     * Every level is made of triangles which share the vertex array of the
+     * model and has at most half of the triangles of the level before it.
+     * The faces of the model are counted as the triangles they are split
+     * into. Levels are created until {@value #LEVEL_AMOUNT} levels are done,
+     * a level would have less than {@value #MIN_FACES} triangles or the model
+     * can not be simplified further.
+     *
+     * @param mesh Model.
+     * @return Coarser levels from the finest to the coarsest.
+     */
+    public static MeshData[] simplify(MeshData mesh) {
+
+        MeshSimplifier simplifier = new MeshSimplifier(mesh);
+        ArrayList<MeshData> levels = new ArrayList<>();
+        int triangleAmount = simplifier.triangleAmount;
+
+        while (levels.size() < LEVEL_AMOUNT
+                && triangleAmount / 2 >= MIN_FACES) {
+
+            simplifier.collapse(triangleAmount / 2);
+
+            if (simplifier.triangleAmount > triangleAmount * 3 / 4) {
+                break;
+            }
+
+            triangleAmount = simplifier.triangleAmount;
+            levels.add(simplifier.createMesh(mesh));
+        }
+
+        return levels.toArray(new MeshData[levels.size()]);
+    }
+
+    /**
+     * Adds the planes of the triangles and the borders to the quadrics.
+     *
+     * @return Total area of the triangles.
+     */
+    private double addQuadrics() {
+
+        HashMap<Long, int[]> edges = new HashMap<>();
+        double area = 0;
+
+        for (int t = 0; t < colors.length; t++) {
+            double[] normal = getNormal(t, -1, 0, 0, 0);
+            double length = Math.sqrt(normal[0] * normal[0]
+                    + normal[1] * normal[1] + normal[2] * normal[2]);
+
+            if (length > 0) {
+                area += length / 2;
+
+                for (int j = 0; j < 3; j++) {
+                    addPlane(triangles[t * 3 + j], normal, length,
+                            triangles[t * 3], length / 2);
+                }
+            }
+
+            for (int j = 0; j < 3; j++) {
+                int a = triangles[t * 3 + j];
+                int b = triangles[t * 3 + (j + 1) % 3];
+                long key = (long) Math.min(a, b) << 32 | Math.max(a, b);
+                int[] edge = edges.get(key);
+
+                if (edge == null) {
+                    edges.put(key, new int[]{t, a, b, 1});
+                } else if (edge[3] > 0 && colors[edge[0]] == colors[t]) {
+                    edge[3]++;
+                } else {
+                    edge[3] = -1;
+                }
+            }
+        }
+
+        for (int[] edge : edges.values()) {
+
+            if (edge[3] != 2) {
+                addBorder(edge[0], edge[1], edge[2]);
+            }
+        }
+
+        return area;
+    }
+
+    /**
+     * Adds a plane perpendicular to a triangle through one of its edges to
+     * the quadrics of the end points of the edge.
+     *
+     * @param t Index of the triangle.
+     * @param a First end point of the edge.
+     * @param b Second end point of the edge.
+     */
+    private void addBorder(int t, int a, int b) {
+
+        double[] normal = getNormal(t, -1, 0, 0, 0);
+        double ex = vertices[b * 3] - vertices[a * 3];
+        double ey = vertices[b * 3 + 1] - vertices[a * 3 + 1];
+        double ez = vertices[b * 3 + 2] - vertices[a * 3 + 2];
+        double[] border = {ey * normal[2] - ez * normal[1],
+            ez * normal[0] - ex * normal[2], ex * normal[1] - ey * normal[0]};
+        double length = Math.sqrt(border[0] * border[0]
+                + border[1] * border[1] + border[2] * border[2]);
+
+        if (length > 0) {
+            double weight = BORDER_WEIGHT * (ex * ex + ey * ey + ez * ez);
+            addPlane(a, border, length, a, weight);
+            addPlane(b, border, length, a, weight);
+        }
+    }
+
+    /**
+     * Adds a plane to the quadric of a vertex.
+     *
+     * @param v Index of the vertex.
+     * @param normal Normal of the plane.
+     * @param length Length of the normal.
+     * @param on Index of a vertex on the plane.
+     * @param weight Weight of the plane.
+     */
+    private void addPlane(int v, double[] normal, double length, int on,
+            double weight) {
+
+        double a = normal[0] / length;
+        double b = normal[1] / length;
+        double c = normal[2] / length;
+        double d = -(a * vertices[on * 3] + b * vertices[on * 3 + 1]
+                + c * vertices[on * 3 + 2]);
+        int q = v * 10;
+
+        quadrics[q] += weight * a * a;
+        quadrics[q + 1] += weight * a * b;
+        quadrics[q + 2] += weight * a * c;
+        quadrics[q + 3] += weight * a * d;
+        quadrics[q + 4] += weight * b * b;
+        quadrics[q + 5] += weight * b * c;
+        quadrics[q + 6] += weight * b * d;
+        quadrics[q + 7] += weight * c * c;
+        quadrics[q + 8] += weight * c * d;
+        quadrics[q + 9] += weight * d * d;
+    }
+
+    /**
+     * Returns the error of collapsing two vertices at the position of the
+     * second.
+     *
+     * @param from Vertex which is removed.
+     * @param to Vertex which is kept.
+     * @return Summed quadric error at the kept vertex.
+     */
+    private double getError(int from, int to) {
+
+        double x = vertices[to * 3];
+        double y = vertices[to * 3 + 1];
+        double z = vertices[to * 3 + 2];
+        double[] q = new double[10];
+
+        for (int i = 0; i < 10; i++) {
+            q[i] = quadrics[from * 10 + i] + quadrics[to * 10 + i];
+        }
+
+        return q[0] * x * x + 2 * q[1] * x * y + 2 * q[2] * x * z
+                + 2 * q[3] * x + q[4] * y * y + 2 * q[5] * y * z
+                + 2 * q[6] * y + q[7] * z * z + 2 * q[8] * z + q[9];
+    }
+
+    /**
+     * Queues the collapses of every edge of a vertex in both directions.
+     *
+     * @param v Index of the vertex.
+     */
+    private void queueCollapses(int v) {
+
+        for (int t : trianglesOf.get(v)) {
+
+            if (isCollapsed[t]) {
+                continue;
+            }
+
+            for (int j = 0; j < 3; j++) {
+                int n = triangles[t * 3 + j];
+
+                if (n != v) {
+                    queue.add(new Collapse(getError(v, n), v, n, versions[v],
+                            versions[n]));
+                    queue.add(new Collapse(getError(n, v), n, v, versions[n],
+                            versions[v]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Collapses edges until the amount of triangles is small enough or no
+     * edge can be collapsed within the largest error.
+     *
+     * @param target Largest amount of triangles wanted.
+     */
+    private void collapse(int target) {
+
+        while (triangleAmount > target && !queue.isEmpty()) {
+            Collapse collapse = queue.peek();
+
+            if (collapse.error > maxError) {
+                return;
+            }
+
+            queue.poll();
+            int from = collapse.from;
+            int to = collapse.to;
+
+            if (isRemoved[from] || isRemoved[to]
+                    || versions[from] != collapse.fromVersion
+                    || versions[to] != collapse.toVersion
+                    || !canCollapse(from, to)) {
+
+                continue;
+            }
+
+            for (int i = 0; i < 10; i++) {
+                quadrics[to * 10 + i] += quadrics[from * 10 + i];
+            }
+
+            for (int t : trianglesOf.get(from)) {
+
+                if (isCollapsed[t]) {
+                    continue;
+                }
+
+                if (hasVertex(t, to)) {
+                    isCollapsed[t] = true;
+                    triangleAmount--;
+                    continue;
+                }
+
+                for (int j = 0; j < 3; j++) {
+
+                    if (triangles[t * 3 + j] == from) {
+                        triangles[t * 3 + j] = to;
+                    }
+                }
+
+                trianglesOf.get(to).add(t);
+            }
+
+            isRemoved[from] = true;
+            trianglesOf.get(from).clear();
+            versions[to]++;
+            queueCollapses(to);
+        }
+    }
+
+    /**
+     * Tells whether a vertex can be collapsed into another.
+     *
+     * <p>
+     * The vertices may share no neighbors other than the third corners of
+     * their shared triangles, and no triangle which is left may turn over.
+     *
+     * @param from Vertex which is removed.
+     * @param to Vertex which is kept.
+     * @return Whether the collapse keeps the surface whole.
+     */
+    private boolean canCollapse(int from, int to) {
+
+        ArrayList<Integer> neighbors = new ArrayList<>();
+        int shared = 0;
+
+        for (int t : trianglesOf.get(to)) {
+
+            if (isCollapsed[t]) {
+                continue;
+            }
+
+            if (hasVertex(t, from)) {
+                shared++;
+            }
+
+            for (int j = 0; j < 3; j++) {
+                neighbors.add(triangles[t * 3 + j]);
+            }
+        }
+
+        ArrayList<Integer> common = new ArrayList<>();
+
+        for (int t : trianglesOf.get(from)) {
+
+            if (isCollapsed[t]) {
+                continue;
+            }
+
+            for (int j = 0; j < 3; j++) {
+                Integer n = triangles[t * 3 + j];
+
+                if (n != from && n != to && neighbors.contains(n)
+                        && !common.contains(n)) {
+
+                    common.add(n);
+                }
+            }
+
+            if (!hasVertex(t, to)) {
+                double[] before = getNormal(t, -1, 0, 0, 0);
+                double[] after = getNormal(t, from, vertices[to * 3],
+                        vertices[to * 3 + 1], vertices[to * 3 + 2]);
+
+                if (before[0] * after[0] + before[1] * after[1]
+                        + before[2] * after[2] <= 0) {
+
+                    return false;
+                }
+            }
+        }
+
+        return common.size() <= shared;
+    }
+
+    /**
+     * Tells whether a triangle has a vertex.
+     *
+     * @param t Index of the triangle.
+     * @param v Index of the vertex.
+     * @return Whether the vertex is a corner of the triangle.
+     */
+    private boolean hasVertex(int t, int v) {
+        return triangles[t * 3] == v || triangles[t * 3 + 1] == v
+                || triangles[t * 3 + 2] == v;
+    }
+
+    /**
+     * Returns the normal of a triangle with one vertex optionally moved.
+     *
+     * @param t Index of the triangle.
+     * @param moved Index of the moved vertex or -1.
+     * @param x Position of the moved vertex on the x-plane.
+     * @param y Position of the moved vertex on the y-plane.
+     * @param z Position of the moved vertex on the z-plane.
+     * @return Normal whose length is twice the area of the triangle.
+     */
+    private double[] getNormal(int t, int moved, double x, double y,
+            double z) {
+
+        double[] p = new double[9];
+
+        for (int j = 0; j < 3; j++) {
+            int v = triangles[t * 3 + j];
+            p[j * 3] = v == moved ? x : vertices[v * 3];
+            p[j * 3 + 1] = v == moved ? y : vertices[v * 3 + 1];
+            p[j * 3 + 2] = v == moved ? z : vertices[v * 3 + 2];
+        }
+
+        double ax = p[3] - p[0];
+        double ay = p[4] - p[1];
+        double az = p[5] - p[2];
+        double bx = p[6] - p[0];
+        double by = p[7] - p[1];
+        double bz = p[8] - p[2];
+
+        return new double[]{ay * bz - az * by, az * bx - ax * bz,
+            ax * by - ay * bx};
+    }
+
+    /**
+     * Creates a model of the triangles which are left.
+     *
+     * @param mesh Original model whose origin and vertices are shared.
+     * @return Model data.
+     */
+    private MeshData createMesh(MeshData mesh) {
+
+        int[] faceOffsets = new int[triangleAmount + 1];
+        int[] indices = new int[triangleAmount * 3];
+        int[] faceColors = new int[triangleAmount];
+        int face = 0;
+
+        for (int t = 0; t < colors.length; t++) {
+
+            if (!isCollapsed[t]) {
+                System.arraycopy(triangles, t * 3, indices, face * 3, 3);
+                faceColors[face] = colors[t];
+                face++;
+                faceOffsets[face] = face * 3;
+            }
+        }
+
+        return new MeshData(mesh.origin, mesh.vertices, faceOffsets, indices,
+                faceColors);
+    }
+}
@@ -0,0 +1,68 @@
+package com.nikoengine.geometry;
+
+import com.nikoengine.camera.Scene;
+
+/**
+ * Points which move together, such as the points of one game object.
+ *
+ * <p>
+ * A group is added to the current scene when it is created. Code which moves
+ * the points marks the group changed, so cameras project again only the
+ * points of the groups which changed. Points of polygons which are in no
+ * group are taken to never move. A point in many groups belongs to the group
+ * created first.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class PointGroup {
+
+    /**
+     * Holds the points of the group.
+     */
+    private final Point3D[] points;
+
+    /**
+     * Holds the amount of times the group has been marked changed.
+     */
+    private int version;
+
+    /**
+     * Creates a group and adds it to the current scene.
+     *
+     * @param points Points of the group.
+     */
+    public PointGroup(Point3D... points) {
+        this.points = points;
+        Scene.getCurrent().add(this);
+    }
+
+    /**
+     * Returns the points of the group.
+     *
+     * @return Points.
+     */
+    public Point3D[] getPoints() {
+        return points;
+    }
+
+    /**
+     * Tells cameras that the points have moved.
+     */
+    public void markChanged() {
+        version++;
+    }
+
+    /**
+     * Returns the amount of times the group has been marked changed.
+     *
+     * <p>
+     * Cameras compare it to the value seen on their last update.
+     *
+     * @return Version of the group.
+     */
+    public int getVersion() {
+        return version;
+    }
+}
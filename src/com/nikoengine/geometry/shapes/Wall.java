@@ -1,113 +1,239 @@
-package com.nikoengine.geometry.shapes;
-
-import com.nikoengine.geometry.*;
-import java.awt.Color;
-
-/**
- * Class for creating three dimensional colorable and straight walls.
- *
- * @author Niko Mustonen mustonen.niko@gmail.com
- * @version 2016.1127
- * @since 1.8
- */
-public class Wall {
-
-    /**
-     * Holds the polygons of the wall.
-     */
-    Polygon3D[] polygons;
-
-    /**
-     * Holds the corner points of the wall.
-     */
-    Point3D[][] points;
-
-    /**
-     * Determines walls first color.
-     */
-    Color c1;
-
-    /**
-     * Determines walls second color.
-     */
-    Color c2;
-
-    /**
-     * Creates a 3D wall.
-     *
-     * @param start Starting point.
-     * @param end Ending point.
-     * @param height Wall´s height.
-     * @param polX How many polygons in a row.
-     * @param polY How many polygons in a column.
-     * @param c1 Wall´s starting color.
-     * @param c2 Wall´s ending color.
-     */
-    public Wall(Point3D start, Point3D end, double height, int polX, int polY,
-            Color c1, Color c2) {
-
-        polygons = new Polygon3D[polX * polY];
-        points = new Point3D[polY + 1][polX + 1];
-
-        this.c1 = c1;
-        this.c2 = c2;
-
-        createPoints(start, end, height, polX, polY);
-    }
-
-    /**
-     * Generates walls points, polygons and colors.
-     *
-     * @param start Starting point.
-     * @param end Ending point.
-     * @param height Wall´s height.
-     * @param polX How many polygons in a row.
-     * @param polY How many polygons in a column.
-     */
-    private void createPoints(Point3D start, Point3D end, double height,
-            int polX, int polY) {
-
-        Vector3D wallDirection = end.getVectorFromPoint(start);
-        double blockWidth = wallDirection.getMagnitude() / polX;
-        wallDirection.normalize();
-        wallDirection.setScale(blockWidth);
-        double oneBlockHeight = height / polY;
-
-        double origRed = c1.getRed();
-        double origBlue = c1.getBlue();
-        double origGreen = c1.getGreen();
-        double redAdd = (c1.getRed() - c2.getRed()) / (double) (polX + 1);
-        double greenAdd = (c1.getGreen() - c2.getGreen()) / (double) (polX + 1);
-        double blueAdd = (c1.getBlue() - c2.getBlue()) / (double) (polX + 1);
-
-        int polygonIndex = 0;
-
-        for (int i = 0; i <= polX; i++) {
-
-            origRed -= redAdd;
-            origBlue -= blueAdd;
-            origGreen -= greenAdd;
-            Color c = new Color((int) origRed, (int) origGreen, (int) origBlue);
-
-            for (int j = 0; j <= polY; j++) {
-
-                points[j][i] = new Point3D(start.getX(),
-                        start.getY() + oneBlockHeight * j,
-                        start.getZ());
-
-                if (i > 0 && j > 0) {
-
-                    polygons[polygonIndex] = new Polygon3D(points[j][i - 1],
-                            points[j][i],
-                            points[j - 1][i],
-                            points[j - 1][i - 1]);
-
-                    polygons[polygonIndex].setColor(c);
-                    polygonIndex++;
-                }
-            }
-
-            start.addVectorToPoint(wallDirection);
-        }
-    }
-}
+package com.nikoengine.geometry.shapes;
+
+import com.nikoengine.camera.LevelOfDetail;
+import com.nikoengine.geometry.*;
+import java.awt.Color;
+
+/**
+ * Class for creating three dimensional colorable and straight walls.
+ *
+ * <p>
+ * Besides the given polygons a wall has coarser levels of detail, each with
+ * half the polygons in a row and in a column, made of the same points. Colors
+ * of the coarser polygons are the averages of the colors they cover.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2016.1127
+ * @since 1.8
+ */
+public class Wall {
+
+    /**
+     * Holds the amount of the levels of detail coarser than the given one.
+     */
+    private static final int COARSER_LEVELS = 3;
+
+    /**
+     * Holds the polygons of the wall.
+     */
+    Polygon3D[] polygons;
+
+    /**
+     * Holds the corner points of the wall.
+     */
+    Point3D[][] points;
+
+    /**
+     * Determines walls first color.
+     */
+    Color c1;
+
+    /**
+     * Determines walls second color.
+     */
+    Color c2;
+
+    /**
+     * Holds the levels of detail of the wall.
+     */
+    private LevelOfDetail detail;
+
+    /**
+     * Creates a 3D wall.
+     *
+     * @param start Starting point.
+     * @param end Ending point.
+     * @param height Wall´s height.
+     * @param polX How many polygons in a row.
+     * @param polY How many polygons in a column.
+     * @param c1 Wall´s starting color.
+     * @param c2 Wall´s ending color.
+     */
+    public Wall(Point3D start, Point3D end, double height, int polX, int polY,
+            Color c1, Color c2) {
+
+        polygons = new Polygon3D[polX * polY];
+        points = new Point3D[polY + 1][polX + 1];
+
+        this.c1 = c1;
+        this.c2 = c2;
+
+        createPoints(start, end, height, polX, polY);
+    }
+
+    /**
+     * Returns the polygons of every level of detail of the wall.
+     *
+     * @return Array of polygons.
+     */
+    public Polygon3D[] getPolygons() {
+        return detail.getPolygons();
+    }
+
+    /**
+     * Returns the levels of detail of the wall.
+     *
+     * @return Levels of detail.
+     */
+    public LevelOfDetail getLevelOfDetail() {
+        return detail;
+    }
+
+    /**
+     * Generates walls points, polygons and colors.
+     *
+     * @param start Starting point.
+     * @param end Ending point.
+     * @param height Wall´s height.
+     * @param polX How many polygons in a row.
+     * @param polY How many polygons in a column.
+     */
+    private void createPoints(Point3D start, Point3D end, double height,
+            int polX, int polY) {
+
+        Vector3D wallDirection = end.getVectorFromPoint(start);
+        double blockWidth = wallDirection.getMagnitude() / polX;
+        wallDirection.normalize();
+        wallDirection.setScale(blockWidth);
+        double oneBlockHeight = height / polY;
+
+        double origRed = c1.getRed();
+        double origBlue = c1.getBlue();
+        double origGreen = c1.getGreen();
+        double redAdd = (c1.getRed() - c2.getRed()) / (double) (polX + 1);
+        double greenAdd = (c1.getGreen() - c2.getGreen()) / (double) (polX + 1);
+        double blueAdd = (c1.getBlue() - c2.getBlue()) / (double) (polX + 1);
+
+        int polygonIndex = 0;
+        Color[] colors = new Color[polX];
+
+        for (int i = 0; i <= polX; i++) {
+
+            origRed -= redAdd;
+            origBlue -= blueAdd;
+            origGreen -= greenAdd;
+            Color c = new Color((int) origRed, (int) origGreen, (int) origBlue);
+
+            if (i > 0) {
+                colors[i - 1] = c;
+            }
+
+            for (int j = 0; j <= polY; j++) {
+
+                points[j][i] = new Point3D(start.getX(),
+                        start.getY() + oneBlockHeight * j,
+                        start.getZ());
+
+                if (i > 0 && j > 0) {
+
+                    polygons[polygonIndex] = new Polygon3D(points[j][i - 1],
+                            points[j][i],
+                            points[j - 1][i],
+                            points[j - 1][i - 1]);
+
+                    polygons[polygonIndex].setColor(c);
+                    polygonIndex++;
+                }
+            }
+
+            start.addVectorToPoint(wallDirection);
+        }
+
+        createLevels(blockWidth * polX, Math.abs(height), polX, polY, colors);
+    }
+
+    /**
+     * Creates the levels of detail from the points.
+     *
+     * @param width Wall´s width.
+     * @param height Wall´s height.
+     * @param polX How many polygons in a row.
+     * @param polY How many polygons in a column.
+     * @param colors Color of every column of polygons.
+     */
+    private void createLevels(double width, double height, int polX,
+            int polY, Color[] colors) {
+
+        Point3D first = points[0][0];
+        Point3D last = points[polY][polX];
+        Point3D center = new Point3D((first.getX() + last.getX()) / 2,
+                (first.getY() + last.getY()) / 2,
+                (first.getZ() + last.getZ()) / 2);
+
+        detail = new LevelOfDetail(center, Math.sqrt(width * width
+                + height * height) / 2);
+        detail.add(Math.max(width / polX, height / polY), polygons);
+
+        int columns = polX;
+        int rows = polY;
+
+        for (int level = 0; level < COARSER_LEVELS
+                && (columns > 1 || rows > 1); level++) {
+
+            columns = (columns + 1) / 2;
+            rows = (rows + 1) / 2;
+
+            detail.add(Math.max(width / columns, height / rows),
+                    createLevel(polX, polY, columns, rows, colors));
+        }
+    }
+
+    /**
+     * Creates the polygons of a coarser level of detail.
+     *
+     * @param polX How many polygons in a row on the finest level.
+     * @param polY How many polygons in a column on the finest level.
+     * @param columns How many polygons in a row.
+     * @param rows How many polygons in a column.
+     * @param colors Color of every column of polygons on the finest level.
+     * @return Array of polygons.
+     */
+    private Polygon3D[] createLevel(int polX, int polY, int columns,
+            int rows, Color[] colors) {
+
+        Polygon3D[] level = new Polygon3D[columns * rows];
+        int polygonIndex = 0;
+
+        for (int i = 1; i <= columns; i++) {
+            int from = (i - 1) * polX / columns;
+            int to = i * polX / columns;
+            int red = 0;
+            int green = 0;
+            int blue = 0;
+
+            for (int k = from; k < to; k++) {
+                red += colors[k].getRed();
+                green += colors[k].getGreen();
+                blue += colors[k].getBlue();
+            }
+
+            Color c = new Color(red / (to - from), green / (to - from),
+                    blue / (to - from));
+
+            for (int j = 1; j <= rows; j++) {
+                int bottom = (j - 1) * polY / rows;
+                int top = j * polY / rows;
+
+                level[polygonIndex] = new Polygon3D(points[top][from],
+                        points[top][to],
+                        points[bottom][to],
+                        points[bottom][from]);
+
+                level[polygonIndex].setColor(c);
+                polygonIndex++;
+            }
+        }
+
+        return level;
+    }
+}
@@ -0,0 +1,174 @@
+package com.nikoengine.image;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Shared image page where small sprites are packed together.
+ *
+ * <p>
+ * Sprites are placed on horizontal shelves from left to right. A new shelf is
+ * started under the tallest sprite of the previous shelf when a row is full.
+ * Sprites are copied to the page, so the page can stay as an accelerated
+ * image and sprites are drawn from it by their source rectangles.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class SpriteAtlas {
+
+    /**
+     * Defines empty pixels between the sprites so scaled drawing does not
+     * bleed pixels from the neighboring sprites.
+     */
+    private static final int PADDING = 1;
+
+    /**
+     * Holds the page image.
+     */
+    private final BufferedImage page;
+
+    /**
+     * Holds the next free position on the current shelf.
+     */
+    private int shelfX = 0;
+
+    /**
+     * Holds the top of the current shelf.
+     */
+    private int shelfY = 0;
+
+    /**
+     * Holds the height of the tallest sprite on the current shelf.
+     */
+    private int shelfHeight = 0;
+
+    /**
+     * Holds the amount of sprites in the atlas.
+     */
+    private int spriteAmount = 0;
+
+    /**
+     * Creates a new empty atlas page.
+     *
+     * @param page Empty page image.
+     */
+    public SpriteAtlas(BufferedImage page) {
+        this.page = page;
+    }
+
+    /**
+     * Area of an image where a sprite is drawn from.
+     *
+     * @author Niko Mustonen mustonen.niko@gmail.com
+     * @version 2026.1019
+     * @since 1.8
+     */
+    public static class Region {
+
+        /**
+         * Holds the image the sprite is in.
+         */
+        public final BufferedImage image;
+
+        /**
+         * Holds the left edge of the sprite.
+         */
+        public final int x;
+
+        /**
+         * Holds the top edge of the sprite.
+         */
+        public final int y;
+
+        /**
+         * Holds the width of the sprite.
+         */
+        public final int width;
+
+        /**
+         * Holds the height of the sprite.
+         */
+        public final int height;
+
+        /**
+         * Creates a new region.
+         *
+         * @param image Image the sprite is in.
+         * @param x Left edge of the sprite.
+         * @param y Top edge of the sprite.
+         * @param width Width of the sprite.
+         * @param height Height of the sprite.
+         */
+        public Region(BufferedImage image, int x, int y, int width,
+                int height) {
+
+            this.image = image;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+        /**
+         * Creates a region which covers the whole image.
+         *
+         * @param image Image the sprite is in.
+         */
+        public Region(BufferedImage image) {
+            this(image, 0, 0, image.getWidth(), image.getHeight());
+        }
+    }
+
+    /**
+     * Copies the sprite to the atlas.
+     *
+     * @param sprite Sprite image.
+     * @return Region of the sprite in the atlas or null if it does not fit.
+     */
+    public Region add(BufferedImage sprite) {
+
+        int w = sprite.getWidth();
+        int h = sprite.getHeight();
+
+        if (shelfX + w > page.getWidth()) {
+            shelfY += shelfHeight + PADDING;
+            shelfX = 0;
+            shelfHeight = 0;
+        }
+
+        if (w > page.getWidth() || shelfY + h > page.getHeight()) {
+            return null;
+        }
+
+        Graphics2D g = page.createGraphics();
+        g.drawImage(sprite, shelfX, shelfY, null);
+        g.dispose();
+
+        Region region = new Region(page, shelfX, shelfY, w, h);
+        shelfX += w + PADDING;
+        shelfHeight = Math.max(shelfHeight, h);
+        spriteAmount++;
+
+        return region;
+    }
+
+    /**
+     * Returns the page image.
+     *
+     * @return Page image.
+     */
+    public BufferedImage getPage() {
+        return page;
+    }
+
+    /**
+     * Returns the amount of sprites in the atlas.
+     *
+     * @return Amount of sprites.
+     */
+    public int getSpriteAmount() {
+        return spriteAmount;
+    }
+}
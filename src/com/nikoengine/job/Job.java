@@ -0,0 +1,143 @@
+package com.nikoengine.job;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Piece of work in a JobGraph and the timings of its runs.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class Job {
+
+    /**
+     * Holds the name shown in the timings.
+     */
+    private final String name;
+
+    /**
+     * Holds the work.
+     */
+    final Runnable work;
+
+    /**
+     * Holds the jobs which wait for this job.
+     */
+    final ArrayList<Job> dependents = new ArrayList<>();
+
+    /**
+     * Holds the amount of the jobs this job waits for.
+     */
+    final int dependencyAmount;
+
+    /**
+     * Holds the amount of the jobs this job still waits for on this run.
+     */
+    final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * Tells whether a job this job waits for failed on this run.
+     */
+    volatile boolean isSkipped;
+
+    /**
+     * Holds the start of the last run in nanoseconds.
+     */
+    volatile long start;
+
+    /**
+     * Holds the end of the last run in nanoseconds.
+     */
+    volatile long end;
+
+    /**
+     * Holds the name of the thread which did the last run.
+     */
+    volatile String thread;
+
+    /**
+     * Holds the amount of the runs.
+     */
+    private long runs;
+
+    /**
+     * Holds the total time of all the runs in nanoseconds.
+     */
+    private long totalNanos;
+
+    /**
+     * Holds the longest run in nanoseconds.
+     */
+    private long maxNanos;
+
+    /**
+     * Creates a job.
+     *
+     * @param name Name shown in the timings.
+     * @param work Work of the job.
+     * @param dependencyAmount Amount of the jobs this job waits for.
+     */
+    Job(String name, Runnable work, int dependencyAmount) {
+        this.name = name;
+        this.work = work;
+        this.dependencyAmount = dependencyAmount;
+    }
+
+    /**
+     * Returns the name of the job.
+     *
+     * @return Name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the time the last run took.
+     *
+     * @return Time in milliseconds.
+     */
+    public double getLastTime() {
+        return (end - start) / 1e6;
+    }
+
+    /**
+     * Returns the average time of all the runs.
+     *
+     * @return Time in milliseconds.
+     */
+    public synchronized double getAverageTime() {
+        return runs == 0 ? 0 : totalNanos / 1e6 / runs;
+    }
+
+    /**
+     * Returns the longest time of all the runs.
+     *
+     * @return Time in milliseconds.
+     */
+    public synchronized double getMaxTime() {
+        return maxNanos / 1e6;
+    }
+
+    /**
+     * Returns the amount of the runs.
+     *
+     * @return Amount of runs.
+     */
+    public synchronized long getRuns() {
+        return runs;
+    }
+
+    /**
+     * Adds the last run to the statistics.
+     */
+    synchronized void addRun() {
+
+        long nanos = end - start;
+        runs++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+}
@@ -0,0 +1,296 @@
+package com.nikoengine.job;
+
+import com.nikoengine.camera.Scene;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs jobs in parallel so that every job runs after the jobs it depends on.
+ *
+ * <p>
+ * A graph is built once and run again on every tick. A job is given to the
+ * job system as soon as all its dependencies are done, so jobs without a
+ * path between them overlap. Jobs whose dependency failed are skipped and the
+ * first failure is thrown from run. Jobs run with the scene which is current
+ * on the thread calling run, so polygons created in a job are added to the
+ * same scene as on the calling thread. Every job keeps its timings, which
+ * can be written out in the trace event format read by chrome://tracing.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class JobGraph {
+
+    /**
+     * Runs the jobs.
+     */
+    private final JobSystem jobSystem;
+
+    /**
+     * Holds the jobs in the order they were added.
+     */
+    private final ArrayList<Job> jobs = new ArrayList<>();
+
+    /**
+     * Holds the jobs which do not depend on other jobs.
+     */
+    private final ArrayList<Job> roots = new ArrayList<>();
+
+    /**
+     * Holds the start of the last run in nanoseconds.
+     */
+    private long runStart;
+
+    /**
+     * Holds the amount of the jobs which are not done on this run.
+     */
+    private final AtomicInteger remaining = new AtomicInteger();
+
+    /**
+     * Holds the first failure of this run.
+     */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * Completes when all the jobs of this run are done.
+     */
+    private volatile CompletableFuture<Void> done;
+
+    /**
+     * Holds the current scene of the thread which runs the graph.
+     */
+    private volatile Scene scene;
+
+    /**
+     * Creates an empty graph which runs on the default job system.
+     */
+    public JobGraph() {
+        this(JobSystem.getDefault());
+    }
+
+    /**
+     * Creates an empty graph.
+     *
+     * @param jobSystem Job system which runs the jobs.
+     */
+    public JobGraph(JobSystem jobSystem) {
+        this.jobSystem = jobSystem;
+    }
+
+    /**
+     * Adds a job.
+     *
+     * <p>
+     * Dependencies must have been added to this graph before, so the graph
+     * can not have cycles.
+     *
+     * @param name Name shown in the timings.
+     * @param work Work of the job.
+     * @param dependencies Jobs which must be done before this job starts.
+     * @return Added job.
+     */
+    public Job add(String name, Runnable work, Job... dependencies) {
+
+        Job job = new Job(name, work, dependencies.length);
+
+        for (Job dependency : dependencies) {
+
+            if (!jobs.contains(dependency)) {
+                throw new IllegalArgumentException("Job " + dependency
+                        .getName() + " is not in this graph");
+            }
+
+            dependency.dependents.add(job);
+        }
+
+        jobs.add(job);
+
+        if (dependencies.length == 0) {
+            roots.add(job);
+        }
+
+        return job;
+    }
+
+    /**
+     * Runs all the jobs and waits until they are done.
+     *
+     * @throws RuntimeException If a job failed.
+     */
+    public void run() {
+
+        if (jobs.isEmpty()) {
+            return;
+        }
+
+        for (Job job : jobs) {
+            job.pending.set(job.dependencyAmount);
+            job.isSkipped = false;
+        }
+
+        failure.set(null);
+        scene = Scene.getCurrent();
+        remaining.set(jobs.size());
+        done = new CompletableFuture<>();
+        runStart = System.nanoTime();
+
+        for (int i = 1; i < roots.size(); i++) {
+            Job root = roots.get(i);
+            jobSystem.getPool().execute(() -> execute(root));
+        }
+
+        execute(roots.get(0));
+        done.join();
+
+        Throwable t = failure.get();
+
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        } else if (t != null) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    /**
+     * Returns the jobs in the order they were added.
+     *
+     * @return Array of jobs.
+     */
+    public Job[] getJobs() {
+        return jobs.toArray(new Job[jobs.size()]);
+    }
+
+    /**
+     * Writes the timings of the last run as trace events.
+     *
+     * @param out Writer where the events are written.
+     * @throws IOException If writing fails.
+     */
+    public void writeTrace(Writer out) throws IOException {
+
+        out.write("{\"traceEvents\":[");
+
+        for (int i = 0; i < jobs.size(); i++) {
+            Job job = jobs.get(i);
+
+            if (i > 0) {
+                out.write(',');
+            }
+
+            out.write(String.format(java.util.Locale.ROOT,
+                    "{\"name\":\"%s\",\"ph\":\"X\",\"pid\":1,"
+                    + "\"tid\":\"%s\",\"ts\":%.3f,\"dur\":%.3f}",
+                    escape(job.getName()), escape(String.valueOf(job.thread)),
+                    (job.start - runStart) / 1e3,
+                    (job.end - job.start) / 1e3));
+        }
+
+        out.write("]}");
+        out.flush();
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder sb = new StringBuilder();
+
+        for (Job job : jobs) {
+            sb.append(String.format("%-24s last %8.3f ms  avg %8.3f ms  "
+                    + "max %8.3f ms  runs %d%n", job.getName(),
+                    job.getLastTime(), job.getAverageTime(), job.getMaxTime(),
+                    job.getRuns()));
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Runs a job and then the dependents which became ready.
+     *
+     * <p>
+     * The last ready dependent is run on the same thread and the others are
+     * given to the job system. The scene of the graph is current while the
+     * jobs run and the previous scene of the thread is restored afterwards.
+     *
+     * @param job Job whose dependencies are done.
+     */
+    private void execute(Job job) {
+
+        Scene previous = Scene.getCurrent();
+        Scene.setCurrent(scene);
+
+        try {
+            executeAll(job);
+        } finally {
+            Scene.setCurrent(previous);
+        }
+    }
+
+    /**
+     * Runs a job and then the dependents which became ready on this thread.
+     *
+     * @param job Job whose dependencies are done.
+     */
+    private void executeAll(Job job) {
+
+        while (job != null) {
+            job.thread = Thread.currentThread().getName();
+            job.start = System.nanoTime();
+
+            if (!job.isSkipped) {
+
+                try {
+                    job.work.run();
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                    job.isSkipped = true;
+                }
+            }
+
+            job.end = System.nanoTime();
+            job.addRun();
+
+            Job next = null;
+
+            for (Job dependent : job.dependents) {
+
+                if (job.isSkipped) {
+                    dependent.isSkipped = true;
+                }
+
+                if (dependent.pending.decrementAndGet() == 0) {
+
+                    if (next != null) {
+                        Job ready = next;
+                        jobSystem.getPool().execute(() -> execute(ready));
+                    }
+
+                    next = dependent;
+                }
+            }
+
+            if (remaining.decrementAndGet() == 0) {
+                done.complete(null);
+            }
+
+            job = next;
+        }
+    }
+
+    /**
+     * Escapes a string for JSON.
+     *
+     * @param s String.
+     * @return Escaped string.
+     */
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
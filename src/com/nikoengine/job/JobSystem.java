@@ -0,0 +1,191 @@
+package com.nikoengine.job;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs engine work on a work stealing thread pool.
+ *
+ * <p>
+ * Work is split into tasks which idle worker threads steal from busy ones, so
+ * uneven work is spread evenly. Jobs with dependencies between them are run
+ * with a JobGraph and loops over large arrays with parallelFor.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class JobSystem {
+
+    /**
+     * Holds the job system which uses the common pool.
+     */
+    private static JobSystem defaultSystem;
+
+    /**
+     * Runs the jobs.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Works on a range of indices.
+     *
+     * @author Niko Mustonen mustonen.niko@gmail.com
+     * @version 2026.1019
+     * @since 1.8
+     */
+    public interface RangeJob {
+
+        /**
+         * Works on the indices from the start up to the end.
+         *
+         * @param from First index.
+         * @param to Index after the last index.
+         */
+        void run(int from, int to);
+    }
+
+    /**
+     * Creates a job system with its own worker threads.
+     *
+     * @param parallelism Amount of worker threads.
+     */
+    public JobSystem(int parallelism) {
+        this(new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread t = ForkJoinPool
+                    .defaultForkJoinWorkerThreadFactory.newThread(pool);
+            t.setName("JobWorker-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, false));
+    }
+
+    /**
+     * Creates a job system which runs the jobs in a pool.
+     *
+     * @param pool Pool which runs the jobs.
+     */
+    private JobSystem(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the job system which uses the common pool of the virtual
+     * machine.
+     *
+     * @return Default job system.
+     */
+    public static synchronized JobSystem getDefault() {
+
+        if (defaultSystem == null) {
+            defaultSystem = new JobSystem(ForkJoinPool.commonPool());
+        }
+
+        return defaultSystem;
+    }
+
+    /**
+     * Returns the pool which runs the jobs.
+     *
+     * @return Pool.
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Returns the amount of worker threads.
+     *
+     * @return Parallelism of the pool.
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Splits a range of indices into parts and works on them in parallel.
+     *
+     * <p>
+     * Returns when the whole range is done. Ranges no longer than the grain
+     * are done on the calling thread.
+     *
+     * @param from First index.
+     * @param to Index after the last index.
+     * @param grain Smallest amount of indices worth giving to another thread.
+     * @param job Works on the parts.
+     */
+    public void parallelFor(int from, int to, int grain, RangeJob job) {
+
+        if (to - from <= Math.max(1, grain)) {
+            job.run(from, to);
+        } else {
+            pool.invoke(new RangeTask(from, to, Math.max(1, grain), job));
+        }
+    }
+
+    /**
+     * Splits a range in halves until the parts are small enough.
+     *
+     * @author Niko Mustonen mustonen.niko@gmail.com
+     * @version 2026.1019
+     * @since 1.8
+     */
+    private static class RangeTask extends RecursiveAction {
+
+        /**
+         * Serializable version of the task.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Holds the first index.
+         */
+        private final int from;
+
+        /**
+         * Holds the index after the last index.
+         */
+        private final int to;
+
+        /**
+         * Holds the smallest part size.
+         */
+        private final int grain;
+
+        /**
+         * Works on the parts.
+         */
+        private final RangeJob job;
+
+        /**
+         * Creates a task for a range.
+         *
+         * @param from First index.
+         * @param to Index after the last index.
+         * @param grain Smallest part size.
+         * @param job Works on the parts.
+         */
+        RangeTask(int from, int to, int grain, RangeJob job) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.job = job;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from <= grain) {
+                job.run(from, to);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            RangeTask second = new RangeTask(middle, to, grain, job);
+            second.fork();
+            new RangeTask(from, middle, grain, job).compute();
+            second.join();
+        }
+    }
+}
@@ -0,0 +1,465 @@
+package com.nikoengine.resources;
+
+import com.nikoengine.geometry.MeshData;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Binary cache for parsed models and tiled maps.
+ *
+ * <p>
+ * Parsing XML files is slow, so parsed vertex, index and tile arrays are
+ * stored to a cache directory in a compact binary format. Cache files are
+ * memory mapped and the arrays are copied out of them without any parsing.
+ * Every cache file holds the path and the content hash of its source file,
+ * so a cache file is used only when the source has not changed.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class AssetCache {
+
+    /**
+     * Defines the version of the cache format.
+     *
+     * <p>
+     * Must be changed every time the format changes, so that old cache files
+     * are parsed again.
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * Defines the magic number in the beginning of every cache file.
+     */
+    private static final int MAGIC = 0x4E4B4143;
+
+    /**
+     * Defines cache entry type for models.
+     */
+    private static final byte TYPE_MESH = 1;
+
+    /**
+     * Defines cache entry type for tiled maps.
+     */
+    private static final byte TYPE_TILED_MAP = 2;
+
+    /**
+     * Holds the directory where cache files are stored.
+     */
+    private static String cacheDirectory = "./cache/";
+
+    /**
+     * Determines whether the cache is used.
+     */
+    private static boolean isEnabled = true;
+
+    /**
+     * Loads a model and its levels of detail from the cache.
+     *
+     * <p>
+     * The origin and the vertices are stored once and shared by the levels.
+     *
+     * @param source Source XML file of the model.
+     * @return Cached levels from the finest to the coarsest or null if there
+     * is no up to date cache file.
+     */
+    public static MeshData[] loadMesh(File source) {
+
+        ByteBuffer buffer = open(source, TYPE_MESH);
+
+        if (buffer == null) {
+            return null;
+        }
+
+        double[] origin = getDoubles(buffer);
+        double[] vertices = getDoubles(buffer);
+        MeshData[] levels = new MeshData[buffer.getInt()];
+
+        for (int i = 0; i < levels.length; i++) {
+            int[] faceOffsets = getInts(buffer);
+            int[] indices = getInts(buffer);
+            int[] colors = getInts(buffer);
+
+            levels[i] = new MeshData(origin, vertices, faceOffsets, indices,
+                    colors);
+        }
+
+        return levels;
+    }
+
+    /**
+     * Stores a model and its levels of detail to the cache.
+     *
+     * @param source Source XML file of the model.
+     * @param levels Parsed model and its coarser levels, which share the
+     * origin and the vertices of the model.
+     */
+    public static void storeMesh(File source, MeshData... levels) {
+
+        int size = 8 * (levels[0].origin.length + levels[0].vertices.length)
+                + 3 * 4;
+
+        for (MeshData mesh : levels) {
+            size += 4 * (mesh.faceOffsets.length + mesh.indices.length
+                    + mesh.colors.length) + 3 * 4;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        putDoubles(buffer, levels[0].origin);
+        putDoubles(buffer, levels[0].vertices);
+        buffer.putInt(levels.length);
+
+        for (MeshData mesh : levels) {
+            putInts(buffer, mesh.faceOffsets);
+            putInts(buffer, mesh.indices);
+            putInts(buffer, mesh.colors);
+        }
+
+        store(source, TYPE_MESH, buffer);
+    }
+
+    /**
+     * Loads a tiled map from the cache.
+     *
+     * <p>
+     * Sets the tile dimensions and the tile set image path to the reader.
+     *
+     * @param source Source tiled map file.
+     * @param reader Reader which receives the map header.
+     * @return Layers and tiles or null if there is no up to date cache file.
+     */
+    static int[][][] loadTiledMap(File source, TiledMapReader reader) {
+
+        ByteBuffer buffer = open(source, TYPE_TILED_MAP);
+
+        if (buffer == null) {
+            return null;
+        }
+
+        reader.tileWidth = buffer.getInt();
+        reader.tileHeight = buffer.getInt();
+        reader.mapWidth = buffer.getInt();
+        reader.mapHeight = buffer.getInt();
+        reader.imageSource = getString(buffer);
+
+        int[][][] layers = new int[buffer.getInt()][][];
+
+        for (int i = 0; i < layers.length; i++) {
+            layers[i] = new int[buffer.getInt()][buffer.getInt()];
+
+            for (int[] row : layers[i]) {
+                buffer.asIntBuffer().get(row);
+                buffer.position(buffer.position() + 4 * row.length);
+            }
+        }
+
+        reader.layerAmount = layers.length;
+        return layers;
+    }
+
+    /**
+     * Stores a tiled map to the cache.
+     *
+     * @param source Source tiled map file.
+     * @param reader Reader which holds the map header.
+     * @param layers Layers and tiles of the map.
+     */
+    static void storeTiledMap(File source, TiledMapReader reader,
+            int[][][] layers) {
+
+        byte[] image = reader.imageSource == null ? null
+                : reader.imageSource.getBytes(StandardCharsets.UTF_8);
+
+        int size = 6 * 4 + (image == null ? 0 : image.length);
+
+        for (int[][] layer : layers) {
+            size += 2 * 4 + 4 * layer.length
+                    * (layer.length > 0 ? layer[0].length : 0);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(reader.tileWidth);
+        buffer.putInt(reader.tileHeight);
+        buffer.putInt(reader.mapWidth);
+        buffer.putInt(reader.mapHeight);
+        putBytes(buffer, image);
+        buffer.putInt(layers.length);
+
+        for (int[][] layer : layers) {
+            buffer.putInt(layer.length);
+            buffer.putInt(layer.length > 0 ? layer[0].length : 0);
+
+            for (int[] row : layer) {
+                buffer.asIntBuffer().put(row);
+                buffer.position(buffer.position() + 4 * row.length);
+            }
+        }
+
+        store(source, TYPE_TILED_MAP, buffer);
+    }
+
+    /**
+     * Sets the directory where cache files are stored.
+     *
+     * @param directory Path to the cache directory.
+     */
+    public static void setCacheDirectory(String directory) {
+        cacheDirectory = directory;
+    }
+
+    /**
+     * Enables or disables the cache.
+     *
+     * @param enabled Whether cache files are read and written.
+     */
+    public static void setEnabled(boolean enabled) {
+        isEnabled = enabled;
+    }
+
+    /**
+     * Maps the cache file of the source and checks that it is up to date.
+     *
+     * @param source Source file.
+     * @param type Expected cache entry type.
+     * @return Buffer positioned at the start of the data or null.
+     */
+    private static ByteBuffer open(File source, byte type) {
+
+        File cacheFile = getCacheFile(source);
+
+        if (!isEnabled || !cacheFile.isFile() || !source.isFile()) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(cacheFile.toPath(),
+                StandardOpenOption.READ)) {
+
+            MappedByteBuffer buffer = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.remaining() < 9 || buffer.getInt() != MAGIC
+                    || buffer.getInt() != VERSION || buffer.get() != type) {
+                return null;
+            }
+
+            String path = getString(buffer);
+            long hash = buffer.getLong();
+
+            if (!source.getCanonicalPath().equals(path)
+                    || hash != getContentHash(source)) {
+                return null;
+            }
+
+            return buffer;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes the cache file of the source.
+     *
+     * <p>
+     * The file is written to a temporary file first and moved in place, so
+     * a half written cache file is never read.
+     *
+     * @param source Source file.
+     * @param type Cache entry type.
+     * @param data Data to be written.
+     */
+    private static void store(File source, byte type, ByteBuffer data) {
+
+        if (!isEnabled) {
+            return;
+        }
+
+        try {
+            File cacheFile = getCacheFile(source);
+            File directory = cacheFile.getParentFile();
+
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                return;
+            }
+
+            byte[] path = source.getCanonicalPath()
+                    .getBytes(StandardCharsets.UTF_8);
+
+            ByteBuffer header = ByteBuffer.allocate(4 + 4 + 1 + 4
+                    + path.length + 8).order(ByteOrder.LITTLE_ENDIAN);
+
+            header.putInt(MAGIC);
+            header.putInt(VERSION);
+            header.put(type);
+            putBytes(header, path);
+            header.putLong(getContentHash(source));
+            header.flip();
+            data.flip();
+
+            File tmp = new File(cacheFile.getPath() + ".tmp");
+
+            try (FileChannel channel = FileChannel.open(tmp.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+
+                while (header.hasRemaining() || data.hasRemaining()) {
+                    channel.write(new ByteBuffer[]{header, data});
+                }
+            }
+
+            Files.move(tmp.toPath(), cacheFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Returns the cache file of the source file.
+     *
+     * @param source Source file.
+     * @return Cache file reference.
+     */
+    private static File getCacheFile(File source) {
+
+        String path;
+
+        try {
+            path = source.getCanonicalPath();
+        } catch (IOException e) {
+            path = source.getAbsolutePath();
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(path.getBytes(StandardCharsets.UTF_8));
+
+        return new File(cacheDirectory, source.getName() + "."
+                + Long.toHexString(crc.getValue()) + ".bin");
+    }
+
+    /**
+     * Calculates the content hash of the source file.
+     *
+     * @param source Source file.
+     * @return CRC32 checksum of the file combined with its length.
+     * @throws IOException If the file can not be read.
+     */
+    private static long getContentHash(File source) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(source.toPath(),
+                StandardOpenOption.READ)) {
+
+            CRC32 crc = new CRC32();
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size()));
+
+            return channel.size() << 32 ^ crc.getValue();
+        }
+    }
+
+    /**
+     * Reads a length prefixed double array.
+     *
+     * @param buffer Buffer to read from.
+     * @return Read array.
+     */
+    private static double[] getDoubles(ByteBuffer buffer) {
+
+        double[] array = new double[buffer.getInt()];
+        buffer.asDoubleBuffer().get(array);
+        buffer.position(buffer.position() + 8 * array.length);
+
+        return array;
+    }
+
+    /**
+     * Reads a length prefixed int array.
+     *
+     * @param buffer Buffer to read from.
+     * @return Read array.
+     */
+    private static int[] getInts(ByteBuffer buffer) {
+
+        int[] array = new int[buffer.getInt()];
+        buffer.asIntBuffer().get(array);
+        buffer.position(buffer.position() + 4 * array.length);
+
+        return array;
+    }
+
+    /**
+     * Reads a length prefixed UTF-8 string.
+     *
+     * @param buffer Buffer to read from.
+     * @return Read string or null.
+     */
+    private static String getString(ByteBuffer buffer) {
+
+        int length = buffer.getInt();
+
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a length prefixed double array.
+     *
+     * @param buffer Buffer to write to.
+     * @param array Array to be written.
+     */
+    private static void putDoubles(ByteBuffer buffer, double[] array) {
+
+        buffer.putInt(array.length);
+        buffer.asDoubleBuffer().put(array);
+        buffer.position(buffer.position() + 8 * array.length);
+    }
+
+    /**
+     * Writes a length prefixed int array.
+     *
+     * @param buffer Buffer to write to.
+     * @param array Array to be written.
+     */
+    private static void putInts(ByteBuffer buffer, int[] array) {
+
+        buffer.putInt(array.length);
+        buffer.asIntBuffer().put(array);
+        buffer.position(buffer.position() + 4 * array.length);
+    }
+
+    /**
+     * Writes a length prefixed byte array. Null is written as length -1.
+     *
+     * @param buffer Buffer to write to.
+     * @param bytes Bytes to be written or null.
+     */
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+}
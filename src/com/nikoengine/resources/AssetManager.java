@@ -0,0 +1,441 @@
+package com.nikoengine.resources;
+
+import com.nikoengine.audio.SoundBuffer;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads and keeps track of images and sounds.
+ *
+ * <p>
+ * Assets are loaded on background threads so the game loop is not blocked.
+ * Every load returns a future which completes when the asset is ready or
+ * fails with the reason the asset could not be loaded.
+ *
+ * <p>
+ * Every load call reserves the asset and the asset must be given back with
+ * the release method when it is not needed anymore. Released assets stay in
+ * memory until the memory budget is full, and then the least recently used
+ * ones are dropped first.
+ *
+ * <p>
+ * Images and sounds are kept apart, so the same file path can not be loaded
+ * as an image and as a sound by mistake. Asking a file of the wrong kind
+ * fails the future instead.
+ *
+ * <p>
+ * The engine and games share the default asset manager, so an asset loaded
+ * in one place is not loaded again in another.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class AssetManager {
+
+    /**
+     * Defines the default memory budget in bytes.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+    /**
+     * Holds the default asset manager or null until it is needed.
+     */
+    private static AssetManager defaultManager;
+
+    /**
+     * Holds all the known assets in least recently used order. Keys are made
+     * of the asset type and the full file path.
+     */
+    private final LinkedHashMap<String, Asset> assets
+            = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Runs the loading tasks.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Holds the memory budget for the loaded assets in bytes.
+     */
+    private final long memoryBudget;
+
+    /**
+     * Holds the estimated memory of the loaded assets in bytes.
+     */
+    private long memoryUsage = 0;
+
+    /**
+     * Holds information of one asset.
+     *
+     * @author Niko Mustonen mustonen.niko@gmail.com
+     * @version 2026.1019
+     * @since 1.8
+     */
+    private static class Asset {
+
+        /**
+         * Completes when the asset is loaded.
+         */
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        /**
+         * Holds the amount of users of the asset.
+         */
+        int references = 0;
+
+        /**
+         * Holds the estimated memory of the asset in bytes.
+         */
+        long memory = 0;
+    }
+
+    /**
+     * Creates an asset manager with the default memory budget.
+     */
+    public AssetManager() {
+        this(DEFAULT_MEMORY_BUDGET, 2);
+    }
+
+    /**
+     * Creates an asset manager.
+     *
+     * @param memoryBudget Memory budget for the loaded assets in bytes.
+     * @param threads Amount of loading threads.
+     */
+    public AssetManager(long memoryBudget, int threads) {
+
+        this.memoryBudget = memoryBudget;
+
+        final AtomicInteger threadNumber = new AtomicInteger();
+
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "AssetLoader-"
+                    + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Returns the asset manager shared by the engine and the game.
+     *
+     * @return Default asset manager.
+     */
+    public static synchronized AssetManager getDefault() {
+
+        if (defaultManager == null) {
+            defaultManager = new AssetManager();
+        }
+
+        return defaultManager;
+    }
+
+    /**
+     * Loads an image on the background and reserves it.
+     *
+     * @param fileName File path.
+     * @return Future which completes with the screen compatible image.
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<BufferedImage> loadImage(String fileName) {
+
+        return (CompletableFuture<BufferedImage>) (CompletableFuture<?>) load(
+                BufferedImage.class, fileName, true);
+    }
+
+    /**
+     * Loads a sound on the background and reserves it.
+     *
+     * @param fileName File path.
+     * @return Future which completes with the decoded sound.
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<SoundBuffer> loadSound(String fileName) {
+
+        return (CompletableFuture<SoundBuffer>) (CompletableFuture<?>) load(
+                SoundBuffer.class, fileName, true);
+    }
+
+    /**
+     * Loads all the assets listed in a manifest file without reserving them.
+     *
+     * <p>
+     * Manifest has one file path on each line. Empty lines and lines starting
+     * with # are skipped. Preloaded assets are kept in memory as long as the
+     * memory budget allows, so a following load call gets them immediately.
+     * Sound files are recognized by their extension and all the other files
+     * are loaded as images.
+     *
+     * @param manifest Manifest file.
+     * @return Future which completes when all the assets are loaded.
+     * @throws IOException If the manifest can not be read.
+     */
+    public CompletableFuture<Void> preload(File manifest) throws IOException {
+
+        ArrayList<String> fileNames = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(
+                new FileReader(manifest))) {
+
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    fileNames.add(line);
+                }
+            }
+        }
+
+        return preload(fileNames.toArray(new String[fileNames.size()]));
+    }
+
+    /**
+     * Loads the assets without reserving them.
+     *
+     * <p>
+     * Sound files are recognized by their extension and all the other files
+     * are loaded as images.
+     *
+     * @param fileNames File paths.
+     * @return Future which completes when all the assets are loaded.
+     */
+    public CompletableFuture<Void> preload(String... fileNames) {
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[
+                fileNames.length];
+
+        for (int i = 0; i < fileNames.length; i++) {
+            Class<?> type = isSound(fileNames[i]) ? SoundBuffer.class
+                    : BufferedImage.class;
+            futures[i] = load(type, fileNames[i], false);
+        }
+
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Gives back a reserved image.
+     *
+     * <p>
+     * Image stays in memory until memory budget is needed for other assets.
+     *
+     * @param fileName File path the image was loaded with.
+     */
+    public void releaseImage(String fileName) {
+        release(BufferedImage.class, fileName);
+    }
+
+    /**
+     * Gives back a reserved sound.
+     *
+     * <p>
+     * Sound stays in memory until memory budget is needed for other assets.
+     *
+     * @param fileName File path the sound was loaded with.
+     */
+    public void releaseSound(String fileName) {
+        release(SoundBuffer.class, fileName);
+    }
+
+    /**
+     * Returns a loaded image without reserving it.
+     *
+     * @param fileName File path.
+     * @return Image or null if it is not loaded.
+     */
+    public BufferedImage getImage(String fileName) {
+        return (BufferedImage) getLoaded(BufferedImage.class, fileName);
+    }
+
+    /**
+     * Returns a loaded sound without reserving it.
+     *
+     * @param fileName File path.
+     * @return Sound or null if it is not loaded.
+     */
+    public SoundBuffer getSound(String fileName) {
+        return (SoundBuffer) getLoaded(SoundBuffer.class, fileName);
+    }
+
+    /**
+     * Returns the estimated memory of the loaded assets.
+     *
+     * @return Memory in bytes.
+     */
+    public synchronized long getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    /**
+     * Stops the loading threads. Loads which have not started are dropped.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts loading an asset unless it is already loaded or loading.
+     *
+     * @param type Type of the asset.
+     * @param fileName File path.
+     * @param isReserved Whether the caller reserves the asset.
+     * @return Future of the asset.
+     */
+    private synchronized CompletableFuture<Object> load(final Class<?> type,
+            String fileName, boolean isReserved) {
+
+        final String path = Resources.getPath(fileName);
+        final String key = getKey(type, path);
+        Asset asset = assets.get(key);
+
+        if (asset == null) {
+            final Asset newAsset = new Asset();
+            assets.put(key, newAsset);
+            asset = newAsset;
+
+            executor.execute(() -> read(type, path, key, newAsset));
+        }
+
+        if (isReserved) {
+            asset.references++;
+        }
+
+        return asset.future;
+    }
+
+    /**
+     * Gives back a reserved asset.
+     *
+     * @param type Type of the asset.
+     * @param fileName File path the asset was loaded with.
+     */
+    private synchronized void release(Class<?> type, String fileName) {
+
+        Asset asset = assets.get(getKey(type, Resources.getPath(fileName)));
+
+        if (asset != null && asset.references > 0) {
+            asset.references--;
+            evict();
+        }
+    }
+
+    /**
+     * Reads the asset on a loading thread and completes its future.
+     *
+     * @param type Type of the asset.
+     * @param path Full file path.
+     * @param key Key of the asset.
+     * @param asset Asset to be completed.
+     */
+    private void read(Class<?> type, String path, String key, Asset asset) {
+
+        try {
+            Object value;
+            long memory;
+
+            if (type == SoundBuffer.class) {
+                SoundBuffer sound = SoundBuffer.load(new File(path));
+                value = sound;
+                memory = sound.getMemory();
+            } else {
+                BufferedImage img = TextureCache.readImage(path);
+                value = img;
+                memory = 4L * img.getWidth() * img.getHeight();
+            }
+
+            synchronized (this) {
+
+                if (assets.get(key) == asset) {
+                    asset.memory = memory;
+                    memoryUsage += memory;
+                    evict();
+                }
+            }
+
+            asset.future.complete(value);
+        } catch (IOException | RuntimeException e) {
+
+            synchronized (this) {
+                assets.remove(key, asset);
+            }
+
+            asset.future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Returns an asset if it is loaded.
+     *
+     * @param type Type of the asset.
+     * @param fileName File path.
+     * @return Asset or null.
+     */
+    private synchronized Object getLoaded(Class<?> type, String fileName) {
+
+        Asset asset = assets.get(getKey(type, Resources.getPath(fileName)));
+
+        if (asset == null || !asset.future.isDone()
+                || asset.future.isCompletedExceptionally()) {
+            return null;
+        }
+
+        return asset.future.join();
+    }
+
+    /**
+     * Drops least recently used released assets until the memory budget is
+     * not exceeded anymore.
+     */
+    private void evict() {
+
+        Iterator<Map.Entry<String, Asset>> it = assets.entrySet().iterator();
+
+        while (memoryUsage > memoryBudget && it.hasNext()) {
+            Asset asset = it.next().getValue();
+
+            if (asset.references == 0 && asset.future.isDone()) {
+                memoryUsage -= asset.memory;
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the key of an asset.
+     *
+     * @param type Type of the asset.
+     * @param path Full file path.
+     * @return Key made of the type and the path.
+     */
+    private static String getKey(Class<?> type, String path) {
+        return type.getSimpleName() + ':' + path;
+    }
+
+    /**
+     * Determines whether the file is a sound file by its extension.
+     *
+     * @param path File path.
+     * @return Whether file is a sound file.
+     */
+    private static boolean isSound(String path) {
+
+        String lower = path.toLowerCase();
+
+        return lower.endsWith(".wav") || lower.endsWith(".au")
+                || lower.endsWith(".aif") || lower.endsWith(".aiff");
+    }
+}
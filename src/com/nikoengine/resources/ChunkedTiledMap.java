@@ -0,0 +1,276 @@
+package com.nikoengine.resources;
+
+import com.nikoengine.camera.Camera2D;
+import com.nikoengine.image.Image;
+import java.awt.Graphics2D;
+import java.nio.IntBuffer;
+
+/**
+ * Tile map which keeps only the chunks near the camera in memory.
+ *
+ * <p>
+ * The map is divided into square chunks. When a camera comes within one chunk
+ * of an unloaded chunk it is copied from the decoded tiles, and chunks which
+ * are further than two chunks away from the camera are released. The tiles
+ * are decoded once when the map is created into a memory mapped file, so
+ * loading a chunk reads only its own rows and never parses the map file
+ * again. This keeps memory use constant for very large maps.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class ChunkedTiledMap {
+
+    /**
+     * Holds the decoded tiles of every layer in row order.
+     */
+    private final IntBuffer tiles;
+
+    /**
+     * Holds the map width in tiles.
+     */
+    private final int mapWidth;
+
+    /**
+     * Holds the map height in tiles.
+     */
+    private final int mapHeight;
+
+    /**
+     * Holds the amount of layers.
+     */
+    private final int layerAmount;
+
+    /**
+     * Holds one tile width.
+     */
+    private final int tileWidth;
+
+    /**
+     * Holds one tile height.
+     */
+    private final int tileHeight;
+
+    /**
+     * Holds chunk width and height in tiles.
+     */
+    private final int chunkSize;
+
+    /**
+     * Holds the amount of chunks in a row.
+     */
+    private final int chunksX;
+
+    /**
+     * Holds the amount of chunks in a column.
+     */
+    private final int chunksY;
+
+    /**
+     * Holds loaded chunks, null for chunks which are not in memory.
+     *
+     * <p>
+     * One chunk holds all the layers one after another in row order.
+     */
+    private final int[][] chunks;
+
+    /**
+     * Holds a flag for every chunk which is to be loaded on this frame.
+     */
+    private final boolean[] wanted;
+
+    /**
+     * Array of tile images which is separated from the tile set image.
+     */
+    private final Image[] tileSet;
+
+    /**
+     * Holds the amount of chunks currently in memory.
+     */
+    private int loadedChunks = 0;
+
+    /**
+     * Creates a new chunked tile map. Is created by TiledMapReader.
+     *
+     * @param tiles Decoded tiles of every layer in row order.
+     * @param mapWidth Map width in tiles.
+     * @param mapHeight Map height in tiles.
+     * @param layerAmount Amount of layers.
+     * @param tileWidth One tile width.
+     * @param tileHeight One tile height.
+     * @param chunkSize Chunk width and height in tiles.
+     * @param tileSet Tile set image.
+     */
+    ChunkedTiledMap(IntBuffer tiles, int mapWidth, int mapHeight,
+            int layerAmount, int tileWidth, int tileHeight, int chunkSize,
+            Image tileSet) {
+
+        this.tiles = tiles;
+        this.mapWidth = mapWidth;
+        this.mapHeight = mapHeight;
+        this.layerAmount = layerAmount;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.chunkSize = chunkSize;
+        this.chunksX = (mapWidth + chunkSize - 1) / chunkSize;
+        this.chunksY = (mapHeight + chunkSize - 1) / chunkSize;
+        this.chunks = new int[chunksX * chunksY][];
+        this.wanted = new boolean[chunks.length];
+        this.tileSet = TiledMap.splitTileSet(tileSet, tileWidth, tileHeight);
+    }
+
+    /**
+     * Draws only the portion of the tiled map which is visible to camera.
+     *
+     * <p>
+     * Loads the chunks the camera is approaching and releases the chunks it
+     * has left behind before drawing.
+     *
+     * @param cam Camera to view from.
+     * @param g Graphics2D drawing element.
+     */
+    public void renderMap(Camera2D cam, Graphics2D g) {
+
+        int startBlockX = Math.max(0, cam.getTopX() / tileWidth);
+        int startBlockY = Math.max(0, cam.getTopY() / tileHeight);
+        int endBlockX = Math.min(mapWidth, cam.getBottomX() / tileWidth + 1);
+        int endBlockY = Math.min(mapHeight, cam.getBottomY() / tileHeight + 1);
+
+        updateChunks(startBlockX / chunkSize, startBlockY / chunkSize,
+                (endBlockX - 1) / chunkSize, (endBlockY - 1) / chunkSize);
+
+        for (int layer = 0; layer < layerAmount; layer++) {
+
+            for (int j = startBlockY; j < endBlockY; j++) {
+
+                for (int k = startBlockX; k < endBlockX; k++) {
+                    int imageIndex = getTile(layer, k, j) - 1;
+
+                    if (imageIndex > -1) {
+                        tileSet[imageIndex].drawAt(g,
+                                k * tileWidth - cam.getX(),
+                                j * tileHeight - cam.getY());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the tile in given layer and position.
+     *
+     * <p>
+     * Can be used for collision checking for example. Tiles in chunks which
+     * are not loaded and tiles outside the map are returned as empty.
+     *
+     * @param layer Index of layer.
+     * @param x Tile column.
+     * @param y Tile row.
+     * @return Tile set index of the tile, zero for empty, unloaded or outside
+     * tile.
+     */
+    public int getTile(int layer, int x, int y) {
+
+        if (layer < 0 || layer >= layerAmount || x < 0 || x >= mapWidth
+                || y < 0 || y >= mapHeight) {
+
+            return 0;
+        }
+
+        int[] chunk = chunks[(y / chunkSize) * chunksX + x / chunkSize];
+
+        if (chunk == null) {
+            return 0;
+        }
+
+        return chunk[(layer * chunkSize + y % chunkSize) * chunkSize
+                + x % chunkSize];
+    }
+
+    /**
+     * Returns the amount of chunks currently in memory.
+     *
+     * @return Amount of loaded chunks.
+     */
+    public int getLoadedChunks() {
+        return loadedChunks;
+    }
+
+    /**
+     * Loads the chunks around the visible chunk area and releases the rest.
+     *
+     * <p>
+     * Chunks are loaded one chunk ahead of the camera and released only when
+     * they are two chunks away, so moving back and forth over a chunk border
+     * does not copy the tiles again.
+     *
+     * @param startX First visible chunk column.
+     * @param startY First visible chunk row.
+     * @param endX Last visible chunk column.
+     * @param endY Last visible chunk row.
+     */
+    private void updateChunks(int startX, int startY, int endX, int endY) {
+
+        boolean isMissing = false;
+
+        for (int cy = 0; cy < chunksY; cy++) {
+
+            for (int cx = 0; cx < chunksX; cx++) {
+                int index = cy * chunksX + cx;
+                int distance = Math.max(
+                        Math.max(startX - cx, cx - endX),
+                        Math.max(startY - cy, cy - endY));
+
+                if (distance <= 1 && chunks[index] == null) {
+                    wanted[index] = true;
+                    isMissing = true;
+                } else if (distance > 2 && chunks[index] != null) {
+                    chunks[index] = null;
+                    loadedChunks--;
+                }
+            }
+        }
+
+        if (isMissing) {
+            loadChunks();
+        }
+    }
+
+    /**
+     * Copies the tiles of wanted chunks from the decoded tiles and clears
+     * their flags.
+     */
+    private void loadChunks() {
+
+        int chunkLength = layerAmount * chunkSize * chunkSize;
+
+        for (int i = 0; i < wanted.length; i++) {
+
+            if (!wanted[i]) {
+                continue;
+            }
+
+            wanted[i] = false;
+
+            int[] chunk = new int[chunkLength];
+            int startX = (i % chunksX) * chunkSize;
+            int startY = (i / chunksX) * chunkSize;
+            int width = Math.min(chunkSize, mapWidth - startX);
+            int height = Math.min(chunkSize, mapHeight - startY);
+
+            for (int layer = 0; layer < layerAmount; layer++) {
+
+                for (int row = 0; row < height; row++) {
+                    tiles.position((layer * mapHeight + startY + row)
+                            * mapWidth + startX);
+                    tiles.get(chunk, (layer * chunkSize + row) * chunkSize,
+                            width);
+                }
+            }
+
+            chunks[i] = chunk;
+            loadedChunks++;
+        }
+    }
+}
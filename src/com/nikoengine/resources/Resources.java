@@ -1,70 +1,103 @@
-package com.nikoengine.resources;
-
-import java.applet.Applet;
-import java.applet.AudioClip;
-import java.awt.image.BufferedImage;
-import java.io.*;
-import java.net.MalformedURLException;
-import java.net.URI;
-import java.net.URL;
-import javax.imageio.ImageIO;
-
-/**
- * Helper class for resource loading.
- *
- * @author Niko Mustonen mustonen.niko@gmail.com
- * @version 2016.1121
- * @since 1.8
- */
-public class Resources {
-
-    /**
-     * Holds default file path root folder.
-     */
-    private static String defaultFilePath = "";
-
-    /**
-     * Creates a new Buffered image.
-     *
-     * @param fileName File path.
-     * @return New image.
-     */
-    public static BufferedImage loadImage(String fileName) {
-        BufferedImage img = null;
-        try {
-            img = ImageIO.read(new File(defaultFilePath + fileName));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        return img;
-    }
-
-    /**
-     * Creates a new audio clip.
-     * 
-     * @param fileName File name and path.
-     * @return New sound clip.
-     */
-    public static AudioClip loadSoundClip(String fileName) {
-        File f = new File(defaultFilePath + fileName);
-        URI uri = f.getAbsoluteFile().toURI();
-        URL url = null;
-        try {
-            url = uri.toURL();
-        } catch (MalformedURLException e) {
-            e.printStackTrace();
-        }
-
-        return Applet.newAudioClip(url);
-    }
-
-    /**
-     * Sets default path.
-     *
-     * @param path Path name.
-     */
-    public void setDefaultPath(String path) {
-        defaultFilePath = path;
-    }
-}
+package com.nikoengine.resources;
+
+import com.nikoengine.audio.SoundBuffer;
+import com.nikoengine.image.SpriteAtlas;
+import java.awt.image.BufferedImage;
+import java.io.*;
+
+/**
+ * Helper class for resource loading.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2016.1121
+ * @since 1.8
+ */
+public class Resources {
+
+    /**
+     * Holds default file path root folder.
+     */
+    private static String defaultFilePath = "";
+
+    /**
+     * Creates a new Buffered image.
+     *
+     * <p>
+     * Images are cached, so loading the same file again returns the same
+     * image without decoding it.
+     *
+     * @param fileName File path.
+     * @return New image.
+     */
+    public static BufferedImage loadImage(String fileName) {
+        BufferedImage img = null;
+        try {
+            img = TextureCache.getImage(defaultFilePath + fileName);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return img;
+    }
+
+    /**
+     * Loads a sprite for drawing.
+     *
+     * <p>
+     * Small sprites are packed into shared atlas images.
+     *
+     * @param fileName File path.
+     * @return Area of an image where the sprite is drawn from.
+     */
+    public static SpriteAtlas.Region loadSprite(String fileName) {
+        SpriteAtlas.Region region = null;
+        try {
+            region = TextureCache.getSprite(defaultFilePath + fileName);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return region;
+    }
+
+    /**
+     * Loads and decodes a sound for the audio mixer.
+     * 
+     * @param fileName File name and path.
+     * @return New sound.
+     */
+    public static SoundBuffer loadSound(String fileName) {
+        SoundBuffer sound = null;
+        try {
+            sound = SoundBuffer.load(new File(defaultFilePath + fileName));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return sound;
+    }
+
+    /**
+     * Returns the full path of a file which is used as a key for the file.
+     *
+     * @param fileName File path relative to the default path.
+     * @return Canonical file path.
+     */
+    static String getPath(String fileName) {
+        File f = new File(defaultFilePath + fileName);
+        try {
+            return f.getCanonicalPath();
+        } catch (IOException e) {
+            return f.getAbsolutePath();
+        }
+    }
+
+    /**
+     * Sets default path.
+     *
+     * @param path Path name.
+     */
+    public static void setDefaultPath(String path) {
+        defaultFilePath = path;
+    }
+}
@@ -0,0 +1,281 @@
+package com.nikoengine.resources;
+
+import com.nikoengine.image.SpriteAtlas;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import javax.imageio.ImageIO;
+
+/**
+ * Cache for decoded images and sprite atlases.
+ *
+ * <p>
+ * Every image file is decoded only once. Decoded images are converted to the
+ * image type of the screen so Java2D can keep them accelerated. Small sprites
+ * are packed into shared atlas pages instead of holding an image of their
+ * own.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class TextureCache {
+
+    /**
+     * Defines the width and height of one atlas page.
+     */
+    public static final int ATLAS_SIZE = 1024;
+
+    /**
+     * Defines the largest width and height of a sprite packed into an atlas.
+     */
+    public static final int MAX_ATLAS_SPRITE = 128;
+
+    /**
+     * Holds decoded images by their canonical path.
+     */
+    private static final HashMap<String, BufferedImage> images
+            = new HashMap<>();
+
+    /**
+     * Holds sprite regions by their canonical path.
+     */
+    private static final HashMap<String, SpriteAtlas.Region> sprites
+            = new HashMap<>();
+
+    /**
+     * Holds all the atlas pages.
+     */
+    private static final ArrayList<SpriteAtlas> atlases = new ArrayList<>();
+
+    /**
+     * Holds the amount of requests served from the cache.
+     */
+    private static int hits = 0;
+
+    /**
+     * Holds the amount of requests which needed decoding.
+     */
+    private static int misses = 0;
+
+    /**
+     * Holds the estimated memory of the images kept by the cache in bytes.
+     */
+    private static long memory = 0;
+
+    /**
+     * Returns a decoded image. Decodes the file only if it is not cached.
+     *
+     * @param fileName Path to file.
+     * @return Screen compatible image.
+     * @throws IOException If the file can not be read.
+     */
+    public static synchronized BufferedImage getImage(String fileName)
+            throws IOException {
+
+        String key = new File(fileName).getCanonicalPath();
+        BufferedImage img = images.get(key);
+
+        if (img != null) {
+            hits++;
+            return img;
+        }
+
+        misses++;
+        img = readImage(fileName);
+        images.put(key, img);
+        memory += getMemory(img);
+
+        return img;
+    }
+
+    /**
+     * Returns a sprite image for drawing.
+     *
+     * <p>
+     * The file is decoded through getImage, so it is decoded only once
+     * whichever of the two loads it first. Small sprites are copied to a
+     * shared atlas page and larger images get a region which covers the
+     * cached image.
+     *
+     * @param fileName Path to file.
+     * @return Region where the sprite is drawn from.
+     * @throws IOException If the file can not be read.
+     */
+    public static synchronized SpriteAtlas.Region getSprite(String fileName)
+            throws IOException {
+
+        String key = new File(fileName).getCanonicalPath();
+        SpriteAtlas.Region region = sprites.get(key);
+
+        if (region != null) {
+            hits++;
+            return region;
+        }
+
+        BufferedImage img = getImage(fileName);
+        region = pack(img);
+
+        if (region == null) {
+            region = new SpriteAtlas.Region(img);
+        }
+
+        sprites.put(key, region);
+        return region;
+    }
+
+    /**
+     * Reads an image file and converts it to screen compatible image.
+     *
+     * <p>
+     * The image is not cached.
+     *
+     * @param fileName Path to file.
+     * @return Screen compatible image.
+     * @throws IOException If the file can not be read.
+     */
+    public static BufferedImage readImage(String fileName) throws IOException {
+
+        BufferedImage img = ImageIO.read(new File(fileName));
+
+        if (img == null) {
+            throw new IOException("Unsupported image file: " + fileName);
+        }
+
+        return toCompatibleImage(img);
+    }
+
+    /**
+     * Converts the image to the image type of the screen.
+     *
+     * @param img Image to be converted.
+     * @return Converted image or the same image if it is already compatible.
+     */
+    public static BufferedImage toCompatibleImage(BufferedImage img) {
+
+        BufferedImage compatible = createImage(img.getWidth(),
+                img.getHeight(), img.getTransparency());
+
+        if (compatible.getColorModel().equals(img.getColorModel())) {
+            return img;
+        }
+
+        Graphics2D g = compatible.createGraphics();
+        g.drawImage(img, 0, 0, null);
+        g.dispose();
+
+        return compatible;
+    }
+
+    /**
+     * Returns the share of requests served from the cache.
+     *
+     * @return Hit rate between 0 and 1.
+     */
+    public static synchronized double getHitRate() {
+
+        int requests = hits + misses;
+        return requests == 0 ? 0 : hits / (double) requests;
+    }
+
+    /**
+     * Returns the estimated memory of the cached images and atlas pages.
+     *
+     * @return Memory in bytes.
+     */
+    public static synchronized long getMemoryUsage() {
+        return memory;
+    }
+
+    /**
+     * Returns cache statistics for debugging.
+     *
+     * @return Hit rate, memory and atlas usage as a string.
+     */
+    public static synchronized String getStatistics() {
+
+        int packed = 0;
+
+        for (SpriteAtlas atlas : atlases) {
+            packed += atlas.getSpriteAmount();
+        }
+
+        return String.format("Texture cache: %d hits, %d misses (%.1f %%), "
+                + "%d images, %d sprites in %d atlas pages, %d kB",
+                hits, misses, getHitRate() * 100, images.size(), packed,
+                atlases.size(), memory / 1024);
+    }
+
+    /**
+     * Packs a sprite to an atlas page.
+     *
+     * @param img Sprite image.
+     * @return Region of the sprite or null if it is too large for an atlas.
+     */
+    private static SpriteAtlas.Region pack(BufferedImage img) {
+
+        if (img.getWidth() > MAX_ATLAS_SPRITE
+                || img.getHeight() > MAX_ATLAS_SPRITE) {
+            return null;
+        }
+
+        for (SpriteAtlas atlas : atlases) {
+            SpriteAtlas.Region region = atlas.add(img);
+
+            if (region != null) {
+                return region;
+            }
+        }
+
+        SpriteAtlas atlas = new SpriteAtlas(createImage(ATLAS_SIZE,
+                ATLAS_SIZE, Transparency.TRANSLUCENT));
+
+        atlases.add(atlas);
+        memory += getMemory(atlas.getPage());
+
+        return atlas.add(img);
+    }
+
+    /**
+     * Creates an empty image with the image type of the screen.
+     *
+     * @param width Image width.
+     * @param height Image height.
+     * @param transparency Transparency mode from the Transparency class.
+     * @return Empty image.
+     */
+    private static BufferedImage createImage(int width, int height,
+            int transparency) {
+
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height,
+                    transparency == Transparency.OPAQUE
+                            ? BufferedImage.TYPE_INT_RGB
+                            : BufferedImage.TYPE_INT_ARGB);
+        }
+
+        GraphicsConfiguration gc = GraphicsEnvironment
+                .getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration();
+
+        return gc.createCompatibleImage(width, height, transparency);
+    }
+
+    /**
+     * Estimates the memory of the image.
+     *
+     * @param img Image.
+     * @return Memory in bytes.
+     */
+    private static long getMemory(BufferedImage img) {
+
+        return (long) img.getWidth() * img.getHeight()
+                * Math.max(1, img.getColorModel().getPixelSize() / 8);
+    }
+}
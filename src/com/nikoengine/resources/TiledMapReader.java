@@ -1,264 +1,697 @@
-package com.nikoengine.resources;
-
-import com.nikoengine.image.Image;
-import javax.xml.parsers.*;
-import org.xml.sax.*;
-import java.io.*;
-import org.w3c.dom.*;
-
-/**
- * Helper class for resource loading.
- *
- * @author Niko Mustonen mustonen.niko@gmail.com
- * @version 2016.1201
- * @since 1.8
- */
-public class TiledMapReader {
-
-    /**
-     * Defines xml attribute name for layer.
-     */
-    public static final String NODE_LAYER = "layer";
-
-    /**
-     * Defines xml attribute name for tile set.
-     */
-    public static final String NODE_TILESET = "tileset";
-
-    /**
-     * Defines xml attribute name for map data.
-     */
-    public static final String NODE_MAP_DATA = "data";
-
-    /**
-     * Defines xml attribute name for map width in tiles.
-     */
-    public static final String NODE_MAP_WIDTH = "width";
-
-    /**
-     * Defines xml attribute name for map height in tiles.
-     */
-    public static final String NODE_MAP_HEIGHT = "height";
-
-    /**
-     * Defines xml attribute name for one block width.
-     */
-    public static final String NODE_TILE_WIDTH = "tilewidth";
-
-    /**
-     * Defines xml attribute name for one block height.
-     */
-    public static final String NODE_TILE_HEIGHT = "tileheight";
-
-    /**
-     * Controls the layers and tiles of the TiledMAp instance.
-     *
-     * <p>
-     * First array holds all layers, second all the tile rows. Last array holds
-     * the tiles in corresponding row.
-     */
-    int[][][] layersAndBlocks;
-
-    /**
-     * Holds a width of one tile.
-     */
-    int tileWidth;
-
-    /**
-     * Holds a height of one tile.
-     */
-    int tileHeight;
-
-    /**
-     * Holds the tile set image used in tile map.
-     */
-    Image img;
-
-    /**
-     * Reads and converts tiled map file.
-     *
-     * @param tiledFile File reference to tiled map file.
-     * @return TiledMap instance which can be used to render tile map.
-     */
-    public TiledMap newTiledMap(File tiledFile) {
-
-        TiledMap tiledMap = null;
-
-        try {
-            DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-            DocumentBuilder db = dbf.newDocumentBuilder();
-            Document doc = db.parse(tiledFile);
-
-            NodeList n = doc.getChildNodes().item(0).getChildNodes(); //Map
-
-            layersAndBlocks = new int[getLayerAmount(n)][1][1];
-            setTileDimension(n);
-            findAndSetLayers(n);
-
-            img = getImage(n, tiledFile);
-
-            tiledMap = new TiledMap(layersAndBlocks, tileWidth,
-                    tileHeight, img);
-        } catch (ParserConfigurationException e) {
-            e.printStackTrace();
-        } catch (SAXException | IOException e) {
-            e.printStackTrace();
-        }
-
-        return tiledMap;
-    }
-
-    /**
-     * Converts tiled map file to Niko Engine format.
-     *
-     * @param n Node element list from the XML map file.
-     */
-    private void findAndSetLayers(NodeList n) {
-
-        int width = 0;
-        int height = 0;
-        int layerIndex = 0;
-
-        for (int i = 0; i < n.getLength(); i++) {
-
-            String nodeName = n.item(i).getNodeName();
-
-            if (nodeName.equals(NODE_LAYER)) {
-                NamedNodeMap layer = n.item(i).getAttributes();
-
-                for (int j = 0; j < layer.getLength(); j++) {
-
-                    switch (layer.item(j).getNodeName()) {
-                        case NODE_MAP_WIDTH:
-
-                            width = Integer.parseInt(layer.item(j).
-                                    getNodeValue());
-
-                            break;
-                        case NODE_MAP_HEIGHT:
-
-                            height = Integer.parseInt(layer.item(j).
-                                    getNodeValue());
-                            break;
-                    }
-                }
-
-                String s = n.item(i).getChildNodes().item(1).getFirstChild().
-                        getNodeValue();
-
-                String[] data = s.split(",");
-                int[][] map = convertDataToMap(data, width, height);
-                layersAndBlocks[layerIndex] = map;
-                layerIndex++;
-            }
-        }
-    }
-
-    /**
-     * Calculates the amount of layers in the tiled map file.
-     *
-     * @param n Node element list from the XML map file.
-     * @return Amount of layers.
-     */
-    private int getLayerAmount(NodeList n) {
-
-        int layers = 0;
-
-        for (int i = 0; i < n.getLength(); i++) {
-            String nodeName = n.item(i).getNodeName();
-
-            if (nodeName.equals(NODE_LAYER)) {
-                layers++;
-            }
-        }
-
-        return layers;
-    }
-
-    /**
-     * Converts tiled map file's tile data to two dimensional array.
-     *
-     * <p>
-     * This two dimensional array can be used for creating TiledMap instances.
-     *
-     * @param data Tiled map file's tile map data.
-     * @param width Horizontal blocks amount.
-     * @param height Vertical blocks amount.
-     * @return Converted two dimensional array.
-     */
-    private int[][] convertDataToMap(String[] data, int width, int height) {
-
-        int[][] map = new int[height][width];
-        int index = 0;
-
-        for (int i = 0; i < height; i++) {
-
-            for (int j = 0; j < width; j++) {
-
-                int v = (int) Integer.parseInt(data[index].trim());
-                map[i][j] = v;
-                index++;
-            }
-        }
-
-        return map;
-    }
-
-    /**
-     * Reads image file from the tiled map file and returns corresponding image.
-     *
-     * @param n Node element list from the XML map file.
-     * @param tiledFile File reference to tiled map file.
-     * @return Tile set image that is used when tiled map file was created.
-     */
-    private Image getImage(NodeList n, File tiledFile) {
-
-        for (int i = 0; i < n.getLength(); i++) {
-
-            if (n.item(i).getNodeName().equals(NODE_TILESET)) {
-
-                for (int j = 0; j < n.item(i).getChildNodes().getLength();
-                        j++) {
-
-                    String path = n.item(1).getChildNodes().item(1).
-                            getAttributes().item(1).getNodeValue();
-
-                    if (path != null) {
-                        return new Image(tiledFile.getParent()
-                                + "/" + path, 0, 0);
-                    }
-                }
-            }
-        }
-
-        return null;
-    }
-
-    /**
-     * Sets tile dimension for the TiledMap instance.
-     *
-     * @param n Node element list from the XML map file.
-     */
-    private void setTileDimension(NodeList n) {
-
-        for (int i = 0; i < n.getLength(); i++) {
-
-            if (n.item(i).getNodeName().equals(NODE_TILESET)) {
-
-                for (int j = 0; j < n.item(i).getAttributes().getLength();
-                        j++) {
-
-                    Node attribute = n.item(i).getAttributes().item(j);
-
-                    if (attribute.getNodeName().equals(NODE_TILE_WIDTH)) {
-                        tileWidth = Integer.parseInt(attribute.getNodeValue());
-                    }
-
-                    if (attribute.getNodeName().equals(NODE_TILE_HEIGHT)) {
-                        tileHeight = Integer.parseInt(attribute.getNodeValue());
-                    }
-                }
-            }
-        }
-    }
-}
+package com.nikoengine.resources;
+
+import com.nikoengine.image.Image;
+import java.io.*;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.concurrent.CompletionException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import javax.xml.stream.*;
+
+/**
+ * Helper class for resource loading.
+ *
+ * <p>
+ * Tiled map files are read with a streaming StAX parser. Tile data is parsed
+ * straight from the XML text into primitive arrays, so the map is never held
+ * in memory as a DOM tree or as an array of strings. CSV, base64, zlib and
+ * gzip encoded layers are supported.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class TiledMapReader {
+
+    /**
+     * Defines xml attribute name for layer.
+     */
+    public static final String NODE_LAYER = "layer";
+
+    /**
+     * Defines xml attribute name for tile set.
+     */
+    public static final String NODE_TILESET = "tileset";
+
+    /**
+     * Defines xml attribute name for map data.
+     */
+    public static final String NODE_MAP_DATA = "data";
+
+    /**
+     * Defines xml attribute name for map width in tiles.
+     */
+    public static final String NODE_MAP_WIDTH = "width";
+
+    /**
+     * Defines xml attribute name for map height in tiles.
+     */
+    public static final String NODE_MAP_HEIGHT = "height";
+
+    /**
+     * Defines xml attribute name for one block width.
+     */
+    public static final String NODE_TILE_WIDTH = "tilewidth";
+
+    /**
+     * Defines xml attribute name for one block height.
+     */
+    public static final String NODE_TILE_HEIGHT = "tileheight";
+
+    /**
+     * Defines xml node name for tile set image.
+     */
+    public static final String NODE_IMAGE = "image";
+
+    /**
+     * Defines xml node name for a single tile in xml encoded map data.
+     */
+    public static final String NODE_TILE = "tile";
+
+    /**
+     * Masks away the flipping flags Tiled stores in the highest bits.
+     */
+    private static final long GID_MASK = 0x1FFFFFFFL;
+
+    /**
+     * Holds a width of one tile.
+     */
+    int tileWidth;
+
+    /**
+     * Holds a height of one tile.
+     */
+    int tileHeight;
+
+    /**
+     * Holds the map width in tiles.
+     */
+    int mapWidth;
+
+    /**
+     * Holds the map height in tiles.
+     */
+    int mapHeight;
+
+    /**
+     * Holds the amount of layers found in the map file.
+     */
+    int layerAmount;
+
+    /**
+     * Holds the path to the tile set image relative to the map file.
+     */
+    String imageSource;
+
+    /**
+     * Receives parsed tiles while the map file is streamed.
+     *
+     * <p>
+     * Tiles are given one by one in row order, so the receiver can decide
+     * which of them are worth storing.
+     */
+    interface TileReceiver {
+
+        /**
+         * Is called when a new layer starts.
+         *
+         * @param layerIndex Index of the layer.
+         * @param width Layer width in tiles.
+         * @param height Layer height in tiles.
+         */
+        void newLayer(int layerIndex, int width, int height);
+
+        /**
+         * Is called for every tile in the layer.
+         *
+         * @param layerIndex Index of the layer.
+         * @param x Tile column.
+         * @param y Tile row.
+         * @param gid Tile set index of the tile, zero for empty tile.
+         */
+        void tile(int layerIndex, int x, int y, int gid);
+    }
+
+    /**
+     * Reads and converts tiled map file.
+     *
+     * <p>
+     * Tiles are loaded from the binary asset cache when the cached copy is up
+     * to date with the map file.
+     *
+     * @param tiledFile File reference to tiled map file.
+     * @return TiledMap instance which can be used to render tile map.
+     */
+    public TiledMap newTiledMap(File tiledFile) {
+
+        TiledMap tiledMap = null;
+        int[][][] cached = AssetCache.loadTiledMap(tiledFile, this);
+
+        if (cached != null) {
+            return new TiledMap(cached, tileWidth, tileHeight,
+                    getImage(tiledFile));
+        }
+
+        final ArrayList<int[][]> layers = new ArrayList<>();
+
+        try {
+            readMap(tiledFile, new TileReceiver() {
+
+                int[][] layer;
+
+                @Override
+                public void newLayer(int layerIndex, int width, int height) {
+                    layer = new int[height][width];
+                    layers.add(layer);
+                }
+
+                @Override
+                public void tile(int layerIndex, int x, int y, int gid) {
+                    layer[y][x] = gid;
+                }
+            });
+
+            int[][][] layersAndBlocks = layers.toArray(
+                    new int[layers.size()][][]);
+
+            AssetCache.storeTiledMap(tiledFile, this, layersAndBlocks);
+            tiledMap = new TiledMap(layersAndBlocks, tileWidth, tileHeight,
+                    getImage(tiledFile));
+        } catch (XMLStreamException | IOException e) {
+            e.printStackTrace();
+        }
+
+        return tiledMap;
+    }
+
+    /**
+     * Reads the tiled map file header and returns a map which loads its tiles
+     * in chunks when a camera gets close to them.
+     *
+     * <p>
+     * The map file is parsed here once and the tiles of every layer are
+     * decoded into a memory mapped temporary file in row order. Chunks are
+     * copied from the mapped tiles when they are needed, so the tiles are
+     * not held in the heap and the map file is never parsed again.
+     *
+     * @param tiledFile File reference to tiled map file.
+     * @param chunkSize Width and height of one chunk in tiles.
+     * @return ChunkedTiledMap instance or null if the file could not be read.
+     */
+    public ChunkedTiledMap newChunkedTiledMap(File tiledFile, int chunkSize) {
+
+        ChunkedTiledMap tiledMap = null;
+
+        try {
+            readMap(tiledFile, null);
+
+            final int width = mapWidth;
+            final int height = mapHeight;
+            final IntBuffer tiles = mapTiles(4L * layerAmount * width
+                    * height);
+
+            readMap(tiledFile, new TileReceiver() {
+
+                @Override
+                public void newLayer(int layerIndex, int layerWidth,
+                        int layerHeight) {
+                }
+
+                @Override
+                public void tile(int layerIndex, int x, int y, int gid) {
+
+                    if (x < width && y < height) {
+                        tiles.put((layerIndex * height + y) * width + x, gid);
+                    }
+                }
+            });
+
+            tiledMap = new ChunkedTiledMap(tiles, mapWidth, mapHeight,
+                    layerAmount, tileWidth, tileHeight, chunkSize,
+                    getImage(tiledFile));
+        } catch (XMLStreamException | IOException e) {
+            e.printStackTrace();
+        }
+
+        return tiledMap;
+    }
+
+    /**
+     * Maps a temporary file for decoded tiles.
+     *
+     * <p>
+     * The file is deleted when the program exits. The mapping stays valid
+     * after the channel is closed.
+     *
+     * @param size Size of the file in bytes.
+     * @return Tiles of the file, all empty.
+     * @throws IOException If the file can not be created or is over two
+     * gigabytes.
+     */
+    private static IntBuffer mapTiles(long size) throws IOException {
+
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Tiled map is too large to be chunked");
+        }
+
+        File file = File.createTempFile("tiles", ".bin");
+        file.deleteOnExit();
+
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size)
+                    .order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+    }
+
+    /**
+     * Streams the tiled map file and passes all tiles to the receiver.
+     *
+     * <p>
+     * If the receiver is null the tile data is skipped without decoding and
+     * only the map header is read.
+     *
+     * @param tiledFile File reference to tiled map file.
+     * @param receiver Receiver for the tiles or null.
+     * @throws XMLStreamException If the file is not valid XML.
+     * @throws IOException If the file or its layer data can not be read.
+     */
+    void readMap(File tiledFile, TileReceiver receiver)
+            throws XMLStreamException, IOException {
+
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+
+        layerAmount = 0;
+        imageSource = null;
+        boolean isTileSetRead = false;
+        int layerWidth = 0;
+        int layerHeight = 0;
+
+        try (InputStream in = new BufferedInputStream(
+                new FileInputStream(tiledFile))) {
+
+            XMLStreamReader xml = factory.createXMLStreamReader(in);
+
+            try {
+                while (xml.hasNext()) {
+
+                    if (xml.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+
+                    switch (xml.getLocalName()) {
+                        case "map":
+                            mapWidth = getInt(xml, NODE_MAP_WIDTH);
+                            mapHeight = getInt(xml, NODE_MAP_HEIGHT);
+                            break;
+                        case NODE_TILESET:
+
+                            if (!isTileSetRead) {
+                                tileWidth = getInt(xml, NODE_TILE_WIDTH);
+                                tileHeight = getInt(xml, NODE_TILE_HEIGHT);
+                            }
+
+                            break;
+                        case NODE_IMAGE:
+
+                            if (!isTileSetRead) {
+                                imageSource = xml.getAttributeValue(null,
+                                        "source");
+                                isTileSetRead = true;
+                            }
+
+                            break;
+                        case NODE_LAYER:
+                            layerWidth = getInt(xml, NODE_MAP_WIDTH);
+                            layerHeight = getInt(xml, NODE_MAP_HEIGHT);
+
+                            if (receiver != null) {
+                                receiver.newLayer(layerAmount, layerWidth,
+                                        layerHeight);
+                            }
+
+                            break;
+                        case NODE_MAP_DATA:
+
+                            if (receiver != null) {
+                                readLayerData(xml, receiver, layerAmount,
+                                        layerWidth, layerHeight);
+                            }
+
+                            layerAmount++;
+                            break;
+                    }
+                }
+            } finally {
+                xml.close();
+            }
+        }
+    }
+
+    /**
+     * Reads one layers data element in the encoding it was saved with.
+     *
+     * @param xml Stream positioned at the start of the data element.
+     * @param receiver Receiver for the tiles.
+     * @param layer Index of the layer.
+     * @param width Layer width in tiles.
+     * @param height Layer height in tiles.
+     * @throws XMLStreamException If the file is not valid XML.
+     * @throws IOException If the layer data can not be decoded.
+     */
+    private void readLayerData(XMLStreamReader xml, TileReceiver receiver,
+            int layer, int width, int height)
+            throws XMLStreamException, IOException {
+
+        String encoding = xml.getAttributeValue(null, "encoding");
+        String compression = xml.getAttributeValue(null, "compression");
+
+        if (encoding == null) {
+            readXmlData(xml, receiver, layer, width, height);
+        } else if (encoding.equals("csv")) {
+            readCsvData(xml, receiver, layer, width, height);
+        } else if (encoding.equals("base64")) {
+            readBase64Data(xml, receiver, layer, width, height, compression);
+        } else {
+            throw new IOException("Unsupported layer encoding: " + encoding);
+        }
+    }
+
+    /**
+     * Parses comma separated tile data directly from the XML text buffer.
+     *
+     * <p>
+     * Digits are accumulated straight from the parsers character array so no
+     * strings are created for the tiles.
+     *
+     * @param xml Stream positioned at the start of the data element.
+     * @param receiver Receiver for the tiles.
+     * @param layer Index of the layer.
+     * @param width Layer width in tiles.
+     * @param height Layer height in tiles.
+     * @throws XMLStreamException If the file is not valid XML.
+     */
+    private void readCsvData(XMLStreamReader xml, TileReceiver receiver,
+            int layer, int width, int height) throws XMLStreamException {
+
+        int index = 0;
+        int size = width * height;
+        long value = 0;
+        boolean isInNumber = false;
+
+        while (xml.next() != XMLStreamConstants.END_ELEMENT) {
+
+            if (!xml.isCharacters()) {
+                continue;
+            }
+
+            char[] chars = xml.getTextCharacters();
+            int end = xml.getTextStart() + xml.getTextLength();
+
+            for (int i = xml.getTextStart(); i < end; i++) {
+                char c = chars[i];
+
+                if (c >= '0' && c <= '9') {
+                    value = value * 10 + (c - '0');
+                    isInNumber = true;
+                } else if (isInNumber) {
+
+                    if (index < size) {
+                        receiver.tile(layer, index % width, index / width,
+                                (int) (value & GID_MASK));
+                    }
+
+                    index++;
+                    value = 0;
+                    isInNumber = false;
+                }
+            }
+        }
+
+        if (isInNumber && index < size) {
+            receiver.tile(layer, index % width, index / width,
+                    (int) (value & GID_MASK));
+        }
+    }
+
+    /**
+     * Decodes base64 tile data which may also be zlib or gzip compressed.
+     *
+     * <p>
+     * Tiles are stored as little endian unsigned 32 bit integers. Decoding is
+     * done with streams straight from the XML text, so neither the text nor
+     * the decoded map is ever held as an array.
+     *
+     * @param xml Stream positioned at the start of the data element.
+     * @param receiver Receiver for the tiles.
+     * @param layer Index of the layer.
+     * @param width Layer width in tiles.
+     * @param height Layer height in tiles.
+     * @param compression Compression of the data or null.
+     * @throws XMLStreamException If the file is not valid XML.
+     * @throws IOException If the data can not be decoded.
+     */
+    private void readBase64Data(XMLStreamReader xml, TileReceiver receiver,
+            int layer, int width, int height, String compression)
+            throws XMLStreamException, IOException {
+
+        InputStream in = Base64.getMimeDecoder().wrap(
+                new XmlTextInputStream(xml));
+
+        if (compression == null) {
+            in = new BufferedInputStream(in);
+        } else if (compression.equals("zlib")) {
+            in = new InflaterInputStream(in);
+        } else if (compression.equals("gzip")) {
+            in = new GZIPInputStream(in);
+        } else {
+            throw new IOException("Unsupported compression: " + compression);
+        }
+
+        try (InputStream data = in) {
+            byte[] buffer = new byte[4096];
+            int size = width * height;
+            int index = 0;
+            int filled = 0;
+            int read;
+
+            while (index < size
+                    && (read = data.read(buffer, filled,
+                            buffer.length - filled)) != -1) {
+
+                filled += read;
+                int i = 0;
+
+                for (; i + 3 < filled && index < size; i += 4) {
+                    long gid = (buffer[i] & 0xFFL)
+                            | (buffer[i + 1] & 0xFFL) << 8
+                            | (buffer[i + 2] & 0xFFL) << 16
+                            | (buffer[i + 3] & 0xFFL) << 24;
+
+                    receiver.tile(layer, index % width, index / width,
+                            (int) (gid & GID_MASK));
+                    index++;
+                }
+
+                System.arraycopy(buffer, i, buffer, 0, filled - i);
+                filled -= i;
+            }
+        }
+    }
+
+    /**
+     * Reads tile data saved as separate tile elements.
+     *
+     * @param xml Stream positioned at the start of the data element.
+     * @param receiver Receiver for the tiles.
+     * @param layer Index of the layer.
+     * @param width Layer width in tiles.
+     * @param height Layer height in tiles.
+     * @throws XMLStreamException If the file is not valid XML.
+     */
+    private void readXmlData(XMLStreamReader xml, TileReceiver receiver,
+            int layer, int width, int height) throws XMLStreamException {
+
+        int index = 0;
+        int size = width * height;
+        int event;
+
+        while ((event = xml.next()) != XMLStreamConstants.END_ELEMENT
+                || !xml.getLocalName().equals(NODE_MAP_DATA)) {
+
+            if (event == XMLStreamConstants.START_ELEMENT
+                    && xml.getLocalName().equals(NODE_TILE)) {
+
+                String gid = xml.getAttributeValue(null, "gid");
+
+                if (index < size) {
+                    receiver.tile(layer, index % width, index / width,
+                            gid == null ? 0
+                                    : (int) (Long.parseLong(gid) & GID_MASK));
+                }
+
+                index++;
+            }
+        }
+    }
+
+    /**
+     * Returns an integer attribute from the current element.
+     *
+     * @param xml Stream positioned at the start of an element.
+     * @param name Attribute name.
+     * @return Attribute value or zero if it is missing.
+     */
+    private static int getInt(XMLStreamReader xml, String name) {
+
+        String value = xml.getAttributeValue(null, name);
+        return value == null ? 0 : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Returns the tile set image found from the tiled map file.
+     *
+     * <p>
+     * The image is loaded with the default asset manager and stays reserved
+     * for the map.
+     *
+     * @param tiledFile File reference to tiled map file.
+     * @return Tile set image that is used when tiled map file was created.
+     */
+    private Image getImage(File tiledFile) {
+
+        if (imageSource != null) {
+
+            try {
+                return new Image(AssetManager.getDefault().loadImage(
+                        tiledFile.getParent() + "/" + imageSource).join(),
+                        0, 0);
+            } catch (CompletionException e) {
+                e.getCause().printStackTrace();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Feeds the characters of the base64 text to the decoder as bytes
+     * straight from the XML stream.
+     *
+     * <p>
+     * Base64 text is plain ASCII, so the text is never copied. The decoder
+     * skips the line breaks and indentation around it. Closing the stream
+     * skips the rest of the data element.
+     *
+     * @author Niko Mustonen mustonen.niko@gmail.com
+     * @version 2026.1019
+     * @since 1.8
+     */
+    private static class XmlTextInputStream extends InputStream {
+
+        /**
+         * Holds the XML stream inside the data element.
+         */
+        private final XMLStreamReader xml;
+
+        /**
+         * Holds the characters of the current text event.
+         */
+        private char[] text;
+
+        /**
+         * Holds the index of the next character.
+         */
+        private int position;
+
+        /**
+         * Holds the index after the last character of the text event.
+         */
+        private int end;
+
+        /**
+         * Tells whether the end of the data element has been reached.
+         */
+        private boolean isEnded;
+
+        /**
+         * Creates a new stream over the text of the current element.
+         *
+         * @param xml Stream positioned at the start of the element.
+         */
+        XmlTextInputStream(XMLStreamReader xml) {
+            this.xml = xml;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return fill() ? text[position++] : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+
+            if (len == 0) {
+                return 0;
+            }
+
+            if (!fill()) {
+                return -1;
+            }
+
+            int n = Math.min(len, end - position);
+
+            for (int i = 0; i < n; i++) {
+                b[off + i] = (byte) text[position++];
+            }
+
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+
+            while (fill()) {
+                position = end;
+            }
+        }
+
+        /**
+         * Moves to the next text event when the current one has been read.
+         *
+         * @return False if the end of the element has been reached.
+         * @throws IOException If the file is not valid XML.
+         */
+        private boolean fill() throws IOException {
+
+            try {
+
+                while (position == end) {
+
+                    if (isEnded) {
+                        return false;
+                    }
+
+                    if (xml.next() == XMLStreamConstants.END_ELEMENT) {
+                        isEnded = true;
+                    } else if (xml.isCharacters()) {
+                        text = xml.getTextCharacters();
+                        position = xml.getTextStart();
+                        end = position + xml.getTextLength();
+                    }
+                }
+
+                return true;
+            } catch (XMLStreamException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+}
@@ -1,50 +1,88 @@
-package com.nikoengine.screen;
-
-import java.awt.*;
-import java.awt.event.*;
-
-/**
- * Base class for all the different states in the game.
- *
- * <p>
- * By extending this class the developer can create a visual updateable screen
- * to be inserted into the Niko Engines core. Niko Engine calls automatically
- * all the methods in this class. All the key listening methods are called
- * automatically if input listening is started in the Application class.
- *
- * @author Niko Mustonen mustonen.niko@gmail.com
- * @version 2016.1122
- * @since 1.8
- */
-public abstract class Screen {
-
-    /**
-     * Draws the screen.
-     */
-    public abstract void draw(Graphics2D g);
-
-    /**
-     * Updates screen.
-     */
-    public abstract void update(float delta);
-
-    /**
-     * Handles key pressing on the screen.
-     */
-    public abstract void keyPress(KeyEvent e);
-
-    /**
-     * Handles key releasing on the screen.
-     */
-    public abstract void keyRelease(KeyEvent e);
-
-    /**
-     * Handles mouse pressing on the screen.
-     */
-    public abstract void mousePress(MouseEvent e);
-
-    /**
-     * Handles mouse releasing on the screen.
-     */
-    public abstract void mouseRelease(MouseEvent e);
-}
+package com.nikoengine.screen;
+
+import java.awt.*;
+import java.awt.event.*;
+
+import com.nikoengine.util.InputListener;
+
+/**
+ * Base class for all the different states in the game.
+ *
+ * <p>
+ * By extending this class the developer can create a visual updateable screen
+ * to be inserted into the Niko Engines core. Niko Engine calls automatically
+ * all the methods in this class. All the key listening methods are called
+ * automatically if input listening is started in the Application class.
+ * Keys which are held down can also be polled with isKeyDown during update.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2016.1122
+ * @since 1.8
+ */
+public abstract class Screen {
+
+    /**
+     * Holds the input listener which gives input to this screen.
+     */
+    private InputListener inputListener;
+
+    /**
+     * Draws the screen.
+     */
+    public abstract void draw(Graphics2D g);
+
+    /**
+     * Updates screen.
+     */
+    public abstract void update(float delta);
+
+    /**
+     * Handles key pressing on the screen.
+     */
+    public abstract void keyPress(KeyEvent e);
+
+    /**
+     * Handles key releasing on the screen.
+     */
+    public abstract void keyRelease(KeyEvent e);
+
+    /**
+     * Handles mouse pressing on the screen.
+     */
+    public abstract void mousePress(MouseEvent e);
+
+    /**
+     * Handles mouse releasing on the screen.
+     */
+    public abstract void mouseRelease(MouseEvent e);
+
+    /**
+     * Sets the input listener which gives input to this screen.
+     *
+     * @param inputListener Input listener.
+     */
+    public final void setInputListener(InputListener inputListener) {
+        this.inputListener = inputListener;
+    }
+
+    /**
+     * Tells whether a key is down on this tick.
+     *
+     * @param keyCode Key code from KeyEvent.
+     * @return Whether the key is down.
+     */
+    protected final boolean isKeyDown(int keyCode) {
+        return inputListener != null && inputListener.isKeyDown(keyCode);
+    }
+
+    /**
+     * Tells whether a mouse button is down on this tick.
+     *
+     * @param button Button from MouseEvent.
+     * @return Whether the button is down.
+     */
+    protected final boolean isMouseButtonDown(int button) {
+        return inputListener != null
+                && inputListener.isMouseButtonDown(button);
+    }
+}
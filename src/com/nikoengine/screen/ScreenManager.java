@@ -0,0 +1,313 @@
+package com.nikoengine.screen;
+
+import com.nikoengine.camera.Scene;
+import java.awt.Graphics2D;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a stack of screens and changes between them without pausing the game.
+ *
+ * <p>
+ * Only the screen on top of the stack is updated and drawn. New screens are
+ * created on a background thread into a scene of their own while the current
+ * screen keeps running. Transitions are done in the order they were requested
+ * at the beginning of a tick once the screens they need have been created.
+ * All the methods must be called on the game thread.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class ScreenManager {
+
+    /**
+     * Defines a transition which adds a screen on top of the stack.
+     */
+    private static final int PUSH = 0;
+
+    /**
+     * Defines a transition which removes the screen on top of the stack.
+     */
+    private static final int POP = 1;
+
+    /**
+     * Defines a transition which replaces the screen on top of the stack.
+     */
+    private static final int REPLACE = 2;
+
+    /**
+     * Holds the screens and their scenes, topmost last.
+     */
+    private final ArrayList<Entry> stack = new ArrayList<>();
+
+    /**
+     * Holds the transitions which are not done yet.
+     */
+    private final ArrayDeque<Transition> transitions = new ArrayDeque<>();
+
+    /**
+     * Creates the screens one at a time.
+     */
+    private ExecutorService loader;
+
+    /**
+     * Holds a screen and the scene of its polygons.
+     *
+     * @author Niko Mustonen mustonen.niko@gmail.com
+     * @version 2026.1019
+     * @since 1.8
+     */
+    private static class Entry {
+
+        /**
+         * Holds the screen.
+         */
+        final Screen screen;
+
+        /**
+         * Holds the scene where the screen adds its polygons.
+         */
+        final Scene scene;
+
+        /**
+         * Creates an entry.
+         *
+         * @param screen Screen.
+         * @param scene Scene of the screen.
+         */
+        Entry(Screen screen, Scene scene) {
+            this.screen = screen;
+            this.scene = scene;
+        }
+    }
+
+    /**
+     * Holds a requested transition.
+     *
+     * @author Niko Mustonen mustonen.niko@gmail.com
+     * @version 2026.1019
+     * @since 1.8
+     */
+    private static class Transition {
+
+        /**
+         * Holds the type of the transition.
+         */
+        final int type;
+
+        /**
+         * Completes when the new screen has been created or is null.
+         */
+        final CompletableFuture<Entry> entry;
+
+        /**
+         * Creates a transition.
+         *
+         * @param type Type of the transition.
+         * @param entry New screen or null.
+         */
+        Transition(int type, CompletableFuture<Entry> entry) {
+            this.type = type;
+            this.entry = entry;
+        }
+    }
+
+    /**
+     * Creates a screen on a background thread and puts it on top of the
+     * stack.
+     *
+     * @param factory Creates the screen and loads its assets.
+     * @return Future which completes when the screen has been created.
+     */
+    public CompletableFuture<Screen> push(Supplier<? extends Screen> factory) {
+        return request(PUSH, factory);
+    }
+
+    /**
+     * Creates a screen on a background thread and replaces the screen on top
+     * of the stack with it.
+     *
+     * @param factory Creates the screen and loads its assets.
+     * @return Future which completes when the screen has been created.
+     */
+    public CompletableFuture<Screen> replace(
+            Supplier<? extends Screen> factory) {
+
+        return request(REPLACE, factory);
+    }
+
+    /**
+     * Removes the screen on top of the stack after the transitions requested
+     * before it.
+     */
+    public void pop() {
+        transitions.add(new Transition(POP, null));
+    }
+
+    /**
+     * Does the transitions whose screens have been created.
+     *
+     * <p>
+     * Is called at the beginning of every tick. A screen which could not be
+     * created is skipped.
+     *
+     * @return Whether the screen on top of the stack changed.
+     */
+    public boolean applyTransitions() {
+
+        Screen before = getCurrentScreen();
+
+        while (!transitions.isEmpty()) {
+            Transition t = transitions.peek();
+
+            if (t.entry != null && !t.entry.isDone()) {
+                break;
+            }
+
+            transitions.poll();
+            Entry next = null;
+
+            if (t.entry != null) {
+
+                try {
+                    next = t.entry.join();
+                } catch (CompletionException e) {
+                    e.getCause().printStackTrace();
+                    continue;
+                }
+            }
+
+            if (t.type != PUSH && !stack.isEmpty()) {
+                stack.remove(stack.size() - 1);
+            }
+
+            if (next != null) {
+                stack.add(next);
+            }
+        }
+
+        return getCurrentScreen() != before;
+    }
+
+    /**
+     * Returns the screen on top of the stack.
+     *
+     * @return Current screen or null if the stack is empty.
+     */
+    public Screen getCurrentScreen() {
+        return stack.isEmpty() ? null : stack.get(stack.size() - 1).screen;
+    }
+
+    /**
+     * Tells whether a requested screen is still being created.
+     *
+     * @return Whether there are transitions waiting.
+     */
+    public boolean isLoading() {
+        return !transitions.isEmpty();
+    }
+
+    /**
+     * Updates the screen on top of the stack.
+     *
+     * @param delta Delta time.
+     */
+    public void update(float delta) {
+
+        if (!stack.isEmpty()) {
+            Entry top = stack.get(stack.size() - 1);
+            Scene.setCurrent(top.scene);
+
+            try {
+                top.screen.update(delta);
+            } finally {
+                Scene.setCurrent(null);
+            }
+        }
+    }
+
+    /**
+     * Runs work with the scene of the screen on top of the stack.
+     *
+     * <p>
+     * Is used for the work of the screen which is done outside update and
+     * draw, like handling input events, so polygons created there are added
+     * to the scene of the screen.
+     *
+     * @param work Work to be run.
+     */
+    public void runInScene(Runnable work) {
+
+        if (stack.isEmpty()) {
+            work.run();
+            return;
+        }
+
+        Scene.setCurrent(stack.get(stack.size() - 1).scene);
+
+        try {
+            work.run();
+        } finally {
+            Scene.setCurrent(null);
+        }
+    }
+
+    /**
+     * Draws the screen on top of the stack.
+     *
+     * @param g Graphics element for drawing.
+     */
+    public void draw(Graphics2D g) {
+
+        if (!stack.isEmpty()) {
+            Entry top = stack.get(stack.size() - 1);
+            Scene.setCurrent(top.scene);
+
+            try {
+                top.screen.draw(g);
+            } finally {
+                Scene.setCurrent(null);
+            }
+        }
+    }
+
+    /**
+     * Starts creating a screen and queues the transition.
+     *
+     * @param type Type of the transition.
+     * @param factory Creates the screen.
+     * @return Future which completes when the screen has been created.
+     */
+    private CompletableFuture<Screen> request(int type,
+            Supplier<? extends Screen> factory) {
+
+        if (loader == null) {
+            loader = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "ScreenLoader");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        CompletableFuture<Entry> entry = CompletableFuture.supplyAsync(() -> {
+            Scene scene = new Scene();
+            Scene.setCurrent(scene);
+
+            try {
+                return new Entry(factory.get(), scene);
+            } finally {
+                Scene.setCurrent(null);
+            }
+        }, loader);
+
+        transitions.add(new Transition(type, entry));
+
+        return entry.thenApply(e -> e.screen);
+    }
+}
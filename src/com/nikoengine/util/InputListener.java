@@ -1,123 +1,398 @@
-package com.nikoengine.util;
-
-import java.awt.event.*;
-import javax.swing.*;
-
-import com.nikoengine.screen.*;
-
-/**
- * Simplified input handling class.
- *
- * <p>
- * This class encapsulates Java´s KeyListener and MouseListener classes so that
- * the developer can only insert an instance of this class to Application. This
- * class works as follows. Developer inserts a instance of a Screen class to
- * this InputListener. This InputListener then calls that Screen classes input
- * handling methods.
- *
- * @author Niko Mustonen mustonen.niko@gmail.com
- * @version 2016.1123
- * @since 1.8
- */
-public class InputListener {
-
-    /**
-     * Holds currently drawn and updated screen.
-     */
-    private Screen currentScreen;
-
-    /**
-     * Creates new InputListener.
-     *
-     * @param panel Panel where this input listener is set.
-     */
-    public InputListener(JPanel panel) {
-        panel.addMouseListener(new MouseInput());
-        panel.addKeyListener(new KeyInput());
-    }
-
-    /**
-     * Encapsulated MouseListener.
-     *
-     * <p>
-     * Calls current screen´s input methods.
-     *
-     * @author Niko Mustonen mustonen.niko@gmail.com
-     * @version 2016.1123
-     * @since 1.8
-     */
-    private class MouseInput implements MouseListener {
-
-        @Override
-        public void mouseClicked(MouseEvent e) {
-
-        }
-
-        @Override
-        public void mousePressed(MouseEvent e) {
-            currentScreen.mousePress(e);
-        }
-
-        @Override
-        public void mouseReleased(MouseEvent e) {
-            currentScreen.mouseRelease(e);
-        }
-
-        @Override
-        public void mouseEntered(MouseEvent e) {
-
-        }
-
-        @Override
-        public void mouseExited(MouseEvent e) {
-
-        }
-    }
-
-    /**
-     * Encapsulated KeyListener.
-     *
-     * <p>
-     * Calls current screen´s input methods.
-     *
-     * @author Niko Mustonen mustonen.niko@gmail.com
-     * @version 2016.1123
-     * @since 1.8
-     */
-    private class KeyInput implements KeyListener {
-
-        @Override
-        public void keyTyped(KeyEvent e) {
-
-        }
-
-        @Override
-        public void keyPressed(KeyEvent e) {
-            currentScreen.keyPress(e);
-        }
-
-        @Override
-        public void keyReleased(KeyEvent e) {
-            currentScreen.keyRelease(e);
-        }
-    }
-
-    /**
-     * Sets the InputListener to desired JPanel.
-     *
-     * @param panel JPanel to be setted on.
-     */
-    public final void setThisInputListenerToJPanel(JPanel panel) {
-        panel.addMouseListener(new MouseInput());
-        panel.addKeyListener(new KeyInput());
-    }
-
-    /**
-     * Sets current screen to be handled.
-     *
-     * @param newScreen New Screen element.
-     */
-    public final void setCurrentScreen(Screen newScreen) {
-        this.currentScreen = newScreen;
-    }
-}
+package com.nikoengine.util;
+
+import java.awt.event.*;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.*;
+
+import com.nikoengine.screen.*;
+
+/**
+ * Simplified input handling class.
+ *
+ * <p>
+ * This class encapsulates Java´s KeyListener and MouseListener classes so that
+ * the developer can only insert an instance of this class to Application. This
+ * class works as follows. Developer inserts a instance of a Screen class to
+ * this InputListener. This InputListener then calls that Screen classes input
+ * handling methods.
+ *
+ * <p>
+ * Events are not handled on the event dispatch thread. They are put into a
+ * queue and the game loop gives them to the screen at the beginning of the
+ * next tick, so input and updating never run at the same time. The state of
+ * every key and mouse button is kept up to date on the same tick and can be
+ * polled from Screen.isKeyDown. Events can be recorded with an
+ * InputRecorder.
+ *
+ * <p>
+ * If the queue is full, the events which do not fit are dropped and all keys
+ * and mouse buttons are released on the next tick, so a dropped release
+ * never leaves a key down.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class InputListener {
+
+    /**
+     * Defines how many events can wait for the next tick.
+     */
+    private static final int QUEUE_CAPACITY = 1024;
+
+    /**
+     * Defines the amount of key codes which have a state.
+     */
+    private static final int KEY_CODES = 0x10000;
+
+    /**
+     * Holds currently drawn and updated screen.
+     */
+    private Screen currentScreen;
+
+    /**
+     * Passes the events from the event dispatch thread to the game loop.
+     */
+    private final InputQueue queue = new InputQueue(QUEUE_CAPACITY);
+
+    /**
+     * Tells whether events were dropped because the queue was full.
+     */
+    private final AtomicBoolean isOverflowed = new AtomicBoolean();
+
+    /**
+     * Holds one bit for every key which is down.
+     */
+    private final long[] keys = new long[KEY_CODES / 64];
+
+    /**
+     * Holds one bit for every mouse button which is down.
+     */
+    private int mouseButtons;
+
+    /**
+     * Holds the tick whose events are handled.
+     */
+    private long tick;
+
+    /**
+     * Records the events or is null.
+     */
+    private volatile InputRecorder recorder;
+
+    /**
+     * Handles the events taken from the queue.
+     */
+    private final InputQueue.EventReceiver handler = this::handle;
+
+    /**
+     * Creates new InputListener.
+     *
+     * @param panel Panel where this input listener is set.
+     */
+    public InputListener(JPanel panel) {
+        panel.addMouseListener(new MouseInput());
+        panel.addKeyListener(new KeyInput());
+    }
+
+    /**
+     * Creates new InputListener which gets events only from InputReplay.
+     */
+    InputListener() {
+    }
+
+    /**
+     * Encapsulated MouseListener.
+     *
+     * <p>
+     * Queues the events for current screen´s input methods.
+     *
+     * @author Niko Mustonen mustonen.niko@gmail.com
+     * @version 2016.1123
+     * @since 1.8
+     */
+    private class MouseInput implements MouseListener {
+
+        @Override
+        public void mouseClicked(MouseEvent e) {
+
+        }
+
+        @Override
+        public void mousePressed(MouseEvent e) {
+            enqueue(InputRecorder.MOUSE_PRESS, e);
+        }
+
+        @Override
+        public void mouseReleased(MouseEvent e) {
+            enqueue(InputRecorder.MOUSE_RELEASE, e);
+        }
+
+        @Override
+        public void mouseEntered(MouseEvent e) {
+
+        }
+
+        @Override
+        public void mouseExited(MouseEvent e) {
+
+        }
+    }
+
+    /**
+     * Encapsulated KeyListener.
+     *
+     * <p>
+     * Queues the events for current screen´s input methods.
+     *
+     * @author Niko Mustonen mustonen.niko@gmail.com
+     * @version 2016.1123
+     * @since 1.8
+     */
+    private class KeyInput implements KeyListener {
+
+        @Override
+        public void keyTyped(KeyEvent e) {
+
+        }
+
+        @Override
+        public void keyPressed(KeyEvent e) {
+            enqueue(InputRecorder.KEY_PRESS, e);
+        }
+
+        @Override
+        public void keyReleased(KeyEvent e) {
+            enqueue(InputRecorder.KEY_RELEASE, e);
+        }
+    }
+
+    /**
+     * Sets the InputListener to desired JPanel.
+     *
+     * @param panel JPanel to be setted on.
+     */
+    public final void setThisInputListenerToJPanel(JPanel panel) {
+        panel.addMouseListener(new MouseInput());
+        panel.addKeyListener(new KeyInput());
+    }
+
+    /**
+     * Sets current screen to be handled.
+     *
+     * @param newScreen New Screen element.
+     */
+    public final void setCurrentScreen(Screen newScreen) {
+        this.currentScreen = newScreen;
+
+        if (newScreen != null) {
+            newScreen.setInputListener(this);
+        }
+    }
+
+    /**
+     * Gives the queued events to the current screen.
+     *
+     * <p>
+     * Is called by the game loop at the beginning of every tick. If events
+     * were dropped, all keys and mouse buttons are released after the queued
+     * events and the release is recorded.
+     *
+     * @param tick Tick which is about to be updated.
+     */
+    public final void processEvents(long tick) {
+
+        this.tick = tick;
+        boolean isEventDropped = isOverflowed.getAndSet(false);
+        queue.drain(handler);
+
+        if (isEventDropped) {
+            System.err.println("Input queue overflowed on tick " + tick
+                    + ", all keys and mouse buttons released");
+
+            releaseAll();
+            InputRecorder r = recorder;
+
+            if (r != null) {
+                r.recordOverflow(tick);
+            }
+        }
+    }
+
+    /**
+     * Gives the queued events to the current screen and records the delta of
+     * the update.
+     *
+     * <p>
+     * Is called by the game loop at the beginning of every tick, so a
+     * replay of the recorded input updates with the same deltas.
+     *
+     * @param tick Tick which is about to be updated.
+     * @param delta Delta of the update of the tick in milliseconds.
+     */
+    public final void processEvents(long tick, long delta) {
+
+        InputRecorder r = recorder;
+
+        if (r != null) {
+            r.recordDelta(tick, delta);
+        }
+
+        processEvents(tick);
+    }
+
+    /**
+     * Tells whether a key is down.
+     *
+     * @param keyCode Key code from KeyEvent.
+     * @return Whether the key is down.
+     */
+    public final boolean isKeyDown(int keyCode) {
+
+        return keyCode >= 0 && keyCode < KEY_CODES
+                && (keys[keyCode >>> 6] & 1L << keyCode) != 0;
+    }
+
+    /**
+     * Tells whether a mouse button is down.
+     *
+     * @param button Button from MouseEvent.
+     * @return Whether the button is down.
+     */
+    public final boolean isMouseButtonDown(int button) {
+
+        return button >= 0 && button < 32 && (mouseButtons & 1 << button) != 0;
+    }
+
+    /**
+     * Sets the recorder which records all the events.
+     *
+     * @param recorder Recorder or null to stop recording.
+     */
+    public final void setRecorder(InputRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Queues an event for the next tick.
+     *
+     * @param type Type of the event.
+     * @param e Event.
+     * @return False if the queue is full and the event was not queued.
+     */
+    final boolean post(int type, InputEvent e) {
+        return queue.offer(type, e);
+    }
+
+    /**
+     * Releases all keys and mouse buttons.
+     */
+    final void releaseAll() {
+        Arrays.fill(keys, 0);
+        mouseButtons = 0;
+    }
+
+    /**
+     * Queues an event from the event dispatch thread for the next tick.
+     *
+     * <p>
+     * Events which do not fit in the queue are dropped and the drop is
+     * handled on the next tick.
+     *
+     * @param type Type of the event.
+     * @param e Event.
+     */
+    private void enqueue(int type, InputEvent e) {
+
+        if (!post(type, e)) {
+            isOverflowed.set(true);
+        }
+    }
+
+    /**
+     * Updates the key states, records the event and gives it to the current
+     * screen.
+     *
+     * @param type Type of the event.
+     * @param e Event.
+     */
+    private void handle(int type, InputEvent e) {
+
+        switch (type) {
+            case InputRecorder.KEY_PRESS:
+                setKey(((KeyEvent) e).getKeyCode(), true);
+                break;
+            case InputRecorder.KEY_RELEASE:
+                setKey(((KeyEvent) e).getKeyCode(), false);
+                break;
+            case InputRecorder.MOUSE_PRESS:
+                setMouseButton(((MouseEvent) e).getButton(), true);
+                break;
+            case InputRecorder.MOUSE_RELEASE:
+                setMouseButton(((MouseEvent) e).getButton(), false);
+                break;
+        }
+
+        InputRecorder r = recorder;
+
+        if (r != null) {
+            r.record(tick, type, e);
+        }
+
+        if (currentScreen == null) {
+            return;
+        }
+
+        switch (type) {
+            case InputRecorder.KEY_PRESS:
+                currentScreen.keyPress((KeyEvent) e);
+                break;
+            case InputRecorder.KEY_RELEASE:
+                currentScreen.keyRelease((KeyEvent) e);
+                break;
+            case InputRecorder.MOUSE_PRESS:
+                currentScreen.mousePress((MouseEvent) e);
+                break;
+            case InputRecorder.MOUSE_RELEASE:
+                currentScreen.mouseRelease((MouseEvent) e);
+                break;
+        }
+    }
+
+    /**
+     * Sets the state of a key.
+     *
+     * @param keyCode Key code from KeyEvent.
+     * @param isDown Whether the key is down.
+     */
+    private void setKey(int keyCode, boolean isDown) {
+
+        if (keyCode >= 0 && keyCode < KEY_CODES) {
+
+            if (isDown) {
+                keys[keyCode >>> 6] |= 1L << keyCode;
+            } else {
+                keys[keyCode >>> 6] &= ~(1L << keyCode);
+            }
+        }
+    }
+
+    /**
+     * Sets the state of a mouse button.
+     *
+     * @param button Button from MouseEvent.
+     * @param isDown Whether the button is down.
+     */
+    private void setMouseButton(int button, boolean isDown) {
+
+        if (button >= 0 && button < 32) {
+
+            if (isDown) {
+                mouseButtons |= 1 << button;
+            } else {
+                mouseButtons &= ~(1 << button);
+            }
+        }
+    }
+}
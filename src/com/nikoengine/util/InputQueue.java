@@ -0,0 +1,123 @@
+package com.nikoengine.util;
+
+import java.awt.event.InputEvent;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Passes input events from one thread to another without locking.
+ *
+ * <p>
+ * Only one thread may add events and only one thread may take them. The
+ * event dispatch thread adds the events and the game loop takes them at the
+ * beginning of every tick, so the event dispatch thread never touches the
+ * game state.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+class InputQueue {
+
+    /**
+     * Holds the events in a ring.
+     */
+    private final InputEvent[] events;
+
+    /**
+     * Holds the types of the events.
+     */
+    private final int[] types;
+
+    /**
+     * Turns a position into an index of the ring.
+     */
+    private final int mask;
+
+    /**
+     * Holds the position of the next event to be taken.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Holds the position of the next event to be added.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Receives events taken from the queue.
+     *
+     * @author Niko Mustonen mustonen.niko@gmail.com
+     * @version 2026.1019
+     * @since 1.8
+     */
+    interface EventReceiver {
+
+        /**
+         * Receives an event.
+         *
+         * @param type Type of the event.
+         * @param e Event.
+         */
+        void event(int type, InputEvent e);
+    }
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param capacity Amount of events the queue can hold, rounded up to a
+     * power of two.
+     */
+    InputQueue(int capacity) {
+
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        events = new InputEvent[size];
+        types = new int[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Adds an event to the end of the queue.
+     *
+     * @param type Type of the event.
+     * @param e Event.
+     * @return False if the queue is full and the event was dropped.
+     */
+    boolean offer(int type, InputEvent e) {
+
+        long t = tail.get();
+
+        if (t - head.get() == events.length) {
+            return false;
+        }
+
+        int i = (int) t & mask;
+        events[i] = e;
+        types[i] = type;
+        tail.lazySet(t + 1);
+
+        return true;
+    }
+
+    /**
+     * Takes all the events in the queue in the order they were added.
+     *
+     * @param receiver Receives every event.
+     * @return Amount of events taken.
+     */
+    int drain(EventReceiver receiver) {
+
+        long h = head.get();
+        long t = tail.get();
+
+        for (long p = h; p < t; p++) {
+            int i = (int) p & mask;
+            InputEvent e = events[i];
+            events[i] = null;
+            receiver.event(types[i], e);
+        }
+
+        head.lazySet(t);
+
+        return (int) (t - h);
+    }
+}
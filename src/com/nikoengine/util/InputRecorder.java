@@ -0,0 +1,231 @@
+package com.nikoengine.util;
+
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Records player input to a binary log which can be replayed later.
+ *
+ * <p>
+ * Every event is stamped with the tick of the game loop whose update sees it
+ * first, so replaying the log with InputReplay gives the screen the same
+ * input on the same ticks. The delta which the game loop gives to the update
+ * is written whenever it changes, so the replay updates the screen with the
+ * same deltas. A tick on which events were dropped and all keys released is
+ * written too. Ticks and key codes are written as variable length numbers, so
+ * a key event takes about five bytes.
+ *
+ * <pre>
+ * header:   int magic, int version, int tick duration in milliseconds
+ * event:    varint tick delta, byte type, varint code, varint modifiers,
+ *           key events: varint key char, mouse events: short x, short y
+ * delta:    varint tick delta, byte type, varint delta in milliseconds
+ * overflow: varint tick delta, byte type
+ * </pre>
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class InputRecorder implements AutoCloseable {
+
+    /**
+     * Defines the magic number at the beginning of the log, "NKIN".
+     */
+    static final int MAGIC = 0x4E4B494E;
+
+    /**
+     * Defines the version of the log format.
+     */
+    static final int VERSION = 3;
+
+    /**
+     * Defines the type of a key press event.
+     */
+    static final int KEY_PRESS = 0;
+
+    /**
+     * Defines the type of a key release event.
+     */
+    static final int KEY_RELEASE = 1;
+
+    /**
+     * Defines the type of a mouse press event.
+     */
+    static final int MOUSE_PRESS = 2;
+
+    /**
+     * Defines the type of a mouse release event.
+     */
+    static final int MOUSE_RELEASE = 3;
+
+    /**
+     * Defines the type of a change of the update delta.
+     */
+    static final int DELTA = 4;
+
+    /**
+     * Defines the type of a release of all keys after dropped events.
+     */
+    static final int OVERFLOW = 5;
+
+    /**
+     * Writes the log.
+     */
+    private final DataOutputStream out;
+
+    /**
+     * Holds the tick of the previous event.
+     */
+    private long lastTick;
+
+    /**
+     * Holds the update delta of the previous tick in milliseconds.
+     */
+    private long lastDelta;
+
+    /**
+     * Creates a recorder which writes the log to a file.
+     *
+     * @param fileName Path to the log file.
+     * @param tickMillis Duration of one tick in milliseconds.
+     * @throws IOException If the file can not be written.
+     */
+    public InputRecorder(String fileName, int tickMillis) throws IOException {
+        this(new FileOutputStream(fileName), tickMillis);
+    }
+
+    /**
+     * Creates a recorder which writes the log to a stream.
+     *
+     * @param out Stream where the log is written.
+     * @param tickMillis Duration of one tick in milliseconds.
+     * @throws IOException If the header can not be written.
+     */
+    public InputRecorder(OutputStream out, int tickMillis) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.out.writeInt(MAGIC);
+        this.out.writeInt(VERSION);
+        this.out.writeInt(tickMillis);
+        this.out.flush();
+        this.lastDelta = tickMillis;
+    }
+
+    /**
+     * Records an event.
+     *
+     * <p>
+     * Every event is written to the stream right away, so the log is complete
+     * even if the game is closed without closing the recorder.
+     *
+     * @param tick Tick which sees the event first.
+     * @param type Type of the event.
+     * @param e Event.
+     */
+    synchronized void record(long tick, int type, InputEvent e) {
+
+        try {
+            writeTick(tick, type);
+
+            if (e instanceof KeyEvent) {
+                KeyEvent ke = (KeyEvent) e;
+                writeVarLong(ke.getKeyCode());
+                writeVarLong(ke.getModifiersEx());
+                writeVarLong(ke.getKeyChar());
+            } else {
+                MouseEvent me = (MouseEvent) e;
+                writeVarLong(me.getButton());
+                writeVarLong(me.getModifiersEx());
+                out.writeShort(me.getX());
+                out.writeShort(me.getY());
+            }
+
+            out.flush();
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Records the update delta of a tick if it differs from the previous
+     * tick.
+     *
+     * @param tick Tick which is updated with the delta.
+     * @param delta Update delta in milliseconds.
+     */
+    synchronized void recordDelta(long tick, long delta) {
+
+        if (delta == lastDelta) {
+            return;
+        }
+
+        try {
+            writeTick(tick, DELTA);
+            writeVarLong(Math.max(0, delta));
+            out.flush();
+            lastDelta = delta;
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Records that events were dropped and all keys and mouse buttons were
+     * released after the events of a tick.
+     *
+     * @param tick Tick whose events were followed by the release.
+     */
+    synchronized void recordOverflow(long tick) {
+
+        try {
+            writeTick(tick, OVERFLOW);
+            out.flush();
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Closes the log.
+     *
+     * @throws IOException If the stream can not be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Writes the beginning of a record.
+     *
+     * @param tick Tick of the record.
+     * @param type Type of the record.
+     * @throws IOException If writing fails.
+     */
+    private void writeTick(long tick, int type) throws IOException {
+        writeVarLong(Math.max(0, tick - lastTick));
+        out.writeByte(type);
+        lastTick = Math.max(lastTick, tick);
+    }
+
+    /**
+     * Writes a non-negative number with seven bits in a byte.
+     *
+     * @param value Number to be written.
+     * @throws IOException If writing fails.
+     */
+    private void writeVarLong(long value) throws IOException {
+
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        out.writeByte((int) value);
+    }
+}
@@ -0,0 +1,478 @@
+package com.nikoengine.util;
+
+import java.awt.Graphics2D;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import javax.swing.JPanel;
+
+import com.nikoengine.application.Application;
+import com.nikoengine.screen.Screen;
+
+/**
+ * Replays input recorded with InputRecorder into a screen without a window.
+ *
+ * <p>
+ * The screen is updated with the deltas the game loop used when the log was
+ * recorded and drawn to an image, one tick after another. Logs of the first
+ * version have no deltas and are updated with the tick duration. Keys are
+ * released on the ticks where the recorded game dropped events. Events are
+ * given to the screen before the update of the tick they were recorded on,
+ * like the game loop does, so the same log gives the same result as the
+ * recorded game on every run.
+ * Time of every tick is measured, which makes a recorded match usable as a
+ * performance test.
+ *
+ * <pre>
+ * java com.nikoengine.util.InputReplay match.input tankgame.GameScreen
+ * </pre>
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class InputReplay {
+
+    /**
+     * Holds the duration of one tick in milliseconds.
+     */
+    private final int tickMillis;
+
+    /**
+     * Holds the recorded events in the order they were recorded.
+     */
+    private final InputEvent[] events;
+
+    /**
+     * Holds the tick of every event.
+     */
+    private final long[] ticks;
+
+    /**
+     * Holds the type of every event.
+     */
+    private final int[] types;
+
+    /**
+     * Holds the ticks where the update delta changes.
+     */
+    private final long[] deltaTicks;
+
+    /**
+     * Holds the update delta from each of the delta ticks on.
+     */
+    private final long[] deltas;
+
+    /**
+     * Holds the ticks on which all keys and mouse buttons were released.
+     */
+    private final long[] overflowTicks;
+
+    /**
+     * Holds frame times of the ticks of a replay.
+     *
+     * @author Niko Mustonen mustonen.niko@gmail.com
+     * @version 2026.1019
+     * @since 1.8
+     */
+    public static class FrameTimes {
+
+        /**
+         * Holds the frame times in nanoseconds in the order of the ticks.
+         */
+        private final long[] nanos;
+
+        /**
+         * Holds the frame times sorted from shortest to longest.
+         */
+        private final long[] sorted;
+
+        /**
+         * Creates frame times.
+         *
+         * @param nanos Frame times in nanoseconds.
+         */
+        FrameTimes(long[] nanos) {
+            this.nanos = nanos;
+            this.sorted = nanos.clone();
+            Arrays.sort(sorted);
+        }
+
+        /**
+         * Returns the amount of the measured ticks.
+         *
+         * @return Amount of ticks.
+         */
+        public int getAmount() {
+            return nanos.length;
+        }
+
+        /**
+         * Returns the frame time of a tick.
+         *
+         * @param tick Tick.
+         * @return Frame time in milliseconds.
+         */
+        public double getFrameTime(int tick) {
+            return nanos[tick] / 1e6;
+        }
+
+        /**
+         * Returns the frame time which this percentage of the ticks did not
+         * exceed.
+         *
+         * @param percentile Percentage from 0 to 100.
+         * @return Frame time in milliseconds.
+         */
+        public double getPercentile(double percentile) {
+
+            if (sorted.length == 0) {
+                return 0;
+            }
+
+            int i = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, i))] / 1e6;
+        }
+
+        /**
+         * Returns the average frame time.
+         *
+         * @return Frame time in milliseconds.
+         */
+        public double getAverage() {
+
+            long sum = 0;
+
+            for (long n : nanos) {
+                sum += n;
+            }
+
+            return nanos.length == 0 ? 0 : sum / 1e6 / nanos.length;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d ticks, average %.3f ms, p50 %.3f ms, "
+                    + "p99 %.3f ms, max %.3f ms", getAmount(), getAverage(),
+                    getPercentile(50), getPercentile(99),
+                    getPercentile(100));
+        }
+    }
+
+    /**
+     * Reads a log from a file.
+     *
+     * @param fileName Path to the log file.
+     * @throws IOException If the file can not be read or is not a log.
+     */
+    public InputReplay(String fileName) throws IOException {
+        this(new FileInputStream(fileName));
+    }
+
+    /**
+     * Reads a log from a stream and closes the stream.
+     *
+     * @param in Stream where the log is read.
+     * @throws IOException If the stream can not be read or is not a log.
+     */
+    public InputReplay(InputStream in) throws IOException {
+
+        ArrayList<InputEvent> readEvents = new ArrayList<>();
+        long[] readTicks = new long[16];
+        int[] readTypes = new int[16];
+        long[] readDeltaTicks = new long[16];
+        long[] readDeltas = new long[16];
+        int amountOfDeltas = 0;
+        long[] readOverflowTicks = new long[4];
+        int amountOfOverflows = 0;
+        JPanel source = new JPanel();
+
+        try (DataInputStream din = new DataInputStream(
+                new BufferedInputStream(in))) {
+
+            int version = din.readInt() == InputRecorder.MAGIC
+                    ? din.readInt() : -1;
+
+            if (version < 1 || version > InputRecorder.VERSION) {
+                throw new IOException("Not an input log");
+            }
+
+            tickMillis = din.readInt();
+            long tick = 0;
+
+            while (true) {
+                int first = din.read();
+
+                if (first < 0) {
+                    break;
+                }
+
+                try {
+                    tick += readVarLong(din, first);
+                    int type = din.readUnsignedByte();
+
+                    if (type == InputRecorder.DELTA) {
+                        long delta = readVarLong(din, din.readUnsignedByte());
+
+                        if (amountOfDeltas == readDeltas.length) {
+                            readDeltaTicks = Arrays.copyOf(readDeltaTicks,
+                                    amountOfDeltas * 2);
+                            readDeltas = Arrays.copyOf(readDeltas,
+                                    amountOfDeltas * 2);
+                        }
+
+                        readDeltaTicks[amountOfDeltas] = tick;
+                        readDeltas[amountOfDeltas++] = delta;
+                        continue;
+                    }
+
+                    if (type == InputRecorder.OVERFLOW) {
+
+                        if (amountOfOverflows == readOverflowTicks.length) {
+                            readOverflowTicks = Arrays.copyOf(
+                                    readOverflowTicks, amountOfOverflows * 2);
+                        }
+
+                        readOverflowTicks[amountOfOverflows++] = tick;
+                        continue;
+                    }
+
+                    InputEvent e = readEvent(din, source, type,
+                            tick * tickMillis);
+
+                    if (readEvents.size() == readTicks.length) {
+                        readTicks = Arrays.copyOf(readTicks,
+                                readTicks.length * 2);
+                        readTypes = Arrays.copyOf(readTypes,
+                                readTypes.length * 2);
+                    }
+
+                    readTicks[readEvents.size()] = tick;
+                    readTypes[readEvents.size()] = type;
+                    readEvents.add(e);
+                } catch (EOFException e) {
+                    break;
+                }
+            }
+        }
+
+        events = readEvents.toArray(new InputEvent[readEvents.size()]);
+        ticks = Arrays.copyOf(readTicks, events.length);
+        types = Arrays.copyOf(readTypes, events.length);
+        deltaTicks = Arrays.copyOf(readDeltaTicks, amountOfDeltas);
+        deltas = Arrays.copyOf(readDeltas, amountOfDeltas);
+        overflowTicks = Arrays.copyOf(readOverflowTicks, amountOfOverflows);
+    }
+
+    /**
+     * Returns the amount of the recorded events.
+     *
+     * @return Amount of events.
+     */
+    public int getAmountOfEvents() {
+        return events.length;
+    }
+
+    /**
+     * Returns the amount of ticks which covers all the recorded events,
+     * deltas and releases.
+     *
+     * @return Amount of ticks.
+     */
+    public int getLength() {
+
+        long last = -1;
+
+        if (events.length > 0) {
+            last = ticks[events.length - 1];
+        }
+
+        if (deltas.length > 0) {
+            last = Math.max(last, deltaTicks[deltas.length - 1]);
+        }
+
+        if (overflowTicks.length > 0) {
+            last = Math.max(last, overflowTicks[overflowTicks.length - 1]);
+        }
+
+        return (int) last + 1;
+    }
+
+    /**
+     * Returns the duration of one tick.
+     *
+     * @return Duration in milliseconds.
+     */
+    public int getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * Replays the log into a screen and measures every tick.
+     *
+     * @param screen Screen which receives the input.
+     * @param amountOfTicks Amount of ticks to be run.
+     * @param draw Whether the screen is drawn on every tick.
+     * @return Frame times of the ticks.
+     */
+    public FrameTimes replay(Screen screen, int amountOfTicks, boolean draw) {
+
+        BufferedImage image = null;
+        Graphics2D g = null;
+
+        if (draw) {
+            image = new BufferedImage(Application.getScreenWidth(),
+                    Application.getScreenHeight(), BufferedImage.TYPE_INT_RGB);
+            g = image.createGraphics();
+        }
+
+        InputListener input = new InputListener();
+        input.setCurrentScreen(screen);
+        long[] nanos = new long[amountOfTicks];
+        int next = 0;
+        int nextDelta = 0;
+        int nextOverflow = 0;
+        long delta = tickMillis;
+
+        for (int tick = 0; tick < amountOfTicks; tick++) {
+            long start = System.nanoTime();
+
+            while (next < events.length && ticks[next] <= tick) {
+
+                if (input.post(types[next], events[next])) {
+                    next++;
+                } else {
+                    input.processEvents(tick);
+                }
+            }
+
+            input.processEvents(tick);
+
+            while (nextOverflow < overflowTicks.length
+                    && overflowTicks[nextOverflow] <= tick) {
+                input.releaseAll();
+                nextOverflow++;
+            }
+
+            while (nextDelta < deltas.length
+                    && deltaTicks[nextDelta] <= tick) {
+                delta = deltas[nextDelta++];
+            }
+
+            screen.update(delta);
+
+            if (draw) {
+                g.fillRect(0, 0, image.getWidth(), image.getHeight());
+                screen.draw(g);
+            }
+
+            nanos[tick] = System.nanoTime() - start;
+        }
+
+        if (g != null) {
+            g.dispose();
+        }
+
+        return new FrameTimes(nanos);
+    }
+
+    /**
+     * Replays a log into a new screen and prints the frame times.
+     *
+     * @param args Path to the log, class name of the screen and optionally
+     * the amount of ticks.
+     * @throws Exception If the log can not be read or the screen can not be
+     * created.
+     */
+    public static void main(String... args) throws Exception {
+
+        if (args.length < 2) {
+            System.out.println("Usage: InputReplay <log> <screen class> "
+                    + "[ticks]");
+            return;
+        }
+
+        InputReplay replay = new InputReplay(args[0]);
+        Screen screen = (Screen) Class.forName(args[1])
+                .getDeclaredConstructor().newInstance();
+        int amountOfTicks = args.length > 2 ? Integer.parseInt(args[2])
+                : replay.getLength();
+
+        System.out.println(replay.replay(screen, amountOfTicks, true));
+    }
+
+    /**
+     * Reads the rest of an event and creates it.
+     *
+     * @param in Stream where the event is read.
+     * @param source Source component of the event.
+     * @param type Type of the event.
+     * @param when Time of the event in milliseconds.
+     * @return Event.
+     * @throws IOException If the event can not be read.
+     */
+    private static InputEvent readEvent(DataInputStream in, JPanel source,
+            int type, long when) throws IOException {
+
+        int code = (int) readVarLong(in, in.readUnsignedByte());
+        int modifiers = (int) readVarLong(in, in.readUnsignedByte());
+
+        switch (type) {
+            case InputRecorder.KEY_PRESS:
+            case InputRecorder.KEY_RELEASE:
+                char keyChar = (char) readVarLong(in, in.readUnsignedByte());
+
+                return new KeyEvent(source, type == InputRecorder.KEY_PRESS
+                        ? KeyEvent.KEY_PRESSED : KeyEvent.KEY_RELEASED, when,
+                        modifiers, code, keyChar);
+            case InputRecorder.MOUSE_PRESS:
+            case InputRecorder.MOUSE_RELEASE:
+                int x = in.readShort();
+                int y = in.readShort();
+
+                return new MouseEvent(source,
+                        type == InputRecorder.MOUSE_PRESS
+                        ? MouseEvent.MOUSE_PRESSED : MouseEvent.MOUSE_RELEASED,
+                        when, modifiers, x, y, 1, false, code);
+            default:
+                throw new IOException("Unknown input event type " + type);
+        }
+    }
+
+    /**
+     * Reads a number written with seven bits in a byte.
+     *
+     * @param in Stream where the number is read.
+     * @param first First byte of the number.
+     * @return Number.
+     * @throws IOException If the number can not be read.
+     */
+    private static long readVarLong(DataInputStream in, int first)
+            throws IOException {
+
+        long value = first & 0x7F;
+        int shift = 7;
+
+        while ((first & 0x80) != 0) {
+
+            if (shift > 63) {
+                throw new IOException("Corrupted input log");
+            }
+
+            first = in.readUnsignedByte();
+            value |= (long) (first & 0x7F) << shift;
+            shift += 7;
+        }
+
+        return value;
+    }
+}
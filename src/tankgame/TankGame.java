@@ -1,63 +1,65 @@
-package tankgame;
-
-import com.nikoengine.application.*;
-import java.awt.Graphics2D;
-
-/**
- * Starting point for tank game.
- *
- * <p>
- * Starts new window and game loop and instantiates new game screen.
- *
- * @author Niko Mustonen mustonen.niko@gmail.com
- * @version 2016.1215
- * @since 1.8
- */
-public class TankGame extends Application {
-
-    /**
-     * Holds current game screen.
-     */
-    GameScreen game;
-
-    /**
-     * Starts the program.
-     *
-     * @param args Not used.
-     */
-    public static void main(String... args) {
-
-        new TankGame().start();
-    }
-
-    /**
-     * Initializes game screen and input listening.
-     */
-    @Override
-    public void initialize() {
-
-        game = new GameScreen();
-        startInputListener();
-        setScreen(game);
-    }
-
-    /**
-     * Draws current screen.
-     *
-     * @param g Graphics element for drawing.
-     */
-    @Override
-    public void draw(Graphics2D g) {
-        game.draw(g);
-    }
-
-    /**
-     * Updates current screen.
-     *
-     * @param delta Delta time.
-     */
-    @Override
-    public void update(float delta) {
-        game.update(delta);
-    }
-}
+package tankgame;
+
+import com.nikoengine.application.*;
+import com.nikoengine.audio.AudioMixer;
+import com.nikoengine.resources.AssetManager;
+import java.awt.Graphics2D;
+
+/**
+ * Starting point for tank game.
+ *
+ * <p>
+ * Starts new window and game loop and instantiates new game screen.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2016.1215
+ * @since 1.8
+ */
+public class TankGame extends Application {
+
+    /**
+     * Starts the program.
+     *
+     * @param args Not used.
+     */
+    public static void main(String... args) {
+
+        new TankGame().start();
+    }
+
+    /**
+     * Starts input listening, audio and loading the game screen.
+     *
+     * <p>
+     * Sounds start loading before the game screen is created, so they are
+     * usually ready when the screen asks for them.
+     */
+    @Override
+    public void initialize() {
+
+        startInputListener();
+        startAudio(AudioMixer.DEFAULT_VOICES, AudioMixer.DEFAULT_BUFFER_FRAMES);
+        AssetManager.getDefault().preload(GameScreen.SHOT_SOUND);
+        getScreenManager().push(GameScreen::new);
+    }
+
+    /**
+     * Draws current screen.
+     *
+     * @param g Graphics element for drawing.
+     */
+    @Override
+    public void draw(Graphics2D g) {
+        getScreenManager().draw(g);
+    }
+
+    /**
+     * Updates current screen.
+     *
+     * @param delta Delta time.
+     */
+    @Override
+    public void update(float delta) {
+        getScreenManager().update(delta);
+    }
+}
@@ -0,0 +1,101 @@
+package com.nikoengine.camera;
+
+import com.nikoengine.geometry.Point3D;
+import com.nikoengine.geometry.Polygon3D;
+import com.nikoengine.geometry.Vector3D;
+import com.nikoengine.geometry.shapes.Wall;
+import com.nikoengine.job.JobSystem;
+import java.awt.Color;
+
+/**
+ * Measures projecting the points of a scene with ProjectionKernel.
+ *
+ * <pre>
+ * java com.nikoengine.camera.ProjectionBenchmark 10 100
+ * </pre>
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public final class ProjectionBenchmark {
+
+    /**
+     * Prevents creating instances.
+     */
+    private ProjectionBenchmark() {
+    }
+
+    /**
+     * Compares projecting the corners of every polygon with projecting the
+     * shared points of the scene in a batch while the camera turns, and
+     * shows the time of an update when nothing changes.
+     *
+     * @param args Optionally the amount of walls and rounds.
+     */
+    public static void main(String... args) {
+
+        int wallAmount = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        Scene scene = new Scene();
+        Scene.setCurrent(scene);
+
+        for (int i = 0; i < wallAmount; i++) {
+            new Wall(new Point3D(-40, 0, -i * 10), new Point3D(40, 0, -i * 10),
+                    -12, 50, 50, Color.RED, Color.BLUE);
+        }
+
+        Camera3D cam = new Camera3D(new Point3D(0, -4, 60),
+                new Vector3D(0, 0, 1), 800, 600);
+        Scene.setCurrent(null);
+        cam.updateViewMatrix();
+
+        Polygon3D[] polygons = scene.getPolygons();
+        int polygonAmount = scene.getPolygonAmount();
+        int cornerAmount = 0;
+
+        for (int i = 0; i < polygonAmount; i++) {
+            cornerAmount += polygons[i].getPoints().length;
+        }
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+
+            for (int r = 0; r < rounds; r++) {
+                cam.rotateXZ(1);
+                cam.updateViewMatrix();
+                JobSystem.getDefault().parallelFor(0, polygonAmount, 256,
+                        (from, to) -> {
+
+                    for (int i = from; i < to; i++) {
+                        polygons[i].updateDrawingPosition(cam);
+                    }
+                });
+            }
+
+            long corners = System.nanoTime() - start;
+            start = System.nanoTime();
+
+            for (int r = 0; r < rounds; r++) {
+                cam.rotateXZ(1);
+                cam.updateViewMatrix();
+                cam.projectScene();
+            }
+
+            long batch = System.nanoTime() - start;
+            start = System.nanoTime();
+
+            for (int r = 0; r < rounds; r++) {
+                cam.projectScene();
+            }
+
+            long idle = System.nanoTime() - start;
+
+            System.out.printf("%d corners: per polygon %.3f ms, "
+                    + "batch %.3f ms, unchanged %.3f ms%n", cornerAmount,
+                    corners / 1e6 / rounds, batch / 1e6 / rounds,
+                    idle / 1e6 / rounds);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.nikoengine.file;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests loading save files.
+ *
+ * @author Niko Mustonen mustonen.niko@gmail.com
+ * @version 2026.1019
+ * @since 1.8
+ */
+public class SaveFileHandlerTest {
+
+    /**
+     * Holds a copy of the test save file.
+     */
+    private File file;
+
+    /**
+     * Copies the legacy save file to a temporary file.
+     *
+     * <p>
+     * The legacy file was written with Java serialization by the first
+     * version of the save file classes. Segment player has five fields and
+     * the save file has five segments, so the fifth field and the fifth
+     * segment were lost when the arrays grew and left empty slots behind.
+     *
+     * @throws IOException If the file can not be copied.
+     */
+    @Before
+    public void setUp() throws IOException {
+
+        file = File.createTempFile("legacy", ".sav");
+
+        try (InputStream in = getClass().getResourceAsStream("legacy.sav")) {
+            Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Deletes the temporary file and its journal.
+     */
+    @After
+    public void tearDown() {
+        file.delete();
+        SaveJournal.getFile(file).delete();
+    }
+
+    /**
+     * Tests that empty slots of a legacy save file are dropped on load.
+     *
+     * @throws IOException If the file can not be read.
+     */
+    @Test
+    public void testLoadLegacyFile() throws IOException {
+
+        SaveFile save = SaveFileHandler.loadFile(file.getPath());
+        assertEquals(4, save.getAmountOfDataSegments());
+
+        DataSegment player = save.getSegment("player");
+        assertNotNull(player);
+        assertEquals(4, player.getAmountOfDataFields());
+
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, player.getInt("field" + i, -1));
+        }
+
+        assertNull(player.getDataField("field5"));
+
+        for (int i = 1; i <= 3; i++) {
+            assertEquals("value" + i, save.getSegment("segment" + i)
+                    .getString("key", null));
+        }
+
+        assertNull(save.getSegment("segment4"));
+    }
+
+    /**
+     * Tests that a loaded legacy save file is saved in the binary format to
+     * the file it was loaded from.
+     *
+     * @throws IOException If the file can not be read.
+     */
+    @Test
+    public void testSaveToLegacyFile() throws IOException {
+
+        SaveFile save = SaveFileHandler.loadFile(file.getPath());
+        save.save("player", "field5", 5);
+        save.save("segment4", "key", "value4");
+        SaveFileHandler.saveFileAsync(save).join();
+
+        save = SaveFileHandler.loadFile(file.getPath());
+        assertEquals(5, save.getSegment("player").getInt("field5", -1));
+        assertEquals("value4", save.getSegment("segment4")
+                .getString("key", null));
+        assertEquals(5, save.getAmountOfDataSegments());
+
+        try (DataInputStream in = new DataInputStream(
+                new FileInputStream(file))) {
+
+            assertTrue(in.readUnsignedShort() != 0xACED);
+        }
+    }
+
+    /**
+     * Tests that changes are appended to the journal once a loaded legacy
+     * save file has been saved in full.
+     *
+     * @throws IOException If the file can not be read.
+     */
+    @Test
+    public void testSaveChangesAfterLegacyFile() throws IOException {
+
+        SaveFile save = SaveFileHandler.loadFile(file.getPath());
+        assertTrue(save.isSnapshotNeeded());
+
+        save.save("player", "field1", 10);
+        SaveFileHandler.saveChanges(save).join();
+        assertFalse(save.isSnapshotNeeded());
+
+        long snapshotSize = file.length();
+        save.save("player", "field2", 20);
+        SaveFileHandler.saveChanges(save).join();
+
+        assertEquals(snapshotSize, file.length());
+        assertTrue(SaveJournal.getFile(file).length() > 0);
+
+        save = SaveFileHandler.loadFile(file.getPath());
+        assertEquals(10, save.getSegment("player").getInt("field1", -1));
+        assertEquals(20, save.getSegment("player").getInt("field2", -1));
+    }
+}